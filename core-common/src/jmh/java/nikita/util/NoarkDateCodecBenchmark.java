@@ -0,0 +1,84 @@
+package nikita.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
+import static nikita.config.Constants.NOARK_DATE_TIME_FORMAT_PATTERN;
+
+/**
+ * NoarkDateCodec against the SimpleDateFormat it replaced. Run with
+ *
+ *   mvn -P benchmark -pl core-common test-compile exec:exec
+ *
+ * Add -Dbenchmark.threads=4 to run every benchmark in four threads at once. The SimpleDateFormat baseline gets
+ * one instance per thread, the least a correct caller has to do, so its figures are a lower bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NoarkDateCodecBenchmark {
+
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat(NOARK_DATE_FORMAT_PATTERN);
+    private final SimpleDateFormat dateTimeFormat = new SimpleDateFormat(NOARK_DATE_TIME_FORMAT_PATTERN);
+
+    // Fields rather than constants, so the JIT can not fold the work away
+    private String dateText = "2017-01-31";
+    private String dateTimeText = "2017-01-31T13:45:07";
+    private Date date = new Date(1485870307000L);
+
+    @Benchmark
+    public Date parseDateSimpleDateFormat() throws ParseException {
+        return dateFormat.parse(dateText);
+    }
+
+    @Benchmark
+    public Date parseDateCodec() {
+        return NoarkDateCodec.parseDate(dateText);
+    }
+
+    @Benchmark
+    public Date parseDateTimeSimpleDateFormat() throws ParseException {
+        return dateTimeFormat.parse(dateTimeText);
+    }
+
+    @Benchmark
+    public Date parseDateTimeCodec() {
+        return NoarkDateCodec.parseDateTime(dateTimeText);
+    }
+
+    @Benchmark
+    public String formatDateSimpleDateFormat() {
+        return dateFormat.format(date);
+    }
+
+    @Benchmark
+    public String formatDateCodec() {
+        return NoarkDateCodec.formatDate(date);
+    }
+
+    @Benchmark
+    public String formatDateTimeSimpleDateFormat() {
+        return dateTimeFormat.format(date);
+    }
+
+    @Benchmark
+    public String formatDateTimeCodec() {
+        return NoarkDateCodec.formatDateTime(date);
+    }
+}
@@ -0,0 +1,154 @@
+package nikita.util;
+
+import nikita.model.noark5.v4.DocumentDescription;
+import nikita.model.noark5.v4.File;
+import nikita.model.noark5.v4.Fonds;
+import nikita.model.noark5.v4.Record;
+import nikita.model.noark5.v4.Series;
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import javax.persistence.Entity;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second of a synthetic fonds structure (one fonds, 10 series, 10 files in each series, 10 records in
+ * each file and a document description for each record) into an in-memory H2 database, with Envers auditing as
+ * in the application. The database is reached over TCP, so that every statement and sequence call is a round
+ * trip, as it is to PostgreSQL. Run with
+ *
+ *   mvn -P benchmark -pl core-common test-compile exec:exec
+ *
+ * An allocation size of 1 is how keys were generated before NoarkSequenceGenerator, one sequence call for every
+ * insert and no JDBC batching. With 50 each sequence call hands out 50 keys and inserts are sent 50 at a time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoarkSequenceGeneratorBenchmark {
+
+    private static final int SERIES = 10;
+    private static final int FILES_PER_SERIES = 10;
+    private static final int RECORDS_PER_FILE = 10;
+    // fonds, series, files, and a record and a document description for each record
+    private static final int ENTITIES = 1 + SERIES + SERIES * FILES_PER_SERIES +
+            2 * SERIES * FILES_PER_SERIES * RECORDS_PER_FILE;
+
+    @Param({"1", "50"})
+    private String allocationSize;
+
+    private Server server;
+    private StandardServiceRegistry serviceRegistry;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0").start();
+        serviceRegistry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.connection.url",
+                        "jdbc:h2:" + server.getURL() + "/mem:benchmark;DB_CLOSE_DELAY=-1")
+                .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .applySetting("hibernate.hbm2ddl.auto", "create-drop")
+                .applySetting("hibernate.search.autoregister_listeners", "false")
+                .applySetting("hibernate.jdbc.batch_size", allocationSize)
+                .applySetting("hibernate.jdbc.batch_versioned_data", "true")
+                .applySetting("hibernate.order_inserts", "true")
+                .applySetting("hibernate.order_updates", "true")
+                .applySetting(NoarkSequenceGenerator.ALLOCATION_SIZE, allocationSize)
+                .build();
+        MetadataSources metadataSources = new MetadataSources(serviceRegistry);
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition entity : scanner.findCandidateComponents("nikita.model.noark5.v4")) {
+            metadataSources.addAnnotatedClassName(entity.getBeanClassName());
+        }
+        sessionFactory = metadataSources.buildMetadata().buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(serviceRegistry);
+        server.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public void insertFondsStructure() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            Fonds fonds = new Fonds();
+            fonds.setSystemId(UUID.randomUUID().toString());
+            fonds.setTitle("Fonds");
+            fonds.setCreatedDate(new Date());
+            fonds.setOwnedBy("benchmark");
+            fonds.setDeleted(false);
+            session.persist(fonds);
+            for (int s = 0; s < SERIES; s++) {
+                Series series = new Series();
+                series.setSystemId(UUID.randomUUID().toString());
+                series.setTitle("Series " + s);
+                series.setCreatedDate(new Date());
+                series.setOwnedBy("benchmark");
+                series.setDeleted(false);
+                series.setReferenceFonds(fonds);
+                session.persist(series);
+                for (int f = 0; f < FILES_PER_SERIES; f++) {
+                    File file = new File();
+                    file.setSystemId(UUID.randomUUID().toString());
+                    file.setTitle("File " + f);
+                    file.setCreatedDate(new Date());
+                    file.setOwnedBy("benchmark");
+                    file.setDeleted(false);
+                    file.setReferenceSeries(series);
+                    session.persist(file);
+                    for (int r = 0; r < RECORDS_PER_FILE; r++) {
+                        DocumentDescription documentDescription = new DocumentDescription();
+                        documentDescription.setSystemId(UUID.randomUUID().toString());
+                        documentDescription.setTitle("Document " + r);
+                        documentDescription.setCreatedDate(new Date());
+                        documentDescription.setOwnedBy("benchmark");
+                        documentDescription.setDeleted(false);
+                        session.persist(documentDescription);
+                        Record record = new Record();
+                        record.setSystemId(UUID.randomUUID().toString());
+                        record.setCreatedDate(new Date());
+                        record.setOwnedBy("benchmark");
+                        record.setDeleted(false);
+                        record.setReferenceFile(file);
+                        record.setReferenceDocumentDescription(Collections.singleton(documentDescription));
+                        session.persist(record);
+                    }
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package nikita.config;
 
-import java.text.SimpleDateFormat;
-
 import static nikita.config.N5ResourceMappings.*;
 
 /**
@@ -70,6 +68,8 @@ public final class Constants {
     public static final String NEW_SUB_FILE = NEW + DASH + "undermappe";
     public static final String SUB_FILE = SUB + FILE ;
     public static final String NEW_SUB_FONDS = NEW + DASH + SUB + FONDS;
+    public static final String NEW_FONDS_STRUCTURE = NEW + DASH + "arkivstruktur";
+    public static final String NEW_EXTRACTION_PACKAGE = NEW + DASH + "arkivuttrekk";
     public static final String NEW_CROSS_REFERENCE = NEW + DASH + CROSS_REFERENCE;
     public static final String NEW_REFERENCE_CLASS = NEW + DASH + "klassereferanse";
     public static final String REFERENCE_NEW_SERIES = NEW + DASH + "referanseArkivdel";
@@ -123,10 +123,6 @@ public final class Constants {
     public static final String NOARK_TIME_FORMAT_PATTERN = "HH:mm:ss";
     public static final String NOARK_DATE_TIME_FORMAT_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
 
-    public static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat(NOARK_DATE_FORMAT_PATTERN);
-    public static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat(NOARK_TIME_FORMAT_PATTERN);
-    public static final SimpleDateFormat DATE_TIME_FORMAT = new SimpleDateFormat(NOARK_DATE_TIME_FORMAT_PATTERN);
-
     // OData variable names
     public static final String TOP = "top";
     public static final String SKIP = "skip";
@@ -140,6 +136,7 @@ public final class Constants {
     public static final String NOARK_CONFORMANCE_LEVEL_2_1_a = "Nivå 2.1a – Sakarkiv - valgfrie krav";
 
     public static final String REFERENCE_FILE = "referanseFil";
+    public static final String UPLOAD_SESSION = "opplasting";
 
     // namespace definition
     public static final String NOARK_CONFORMANCE_REL = "http://rel.kxml.no/noark5/v4/api/";
@@ -158,6 +155,8 @@ public final class Constants {
 
     public static final String NOARK5_V4_CONTENT_TYPE_JSON = "application/vnd.noark5-v4+json";
     public static final String NOARK5_V4_CONTENT_TYPE_JSON_XML = "application/vnd.noark5-v4+xml";
+    // One entity per line, for streaming lists that are too large to page through
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
 
     public static final String INFO_CANNOT_CREATE_OBJECT = "Cannot create ";
     public static final String INFO_CANNOT_FIND_OBJECT = "Cannot find object of type ";
@@ -9,4 +9,5 @@ public class HATEOASConstants {
     public static final String REL = "rel";
     public static final String TEMPLATED = "templated";
     public static final String SELF = "self";
+    public static final String NEXT = "next";
 }
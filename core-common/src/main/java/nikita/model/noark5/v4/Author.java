@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -22,7 +24,8 @@ public class Author implements INikitaEntity, INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "author_seq")
+    @GenericGenerator(name = "author_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_author_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -110,7 +110,7 @@ public class CaseFile extends File implements Serializable, INikitaEntity, IPrec
     @Field
     protected String ownedBy;
     // Links to CaseParty
-    @ManyToMany
+    @ManyToMany (cascade=CascadeType.PERSIST)
     @JoinTable(name = "case_file_case_file_party",
             joinColumns = @JoinColumn(name = "f_pk_case_file_id",
                     referencedColumnName = "pk_file_id"),
@@ -119,7 +119,7 @@ public class CaseFile extends File implements Serializable, INikitaEntity, IPrec
 
     protected Set<CaseParty> referenceCaseParty = new HashSet<CaseParty>();
     // Links to Precedence
-    @ManyToMany
+    @ManyToMany (cascade=CascadeType.PERSIST)
     @JoinTable(name = "case_file_precedence",
             joinColumns = @JoinColumn(name = "f_pk_case_file_id",
                     referencedColumnName = "pk_file_id"),
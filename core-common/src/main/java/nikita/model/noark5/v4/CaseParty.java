@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.ICasePartyEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -24,7 +26,8 @@ import static nikita.config.N5ResourceMappings.CASE_PARTY;
 public class CaseParty implements ICasePartyEntity, INoarkSystemIdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "case_party_seq")
+    @GenericGenerator(name = "case_party_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_case_party_id", nullable = false, insertable = true, updatable = false)
     protected long id;
 
@@ -6,7 +6,9 @@ import nikita.model.noark5.v4.interfaces.ICrossReference;
 import nikita.model.noark5.v4.interfaces.IDisposal;
 import nikita.model.noark5.v4.interfaces.IScreening;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.ClassDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -32,7 +34,8 @@ public class Class implements INoarkGeneralEntity, IDisposal, IScreening, IClass
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "class_seq")
+    @GenericGenerator(name = "class_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_class_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
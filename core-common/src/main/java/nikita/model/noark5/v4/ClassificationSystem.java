@@ -1,6 +1,8 @@
 package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -25,7 +27,8 @@ public class ClassificationSystem implements INoarkGeneralEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "classification_system_seq")
+    @GenericGenerator(name = "classification_system_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_classification_system_id", nullable = false, insertable = true, updatable = false)
     protected long id;
 
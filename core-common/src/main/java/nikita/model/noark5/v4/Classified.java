@@ -3,6 +3,8 @@ package nikita.model.noark5.v4;
 import nikita.model.noark5.v4.interfaces.entities.IClassifiedEntity;
 import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -28,7 +30,8 @@ public class Classified implements INikitaEntity, INoarkSystemIdEntity, IClassif
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "classified_seq")
+    @GenericGenerator(name = "classified_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_classified_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -1,6 +1,8 @@
 package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -20,7 +22,8 @@ public class Conversion implements INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "conversion_seq")
+    @GenericGenerator(name = "conversion_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_comment_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
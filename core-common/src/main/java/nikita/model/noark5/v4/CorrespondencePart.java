@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.ICorrespondencePartEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -22,7 +24,8 @@ public class CorrespondencePart implements ICorrespondencePartEntity, INoarkSyst
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "correspondence_part_seq")
+    @GenericGenerator(name = "correspondence_part_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_correspondence_part_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.ICrossReferenceEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -20,7 +22,8 @@ public class CrossReference implements ICrossReferenceEntity, INoarkSystemIdEnti
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "cross_reference_seq")
+    @GenericGenerator(name = "cross_reference_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_cross_reference_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
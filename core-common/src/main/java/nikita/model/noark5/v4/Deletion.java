@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.IDeletionEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -23,7 +25,8 @@ public class Deletion implements IDeletionEntity, INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "deletion_seq")
+    @GenericGenerator(name = "deletion_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_deletion_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
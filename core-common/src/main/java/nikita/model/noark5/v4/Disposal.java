@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.IDisposalEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -26,7 +28,8 @@ public class Disposal implements IDisposalEntity, INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "disposal_seq")
+    @GenericGenerator(name = "disposal_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_disposal_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.IDisposalUndertakenEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -23,7 +25,8 @@ public class DisposalUndertaken implements IDisposalUndertakenEntity, INoarkSyst
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "disposal_undertaken_seq")
+    @GenericGenerator(name = "disposal_undertaken_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_disposal_undertaken_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -6,7 +6,9 @@ import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkCreateEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkTitleDescriptionEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.DocumentDescriptionDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -35,7 +37,8 @@ public class DocumentDescription implements INikitaEntity, INoarkSystemIdEntity,
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "document_description_seq")
+    @GenericGenerator(name = "document_description_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_document_description_id", nullable = false, insertable = true, updatable = false)
     protected long id;
 
@@ -6,7 +6,9 @@ import nikita.model.noark5.v4.interfaces.IElectronicSignature;
 import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkCreateEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.DocumentObjectDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -15,7 +17,9 @@ import org.hibernate.search.annotations.Indexed;
 
 import javax.persistence.*;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static nikita.config.N5ResourceMappings.DOCUMENT_OBJECT;
@@ -34,7 +38,8 @@ public class DocumentObject implements INikitaEntity, INoarkSystemIdEntity, INoa
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "document_object_seq")
+    @GenericGenerator(name = "document_object_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_document_object_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -137,6 +142,15 @@ public class DocumentObject implements INikitaEntity, INoarkSystemIdEntity, INoa
     @Field
     protected String mimeType;
 
+    // Checksums of the file calculated with every configured algorithm when it was uploaded, keyed by
+    // algorithm. Includes the checksum above
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "document_object_checksum", joinColumns = @JoinColumn(
+            name = "document_object_id", referencedColumnName = "pk_document_object_id"))
+    @MapKeyColumn(name = "checksum_algorithm")
+    @Column(name = "checksum")
+    protected Map<String, String> checksums = new HashMap<>();
+
     @Column(name = "owned_by")
     @Audited
     @Field
@@ -252,6 +266,17 @@ public class DocumentObject implements INikitaEntity, INoarkSystemIdEntity, INoa
         this.checksum = checksum;
     }
 
+    public Map<String, String> getChecksums() {
+        return checksums;
+    }
+
+    public void setChecksums(Map<String, String> checksums) {
+        this.checksums.clear();
+        if (checksums != null) {
+            this.checksums.putAll(checksums);
+        }
+    }
+
     public String getChecksumAlgorithm() {
         return checksumAlgorithm;
     }
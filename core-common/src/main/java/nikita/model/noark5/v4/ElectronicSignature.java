@@ -1,6 +1,8 @@
 package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -21,7 +23,8 @@ public class ElectronicSignature implements Serializable, INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "electronic_signature_seq")
+    @GenericGenerator(name = "electronic_signature_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_electronic_signature_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
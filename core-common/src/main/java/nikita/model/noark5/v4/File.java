@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import nikita.model.noark5.v4.interfaces.*;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.FileDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -33,7 +35,8 @@ public class File implements INoarkGeneralEntity, IDocumentMedium, IStorageLocat
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "file_seq")
+    @GenericGenerator(name = "file_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_file_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -170,7 +173,7 @@ public class File implements INoarkGeneralEntity, IDocumentMedium, IStorageLocat
     @ManyToOne (cascade=CascadeType.PERSIST)
     @JoinColumn(name = "file_screening_id", referencedColumnName = "pk_screening_id")
     protected Screening referenceScreening;
-    @OneToMany(mappedBy = "referenceFile")
+    @OneToMany(mappedBy = "referenceFile", cascade=CascadeType.PERSIST)
     protected Set<CrossReference> referenceCrossReference;
     // Used for soft delete.
     @Column(name = "deleted")
@@ -7,7 +7,9 @@ import nikita.model.noark5.v4.interfaces.IDocumentMedium;
 import nikita.model.noark5.v4.interfaces.IFondsCreator;
 import nikita.model.noark5.v4.interfaces.IStorageLocation;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.FondsDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -34,7 +36,8 @@ public class Fonds implements INoarkGeneralEntity, IStorageLocation, IDocumentMe
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "fonds_seq")
+    @GenericGenerator(name = "fonds_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_fonds_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -2,7 +2,9 @@ package nikita.model.noark5.v4;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import nikita.model.noark5.v4.interfaces.entities.IFondsCreatorEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.FondsCreatorDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -24,7 +26,8 @@ public class FondsCreator implements IFondsCreatorEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "fonds_creator_seq")
+    @GenericGenerator(name = "fonds_creator_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_fonds_creator_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -1,6 +1,8 @@
 package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -20,7 +22,8 @@ public class MeetingParticipant implements Serializable, INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "meeting_participant_seq")
+    @GenericGenerator(name = "meeting_participant_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_meeting_participant_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -2,6 +2,8 @@ package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.model.noark5.v4.interfaces.entities.IPrecedenceEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -23,7 +25,8 @@ public class Precedence implements IPrecedenceEntity, INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "precedence_seq")
+    @GenericGenerator(name = "precedence_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_precedence_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -7,7 +7,9 @@ import nikita.model.noark5.v4.interfaces.IScreening;
 import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkCreateEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.RecordDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -35,7 +37,8 @@ public class Record implements INikitaEntity, INoarkSystemIdEntity, INoarkCreate
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "record_seq")
+    @GenericGenerator(name = "record_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_record_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
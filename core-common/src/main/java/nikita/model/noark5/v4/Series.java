@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import nikita.model.noark5.v4.interfaces.*;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.deserialisers.SeriesDeserializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -31,7 +33,8 @@ public class Series implements INoarkGeneralEntity, IStorageLocation, IDocumentM
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "series_seq")
+    @GenericGenerator(name = "series_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_series_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
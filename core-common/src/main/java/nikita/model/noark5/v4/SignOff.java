@@ -1,6 +1,8 @@
 package nikita.model.noark5.v4;
 
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -24,7 +26,8 @@ public class SignOff implements Serializable, INoarkSystemIdEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "sign_off_seq")
+    @GenericGenerator(name = "sign_off_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_sign_off_id", nullable = false, insertable = true, updatable = false)
     protected Long id;
 
@@ -3,7 +3,9 @@ package nikita.model.noark5.v4;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkSequenceGenerator;
 import nikita.util.serializers.noark5v4.StorageLocationSerializer;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.hibernate.envers.Audited;
@@ -60,7 +62,8 @@ public class StorageLocation implements Serializable, INoarkSystemIdEntity {
     @JsonIgnore
     protected Set<DocumentDescription> referenceDocumentDescription = new HashSet<>();
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "storage_location_seq")
+    @GenericGenerator(name = "storage_location_seq", strategy = NoarkSequenceGenerator.STRATEGY)
     @Column(name = "pk_storage_location_id", nullable = false, insertable = true, updatable = false)
     private long id;
     // Used for soft delete.
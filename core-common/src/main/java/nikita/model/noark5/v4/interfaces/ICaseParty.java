@@ -10,4 +10,5 @@ import java.util.Set;
  */
 public interface ICaseParty {
     Set<CaseParty> getReferenceCaseParty();
+    void setReferenceCaseParty(Set<CaseParty> caseParties);
 }
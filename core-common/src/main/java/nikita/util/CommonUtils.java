@@ -1,18 +1,20 @@
 package nikita.util;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import nikita.model.noark5.v4.*;
 import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.*;
 import nikita.model.noark5.v4.interfaces.entities.*;
+import nikita.util.deserialisers.PropertyTable;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import static nikita.config.Constants.*;
 import static nikita.config.HATEOASConstants.*;
@@ -29,782 +31,475 @@ public final class CommonUtils {
 
     public static final class Hateoas {
 
+        /**
+         * Readers for the properties shared by several Noark entities. Each add method puts the properties of an
+         * interface into the PropertyTable of a deserialiser, see e.g. FondsDeserializer.
+         */
         public static final class Deserialize {
 
-            public static final SimpleDateFormat dateTimeFormat = new SimpleDateFormat(NOARK_DATE_TIME_FORMAT_PATTERN);
-            public static final SimpleDateFormat dateFormat = new SimpleDateFormat(NOARK_DATE_FORMAT_PATTERN);
+            private static final PropertyTable<Disposal> disposalProperties = new PropertyTable<>();
+            private static final PropertyTable<DisposalUndertaken> disposalUndertakenProperties =
+                    new PropertyTable<>();
+            private static final PropertyTable<Deletion> deletionProperties = new PropertyTable<>();
+            private static final PropertyTable<Screening> screeningProperties = new PropertyTable<>();
+            private static final PropertyTable<Classified> classifiedProperties = new PropertyTable<>();
+            private static final PropertyTable<Comment> commentProperties = new PropertyTable<>();
+            private static final PropertyTable<CrossReference> crossReferenceProperties = new PropertyTable<>();
+            private static final PropertyTable<CaseParty> casePartyProperties = new PropertyTable<>();
+            private static final PropertyTable<Precedence> precedenceProperties = new PropertyTable<>();
+
+            static {
+                addDisposalEntity(disposalProperties);
+                addDisposalUndertakenEntity(disposalUndertakenProperties);
+                addDeletionEntity(deletionProperties);
+                addScreeningEntity(screeningProperties);
+                addClassifiedEntity(classifiedProperties);
+                addNoarkSystemIdEntity(commentProperties);
+                addCommentEntity(commentProperties);
+                addNoarkSystemIdEntity(crossReferenceProperties);
+                addCrossReferenceEntity(crossReferenceProperties);
+                addNoarkSystemIdEntity(casePartyProperties);
+                addCasePartyEntity(casePartyProperties);
+                addNoarkSystemIdEntity(precedenceProperties);
+                addPrecedenceEntity(precedenceProperties);
+            }
 
-            public static void deserialiseDocumentMedium(IDocumentMedium documentMediumEntity, ObjectNode objectNode) {
-                // Deserialize documentMedium
-                JsonNode currentNode = objectNode.get(DOCUMENT_MEDIUM);
-                if (null != currentNode) {
-                    documentMediumEntity.setDocumentMedium(currentNode.textValue());
-                    objectNode.remove(DOCUMENT_MEDIUM);
-                }
+            /**
+             * @return the value as text, or null if the value is null
+             * @throws NikitaMalformedInputDataException if the value is an object or an array
+             */
+            public static String readString(JsonParser jsonParser) throws IOException {
+                if (jsonParser.getCurrentToken().isScalarValue()) {
+                    return jsonParser.getValueAsString();
+                }
+                String name = jsonParser.getCurrentName();
+                jsonParser.skipChildren();
+                throw new NikitaMalformedInputDataException("The value of " + name + " is not a text value");
             }
 
-            public static void deserialiseNoarkSystemIdEntity(INoarkSystemIdEntity noarkSystemIdEntity,
-                                                              ObjectNode objectNode) {
-                // Deserialize Deserialize systemId
-                JsonNode currentNode = objectNode.get(SYSTEM_ID);
-                if (null != currentNode) {
-                    noarkSystemIdEntity.setSystemId(currentNode.textValue());
-                    objectNode.remove(SYSTEM_ID);
+            /**
+             * @return the value as a number, or null if the value is null
+             * @throws NikitaMalformedInputDataException if the value is neither a number nor text holding a number
+             */
+            public static Integer readInteger(JsonParser jsonParser) throws IOException {
+                if (jsonParser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+                    return jsonParser.getIntValue();
+                }
+                String value = readString(jsonParser);
+                try {
+                    return value == null ? null : Integer.valueOf(value);
+                } catch (NumberFormatException e) {
+                    throw new NikitaMalformedInputDataException("The value of " + jsonParser.getCurrentName() +
+                            " is not a number [" + value + "]");
                 }
             }
 
-            public static void deserialiseKeyword(IKeyword keywordEntity, ObjectNode objectNode) {
-                // Deserialize keyword
-                JsonNode currentNode = objectNode.get(KEYWORD);
-
-                if (null != currentNode) {
-                    HashSet<Keyword> keywords = new HashSet<>();
-                    if (currentNode.isArray()) {
-                        currentNode.iterator();
-                        for (JsonNode node : currentNode) {
-                            String keywordText = node.textValue();
-                            Keyword keyword = new Keyword();
-                            keyword.setKeyword(keywordText);
-                            keywords.add(keyword);
-                        }
-                        keywordEntity.setReferenceKeyword(keywords);
-                    }
-                    objectNode.remove(KEYWORD);
+            /**
+             * @return the value as a number, or null if the value is null
+             * @throws NikitaMalformedInputDataException if the value is neither a number nor text holding a number
+             */
+            public static Long readLong(JsonParser jsonParser) throws IOException {
+                if (jsonParser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+                    return jsonParser.getLongValue();
+                }
+                String value = readString(jsonParser);
+                try {
+                    return value == null ? null : Long.valueOf(value);
+                } catch (NumberFormatException e) {
+                    throw new NikitaMalformedInputDataException("The value of " + jsonParser.getCurrentName() +
+                            " is not a number [" + value + "]");
                 }
             }
 
-            public static void deserialiseAuthor(IAuthor authorEntity,
-                                                 ObjectNode objectNode) {
-
-                // Deserialize author
-                JsonNode currentNode = objectNode.get(AUTHOR);
-                if (null != currentNode) {
-                    HashSet<Author> authors = new HashSet<>();
-                    if (currentNode.isArray()) {
-                        currentNode.iterator();
-                        for (JsonNode node : currentNode) {
-                            String location = node.textValue();
-                            Author author = new Author();
-                            author.setSystemId(UUID.randomUUID().toString());
-                            author.setAuthor(location);
-                            authors.add(author);
-                        }
-                        authorEntity.setReferenceAuthor(authors);
-                    }
-                    objectNode.remove(AUTHOR);
+            /**
+             * @param message the message of the exception thrown if the value is not a date, yyyy-MM-dd
+             * @return the value as a date, or null if the value is null
+             */
+            public static Date readDate(JsonParser jsonParser, String message) throws IOException {
+                String value = readString(jsonParser);
+                try {
+                    return value == null ? null : NoarkDateCodec.parseDate(value);
+                } catch (DateTimeParseException e) {
+                    throw new NikitaMalformedInputDataException(message);
                 }
             }
 
-            public static void deserialiseStorageLocation(IStorageLocation storageLocationEntity,
-                                                          ObjectNode objectNode) {
-                // Deserialize storageLocation
-                JsonNode currentNode = objectNode.get(STORAGE_LOCATION);
-
-                if (null != currentNode) {
-                    HashSet<StorageLocation> storageLocations = new HashSet<>();
-                    if (currentNode.isArray()) {
-                        currentNode.iterator();
-                        for (JsonNode node : currentNode) {
-                            String location = node.textValue();
-                            StorageLocation storageLocation = new StorageLocation();
-                            storageLocation.setSystemId(UUID.randomUUID().toString());
-                            storageLocation.setStorageLocation(location);
-                            storageLocations.add(storageLocation);
-                        }
-                        storageLocationEntity.setReferenceStorageLocation(storageLocations);
-                    }
-                    objectNode.remove(STORAGE_LOCATION);
+            /**
+             * @param message the message of the exception thrown if the value is not a date time,
+             *                yyyy-MM-dd'T'HH:mm:ss
+             * @return the value as a date, or null if the value is null
+             */
+            public static Date readDateTime(JsonParser jsonParser, String message) throws IOException {
+                String value = readString(jsonParser);
+                try {
+                    return value == null ? null : NoarkDateCodec.parseDateTime(value);
+                } catch (DateTimeParseException e) {
+                    throw new NikitaMalformedInputDataException(message);
                 }
             }
 
-            public static void deserialiseNoarkCreateEntity(INoarkCreateEntity noarkCreateEntity,
-                                                            ObjectNode objectNode) {
-                // Deserialize createdDate
-                JsonNode currentNode = objectNode.get(CREATED_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateTimeFormat.parse(currentNode.textValue());
-                        noarkCreateEntity.setCreatedDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The Noark object you tried to create " +
-                                "has a malformed opprettetData/createdDate. Make sure format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(CREATED_DATE);
+            /**
+             * Read an array of text values, e.g. "noekkelord": ["a", "b"]
+             */
+            public static List<String> readStrings(JsonParser jsonParser) throws IOException {
+                if (jsonParser.getCurrentToken() != JsonToken.START_ARRAY) {
+                    String name = jsonParser.getCurrentName();
+                    jsonParser.skipChildren();
+                    throw new NikitaMalformedInputDataException("The value of " + name + " is not an array");
                 }
-
-                // Deserialize createdBy
-                currentNode = objectNode.get(CREATED_BY);
-                if (null != currentNode) {
-                    noarkCreateEntity.setCreatedBy(currentNode.textValue());
-                    objectNode.remove(CREATED_BY);
+                List<String> values = new ArrayList<>();
+                while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+                    values.add(readString(jsonParser));
                 }
+                return values;
             }
 
-            public static void deserialiseNoarkFinaliseEntity(INoarkFinaliseEntity finaliseEntity,
-                                                              ObjectNode objectNode) {
-                // Deserialize finalisedDate
-                JsonNode currentNode = objectNode.get(FINALISED_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateTimeFormat.parse(currentNode.textValue());
-                        finaliseEntity.setFinalisedDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The Noark object you tried to create " +
-                                "has a malformed avsluttetData/finalisedDate. Make sure format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(FINALISED_DATE);
-                }
+            /**
+             * Read an object embedded in the object being deserialised, e.g. "kassasjon": { ... }
+             *
+             * @param objectName the Noark name of the embedded object, used in the exception thrown if the object
+             *                   has properties that are not in properties
+             */
+            public static <T> T readObject(JsonParser jsonParser, PropertyTable<T> properties, T entity,
+                                           String objectName) throws IOException {
+                List<String> unrecognised = properties.read(jsonParser, entity);
+                if (!unrecognised.isEmpty()) {
+                    throw new NikitaMalformedInputDataException("The " + objectName + " you tried to create is " +
+                            "malformed. The following fields are not recognised as " + objectName + " fields [" +
+                            String.join(", ", unrecognised) + "]");
+                }
+                return entity;
+            }
 
-                // Deserialize finalisedBy
-                currentNode = objectNode.get(FINALISED_BY);
-                if (null != currentNode) {
-                    finaliseEntity.setFinalisedBy(currentNode.textValue());
-                    objectNode.remove(FINALISED_BY);
+            /**
+             * Read the objects embedded in the object being deserialised, e.g. "merknad": [{ ... }, { ... }]. A single
+             * object is read as an array holding only that object. An object given no systemID is given a new one.
+             *
+             * @param objectName the Noark name of the embedded objects, used in the exception thrown if an object
+             *                   has properties that are not in properties
+             */
+            public static <T extends INoarkSystemIdEntity> Set<T> readObjects(
+                    JsonParser jsonParser, PropertyTable<T> properties, Supplier<T> newEntity, String objectName)
+                    throws IOException {
+                Set<T> entities = new HashSet<>();
+                if (jsonParser.getCurrentToken() == JsonToken.START_OBJECT) {
+                    entities.add(readSystemIdObject(jsonParser, properties, newEntity.get(), objectName));
+                    return entities;
+                }
+                if (jsonParser.getCurrentToken() != JsonToken.START_ARRAY) {
+                    String name = jsonParser.getCurrentName();
+                    jsonParser.skipChildren();
+                    throw new NikitaMalformedInputDataException("The value of " + name + " is not an array");
                 }
+                while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+                    entities.add(readSystemIdObject(jsonParser, properties, newEntity.get(), objectName));
+                }
+                return entities;
             }
 
-            public static void deserialiseNoarkTitleDescriptionEntity(INoarkTitleDescriptionEntity
-                                                                              titleDescriptionEntity,
-                                                                      ObjectNode objectNode) {
-                // Deserialize title
-                JsonNode currentNode = objectNode.get(TITLE);
-                if (null != currentNode) {
-                    titleDescriptionEntity.setTitle(currentNode.textValue());
-                    objectNode.remove(TITLE);
+            private static <T extends INoarkSystemIdEntity> T readSystemIdObject(
+                    JsonParser jsonParser, PropertyTable<T> properties, T entity, String objectName)
+                    throws IOException {
+                readObject(jsonParser, properties, entity, objectName);
+                if (entity.getSystemId() == null) {
+                    entity.setSystemId(UUID.randomUUID().toString());
                 }
+                return entity;
+            }
 
-                // Deserialize description
-                currentNode = objectNode.get(DESCRIPTION);
-                if (null != currentNode) {
-                    titleDescriptionEntity.setDescription(currentNode.textValue());
-                    objectNode.remove(DESCRIPTION);
-                }
+            public static <T extends IDocumentMedium> void addDocumentMedium(PropertyTable<T> properties) {
+                properties.add(DOCUMENT_MEDIUM,
+                        (entity, parser) -> entity.setDocumentMedium(readString(parser)));
             }
 
-            public static void deserialiseNoarkEntity(INoarkGeneralEntity noarkEntity, ObjectNode objectNode) {
-                deserialiseNoarkSystemIdEntity(noarkEntity, objectNode);
-                deserialiseNoarkTitleDescriptionEntity(noarkEntity, objectNode);
-                deserialiseNoarkCreateEntity(noarkEntity, objectNode);
-                deserialiseNoarkFinaliseEntity(noarkEntity, objectNode);
+            public static <T extends INoarkSystemIdEntity> void addNoarkSystemIdEntity(PropertyTable<T> properties) {
+                properties.add(SYSTEM_ID, (entity, parser) -> entity.setSystemId(readString(parser)));
             }
 
-            public static String checkNodeObjectEmpty(JsonNode objectNode) {
-                String result = "";
-                if (objectNode.size() != 0) {
-                    Iterator<Map.Entry<String, JsonNode>> nodes = objectNode.fields();
-                    while (nodes.hasNext()) {
-                        Map.Entry entry = nodes.next();
-                        String keyField = (String) entry.getKey();
-                        result += keyField;
-                        if (nodes.hasNext()) {
-                            result += ", ";
-                        }
+            public static <T extends IKeyword> void addKeyword(PropertyTable<T> properties) {
+                properties.add(KEYWORD, (entity, parser) -> {
+                    HashSet<Keyword> keywords = new HashSet<>();
+                    for (String keywordText : readStrings(parser)) {
+                        Keyword keyword = new Keyword();
+                        keyword.setKeyword(keywordText);
+                        keywords.add(keyword);
                     }
-                }
-                return result;
+                    entity.setReferenceKeyword(keywords);
+                });
             }
 
-            // TODO: FIX THIS!!!!
-            public static Set<CrossReference> deserialiseCrossReferences(ObjectNode objectNode) {
-                Set<CrossReference> crossReferences = new HashSet<>();
-
-                //deserialiseCrossReference(crossReference, objectNode);
-                return crossReferences;
+            public static <T extends IAuthor> void addAuthor(PropertyTable<T> properties) {
+                properties.add(AUTHOR, (entity, parser) -> {
+                    HashSet<Author> authors = new HashSet<>();
+                    for (String authorText : readStrings(parser)) {
+                        Author author = new Author();
+                        author.setSystemId(UUID.randomUUID().toString());
+                        author.setAuthor(authorText);
+                        authors.add(author);
+                    }
+                    entity.setReferenceAuthor(authors);
+                });
             }
 
-            public static void deserialiseCrossReference(ICrossReferenceEntity crossReferenceEntity,
-                                                         ObjectNode objectNode) {
-
-                // Deserialize referenceToRecord
-                JsonNode currentNode = objectNode.get(CROSS_REFERENCE_RECORD);
-                if (null != currentNode) {
-                    crossReferenceEntity.setReferenceToRecord(currentNode.textValue());
-                    objectNode.remove(CROSS_REFERENCE_RECORD);
-                }
+            public static <T extends IStorageLocation> void addStorageLocation(PropertyTable<T> properties) {
+                properties.add(STORAGE_LOCATION, (entity, parser) -> {
+                    HashSet<StorageLocation> storageLocations = new HashSet<>();
+                    for (String location : readStrings(parser)) {
+                        StorageLocation storageLocation = new StorageLocation();
+                        storageLocation.setSystemId(UUID.randomUUID().toString());
+                        storageLocation.setStorageLocation(location);
+                        storageLocations.add(storageLocation);
+                    }
+                    entity.setReferenceStorageLocation(storageLocations);
+                });
+            }
 
-                // Deserialize referenceToFile
-                currentNode = objectNode.get(CROSS_REFERENCE_FILE);
-                if (null != currentNode) {
-                    crossReferenceEntity.setReferenceToFile(currentNode.textValue());
-                    objectNode.remove(CROSS_REFERENCE_FILE);
-                }
+            public static <T extends INoarkCreateEntity> void addNoarkCreateEntity(PropertyTable<T> properties) {
+                properties.add(CREATED_DATE, (entity, parser) -> entity.setCreatedDate(
+                        readDateTime(parser, "The Noark object you tried to create " +
+                                "has a malformed opprettetData/createdDate. Make sure format is " +
+                                NOARK_DATE_FORMAT_PATTERN)));
+                properties.add(CREATED_BY, (entity, parser) -> entity.setCreatedBy(readString(parser)));
+            }
 
-                // Deserialize referenceToClass
-                currentNode = objectNode.get(CROSS_REFERENCE_CLASS);
-                if (null != currentNode) {
-                    crossReferenceEntity.setReferenceToClass(currentNode.textValue());
-                    objectNode.remove(CROSS_REFERENCE_CLASS);
-                }
-                objectNode.remove(CROSS_REFERENCE);
+            public static <T extends INoarkFinaliseEntity> void addNoarkFinaliseEntity(PropertyTable<T> properties) {
+                properties.add(FINALISED_DATE, (entity, parser) -> entity.setFinalisedDate(
+                        readDateTime(parser, "The Noark object you tried to create " +
+                                "has a malformed avsluttetData/finalisedDate. Make sure format is " +
+                                NOARK_DATE_FORMAT_PATTERN)));
+                properties.add(FINALISED_BY, (entity, parser) -> entity.setFinalisedBy(readString(parser)));
             }
 
-            public static void deserialiseComments(IComment commentObject, ObjectNode objectNode) {
-                Set<Comment> comments = commentObject.getReferenceComment();
-                for (Comment comment : comments) {
-                    deserialiseCommentEntity(comment, objectNode);
-                }
+            public static <T extends INoarkTitleDescriptionEntity> void addNoarkTitleDescriptionEntity(
+                    PropertyTable<T> properties) {
+                properties.add(TITLE, (entity, parser) -> entity.setTitle(readString(parser)));
+                properties.add(DESCRIPTION, (entity, parser) -> entity.setDescription(readString(parser)));
             }
 
-            public static void deserialiseCommentEntity(ICommentEntity commentEntity, ObjectNode objectNode) {
-                // Deserialize commentText
-                JsonNode currentNode = objectNode.get(COMMENT_TEXT);
-                if (null != currentNode) {
-                    commentEntity.setCommentText(currentNode.textValue());
-                    objectNode.remove(COMMENT_TEXT);
-                }
-                // Deserialize commentType
-                currentNode = objectNode.get(COMMENT_TYPE);
-                if (null != currentNode) {
-                    commentEntity.setCommentType(currentNode.textValue());
-                    objectNode.remove(COMMENT_TYPE);
-                }
+            public static <T extends INoarkGeneralEntity> void addNoarkEntity(PropertyTable<T> properties) {
+                addNoarkSystemIdEntity(properties);
+                addNoarkTitleDescriptionEntity(properties);
+                addNoarkCreateEntity(properties);
+                addNoarkFinaliseEntity(properties);
+            }
 
-                // Deserialize commentDate
-                currentNode = objectNode.get(COMMENT_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        commentEntity.setCommentDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The Comment object you tried to create " +
-                                "has a malformed merknadsdato/commentDate. Make sure the format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
+            /**
+             * @param source links a cross reference to the entity it is read from, the owner of the relation
+             */
+            public static <T extends ICrossReference> void addCrossReference(PropertyTable<T> properties,
+                                                                             BiConsumer<CrossReference, T> source) {
+                properties.add(CROSS_REFERENCE, (entity, parser) -> {
+                    Set<CrossReference> crossReferences = readObjects(parser, crossReferenceProperties,
+                            CrossReference::new, CROSS_REFERENCE);
+                    for (CrossReference crossReference : crossReferences) {
+                        source.accept(crossReference, entity);
                     }
-                    objectNode.remove(COMMENT_DATE);
-                }
-                // Deserialize commentRegisteredBy
-                currentNode = objectNode.get(COMMENT_REGISTERED_BY);
-                if (null != currentNode) {
-                    commentEntity.setCommentRegisteredBy(currentNode.textValue());
-                    objectNode.remove(COMMENT_REGISTERED_BY);
-                }
-                objectNode.remove(COMMENT);
+                    entity.setReferenceCrossReference(crossReferences);
+                });
             }
 
-
-            public static Set<Series> deserialiseReferenceMultipleSeries(ObjectNode objectNode) {
-                Set<Series> referenceSeries = null;
-                JsonNode node = objectNode.get(REFERENCE_SERIES);
-                if (node != null) {
-                    referenceSeries = new HashSet<>();
-                    deserialiseReferenceSeries(referenceSeries, objectNode.deepCopy());
-                }
-                objectNode.remove(REFERENCE_SERIES);
-                return referenceSeries;
+            public static <T extends ICrossReferenceEntity> void addCrossReferenceEntity(
+                    PropertyTable<T> properties) {
+                properties.add(CROSS_REFERENCE_RECORD,
+                        (entity, parser) -> entity.setReferenceToRecord(readString(parser)));
+                properties.add(CROSS_REFERENCE_FILE,
+                        (entity, parser) -> entity.setReferenceToFile(readString(parser)));
+                properties.add(CROSS_REFERENCE_CLASS,
+                        (entity, parser) -> entity.setReferenceToClass(readString(parser)));
             }
 
-            public static void deserialiseReferenceSeries(Set<Series> referenceSeries, ObjectNode objectNode) {
-
+            public static <T extends IComment> void addComment(PropertyTable<T> properties) {
+                properties.add(COMMENT, (entity, parser) -> entity.setReferenceComment(
+                        readObjects(parser, commentProperties, Comment::new, COMMENT)));
             }
 
-            public static Disposal deserialiseDisposal(ObjectNode objectNode) {
-                Disposal disposal = null;
-                JsonNode disposalNode = objectNode.get(DISPOSAL);
-                if (disposalNode != null) {
-                    disposal = new Disposal();
-                    deserialiseDisposalEntity(disposal, objectNode);
-                }
-                objectNode.remove(DISPOSAL);
-                return disposal;
+            public static <T extends ICommentEntity> void addCommentEntity(PropertyTable<T> properties) {
+                properties.add(COMMENT_TEXT, (entity, parser) -> entity.setCommentText(readString(parser)));
+                properties.add(COMMENT_TYPE, (entity, parser) -> entity.setCommentType(readString(parser)));
+                properties.add(COMMENT_DATE, (entity, parser) -> entity.setCommentDate(
+                        readDate(parser, "The Comment object you tried to create " +
+                                "has a malformed merknadsdato/commentDate. Make sure the format is " +
+                                NOARK_DATE_FORMAT_PATTERN)));
+                properties.add(COMMENT_REGISTERED_BY,
+                        (entity, parser) -> entity.setCommentRegisteredBy(readString(parser)));
             }
 
-            public static void deserialiseDisposalEntity(IDisposalEntity disposalEntity, ObjectNode objectNode) {
+            public static <T extends IDisposal> void addDisposal(PropertyTable<T> properties) {
+                properties.add(DISPOSAL, (entity, parser) -> entity.setReferenceDisposal(
+                        readObject(parser, disposalProperties, new Disposal(), DISPOSAL)));
+            }
 
-                // Deserialize disposalDecision
-                JsonNode currentNode = objectNode.get(DISPOSAL_DECISION);
-                if (null != currentNode) {
-                    disposalEntity.setDisposalDecision(currentNode.textValue());
-                    objectNode.remove(DISPOSAL_DECISION);
-                }
-                // Deserialize disposalAuthority(
-                currentNode = objectNode.get(DISPOSAL_AUTHORITY);
-                if (null != currentNode) {
-                    disposalEntity.setDisposalAuthority(currentNode.textValue());
-                    objectNode.remove(DISPOSAL_AUTHORITY);
-                }
-                // Deserialize preservationTime
-                currentNode = objectNode.get(DISPOSAL_PRESERVATION_TIME);
-                if (null != currentNode) {
-                    disposalEntity.setPreservationTime(Integer.getInteger(currentNode.textValue()));
-                    objectNode.remove(DISPOSAL_PRESERVATION_TIME);
-                }
-                // Deserialize disposalDate
-                currentNode = objectNode.get(DISPOSAL_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        disposalEntity.setDisposalDate(parsedDate);
-                        objectNode.remove(DISPOSAL_DATE);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The Disposal object you tried to create " +
+            public static <T extends IDisposalEntity> void addDisposalEntity(PropertyTable<T> properties) {
+                properties.add(DISPOSAL_DECISION,
+                        (entity, parser) -> entity.setDisposalDecision(readString(parser)));
+                properties.add(DISPOSAL_AUTHORITY,
+                        (entity, parser) -> entity.setDisposalAuthority(readString(parser)));
+                properties.add(DISPOSAL_PRESERVATION_TIME,
+                        (entity, parser) -> entity.setPreservationTime(readInteger(parser)));
+                properties.add(DISPOSAL_DATE, (entity, parser) -> entity.setDisposalDate(
+                        readDate(parser, "The Disposal object you tried to create " +
                                 "has a malformed kassasjonsdato/disposalDate. Make sure the format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                }
-                objectNode.remove(DISPOSAL);
+                                NOARK_DATE_FORMAT_PATTERN)));
             }
 
-            public static DisposalUndertaken deserialiseDisposalUndertaken(ObjectNode objectNode) {
-                DisposalUndertaken disposalUndertaken = null;
-                JsonNode disposalUndertakenNode = objectNode.get(DISPOSAL_UNDERTAKEN);
-                if (disposalUndertakenNode != null) {
-                    disposalUndertaken = new DisposalUndertaken();
-                    deserialiseDisposalUndertakenEntity(disposalUndertaken, objectNode);
-                }
-                objectNode.remove(DISPOSAL_UNDERTAKEN);
-                return disposalUndertaken;
+            public static <T extends IDisposalUndertaken> void addDisposalUndertaken(PropertyTable<T> properties) {
+                properties.add(DISPOSAL_UNDERTAKEN, (entity, parser) -> entity.setReferenceDisposalUndertaken(
+                        readObject(parser, disposalUndertakenProperties, new DisposalUndertaken(),
+                                DISPOSAL_UNDERTAKEN)));
             }
 
-            public static void deserialiseDisposalUndertakenEntity(IDisposalUndertakenEntity disposalUndertakenEntity,
-                                                                   ObjectNode objectNode) {
-                // Deserialize disposalBy
-                JsonNode currentNode = objectNode.get(DISPOSAL_UNDERTAKEN_BY);
-                if (null != currentNode) {
-                    disposalUndertakenEntity.setDisposalBy(currentNode.textValue());
-                    objectNode.remove(DISPOSAL_UNDERTAKEN_BY);
-                }
-
-                // Deserialize disposalDate
-                currentNode = objectNode.get(DISPOSAL_UNDERTAKEN_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        disposalUndertakenEntity.setDisposalDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The DisposalUndertaken object you tried to " +
+            public static <T extends IDisposalUndertakenEntity> void addDisposalUndertakenEntity(
+                    PropertyTable<T> properties) {
+                properties.add(DISPOSAL_UNDERTAKEN_BY,
+                        (entity, parser) -> entity.setDisposalBy(readString(parser)));
+                properties.add(DISPOSAL_UNDERTAKEN_DATE, (entity, parser) -> entity.setDisposalDate(
+                        readDate(parser, "The DisposalUndertaken object you tried to " +
                                 "create has a malformed kassasjonsdato/disposalDate. Make sure the format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(DISPOSAL_UNDERTAKEN_DATE);
-                }
+                                NOARK_DATE_FORMAT_PATTERN)));
             }
 
-            public static Deletion deserialiseDeletion(ObjectNode objectNode) {
-                Deletion deletion = null;
-                JsonNode deletionNode = objectNode.get(DELETION);
-                if (deletionNode != null) {
-                    deletion = new Deletion();
-                    deserialiseDeletionEntity(deletion, deletionNode.deepCopy());
-                }
-                return deletion;
+            public static <T extends IDeletion> void addDeletion(PropertyTable<T> properties) {
+                properties.add(DELETION, (entity, parser) -> entity.setReferenceDeletion(
+                        readObject(parser, deletionProperties, new Deletion(), DELETION)));
             }
 
-            public static void deserialiseDeletionEntity(IDeletionEntity deletionEntity, ObjectNode objectNode) {
-                // Deserialize deletionBy
-                JsonNode currentNode = objectNode.get(DELETION_BY);
-                if (null != currentNode) {
-                    deletionEntity.setDeletionBy(currentNode.textValue());
-                    objectNode.remove(DELETION_BY);
-                }
-
-                // Deserialize deletionType
-                currentNode = objectNode.get(DELETION_TYPE);
-                if (null != currentNode) {
-                    deletionEntity.setDeletionType(currentNode.textValue());
-                    objectNode.remove(DELETION_TYPE);
-                }
-
-                // Deserialize deletionDate
-                currentNode = objectNode.get(DELETION_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        deletionEntity.setDeletionDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The deletion object you tried to create " +
+            public static <T extends IDeletionEntity> void addDeletionEntity(PropertyTable<T> properties) {
+                properties.add(DELETION_BY, (entity, parser) -> entity.setDeletionBy(readString(parser)));
+                properties.add(DELETION_TYPE, (entity, parser) -> entity.setDeletionType(readString(parser)));
+                properties.add(DELETION_DATE, (entity, parser) -> entity.setDeletionDate(
+                        readDate(parser, "The deletion object you tried to create " +
                                 "has a malformed slettetDato/deletionDate. Make sure the format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(DELETION_DATE);
-                }
-                objectNode.remove(DELETION);
+                                NOARK_DATE_FORMAT_PATTERN)));
             }
 
-            public static void deserialiseCaseParties(ICaseParty casePartyObject, ObjectNode objectNode) {
-                Set<CaseParty> caseParties = casePartyObject.getReferenceCaseParty();
-                if (caseParties != null && caseParties.size() > 0) {
-                    for (CaseParty caseParty : caseParties) {
-                        deserialiseCaseParty(caseParty, objectNode);
-                        objectNode.remove(CASE_PARTY);
-                    }
-                }
+            public static <T extends ICaseParty> void addCaseParty(PropertyTable<T> properties) {
+                properties.add(CASE_PARTY, (entity, parser) -> entity.setReferenceCaseParty(
+                        readObjects(parser, casePartyProperties, CaseParty::new, CASE_PARTY)));
             }
 
-            public static void deserialiseCaseParty(ICasePartyEntity casePartyEntity, ObjectNode objectNode) {
-
-                // Deserialize casePartyId
-                JsonNode currentNode = objectNode.get(CASE_PARTY_ID);
-                if (null != currentNode) {
-                    casePartyEntity.setCasePartyId(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_ID);
-                }
-                // Deserialize casePartyName
-                currentNode = objectNode.get(CASE_PARTY_NAME);
-                if (null != currentNode) {
-                    casePartyEntity.setCasePartyName(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_NAME);
-                }
-                // Deserialize casePartyRole
-                currentNode = objectNode.get(CASE_PARTY_ROLE);
-                if (null != currentNode) {
-                    casePartyEntity.setCasePartyRole(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_ROLE);
-                }
-                // Deserialize postalAddress
-                currentNode = objectNode.get(CASE_PARTY_POSTAL_ADDRESS);
-                if (null != currentNode) {
-                    casePartyEntity.setPostalAddress(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_POSTAL_ADDRESS);
-                }
-                // Deserialize postCode
-                currentNode = objectNode.get(CASE_PARTY_POST_CODE);
-                if (null != currentNode) {
-                    casePartyEntity.setPostCode(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_POST_CODE);
-                }
-                // Deserialize postalTown
-                currentNode = objectNode.get(CASE_PARTY_POSTAL_TOWN);
-                if (null != currentNode) {
-                    casePartyEntity.setPostalTown(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_POSTAL_TOWN);
-                }
-                // Deserialize foreignAddress
-                currentNode = objectNode.get(CASE_PARTY_FOREIGN_ADDRESS);
-                if (null != currentNode) {
-                    casePartyEntity.setForeignAddress(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_FOREIGN_ADDRESS);
-                }
-                // Deserialize emailAddress
-                currentNode = objectNode.get(CASE_PARTY_EMAIL_ADDRESS);
-                if (null != currentNode) {
-                    casePartyEntity.setEmailAddress(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_EMAIL_ADDRESS);
-                }
-                // Deserialize telephoneNumber
-                currentNode = objectNode.get(CASE_PARTY_TELEPHONE_NUMBER);
-                if (null != currentNode) {
-                    casePartyEntity.setTelephoneNumber(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_TELEPHONE_NUMBER);
-                }
-                // Deserialize contactPerson
-                currentNode = objectNode.get(CASE_PARTY_CONTACT_PERSON);
-                if (null != currentNode) {
-                    casePartyEntity.setContactPerson(currentNode.textValue());
-                    objectNode.remove(CASE_PARTY_CONTACT_PERSON);
-                }
+            public static <T extends ICasePartyEntity> void addCasePartyEntity(PropertyTable<T> properties) {
+                properties.add(CASE_PARTY_ID, (entity, parser) -> entity.setCasePartyId(readString(parser)));
+                properties.add(CASE_PARTY_NAME, (entity, parser) -> entity.setCasePartyName(readString(parser)));
+                properties.add(CASE_PARTY_ROLE, (entity, parser) -> entity.setCasePartyRole(readString(parser)));
+                properties.add(CASE_PARTY_POSTAL_ADDRESS,
+                        (entity, parser) -> entity.setPostalAddress(readString(parser)));
+                properties.add(CASE_PARTY_POST_CODE, (entity, parser) -> entity.setPostCode(readString(parser)));
+                properties.add(CASE_PARTY_POSTAL_TOWN,
+                        (entity, parser) -> entity.setPostalTown(readString(parser)));
+                properties.add(CASE_PARTY_FOREIGN_ADDRESS,
+                        (entity, parser) -> entity.setForeignAddress(readString(parser)));
+                properties.add(CASE_PARTY_EMAIL_ADDRESS,
+                        (entity, parser) -> entity.setEmailAddress(readString(parser)));
+                properties.add(CASE_PARTY_TELEPHONE_NUMBER,
+                        (entity, parser) -> entity.setTelephoneNumber(readString(parser)));
+                properties.add(CASE_PARTY_CONTACT_PERSON,
+                        (entity, parser) -> entity.setContactPerson(readString(parser)));
             }
 
-            public static Set<Precedence> deserialisePrecedences(ObjectNode objectNode) {
-//                objectNode.remove(PRECEDENCE);
-                // TODO : Looks like I'm missing!!!
-                return null;
+            public static <T extends IPrecedence> void addPrecedence(PropertyTable<T> properties) {
+                properties.add(PRECEDENCE, (entity, parser) -> entity.setReferencePrecedence(
+                        readObjects(parser, precedenceProperties, Precedence::new, PRECEDENCE)));
             }
 
-            public static void deserialisePrecedence(IPrecedenceEntity precedenceEntity, ObjectNode objectNode) {
-
-                deserialiseNoarkCreateEntity(precedenceEntity, objectNode);
-                deserialiseNoarkTitleDescriptionEntity(precedenceEntity, objectNode);
-                deserialiseNoarkFinaliseEntity(precedenceEntity, objectNode);
-
-                // Deserialize precedenceDate
-                JsonNode currentNode = objectNode.get(PRECEDENCE_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        precedenceEntity.setPrecedenceDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The deletion object you tried to create " +
+            public static <T extends IPrecedenceEntity> void addPrecedenceEntity(PropertyTable<T> properties) {
+                addNoarkCreateEntity(properties);
+                addNoarkTitleDescriptionEntity(properties);
+                addNoarkFinaliseEntity(properties);
+                properties.add(PRECEDENCE_DATE, (entity, parser) -> entity.setPrecedenceDate(
+                        readDate(parser, "The deletion object you tried to create " +
                                 "has a malformed presedensDato/precedenceDate. Make sure the format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(PRECEDENCE_DATE);
-                }
-                // Deserialize precedenceAuthority
-                currentNode = objectNode.get(PRECEDENCE_AUTHORITY);
-                if (null != currentNode) {
-                    precedenceEntity.setPrecedenceAuthority(currentNode.textValue());
-                    objectNode.remove(PRECEDENCE_AUTHORITY);
-                }
-                // Deserialize sourceOfLaw
-                currentNode = objectNode.get(PRECEDENCE_SOURCE_OF_LAW);
-                if (null != currentNode) {
-                    precedenceEntity.setSourceOfLaw(currentNode.textValue());
-                    objectNode.remove(PRECEDENCE_SOURCE_OF_LAW);
-                }
-                // Deserialize precedenceApprovedBy
-                currentNode = objectNode.get(PRECEDENCE_APPROVED_BY);
-                if (null != currentNode) {
-                    precedenceEntity.setPrecedenceApprovedBy(currentNode.textValue());
-                    objectNode.remove(PRECEDENCE_APPROVED_BY);
-                }
-                // Deserialize precedenceStatus
-                currentNode = objectNode.get(PRECEDENCE_STATUS);
-                if (null != currentNode) {
-                    precedenceEntity.setPrecedenceStatus(currentNode.textValue());
-                    objectNode.remove(PRECEDENCE_STATUS);
-                }
-                // Deserialize precedenceApprovedDate
-                currentNode = objectNode.get(PRECEDENCE_APPROVED_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        precedenceEntity.setPrecedenceApprovedDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The deletion object you tried to create " +
+                                NOARK_DATE_FORMAT_PATTERN)));
+                properties.add(PRECEDENCE_AUTHORITY,
+                        (entity, parser) -> entity.setPrecedenceAuthority(readString(parser)));
+                properties.add(PRECEDENCE_SOURCE_OF_LAW,
+                        (entity, parser) -> entity.setSourceOfLaw(readString(parser)));
+                properties.add(PRECEDENCE_APPROVED_BY,
+                        (entity, parser) -> entity.setPrecedenceApprovedBy(readString(parser)));
+                properties.add(PRECEDENCE_STATUS,
+                        (entity, parser) -> entity.setPrecedenceStatus(readString(parser)));
+                properties.add(PRECEDENCE_APPROVED_DATE, (entity, parser) -> entity.setPrecedenceApprovedDate(
+                        readDate(parser, "The deletion object you tried to create " +
                                 "has a malformed presedensGodkjentDato/precedenceApprovedDate. Make sure the format " +
-                                "is " + NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(PRECEDENCE_APPROVED_DATE);
-                }
-            }
-
-            public static Set<CaseParty> deserialiseCaseParties(ObjectNode objectNode) {
-                HashSet<CaseParty> caseParties = new HashSet<>();
-                JsonNode jsonCorrespondenceParts = objectNode.get(CORRESPONDENCE_PART);
-
-                // TODO: I seem tobe missing my body of code ...
-/*                for (CorrespondencePart correspondencePart: caseParties) {
-                    deserialiseCorrespondencePart(correspondencePart, objectNode);
-                    objectNode.remove(CORRESPONDENCE_PART);
-                }
-*/
-                return caseParties;
-            }
-
-            public static Set<CorrespondencePart> deserialiseCorrespondencePart(ObjectNode objectNode) {
-                // TODO: I seem tobe missing my body of code ...
-
-                /*HashSet<CorrespondencePart> correspondenceParts = new HashSet<> ();
-
-                JsonNode jsonCorrespondenceParts = objectNode.get(CORRESPONDENCE_PART);
-                for ( : jsonCorrespondenceParts) {
-
-                }
-                return correspondenceParts;
-                */
-                return null;
-            }
-
-            public static void deserialiseCorrespondencePartEntity(ICorrespondencePartEntity correspondencePartEntity,
-                                                                   ObjectNode objectNode) {
-                // Deserialize correspondencePartId
-                JsonNode currentNode = objectNode.get(CORRESPONDENCE_PART_TYPE);
-                if (null != currentNode) {
-                    correspondencePartEntity.setCorrespondencePartType(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_TYPE);
-                }
-                // Deserialize correspondencePartName
-                currentNode = objectNode.get(CORRESPONDENCE_PART_NAME);
-                if (null != currentNode) {
-                    correspondencePartEntity.setCorrespondencePartName(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_NAME);
-                }
-                // Deserialize postalAddress
-                currentNode = objectNode.get(CORRESPONDENCE_PART_POSTAL_ADDRESS);
-                if (null != currentNode) {
-                    correspondencePartEntity.setPostalAddress(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_POSTAL_ADDRESS);
-                }
-                // Deserialize postCode
-                currentNode = objectNode.get(CORRESPONDENCE_PART_POST_CODE);
-                if (null != currentNode) {
-                    correspondencePartEntity.setPostCode(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_POST_CODE);
-                }
-                // Deserialize postalTown
-                currentNode = objectNode.get(CORRESPONDENCE_PART_POSTAL_TOWN);
-                if (null != currentNode) {
-                    correspondencePartEntity.setPostalTown(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_POSTAL_TOWN);
-                }
-                // Deserialize country
-                currentNode = objectNode.get(CORRESPONDENCE_PART_COUNTRY);
-                if (null != currentNode) {
-                    correspondencePartEntity.setCountry(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_COUNTRY);
-                }
-                // Deserialize emailAddress
-                currentNode = objectNode.get(CORRESPONDENCE_PART_EMAIL_ADDRESS);
-                if (null != currentNode) {
-                    correspondencePartEntity.setEmailAddress(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_EMAIL_ADDRESS);
-                }
-                // Deserialize telephoneNumber
-                currentNode = objectNode.get(CORRESPONDENCE_PART_TELEPHONE_NUMBER);
-                if (null != currentNode) {
-                    correspondencePartEntity.setTelephoneNumber(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_TELEPHONE_NUMBER);
-                }
-                // Deserialize contactPerson
-                currentNode = objectNode.get(CORRESPONDENCE_PART_CONTACT_PERSON);
-                if (null != currentNode) {
-                    correspondencePartEntity.setContactPerson(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_CONTACT_PERSON);
-                }
-                // Deserialize administrativeUnit
-                currentNode = objectNode.get(CORRESPONDENCE_PART_ADMINISTRATIVE_UNIT);
-                if (null != currentNode) {
-                    correspondencePartEntity.setAdministrativeUnit(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_ADMINISTRATIVE_UNIT);
-                }
-                // Deserialize caseHandler
-                currentNode = objectNode.get(CORRESPONDENCE_PART_CASE_HANDLER);
-                if (null != currentNode) {
-                    correspondencePartEntity.setCaseHandler(currentNode.textValue());
-                    objectNode.remove(CORRESPONDENCE_PART_CASE_HANDLER);
-                }
+                                "is " + NOARK_DATE_FORMAT_PATTERN)));
             }
 
-            // TODO: Double check how the JSON of this looks if multiple fondsCreators are embedded within a fonds
-            // object There might be some 'root' node in the JSON to remove
-            // This might be implemented as an array???
-            public static Set<FondsCreator> deserialiseFondsCreators(ObjectNode objectNode) {
-                return null;
+            public static <T extends ICorrespondencePartEntity> void addCorrespondencePartEntity(
+                    PropertyTable<T> properties) {
+                properties.add(CORRESPONDENCE_PART_TYPE,
+                        (entity, parser) -> entity.setCorrespondencePartType(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_NAME,
+                        (entity, parser) -> entity.setCorrespondencePartName(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_POSTAL_ADDRESS,
+                        (entity, parser) -> entity.setPostalAddress(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_POST_CODE,
+                        (entity, parser) -> entity.setPostCode(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_POSTAL_TOWN,
+                        (entity, parser) -> entity.setPostalTown(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_COUNTRY,
+                        (entity, parser) -> entity.setCountry(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_EMAIL_ADDRESS,
+                        (entity, parser) -> entity.setEmailAddress(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_TELEPHONE_NUMBER,
+                        (entity, parser) -> entity.setTelephoneNumber(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_CONTACT_PERSON,
+                        (entity, parser) -> entity.setContactPerson(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_ADMINISTRATIVE_UNIT,
+                        (entity, parser) -> entity.setAdministrativeUnit(readString(parser)));
+                properties.add(CORRESPONDENCE_PART_CASE_HANDLER,
+                        (entity, parser) -> entity.setCaseHandler(readString(parser)));
             }
 
-            public static void deserialiseFondsCreator(IFondsCreatorEntity fondsCreatorEntity, ObjectNode objectNode) {
-                // Deserialize fondsCreatorId
-                JsonNode currentNode = objectNode.get(FONDS_CREATOR_ID);
-                if (null != currentNode) {
-                    fondsCreatorEntity.setFondsCreatorId(currentNode.textValue());
-                    objectNode.remove(FONDS_CREATOR_ID);
-                }
-                // Deserialize fondsCreatorName
-                currentNode = objectNode.get(FONDS_CREATOR_NAME);
-                if (null != currentNode) {
-                    fondsCreatorEntity.setFondsCreatorName(currentNode.textValue());
-                    objectNode.remove(FONDS_CREATOR_NAME);
-                }
-                // Deserialize description
-                currentNode = objectNode.get(DESCRIPTION);
-                if (null != currentNode) {
-                    fondsCreatorEntity.setDescription(currentNode.textValue());
-                    objectNode.remove(DESCRIPTION);
-                }
+            public static <T extends IFondsCreatorEntity> void addFondsCreator(PropertyTable<T> properties) {
+                properties.add(FONDS_CREATOR_ID,
+                        (entity, parser) -> entity.setFondsCreatorId(readString(parser)));
+                properties.add(FONDS_CREATOR_NAME,
+                        (entity, parser) -> entity.setFondsCreatorName(readString(parser)));
+                properties.add(DESCRIPTION, (entity, parser) -> entity.setDescription(readString(parser)));
             }
 
-            public static Screening deserialiseScreening(ObjectNode objectNode) {
-                Screening screening = null;
-                JsonNode screeningNode = objectNode.get(SCREENING);
-                if (screeningNode != null) {
-                    screening = new Screening();
-                    deserialiseScreeningEntity(screening, screeningNode.deepCopy());
-                }
-                objectNode.remove(SCREENING);
-                return screening;
+            public static <T extends IScreening> void addScreening(PropertyTable<T> properties) {
+                properties.add(SCREENING, (entity, parser) -> entity.setReferenceScreening(
+                        readObject(parser, screeningProperties, new Screening(), SCREENING)));
             }
 
-            public static void deserialiseScreeningEntity(IScreeningEntity screeningEntity, ObjectNode objectNode) {
-                // Deserialize accessRestriction
-                JsonNode currentNode = objectNode.get(SCREENING_ACCESS_RESTRICTION);
-                if (null != currentNode) {
-                    screeningEntity.setAccessRestriction(currentNode.textValue());
-                    objectNode.remove(SCREENING_ACCESS_RESTRICTION);
-                }
-                // Deserialize screeningAuthority
-                currentNode = objectNode.get(SCREENING_AUTHORITY);
-                if (null != currentNode) {
-                    screeningEntity.setScreeningAuthority(currentNode.textValue());
-                    objectNode.remove(SCREENING_AUTHORITY);
-                }
-                // Deserialize screeningMetadata
-                currentNode = objectNode.get(SCREENING_METADATA);
-                if (null != currentNode) {
-                    screeningEntity.setScreeningMetadata(currentNode.textValue());
-                    objectNode.remove(SCREENING_METADATA);
-                }
-                // Deserialize screeningDocument
-                currentNode = objectNode.get(SCREENING_DOCUMENT);
-                if (null != currentNode) {
-                    screeningEntity.setScreeningDocument(currentNode.textValue());
-                    objectNode.remove(SCREENING_DOCUMENT);
-                }
-                // Deserialize screeningExpiresDate
-                currentNode = objectNode.get(SCREENING_EXPIRES_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        screeningEntity.setScreeningExpiresDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The deletion object you tried to create " +
+            public static <T extends IScreeningEntity> void addScreeningEntity(PropertyTable<T> properties) {
+                properties.add(SCREENING_ACCESS_RESTRICTION,
+                        (entity, parser) -> entity.setAccessRestriction(readString(parser)));
+                properties.add(SCREENING_AUTHORITY,
+                        (entity, parser) -> entity.setScreeningAuthority(readString(parser)));
+                properties.add(SCREENING_METADATA,
+                        (entity, parser) -> entity.setScreeningMetadata(readString(parser)));
+                properties.add(SCREENING_DOCUMENT,
+                        (entity, parser) -> entity.setScreeningDocument(readString(parser)));
+                properties.add(SCREENING_EXPIRES_DATE, (entity, parser) -> entity.setScreeningExpiresDate(
+                        readDate(parser, "The deletion object you tried to create " +
                                 "has a malformed skjermingOpphoererDato/screeningExpiresDate. Make sure the" +
-                                " format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(SCREENING_EXPIRES_DATE);
-                }
-                // Deserialize screeningDuration
-                currentNode = objectNode.get(SCREENING_DURATION);
-                if (null != currentNode) {
-                    screeningEntity.setScreeningDuration(currentNode.textValue());
-                    objectNode.remove(SCREENING_DURATION);
-                }
-                objectNode.remove(SCREENING);
+                                " format is " + NOARK_DATE_FORMAT_PATTERN)));
+                properties.add(SCREENING_DURATION,
+                        (entity, parser) -> entity.setScreeningDuration(readString(parser)));
             }
 
-            public static Classified deserialiseClassified(ObjectNode objectNode) {
-                Classified classified = null;
-                JsonNode classifiedNode = objectNode.get(CLASSIFIED);
-                if (classifiedNode != null) {
-                    classified = new Classified();
-                    deserialiseClassifiedEntity(classified, classifiedNode.deepCopy());
-                }
-                //TODO: Only remove if the hashset is actually empty, otherwise let it go back up with the extra values
-                objectNode.remove(CLASSIFIED);
-                return classified;
+            public static <T extends IClassified> void addClassified(PropertyTable<T> properties) {
+                properties.add(CLASSIFIED, (entity, parser) -> entity.setReferenceClassified(
+                        readObject(parser, classifiedProperties, new Classified(), CLASSIFIED)));
             }
 
-            public static void deserialiseClassifiedEntity(IClassifiedEntity classifiedEntity, ObjectNode objectNode) {
-
-                // Deserialize classification
-                JsonNode currentNode = objectNode.get(CLASSIFICATION);
-                if (null != currentNode) {
-                    classifiedEntity.setClassification(currentNode.textValue());
-                    objectNode.remove(CLASSIFICATION);
-                }
-                // Deserialize classificationDate
-                currentNode = objectNode.get(CLASSIFICATION_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        classifiedEntity.setClassificationDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The screening object you tried to create " +
+            public static <T extends IClassifiedEntity> void addClassifiedEntity(PropertyTable<T> properties) {
+                properties.add(CLASSIFICATION,
+                        (entity, parser) -> entity.setClassification(readString(parser)));
+                properties.add(CLASSIFICATION_DATE, (entity, parser) -> entity.setClassificationDate(
+                        readDate(parser, "The screening object you tried to create " +
                                 "has a malformed graderingsdato/classificationDate. Make sure the format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(CLASSIFICATION_DATE);
-                }
-
-                // Deserialize classificationBy
-                currentNode = objectNode.get(CLASSIFICATION_BY);
-                if (null != currentNode) {
-                    classifiedEntity.setClassificationBy(currentNode.textValue());
-                    objectNode.remove(CLASSIFICATION_BY);
-                }
-                // Deserialize classificationDowngradedDate
-                currentNode = objectNode.get(CLASSIFICATION_DOWNGRADED_DATE);
-                if (null != currentNode) {
-                    try {
-                        Date parsedDate = dateFormat.parse(currentNode.textValue());
-                        classifiedEntity.setClassificationDowngradedDate(parsedDate);
-                    } catch (ParseException e) {
-                        throw new NikitaMalformedInputDataException("The screening object you tried to create " +
-                                "has a malformed nedgraderingsdato/classificationDowngradedDate. Make sure the " +
-                                "format is " +
-                                NOARK_DATE_FORMAT_PATTERN);
-                    }
-                    objectNode.remove(CLASSIFICATION_DOWNGRADED_DATE);
-                }
-                // Deserialize
-                currentNode = objectNode.get(CLASSIFICATION_DOWNGRADED_BY);
-                if (null != currentNode) {
-                    classifiedEntity.setClassificationDowngradedBy(currentNode.textValue());
-                    objectNode.remove(CLASSIFICATION_DOWNGRADED_BY);
-                }
-                objectNode.remove(CLASSIFIED);
+                                NOARK_DATE_FORMAT_PATTERN)));
+                properties.add(CLASSIFICATION_BY,
+                        (entity, parser) -> entity.setClassificationBy(readString(parser)));
+                properties.add(CLASSIFICATION_DOWNGRADED_DATE,
+                        (entity, parser) -> entity.setClassificationDowngradedDate(
+                                readDate(parser, "The screening object you tried to create " +
+                                        "has a malformed nedgraderingsdato/classificationDowngradedDate. Make sure " +
+                                        "the format is " + NOARK_DATE_FORMAT_PATTERN)));
+                properties.add(CLASSIFICATION_DOWNGRADED_BY,
+                        (entity, parser) -> entity.setClassificationDowngradedBy(readString(parser)));
             }
         }
 
@@ -830,7 +525,7 @@ public final class CommonUtils {
                     throws IOException {
                 if (createEntity != null) {
                     if (createEntity.getCreatedDate() != null) {
-                        jgen.writeStringField(CREATED_DATE, DATE_TIME_FORMAT.format(createEntity.getCreatedDate()));
+                        jgen.writeStringField(CREATED_DATE, NoarkDateCodec.formatDateTime(createEntity.getCreatedDate()));
                     }
                     if (createEntity.getCreatedBy() != null) {
                         jgen.writeStringField(CREATED_BY, createEntity.getCreatedBy());
@@ -855,7 +550,7 @@ public final class CommonUtils {
                     jgen.writeStringField(FINALISED_BY, finaliseEntity.getFinalisedBy());
                 }
                 if (finaliseEntity.getFinalisedDate() != null) {
-                    jgen.writeStringField(FINALISED_DATE, DATE_TIME_FORMAT.format(finaliseEntity.getFinalisedDate()));
+                    jgen.writeStringField(FINALISED_DATE, NoarkDateCodec.formatDateTime(finaliseEntity.getFinalisedDate()));
                 }
             }
 
@@ -1004,7 +699,7 @@ public final class CommonUtils {
                             jgen.writeObjectFieldStart(SIGN_OFF);
 
                             if (signOff.getSignOffDate() != null) {
-                                jgen.writeStringField(SIGN_OFF_DATE, DATE_FORMAT.format(
+                                jgen.writeStringField(SIGN_OFF_DATE, NoarkDateCodec.formatDate(
                                         signOff.getSignOffDate()));
                             }
                             if (signOff.getSignOffBy() != null) {
@@ -1037,11 +732,11 @@ public final class CommonUtils {
                                 jgen.writeStringField(DOCUMENT_FLOW_FLOW_FROM, documentFlow.getFlowFrom());
                             }
                             if (documentFlow.getFlowReceivedDate() != null) {
-                                jgen.writeStringField(DOCUMENT_FLOW_FLOW_RECEIVED_DATE, DATE_FORMAT.format(
+                                jgen.writeStringField(DOCUMENT_FLOW_FLOW_RECEIVED_DATE, NoarkDateCodec.formatDate(
                                         documentFlow.getFlowReceivedDate()));
                             }
                             if (documentFlow.getFlowSentDate() != null) {
-                                jgen.writeStringField(DOCUMENT_FLOW_FLOW_SENT_DATE, DATE_FORMAT.format(
+                                jgen.writeStringField(DOCUMENT_FLOW_FLOW_SENT_DATE, NoarkDateCodec.formatDate(
                                         documentFlow.getFlowSentDate()));
                             }
                             if (documentFlow.getFlowStatus() != null) {
@@ -1068,11 +763,11 @@ public final class CommonUtils {
                             jgen.writeObjectFieldStart(PRECEDENCE);
 
                             if (precedence.getPrecedenceDate() != null) {
-                                jgen.writeStringField(PRECEDENCE_DATE, DATE_FORMAT.format(
+                                jgen.writeStringField(PRECEDENCE_DATE, NoarkDateCodec.formatDate(
                                         precedence.getPrecedenceDate()));
                             }
                             if (precedence.getCreatedDate() != null) {
-                                jgen.writeStringField(CREATED_DATE, DATE_TIME_FORMAT.format(
+                                jgen.writeStringField(CREATED_DATE, NoarkDateCodec.formatDateTime(
                                         precedence.getCreatedDate()));
                             }
                             if (precedence.getCreatedBy() != null) {
@@ -1091,14 +786,14 @@ public final class CommonUtils {
                                 jgen.writeStringField(PRECEDENCE_SOURCE_OF_LAW, precedence.getSourceOfLaw());
                             }
                             if (precedence.getPrecedenceApprovedDate() != null) {
-                                jgen.writeStringField(PRECEDENCE_APPROVED_DATE, DATE_FORMAT.format(
+                                jgen.writeStringField(PRECEDENCE_APPROVED_DATE, NoarkDateCodec.formatDate(
                                         precedence.getPrecedenceApprovedDate()));
                             }
                             if (precedence.getPrecedenceApprovedBy() != null) {
                                 jgen.writeStringField(PRECEDENCE_APPROVED_BY, precedence.getPrecedenceApprovedBy());
                             }
                             if (precedence.getFinalisedDate() != null) {
-                                jgen.writeStringField(FINALISED_DATE, DATE_TIME_FORMAT.format(
+                                jgen.writeStringField(FINALISED_DATE, NoarkDateCodec.formatDateTime(
                                         precedence.getFinalisedDate()));
                             }
                             if (precedence.getFinalisedBy() != null) {
@@ -1153,7 +848,7 @@ public final class CommonUtils {
                             jgen.writeObjectFieldStart(ELECTRONIC_SIGNATURE);
                             if (conversion.getConvertedDate() != null) {
                                 jgen.writeStringField(CONVERTED_DATE,
-                                        DATE_FORMAT.format(conversion.getConvertedDate()));
+                                        NoarkDateCodec.formatDate(conversion.getConvertedDate()));
                             }
                             if (conversion.getConvertedBy() != null) {
                                 jgen.writeStringField(CONVERTED_BY,
@@ -1229,7 +924,7 @@ public final class CommonUtils {
                                 electronicSignature.getElectronicSignatureVerified());
                     }
                     if (electronicSignature.getVerifiedDate() != null) {
-                        jgen.writeStringField(ELECTRONIC_SIGNATURE_VERIFIED_DATE, DATE_FORMAT.format(
+                        jgen.writeStringField(ELECTRONIC_SIGNATURE_VERIFIED_DATE, NoarkDateCodec.formatDate(
                                 electronicSignature.getVerifiedDate()));
                     }
                     if (electronicSignature.getVerifiedBy() != null) {
@@ -1250,7 +945,7 @@ public final class CommonUtils {
                             jgen.writeStringField(CLASSIFICATION, classified.getClassification());
                         }
                         if (classified.getClassificationDate() != null) {
-                            jgen.writeStringField(CLASSIFICATION_DATE, DATE_TIME_FORMAT.format(
+                            jgen.writeStringField(CLASSIFICATION_DATE, NoarkDateCodec.formatDateTime(
                                     classified.getClassificationDate()));
                         }
                         if (classified.getClassificationBy() != null) {
@@ -1258,7 +953,7 @@ public final class CommonUtils {
                         }
                         if (classified.getClassificationDowngradedDate() != null) {
                             jgen.writeStringField(CLASSIFICATION_DOWNGRADED_DATE,
-                                    DATE_TIME_FORMAT.format(classified.getClassificationDowngradedDate()));
+                                    NoarkDateCodec.formatDateTime(classified.getClassificationDowngradedDate()));
                         }
                         if (classified.getClassificationDowngradedBy() != null) {
                             jgen.writeStringField(CLASSIFICATION_DOWNGRADED_BY,
@@ -1289,7 +984,7 @@ public final class CommonUtils {
                         }
                         if (disposal.getDisposalDate() != null) {
                             jgen.writeStringField(DISPOSAL_DATE,
-                                    DATE_FORMAT.format(disposal.getDisposalDate()));
+                                    NoarkDateCodec.formatDate(disposal.getDisposalDate()));
                         }
                         jgen.writeEndObject();
                     }
@@ -1307,7 +1002,7 @@ public final class CommonUtils {
                         }
                         if (disposalUndertaken.getDisposalDate() != null) {
                             jgen.writeStringField(DISPOSAL_UNDERTAKEN_DATE,
-                                    DATE_FORMAT.format(disposalUndertaken.getDisposalDate()));
+                                    NoarkDateCodec.formatDate(disposalUndertaken.getDisposalDate()));
                         }
                         jgen.writeEndObject();
                     }
@@ -1327,7 +1022,7 @@ public final class CommonUtils {
                             jgen.writeStringField(DELETION_TYPE, deletion.getDeletionType());
                         }
                         if (deletion.getDeletionDate() != null) {
-                            jgen.writeStringField(DELETION_DATE, DATE_FORMAT.format(deletion.getDeletionDate()));
+                            jgen.writeStringField(DELETION_DATE, NoarkDateCodec.formatDate(deletion.getDeletionDate()));
                         }
                         jgen.writeEndObject();
                     }
@@ -1358,7 +1053,7 @@ public final class CommonUtils {
                         }
                         if (screening.getScreeningExpiresDate() != null) {
                             jgen.writeStringField(SCREENING_EXPIRES_DATE,
-                                    DATE_FORMAT.format(screening.getScreeningExpiresDate()));
+                                    NoarkDateCodec.formatDate(screening.getScreeningExpiresDate()));
                         }
                         if (screening.getScreeningDuration() != null) {
                             jgen.writeStringField(SCREENING_DURATION,
@@ -1382,7 +1077,7 @@ public final class CommonUtils {
                             jgen.writeStringField(COMMENT_TYPE, comment.getCommentType());
                         }
                         if (comment.getCommentDate() != null) {
-                            jgen.writeStringField(COMMENT_DATE, DATE_FORMAT.format(comment.getCommentDate()));
+                            jgen.writeStringField(COMMENT_DATE, NoarkDateCodec.formatDate(comment.getCommentDate()));
                         }
                         if (comment.getCommentRegisteredBy() != null) {
                             jgen.writeStringField(COMMENT_REGISTERED_BY, comment.getCommentRegisteredBy());
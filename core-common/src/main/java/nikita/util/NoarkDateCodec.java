@@ -0,0 +1,239 @@
+package nikita.util;
+
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+
+import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
+import static nikita.config.Constants.NOARK_DATE_TIME_FORMAT_PATTERN;
+
+/**
+ * Parsing and formatting of Noark dates (yyyy-MM-dd) and date times (yyyy-MM-dd'T'HH:mm:ss) in the default time
+ * zone of the JVM, as SimpleDateFormat did.
+ *
+ * Unlike SimpleDateFormat this holds no state and can be shared by all threads. Values in the fixed width form
+ * of the patterns, which is what the core writes and what clients almost always send, are parsed and formatted
+ * digit by digit. Other values, e.g. 2017-1-5, are parsed by a java.time formatter. As with SimpleDateFormat,
+ * anything following a valid value is ignored, so a date time is accepted where a date is expected.
+ */
+public final class NoarkDateCodec {
+
+    private static final int DATE_LENGTH = 10;
+    private static final int DATE_TIME_LENGTH = 19;
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int MAX_FAST_YEAR = 9999;
+
+    private static final DateTimeFormatter DATE_PARSER =
+            DateTimeFormatter.ofPattern("uuuu-M-d").withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter DATE_TIME_PARSER =
+            DateTimeFormatter.ofPattern("uuuu-M-d'T'H:m:s").withResolverStyle(ResolverStyle.STRICT);
+    // Years before 0 or after 9999. The year is proleptic (uuuu), as on the fast path, so that a negative year is
+    // written with its sign, as the parsers read it, and not as the year of its era
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern(NOARK_DATE_FORMAT_PATTERN.replace("yyyy", "uuuu"));
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern(NOARK_DATE_TIME_FORMAT_PATTERN.replace("yyyy", "uuuu"));
+
+    private static final ZoneId zone = ZoneId.systemDefault();
+    private static final ZoneRules rules = zone.getRules();
+    // The offset from UTC in seconds if it never changes in the zone, e.g. UTC, otherwise null
+    private static final Integer fixedOffset = rules.isFixedOffset() ?
+            rules.getOffset(Instant.EPOCH).getTotalSeconds() : null;
+
+    // You shall not instantiate me!
+    private NoarkDateCodec() {
+    }
+
+    /**
+     * @param text a date, e.g. 2017-01-31
+     * @return the start of the day in the default time zone
+     * @throws DateTimeParseException if text does not start with a valid date
+     */
+    public static Date parseDate(String text) {
+        long epochSecond = parseFixedWidth(text, false);
+        if (epochSecond == Long.MIN_VALUE) {
+            epochSecond = toEpochSecond(LocalDate.from(parsePrefix(text, DATE_PARSER)).atStartOfDay());
+        }
+        return new Date(epochSecond * 1000);
+    }
+
+    /**
+     * @param text a date time, e.g. 2017-01-31T13:45:00
+     * @throws DateTimeParseException if text does not start with a valid date time
+     */
+    public static Date parseDateTime(String text) {
+        long epochSecond = parseFixedWidth(text, true);
+        if (epochSecond == Long.MIN_VALUE) {
+            epochSecond = toEpochSecond(LocalDateTime.from(parsePrefix(text, DATE_TIME_PARSER)));
+        }
+        return new Date(epochSecond * 1000);
+    }
+
+    /**
+     * @return date as yyyy-MM-dd
+     */
+    public static String formatDate(Date date) {
+        return format(date, false);
+    }
+
+    /**
+     * @return date as yyyy-MM-dd'T'HH:mm:ss
+     */
+    public static String formatDateTime(Date date) {
+        return format(date, true);
+    }
+
+    private static String format(Date date, boolean withTime) {
+        long epochSecond = Math.floorDiv(date.getTime(), 1000);
+        long localSecond = epochSecond + offsetAt(epochSecond);
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+
+        // Civil date from a day count, see http://howardhinnant.github.io/date_algorithms.html
+        long days = epochDay + 719468;
+        long era = Math.floorDiv(days, 146097);
+        int dayOfEra = (int) (days - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > MAX_FAST_YEAR) {
+            LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+            return withTime ? DATE_TIME_FORMATTER.format(localDateTime) : DATE_FORMATTER.format(localDateTime);
+        }
+
+        char[] chars = new char[withTime ? DATE_TIME_LENGTH : DATE_LENGTH];
+        writeDigits(chars, 0, (int) year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, day, 2);
+        if (withTime) {
+            chars[10] = 'T';
+            writeDigits(chars, 11, secondOfDay / 3600, 2);
+            chars[13] = ':';
+            writeDigits(chars, 14, secondOfDay / 60 % 60, 2);
+            chars[16] = ':';
+            writeDigits(chars, 17, secondOfDay % 60, 2);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Parse yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss at the start of text.
+     *
+     * @return the seconds since the epoch, or Long.MIN_VALUE if text does not start with a valid value of exactly
+     * that form
+     */
+    private static long parseFixedWidth(String text, boolean withTime) {
+        if (text.length() < (withTime ? DATE_TIME_LENGTH : DATE_LENGTH) ||
+                text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = readDigits(text, 0, 4);
+        int month = readDigits(text, 5, 2);
+        int day = readDigits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+        int secondOfDay = 0;
+        if (withTime) {
+            if (text.charAt(10) != 'T' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+                return Long.MIN_VALUE;
+            }
+            int hour = readDigits(text, 11, 2);
+            int minute = readDigits(text, 14, 2);
+            int second = readDigits(text, 17, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return Long.MIN_VALUE;
+            }
+            secondOfDay = hour * 3600 + minute * 60 + second;
+        }
+
+        // Day count from a civil date, see http://howardhinnant.github.io/date_algorithms.html
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = era * 146097L + dayOfEra - 719468;
+
+        long localSecond = epochDay * SECONDS_PER_DAY + secondOfDay;
+        if (fixedOffset != null) {
+            return localSecond - fixedOffset;
+        }
+        return toEpochSecond(LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC));
+    }
+
+    private static TemporalAccessor parsePrefix(String text, DateTimeFormatter parser) {
+        return parser.parse(text, new ParsePosition(0));
+    }
+
+    /**
+     * In the hour repeated when clocks are set back, the later offset is used, as SimpleDateFormat does.
+     */
+    private static long toEpochSecond(LocalDateTime localDateTime) {
+        ZoneOffsetTransition transition = rules.getTransition(localDateTime);
+        if (transition != null && transition.isOverlap()) {
+            return localDateTime.toEpochSecond(transition.getOffsetAfter());
+        }
+        return localDateTime.toEpochSecond(rules.getOffset(localDateTime));
+    }
+
+    private static int offsetAt(long epochSecond) {
+        if (fixedOffset != null) {
+            return fixedOffset;
+        }
+        return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return the number written with length digits at offset, or -1 if one of them is not a digit
+     */
+    private static int readDigits(String text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package nikita.util;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Generates the primary keys of the Noark entities from a sequence per table, named after the table, e.g.
+ * fonds_seq.
+ * <p>
+ * A key used to cost a round trip to the database for the next value of the sequence, and as the insert could
+ * not be sent before the key was known, inserts could not be batched. Here the sequence is incremented by the
+ * allocation size (nikita.id.allocation_size, 50 by default) and each value read hands out that many keys, the
+ * value itself being the first of them (pooled-lo). With an allocation size of 50 a fonds structure is inserted
+ * with one sequence call per 50 rows of each table, and the inserts are sent in batches of
+ * hibernate.jdbc.batch_size.
+ * <p>
+ * Keys are handed out from a range in memory, so they are unique but not gapless, and are not in the order the
+ * rows were inserted across instances of the application.
+ */
+public class NoarkSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "nikita.util.NoarkSequenceGenerator";
+    public static final String ALLOCATION_SIZE = "nikita.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        if (!params.containsKey(SEQUENCE_PARAM)) {
+            params.setProperty(SEQUENCE_PARAM, params.getProperty(PersistentIdentifierGenerator.TABLE) + "_seq");
+        }
+        if (!params.containsKey(INCREMENT_PARAM)) {
+            String allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                    .getSetting(ALLOCATION_SIZE, StandardConverters.STRING, String.valueOf(DEFAULT_ALLOCATION_SIZE));
+            params.setProperty(INCREMENT_PARAM, allocationSize.trim());
+        }
+        if (!params.containsKey(OPT_PARAM)) {
+            params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        }
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -3,22 +3,17 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.BasicRecord;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.util.Date;
+import java.util.List;
 
 import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
 import static nikita.config.N5ResourceMappings.*;
-import static nikita.util.CommonUtils.Hateoas.Deserialize;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -49,71 +44,36 @@ import static nikita.util.CommonUtils.Hateoas.Deserialize;
  */
 public class BasicRecordDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<BasicRecord> properties = new PropertyTable<>();
+
+    static {
+        addNoarkSystemIdEntity(properties);
+        addNoarkCreateEntity(properties);
+        addNoarkTitleDescriptionEntity(properties);
+        addDocumentMedium(properties);
+        addAuthor(properties);
+        properties.add(RECORD_ARCHIVED_BY, (basicRecord, parser) -> basicRecord.setArchivedBy(readString(parser)));
+        properties.add(RECORD_ARCHIVED_DATE, (basicRecord, parser) -> basicRecord.setArchivedDate(
+                readDateTime(parser, "The basisregistrering you tried to create " +
+                        "has a malformed arkivertDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(BASIC_RECORD_ID, (basicRecord, parser) -> basicRecord.setRecordId(readString(parser)));
+        properties.add(FILE_PUBLIC_TITLE, (basicRecord, parser) -> basicRecord.setOfficialTitle(readString(parser)));
+    }
 
     @Override
     public BasicRecord deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
-        BasicRecord basicRecord = new BasicRecord();
 
-        ObjectNode objectNode = mapper.readTree(jsonParser);
+        BasicRecord basicRecord = new BasicRecord();
+        List<String> unrecognised = properties.read(jsonParser, basicRecord);
 
-        // Deserialise general record properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkSystemIdEntity (basicRecord, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkCreateEntity(basicRecord, objectNode);
 
-        // Deserialize archivedBy
-        JsonNode currentNode = objectNode.get(RECORD_ARCHIVED_BY);
-        if (null != currentNode) {
-            basicRecord.setArchivedBy(currentNode.textValue());
-            objectNode.remove(RECORD_ARCHIVED_BY);
-        }
-        // Deserialize archivedDate
-        currentNode = objectNode.get(RECORD_ARCHIVED_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = Deserialize.dateTimeFormat.parse(currentNode.textValue());
-                basicRecord.setArchivedDate(parsedDate);
-                objectNode.remove(RECORD_ARCHIVED_DATE);
-            }
-            catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The basisregistrering you tried to create " +
-                        "has a malformed arkivertDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize general basicRecord properties
-        // Deserialize recordId
-        currentNode = objectNode.get(BASIC_RECORD_ID);
-        if (null != currentNode) {
-            basicRecord.setRecordId(currentNode.textValue());
-            objectNode.remove(BASIC_RECORD_ID);
-        }
-        // Deserialize title (not using utils to preserve order)
-        currentNode = objectNode.get(TITLE);
-        if (null != currentNode) {
-            basicRecord.setTitle(currentNode.textValue());
-            objectNode.remove(TITLE);
-        }
-        // Deserialize  officialTitle
-        currentNode = objectNode.get(FILE_PUBLIC_TITLE);
-        if (null != currentNode) {
-            basicRecord.setOfficialTitle(currentNode.textValue());
-            objectNode.remove(FILE_PUBLIC_TITLE);
-        }
-        // Deserialize description
-        currentNode = objectNode.get(DESCRIPTION);
-        if (null != currentNode) {
-            basicRecord.setDescription(currentNode.textValue());
-            objectNode.remove(DESCRIPTION);
-        }
-        CommonUtils.Hateoas.Deserialize.deserialiseDocumentMedium(basicRecord, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseAuthor(basicRecord, objectNode);
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The basisregistrering you tried to create is malformed. The "
                     + "following fields are not recognised as basisregistrering fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return basicRecord;
     }
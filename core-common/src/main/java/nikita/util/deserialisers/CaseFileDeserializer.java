@@ -3,21 +3,18 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.CaseFile;
+import nikita.model.noark5.v4.CrossReference;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.util.Date;
+import java.util.List;
 
 import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
 import static nikita.config.N5ResourceMappings.*;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -47,122 +44,57 @@ import static nikita.config.N5ResourceMappings.*;
  */
 public class CaseFileDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<CaseFile> properties = new PropertyTable<>();
+
+    static {
+        addNoarkEntity(properties);
+        addDocumentMedium(properties);
+        addStorageLocation(properties);
+        addKeyword(properties);
+        addDisposal(properties);
+        addScreening(properties);
+        addClassified(properties);
+        properties.add(FILE_ID, (caseFile, parser) -> caseFile.setFileId(readString(parser)));
+        properties.add(FILE_PUBLIC_TITLE, (caseFile, parser) -> caseFile.setOfficialTitle(readString(parser)));
+        addCrossReference(properties, CrossReference::setReferenceFile);
+        addComment(properties);
+        addCaseParty(properties);
+        addPrecedence(properties);
+        properties.add(CASE_YEAR, (caseFile, parser) -> caseFile.setCaseYear(readInteger(parser)));
+        properties.add(CASE_SEQUENCE_NUMBER, (caseFile, parser) -> caseFile.setCaseSequenceNumber(readInteger(parser)));
+        properties.add(CASE_DATE, (caseFile, parser) -> caseFile.setCaseDate(
+                readDate(parser, "The saksmappe you tried to create " +
+                        "has a malformed saksDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(CASE_ADMINISTRATIVE_UNIT,
+                (caseFile, parser) -> caseFile.setAdministrativeUnit(readString(parser)));
+        properties.add(CASE_RESPONSIBLE, (caseFile, parser) -> caseFile.setCaseResponsible(readString(parser)));
+        properties.add(CASE_RECORDS_MANAGEMENT_UNIT,
+                (caseFile, parser) -> caseFile.setRecordsManagementUnit(readString(parser)));
+        properties.add(CASE_STATUS, (caseFile, parser) -> caseFile.setCaseStatus(readString(parser)));
+        properties.add(CASE_LOANED_DATE, (caseFile, parser) -> caseFile.setLoanedDate(
+                readDate(parser, "The saksmappe you tried to create " +
+                        "has a malformed utlaantDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(CASE_LOANED_TO, (caseFile, parser) -> caseFile.setLoanedTo(readString(parser)));
+    }
 
     @Override
     public CaseFile deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
-        CaseFile caseFile = new CaseFile();
-        ObjectNode objectNode = mapper.readTree(jsonParser);
 
-        // Deserialise properties for File
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkEntity(caseFile, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseDocumentMedium(caseFile, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseStorageLocation(caseFile, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseKeyword(caseFile, objectNode);
-
-        // Deserialize fileId
-        JsonNode currentNode = objectNode.get(FILE_ID);
-        if (null != currentNode) {
-            caseFile.setFileId(currentNode.textValue());
-            objectNode.remove(FILE_ID);
-        }
-        // Deserialize officialTitle
-        currentNode = objectNode.get(FILE_PUBLIC_TITLE);
-        if (null != currentNode) {
-            caseFile.setOfficialTitle(currentNode.textValue());
-            objectNode.remove(FILE_PUBLIC_TITLE);
-        }
-        caseFile.setReferenceCrossReference(CommonUtils.Hateoas.Deserialize.deserialiseCrossReferences(objectNode));
-        CommonUtils.Hateoas.Deserialize.deserialiseComments(caseFile, objectNode);
-        caseFile.setReferenceDisposal(CommonUtils.Hateoas.Deserialize.deserialiseDisposal(objectNode));
-        caseFile.setReferenceScreening(CommonUtils.Hateoas.Deserialize.deserialiseScreening(objectNode));
-        caseFile.setReferenceClassified(CommonUtils.Hateoas.Deserialize.deserialiseClassified(objectNode));
+        CaseFile caseFile = new CaseFile();
+        List<String> unrecognised = properties.read(jsonParser, caseFile);
 
-        // Deserialise general properties for CaseFile
-        // Deserialize caseYear
-        currentNode = objectNode.get(CASE_YEAR);
-        if (null != currentNode) {
-            caseFile.setCaseYear(Integer.getInteger(currentNode.textValue()));
-            objectNode.remove(CASE_YEAR);
-        }
-        // Deserialize caseSequenceNumber
-        currentNode = objectNode.get(CASE_SEQUENCE_NUMBER);
-        if (null != currentNode) {
-            caseFile.setCaseSequenceNumber(Integer.getInteger(currentNode.textValue()));
-            objectNode.remove(CASE_SEQUENCE_NUMBER);
-        }
-        // Deserialize caseDate
-        currentNode = objectNode.get(CASE_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                caseFile.setCaseDate(parsedDate);
-                objectNode.remove(CASE_DATE);
-            }
-            catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The saksmappe you tried to create " +
-                        "has a malformed saksDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize administrativeUnit
-        currentNode = objectNode.get(CASE_ADMINISTRATIVE_UNIT);
-        if (null != currentNode) {
-            caseFile.setAdministrativeUnit(currentNode.textValue());
-            objectNode.remove(CASE_ADMINISTRATIVE_UNIT);
-        }
-        // Deserialize caseResponsible
-        currentNode = objectNode.get(CASE_RESPONSIBLE);
-        if (null != currentNode) {
-            caseFile.setCaseResponsible(currentNode.textValue());
-            objectNode.remove(CASE_RESPONSIBLE);
-        }
-        // Deserialize recordsManagementUnit
-        currentNode = objectNode.get(CASE_RECORDS_MANAGEMENT_UNIT);
-        if (null != currentNode) {
-            caseFile.setRecordsManagementUnit(currentNode.textValue());
-            objectNode.remove(CASE_RECORDS_MANAGEMENT_UNIT);
-        }
-        // Deserialize caseStatus
-        currentNode = objectNode.get(CASE_STATUS);
-        if (null != currentNode) {
-            caseFile.setCaseStatus(currentNode.textValue());
-            objectNode.remove(CASE_STATUS);
-        }
-        // Deserialize loanedDate
-        currentNode = objectNode.get(CASE_LOANED_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                caseFile.setLoanedDate(parsedDate);
-                objectNode.remove(CASE_LOANED_DATE);
-            }
-            catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The saksmappe you tried to create " +
-                        "has a malformed utlaantDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize loanedTo
-        currentNode = objectNode.get(CASE_LOANED_TO);
-        if (null != currentNode) {
-            caseFile.setLoanedTo(currentNode.textValue());
-            objectNode.remove(CASE_LOANED_TO);
-        }
         // Check that all obligatory values are present
         checkForObligatoryNoarkValues(caseFile);
         checkForObligatoryCaseFileValues(caseFile);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The saksmappe object you tried to create is malformed. The "
                     + "following fields are not recognised as saksmappe fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
-
-        caseFile.setReferenceCaseParty(CommonUtils.Hateoas.Deserialize.deserialiseCaseParties(objectNode));
-        caseFile.setReferencePrecedence(CommonUtils.Hateoas.Deserialize.deserialisePrecedences(objectNode));
-
         return caseFile;
     }
 
@@ -3,18 +3,16 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.Class;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
+import java.util.List;
 
-import static nikita.config.N5ResourceMappings.CLASS_ID;
+import static nikita.config.N5ResourceMappings.*;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -44,34 +42,29 @@ import static nikita.config.N5ResourceMappings.CLASS_ID;
  */
 public class ClassDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<Class> properties = new PropertyTable<>();
+
+    static {
+        addNoarkEntity(properties);
+        properties.add(CLASS_ID, (klass, parser) -> klass.setClassId(readString(parser)));
+    }
 
     @Override
     public Class deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
 
         Class klass = new Class();
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // Deserialise general properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkEntity(klass, objectNode);
-
-        // Deserialize classId
-        JsonNode currentNode = objectNode.get(CLASS_ID);
-        if (null != currentNode) {
-            klass.setClassId(currentNode.textValue());
-            objectNode.remove(CLASS_ID);
-        }
+        List<String> unrecognised = properties.read(jsonParser, klass);
 
         // Check that all obligatory values are present
         checkForObligatoryNoarkValues(klass);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The klasse you tried to create is malformed. The "
                     + "following fields are not recognised as klasse fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return klass;
     }
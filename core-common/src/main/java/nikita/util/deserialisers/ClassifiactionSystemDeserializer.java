@@ -3,15 +3,15 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.ClassificationSystem;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
+import java.util.List;
+
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -42,27 +42,28 @@ import java.io.IOException;
  */
 public class ClassifiactionSystemDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<ClassificationSystem> properties = new PropertyTable<>();
+
+    static {
+        addNoarkEntity(properties);
+    }
 
     @Override
     public ClassificationSystem deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
 
         ClassificationSystem classificationSystem = new ClassificationSystem();
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // Deserialise general properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkEntity(classificationSystem, objectNode);
+        List<String> unrecognised = properties.read(jsonParser, classificationSystem);
 
         // Check that all obligatory values are present
         checkForObligatoryNoarkValues(classificationSystem);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The klassifikasjonssystem you tried to create is " +
                     "malformed. The following fields are not recognised as klassifikasjonssystem fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return classificationSystem;
     }
@@ -3,21 +3,17 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.DocumentDescription;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.util.Date;
+import java.util.List;
 
 import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
 import static nikita.config.N5ResourceMappings.*;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -48,71 +44,43 @@ import static nikita.config.N5ResourceMappings.*;
  */
 public class DocumentDescriptionDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<DocumentDescription> properties = new PropertyTable<>();
+
+    static {
+        addNoarkSystemIdEntity(properties);
+        addNoarkCreateEntity(properties);
+        addNoarkTitleDescriptionEntity(properties);
+        addDocumentMedium(properties);
+        properties.add(DOCUMENT_DESCRIPTION_DOCUMENT_TYPE,
+                (documentDescription, parser) -> documentDescription.setDocumentType(readString(parser)));
+        properties.add(DOCUMENT_DESCRIPTION_STATUS,
+                (documentDescription, parser) -> documentDescription.setDocumentStatus(readString(parser)));
+        properties.add(DOCUMENT_DESCRIPTION_ASSOCIATED_WITH_RECORD_AS,
+                (documentDescription, parser) -> documentDescription.setAssociatedWithRecordAs(readString(parser)));
+        properties.add(DOCUMENT_DESCRIPTION_DOCUMENT_NUMBER,
+                (documentDescription, parser) -> documentDescription.setDocumentNumber(readInteger(parser)));
+        properties.add(DOCUMENT_DESCRIPTION_ASSOCIATION_DATE,
+                (documentDescription, parser) -> documentDescription.setAssociationDate(
+                        readDateTime(parser, "The dokumentbeskrivelse you tried to create " +
+                                "has a malformed tilknyttetDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(DOCUMENT_DESCRIPTION_ASSOCIATED_BY,
+                (documentDescription, parser) -> documentDescription.setAssociatedBy(readString(parser)));
+    }
 
     @Override
     public DocumentDescription deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
-        DocumentDescription documentDescription = new DocumentDescription();
 
-        ObjectNode objectNode = mapper.readTree(jsonParser);
+        DocumentDescription documentDescription = new DocumentDescription();
+        List<String> unrecognised = properties.read(jsonParser, documentDescription);
 
-        // Deserialise general record properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkSystemIdEntity (documentDescription, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkCreateEntity(documentDescription, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkTitleDescriptionEntity(documentDescription, objectNode);
 
-        // Deserialize documentType
-        JsonNode currentNode = objectNode.get(DOCUMENT_DESCRIPTION_DOCUMENT_TYPE);
-        if (null != currentNode) {
-            documentDescription.setDocumentType(currentNode.textValue());
-            objectNode.remove(DOCUMENT_DESCRIPTION_DOCUMENT_TYPE);
-        }
-        // Deserialize documentStatus
-        currentNode = objectNode.get(DOCUMENT_DESCRIPTION_STATUS);
-        if (null != currentNode) {
-            documentDescription.setDocumentStatus(currentNode.textValue());
-            objectNode.remove(DOCUMENT_DESCRIPTION_STATUS);
-        }
-        // Deserialize associatedWithRecordAs
-        currentNode = objectNode.get(DOCUMENT_DESCRIPTION_ASSOCIATED_WITH_RECORD_AS);
-        if (null != currentNode) {
-            documentDescription.setAssociatedWithRecordAs(currentNode.textValue());
-            objectNode.remove(DOCUMENT_DESCRIPTION_ASSOCIATED_WITH_RECORD_AS);
-        }
-        // Deserialize documentNumber
-        currentNode = objectNode.get(DOCUMENT_DESCRIPTION_DOCUMENT_NUMBER);
-        if (null != currentNode) {
-            documentDescription.setDocumentNumber(Integer.getInteger(currentNode.textValue()));
-            objectNode.remove(DOCUMENT_DESCRIPTION_DOCUMENT_NUMBER);
-        }
-        // Deserialize associationDate
-        currentNode = objectNode.get(DOCUMENT_DESCRIPTION_ASSOCIATION_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateTimeFormat.parse(currentNode.textValue());
-                documentDescription.setAssociationDate(parsedDate);
-            }
-            catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The dokumentbeskrivelse you tried to create " +
-                        "has a malformed tilknyttetDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-            objectNode.remove(DOCUMENT_DESCRIPTION_ASSOCIATION_DATE);
-        }
-        // Deserialize associatedBy
-        currentNode = objectNode.get(DOCUMENT_DESCRIPTION_ASSOCIATED_BY);
-        if (null != currentNode) {
-            documentDescription.setAssociatedBy(currentNode.textValue());
-            objectNode.remove(DOCUMENT_DESCRIPTION_ASSOCIATED_BY);
-        }
-        // Deserialize general documentDescription properties
-        CommonUtils.Hateoas.Deserialize.deserialiseDocumentMedium(documentDescription, objectNode);
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The dokumentbeskrivelse you tried to create is malformed. The "
-                    + "following fields are not recognised as dokumentbeskrivelse fields[" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    + "following fields are not recognised as dokumentbeskrivelse fields [" +
+                    String.join(", ", unrecognised) + "]");
         }
         return documentDescription;
     }
@@ -143,5 +111,4 @@ public class DocumentDescriptionDeserializer extends JsonDeserializer implements
                     "malformed. The tilknyttetRegistreringSom field is mandatory, and you have submitted an empty value.");
         }
     }
-
 }
@@ -3,18 +3,16 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.DocumentObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
+import java.util.List;
 
 import static nikita.config.N5ResourceMappings.*;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -45,85 +43,49 @@ import static nikita.config.N5ResourceMappings.*;
  */
 public class DocumentObjectDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<DocumentObject> properties = new PropertyTable<>();
+
+    static {
+        addNoarkSystemIdEntity(properties);
+        addNoarkCreateEntity(properties);
+        properties.add(DOCUMENT_OBJECT_VERSION_NUMBER,
+                (documentObject, parser) -> documentObject.setVersionNumber(readInteger(parser)));
+        properties.add(DOCUMENT_OBJECT_VARIANT_FORMAT,
+                (documentObject, parser) -> documentObject.setVariantFormat(readString(parser)));
+        properties.add(DOCUMENT_OBJECT_FORMAT,
+                (documentObject, parser) -> documentObject.setFormat(readString(parser)));
+        properties.add(DOCUMENT_OBJECT_FORMAT_DETAILS,
+                (documentObject, parser) -> documentObject.setFormatDetails(readString(parser)));
+        properties.add(DOCUMENT_OBJECT_REFERENCE_DOCUMENT_FILE,
+                (documentObject, parser) -> documentObject.setReferenceDocumentFile(readString(parser)));
+        properties.add(DOCUMENT_OBJECT_CHECKSUM,
+                (documentObject, parser) -> documentObject.setChecksum(readString(parser)));
+        properties.add(DOCUMENT_OBJECT_CHECKSUM_ALGORITHM,
+                (documentObject, parser) -> documentObject.setChecksumAlgorithm(readString(parser)));
+        properties.add(DOCUMENT_OBJECT_FILE_SIZE,
+                (documentObject, parser) -> documentObject.setFileSize(readLong(parser)));
+        properties.add(DOCUMENT_OBJECT_FILE_NAME,
+                (documentObject, parser) -> documentObject.setOriginalFilename(readString(parser)));
+        properties.add(DOCUMENT_OBJECT_MIME_TYPE,
+                (documentObject, parser) -> documentObject.setMimeType(readString(parser)));
+    }
 
     @Override
     public DocumentObject deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
-        DocumentObject documentObject = new DocumentObject();
 
-        ObjectNode objectNode = mapper.readTree(jsonParser);
+        DocumentObject documentObject = new DocumentObject();
+        List<String> unrecognised = properties.read(jsonParser, documentObject);
 
-        // Deserialise general DocumentObject properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkSystemIdEntity (documentObject, objectNode);
-        // Deserialize versionNumber
-        JsonNode currentNode = objectNode.get(DOCUMENT_OBJECT_VERSION_NUMBER);
-        if (null != currentNode) {
-            documentObject.setVersionNumber(Integer.valueOf(currentNode.intValue()));
-            objectNode.remove(DOCUMENT_OBJECT_VERSION_NUMBER);
-        }
-        // Deserialize variantFormat
-        currentNode = objectNode.get(DOCUMENT_OBJECT_VARIANT_FORMAT);
-        if (null != currentNode) {
-            documentObject.setVariantFormat(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_VARIANT_FORMAT);
-        }
-        // Deserialize format
-        currentNode = objectNode.get(DOCUMENT_OBJECT_FORMAT);
-        if (null != currentNode) {
-            documentObject.setFormat(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_FORMAT);
-        }
-        // Deserialize formatDetails
-        currentNode = objectNode.get(DOCUMENT_OBJECT_FORMAT_DETAILS);
-        if (null != currentNode) {
-            documentObject.setFormatDetails(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_FORMAT_DETAILS);
-        }
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkCreateEntity(documentObject, objectNode);
-        // Deserialize referenceDocumentFile
-        currentNode = objectNode.get(DOCUMENT_OBJECT_REFERENCE_DOCUMENT_FILE);
-        if (null != currentNode) {
-            documentObject.setReferenceDocumentFile(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_REFERENCE_DOCUMENT_FILE);
-        }
-        // Deserialize checksum
-        currentNode = objectNode.get(DOCUMENT_OBJECT_CHECKSUM);
-        if (null != currentNode) {
-            documentObject.setChecksum(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_CHECKSUM);
-        }
-        // Deserialize checksumAlgorithm
-        currentNode = objectNode.get(DOCUMENT_OBJECT_CHECKSUM_ALGORITHM);
-        if (null != currentNode) {
-            documentObject.setChecksumAlgorithm(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_CHECKSUM_ALGORITHM);
-        }
-        // Deserialize fileSize
-        currentNode = objectNode.get(DOCUMENT_OBJECT_FILE_SIZE);
-        if (null != currentNode) {
-            documentObject.setFileSize(currentNode.asLong());
-            objectNode.remove(DOCUMENT_OBJECT_FILE_SIZE);
-        }
-        // Deserialize filename
-        currentNode = objectNode.get(DOCUMENT_OBJECT_FILE_NAME);
-        if (null != currentNode) {
-            documentObject.setOriginalFilename(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_FILE_NAME);
-        }
-        // Deserialize mimeType
-        currentNode = objectNode.get(DOCUMENT_OBJECT_MIME_TYPE);
-        if (null != currentNode) {
-            documentObject.setMimeType(currentNode.textValue());
-            objectNode.remove(DOCUMENT_OBJECT_MIME_TYPE);
-        }
+        // Check that all obligatory values are present
         checkForObligatoryDocumentObjectValues(documentObject);
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The dokumentobjekt you tried to create is malformed. The "
                     + "following fields are not recognised as dokumentobjekt fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return documentObject;
     }
@@ -3,19 +3,17 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import nikita.model.noark5.v4.CrossReference;
 import nikita.model.noark5.v4.File;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
+import java.util.List;
 
-import static nikita.config.N5ResourceMappings.FILE_ID;
-import static nikita.config.N5ResourceMappings.FILE_PUBLIC_TITLE;
+import static nikita.config.N5ResourceMappings.*;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -45,48 +43,39 @@ import static nikita.config.N5ResourceMappings.FILE_PUBLIC_TITLE;
  */
 public class FileDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<File> properties = new PropertyTable<>();
+
+    static {
+        addNoarkEntity(properties);
+        addDocumentMedium(properties);
+        addStorageLocation(properties);
+        addKeyword(properties);
+        addDisposal(properties);
+        addScreening(properties);
+        addClassified(properties);
+        properties.add(FILE_ID, (file, parser) -> file.setFileId(readString(parser)));
+        properties.add(FILE_PUBLIC_TITLE, (file, parser) -> file.setOfficialTitle(readString(parser)));
+        addCrossReference(properties, CrossReference::setReferenceFile);
+        addComment(properties);
+    }
 
     @Override
     public File deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
-        File file = new File();
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // Deserialise general properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkEntity(file, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseDocumentMedium(file, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseStorageLocation(file, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseKeyword(file, objectNode);
 
-        // Deserialize fileId
-        JsonNode currentNode = objectNode.get(FILE_ID);
-        if (null != currentNode) {
-            file.setFileId(currentNode.textValue());
-            objectNode.remove(FILE_ID);
-        }
-        // Deserialize officialTitle
-        currentNode = objectNode.get(FILE_PUBLIC_TITLE);
-        if (null != currentNode) {
-            file.setOfficialTitle(currentNode.textValue());
-            objectNode.remove(FILE_PUBLIC_TITLE);
-        }
-        // TODO: FIX THIS CommonCommonUtils.Hateoas.Deserialize.deserialiseCrossReference(file, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseComments(file, objectNode);
-        file.setReferenceDisposal(CommonUtils.Hateoas.Deserialize.deserialiseDisposal(objectNode));
-        file.setReferenceScreening(CommonUtils.Hateoas.Deserialize.deserialiseScreening(objectNode));
-        file.setReferenceClassified(CommonUtils.Hateoas.Deserialize.deserialiseClassified(objectNode));
+        File file = new File();
+        List<String> unrecognised = properties.read(jsonParser, file);
 
         // Check that all obligatory values are present
         checkForObligatoryNoarkValues(file);
         checkForObligatoryFileValues(file);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The mappe you tried to create is malformed. The "
                     + "following fields are not recognised as mappe fields  [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return file;
     }
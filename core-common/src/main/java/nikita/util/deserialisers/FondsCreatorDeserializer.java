@@ -3,15 +3,15 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.FondsCreator;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
+import java.util.List;
+
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -41,29 +41,29 @@ import java.io.IOException;
  */
 public class FondsCreatorDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<FondsCreator> properties = new PropertyTable<>();
+
+    static {
+        addFondsCreator(properties);
+    }
 
     @Override
     public FondsCreator deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
 
         FondsCreator fondsCreator = new FondsCreator();
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // Deserialise general properties
-        CommonUtils.Hateoas.Deserialize.deserialiseFondsCreator(fondsCreator, objectNode);
+        List<String> unrecognised = properties.read(jsonParser, fondsCreator);
 
         // Check that all obligatory values are present
         checkForObligatoryFondsCreatorValues(fondsCreator);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The arkivskaper you tried to create is malformed. The "
                     + "following fields are not recognised as arkivskaper fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
-
         return fondsCreator;
     }
 
@@ -89,5 +89,4 @@ public class FondsCreatorDeserializer extends JsonDeserializer implements Obliga
                     + "arkivskaperNavn field is mandatory, and you have submitted an empty value.");
         }
     }
-
-}
\ No newline at end of file
+}
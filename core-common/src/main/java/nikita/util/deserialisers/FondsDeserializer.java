@@ -3,18 +3,16 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.Fonds;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
+import java.util.List;
 
-import static nikita.config.N5ResourceMappings.FONDS_STATUS;
+import static nikita.config.N5ResourceMappings.*;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -44,38 +42,31 @@ import static nikita.config.N5ResourceMappings.FONDS_STATUS;
  */
 public class FondsDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<Fonds> properties = new PropertyTable<>();
+
+    static {
+        addNoarkEntity(properties);
+        addDocumentMedium(properties);
+        addStorageLocation(properties);
+        properties.add(FONDS_STATUS, (fonds, parser) -> fonds.setFondsStatus(readString(parser)));
+    }
 
     @Override
     public Fonds deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
 
         Fonds fonds = new Fonds();
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // TODO : Are we deserialising parent? No, it's not done here or is it????
-
-        // Deserialise general properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkEntity(fonds, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseDocumentMedium(fonds, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseStorageLocation(fonds, objectNode);
-
-        // Deserialize seriesStatus
-        JsonNode currentNode = objectNode.get(FONDS_STATUS);
-        if (currentNode != null) {
-            fonds.setFondsStatus(currentNode.textValue());
-            objectNode.remove(FONDS_STATUS);
-        }
+        List<String> unrecognised = properties.read(jsonParser, fonds);
 
         // Check that all obligatory values are present
         checkForObligatoryNoarkValues(fonds);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The arkiv you tried to create is malformed. The "
                     + "following fields are not recognised as arkiv fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return fonds;
     }
@@ -94,7 +85,6 @@ public class FondsDeserializer extends JsonDeserializer implements ObligatoryPro
     }
 }
 
-
 /*
 
 
@@ -0,0 +1,78 @@
+package nikita.util.deserialisers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import nikita.util.deserialisers.interfaces.PropertyReader;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The properties a deserialiser accepts, and how the value of each is read.
+ *
+ * The incoming JSON is read token by token and each property is handed to its reader as it is met, so no tree of
+ * the object is built. Property names are looked up as they are, then with no regard to small and large letters.
+ * A table is filled once, when the deserialiser class is loaded, and is only read after that, so it can be shared
+ * by all requests.
+ */
+public final class PropertyTable<T> {
+
+    private final Map<String, PropertyReader<? super T>> readers = new HashMap<>();
+    private final Map<String, PropertyReader<? super T>> readersIgnoringCase = new HashMap<>();
+
+    public PropertyTable<T> add(String name, PropertyReader<? super T> reader) {
+        readers.put(name, reader);
+        readersIgnoringCase.put(name.toLowerCase(Locale.ROOT), reader);
+        return this;
+    }
+
+    /**
+     * @return the reader of the named property, or null if the property is not in the table
+     */
+    public PropertyReader<? super T> get(String name) {
+        PropertyReader<? super T> reader = readers.get(name);
+        if (reader == null) {
+            reader = readersIgnoringCase.get(name.toLowerCase(Locale.ROOT));
+        }
+        return reader;
+    }
+
+    /**
+     * Read the JSON object the parser is positioned at into entity. On return the parser is positioned at the
+     * END_OBJECT of the object.
+     *
+     * @return the names of the properties that are not in the table, in the order they were met. Their values are
+     * skipped
+     * @throws NikitaMalformedInputDataException if the parser is not positioned at an object
+     */
+    public List<String> read(JsonParser jsonParser, T entity) throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = jsonParser.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            throw new NikitaMalformedInputDataException("Expected a JSON object, found " + token);
+        }
+        List<String> unrecognised = Collections.emptyList();
+        for (; token == JsonToken.FIELD_NAME; token = jsonParser.nextToken()) {
+            String name = jsonParser.getCurrentName();
+            jsonParser.nextToken();
+            PropertyReader<? super T> reader = get(name);
+            if (reader != null) {
+                reader.read(entity, jsonParser);
+            } else {
+                if (unrecognised.isEmpty()) {
+                    unrecognised = new ArrayList<>();
+                }
+                unrecognised.add(name);
+                jsonParser.skipChildren();
+            }
+        }
+        return unrecognised;
+    }
+}
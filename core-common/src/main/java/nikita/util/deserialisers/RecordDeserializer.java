@@ -3,23 +3,17 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.Record;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.util.Date;
+import java.util.List;
 
 import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
-import static nikita.config.N5ResourceMappings.RECORD_ARCHIVED_BY;
-import static nikita.config.N5ResourceMappings.RECORD_ARCHIVED_DATE;
-import static nikita.util.CommonUtils.Hateoas.Deserialize;
+import static nikita.config.N5ResourceMappings.*;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -50,51 +44,36 @@ import static nikita.util.CommonUtils.Hateoas.Deserialize;
  */
 public class RecordDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
-
-    @Override
-    public Record deserialize(JsonParser jsonParser, DeserializationContext dc)
-            throws IOException {
-        Record record = new Record();
-
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // Deserialise general properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkSystemIdEntity (record, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkCreateEntity(record, objectNode);
-        // Deserialize archivedBy
-        JsonNode currentNode = objectNode.get(RECORD_ARCHIVED_BY);
-        if (currentNode != null) {
-            record.setArchivedBy(currentNode.textValue());
-            objectNode.remove(RECORD_ARCHIVED_BY);
-        }
-        // Deserialize archivedDate
-        currentNode = objectNode.get(RECORD_ARCHIVED_DATE);
-        if (currentNode != null) {
-            try {
-                Date parsedDate = Deserialize.dateTimeFormat.parse(currentNode.textValue());
-                record.setArchivedDate(parsedDate);
-                objectNode.remove(RECORD_ARCHIVED_DATE);
-            }
-            catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The registrering you tried to create " +
-                        "has a malformed arkivertDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
+    private static final PropertyTable<Record> properties = new PropertyTable<>();
 
+    static {
+        addNoarkSystemIdEntity(properties);
+        addNoarkCreateEntity(properties);
+        properties.add(RECORD_ARCHIVED_BY, (record, parser) -> record.setArchivedBy(readString(parser)));
+        properties.add(RECORD_ARCHIVED_DATE, (record, parser) -> record.setArchivedDate(
+                readDateTime(parser, "The registrering you tried to create " +
+                        "has a malformed arkivertDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
         // TODO: Handle deserialize of referanseArkivdel
         // You need a minor change to the domain model to handle this
         // Something like referenceSecondarySeries
         // You have the main fonds structure you link it to, but you also need to be able to link it to other
         // series objects
-        //CommonCommonUtils.Hateoas.Deserialize.deserialiseReferenceMultipleSeries(objectNode);
+    }
+
+    @Override
+    public Record deserialize(JsonParser jsonParser, DeserializationContext dc)
+            throws IOException {
+
+        Record record = new Record();
+        List<String> unrecognised = properties.read(jsonParser, record);
+
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The registrering you tried to create is malformed. The "
                     + "following fields are not recognised as registrering fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return record;
     }
@@ -3,22 +3,17 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.RegistryEntry;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.util.Date;
+import java.util.List;
 
 import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
 import static nikita.config.N5ResourceMappings.*;
-import static nikita.util.CommonUtils.Hateoas.Deserialize;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -49,204 +44,74 @@ import static nikita.util.CommonUtils.Hateoas.Deserialize;
  */
 public class RegistryEntryDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<RegistryEntry> properties = new PropertyTable<>();
+
+    static {
+        addNoarkSystemIdEntity(properties);
+        addNoarkCreateEntity(properties);
+        addNoarkTitleDescriptionEntity(properties);
+        addDocumentMedium(properties);
+        properties.add(RECORD_ARCHIVED_BY, (registryEntry, parser) -> registryEntry.setArchivedBy(readString(parser)));
+        properties.add(RECORD_ARCHIVED_DATE, (registryEntry, parser) -> registryEntry.setArchivedDate(
+                readDateTime(parser, "The journalpost object you tried to create " +
+                        "has a malformed arkivertDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(BASIC_RECORD_ID, (registryEntry, parser) -> registryEntry.setRecordId(readString(parser)));
+        properties.add(FILE_PUBLIC_TITLE,
+                (registryEntry, parser) -> registryEntry.setOfficialTitle(readString(parser)));
+        properties.add(REGISTRY_ENTRY_YEAR,
+                (registryEntry, parser) -> registryEntry.setRecordYear(readInteger(parser)));
+        properties.add(REGISTRY_ENTRY_SEQUENCE_NUMBER,
+                (registryEntry, parser) -> registryEntry.setRecordSequenceNumber(readInteger(parser)));
+        properties.add(REGISTRY_ENTRY_NUMBER,
+                (registryEntry, parser) -> registryEntry.setRegistryEntryNumber(readInteger(parser)));
+        properties.add(REGISTRY_ENTRY_TYPE,
+                (registryEntry, parser) -> registryEntry.setRegistryEntryType(readString(parser)));
+        properties.add(REGISTRY_ENTRY_STATUS,
+                (registryEntry, parser) -> registryEntry.setRecordStatus(readString(parser)));
+        properties.add(REGISTRY_ENTRY_DATE, (registryEntry, parser) -> registryEntry.setRecordDate(
+                readDate(parser, "The journalpost you tried to create " +
+                        "has a malformed journaldato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(REGISTRY_ENTRY_DOCUMENT_DATE, (registryEntry, parser) -> registryEntry.setDocumentDate(
+                readDate(parser, "The journalpost you tried to create " +
+                        "has a malformed dokumentetsDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(REGISTRY_ENTRY_RECEIVED_DATE, (registryEntry, parser) -> registryEntry.setReceivedDate(
+                readDate(parser, "The journalpost you tried to create " +
+                        "has a malformed mottattDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(REGISTRY_ENTRY_SENT_DATE, (registryEntry, parser) -> registryEntry.setSentDate(
+                readDate(parser, "The journalpost you tried to create " +
+                        "has a malformed sendtDate. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(REGISTRY_ENTRY_DUE_DATE, (registryEntry, parser) -> registryEntry.setDueDate(
+                readDate(parser, "The journalpost you tried to create " +
+                        "has a malformed forfallsdato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(REGISTRY_ENTRY_RECORD_FREEDOM_ASSESSMENT_DATE,
+                (registryEntry, parser) -> registryEntry.setFreedomAssessmentDate(
+                        readDate(parser, "The journalpost you tried to create " +
+                                "has a malformed offentlighetsvurdertDato. Make sure format is " +
+                                NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(REGISTRY_ENTRY_NUMBER_OF_ATTACHMENTS,
+                (registryEntry, parser) -> registryEntry.setNumberOfAttachments(readInteger(parser)));
+        properties.add(CASE_LOANED_DATE, (registryEntry, parser) -> registryEntry.setLoanedDate(
+                readDate(parser, "The journalpost you tried to create " +
+                        "has a malformed utlaantDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(CASE_LOANED_TO, (registryEntry, parser) -> registryEntry.setLoanedTo(readString(parser)));
+    }
 
     @Override
     public RegistryEntry deserialize(JsonParser jsonParser, DeserializationContext dc)
             throws IOException {
-        RegistryEntry registryEntry = new RegistryEntry();
-
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // Deserialise general record properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkSystemIdEntity(registryEntry, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkCreateEntity(registryEntry, objectNode);
 
-        // Deserialize archivedBy
-        JsonNode currentNode = objectNode.get(RECORD_ARCHIVED_BY);
-        if (null != currentNode) {
-            registryEntry.setArchivedBy(currentNode.textValue());
-            objectNode.remove(RECORD_ARCHIVED_BY);
-        }
-        // Deserialize archivedDate
-        currentNode = objectNode.get(RECORD_ARCHIVED_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = Deserialize.dateTimeFormat.parse(currentNode.textValue());
-                registryEntry.setArchivedDate(parsedDate);
-                objectNode.remove(RECORD_ARCHIVED_DATE);
-            } catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The journalpost object you tried to create " +
-                        "has a malformed arkivertDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize general basicRecord properties
-        // Deserialize recordId
-        currentNode = objectNode.get(BASIC_RECORD_ID);
-        if (null != currentNode) {
-            registryEntry.setRecordId(currentNode.textValue());
-            objectNode.remove(BASIC_RECORD_ID);
-        }
-        // Deserialize title (not using utils to preserve order)
-        currentNode = objectNode.get(TITLE);
-        if (null != currentNode) {
-            registryEntry.setTitle(currentNode.textValue());
-            objectNode.remove(TITLE);
-        }
-        // Deserialize  officialTitle
-        currentNode = objectNode.get(FILE_PUBLIC_TITLE);
-        if (null != currentNode) {
-            registryEntry.setOfficialTitle(currentNode.textValue());
-            objectNode.remove(FILE_PUBLIC_TITLE);
-        }
-        // Deserialize description
-        currentNode = objectNode.get(DESCRIPTION);
-        if (null != currentNode) {
-            registryEntry.setDescription(currentNode.textValue());
-            objectNode.remove(DESCRIPTION);
-        }
-        CommonUtils.Hateoas.Deserialize.deserialiseDocumentMedium(registryEntry, objectNode);
-        // Deserialize general registryEntry properties
-        // Deserialize recordYear
-        currentNode = objectNode.get(REGISTRY_ENTRY_YEAR);
-        if (null != currentNode) {
-            registryEntry.setRecordYear(Integer.getInteger(currentNode.textValue()));
-            objectNode.remove(REGISTRY_ENTRY_YEAR);
-        }
-        // Deserialize recordSequenceNumber
-        currentNode = objectNode.get(REGISTRY_ENTRY_SEQUENCE_NUMBER);
-        if (null != currentNode) {
-            registryEntry.setRecordSequenceNumber(Integer.getInteger(currentNode.textValue()));
-            objectNode.remove(REGISTRY_ENTRY_SEQUENCE_NUMBER);
-        }
-        // Deserialize registryEntryNumber
-        currentNode = objectNode.get(REGISTRY_ENTRY_NUMBER);
-        if (null != currentNode) {
-            registryEntry.setRegistryEntryNumber(Integer.getInteger(currentNode.textValue()));
-            objectNode.remove(REGISTRY_ENTRY_NUMBER);
-        }
-        // Deserialize registryEntryType
-        currentNode = objectNode.get(REGISTRY_ENTRY_TYPE);
-        if (null != currentNode) {
-            registryEntry.setRegistryEntryType(currentNode.textValue());
-            objectNode.remove(REGISTRY_ENTRY_TYPE);
-        }
-        // Deserialize recordStatus
-        currentNode = objectNode.get(REGISTRY_ENTRY_STATUS);
-        if (null != currentNode) {
-            registryEntry.setRecordStatus(currentNode.textValue());
-            objectNode.remove(REGISTRY_ENTRY_STATUS);
-        }
-        // Deserialize recordDate
-        currentNode = objectNode.get(REGISTRY_ENTRY_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                registryEntry.setRecordDate(parsedDate);
-                objectNode.remove(REGISTRY_ENTRY_DATE);
-            } catch (ParseException e) {
-
-                throw new NikitaMalformedInputDataException("The journalpost you tried to create " +
-                        "has a malformed journaldato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize documentDate
-        currentNode = objectNode.get(REGISTRY_ENTRY_DOCUMENT_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                registryEntry.setDocumentDate(parsedDate);
-                objectNode.remove(REGISTRY_ENTRY_DOCUMENT_DATE);
-            } catch (ParseException e) {
-
-                throw new NikitaMalformedInputDataException("The journalpost you tried to create " +
-                        "has a malformed dokumentetsDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-
-        // Deserialize receivedDate
-        currentNode = objectNode.get(REGISTRY_ENTRY_RECEIVED_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                registryEntry.setReceivedDate(parsedDate);
-                objectNode.remove(REGISTRY_ENTRY_RECEIVED_DATE);
-            } catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The journalpost you tried to create " +
-                        "has a malformed mottattDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-
-        // Deserialize sentDate
-        currentNode = objectNode.get(REGISTRY_ENTRY_SENT_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                registryEntry.setSentDate(parsedDate);
-                objectNode.remove(REGISTRY_ENTRY_SENT_DATE);
-            } catch (ParseException e) {
+        RegistryEntry registryEntry = new RegistryEntry();
+        List<String> unrecognised = properties.read(jsonParser, registryEntry);
 
-                throw new NikitaMalformedInputDataException("The journalpost you tried to create " +
-                        "has a malformed sendtDate. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize dueDate
-        currentNode = objectNode.get(REGISTRY_ENTRY_DUE_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                registryEntry.setDueDate(parsedDate);
-                objectNode.remove(REGISTRY_ENTRY_DUE_DATE);
-            } catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The journalpost you tried to create " +
-                        "has a malformed forfallsdato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize freedomAssessmentDate
-        currentNode = objectNode.get(REGISTRY_ENTRY_RECORD_FREEDOM_ASSESSMENT_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                registryEntry.setFreedomAssessmentDate(parsedDate);
-                objectNode.remove(REGISTRY_ENTRY_RECORD_FREEDOM_ASSESSMENT_DATE);
-            } catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The journalpost you tried to create " +
-                        "has a malformed offentlighetsvurdertDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize numberOfAttachments
-        currentNode = objectNode.get(REGISTRY_ENTRY_NUMBER_OF_ATTACHMENTS);
-        if (null != currentNode) {
-            registryEntry.setNumberOfAttachments(Integer.getInteger(currentNode.textValue()));
-            objectNode.remove(REGISTRY_ENTRY_NUMBER_OF_ATTACHMENTS);
-        }
-        // Deserialize loanedDate
-        currentNode = objectNode.get(CASE_LOANED_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = CommonUtils.Hateoas.Deserialize.dateFormat.parse(currentNode.textValue());
-                registryEntry.setLoanedDate(parsedDate);
-                objectNode.remove(CASE_LOANED_DATE);
-            } catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The journalpost you tried to create " +
-                        "has a malformed utlaantDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize loanedTo
-        currentNode = objectNode.get(CASE_LOANED_TO);
-        if (null != currentNode) {
-            registryEntry.setLoanedTo(currentNode.textValue());
-            objectNode.remove(CASE_LOANED_TO);
-        }
         // Check that all obligatory values are present
         checkForObligatoryRegistryEntryValues(registryEntry);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The journalpost you tried to create is malformed. The "
                     + "following fields are not recognised as journalpost fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return registryEntry;
     }
@@ -3,22 +3,17 @@ package nikita.util.deserialisers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import nikita.model.noark5.v4.Series;
 import nikita.model.noark5.v4.interfaces.entities.INoarkGeneralEntity;
-import nikita.util.CommonUtils;
 import nikita.util.deserialisers.interfaces.ObligatoryPropertiesCheck;
 import nikita.util.exceptions.NikitaMalformedInputDataException;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.util.Date;
+import java.util.List;
 
 import static nikita.config.Constants.NOARK_DATE_FORMAT_PATTERN;
 import static nikita.config.N5ResourceMappings.*;
-import static nikita.util.CommonUtils.Hateoas.Deserialize;
+import static nikita.util.CommonUtils.Hateoas.Deserialize.*;
 
 /**
  * Created by tsodring on 1/6/17.
@@ -48,88 +43,57 @@ import static nikita.util.CommonUtils.Hateoas.Deserialize;
  */
 public class SeriesDeserializer extends JsonDeserializer implements ObligatoryPropertiesCheck {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final PropertyTable<Series> properties = new PropertyTable<>();
 
-    @Override
-    public Series deserialize(JsonParser jsonParser, DeserializationContext dc)
-            throws IOException {
-
-        Series series = new Series();
-        ObjectNode objectNode = mapper.readTree(jsonParser);
-
-        // Deserialise general properties
-        CommonUtils.Hateoas.Deserialize.deserialiseNoarkEntity(series, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseDocumentMedium(series, objectNode);
-        CommonUtils.Hateoas.Deserialize.deserialiseStorageLocation(series, objectNode);
-
-        // Deserialize seriesStatus
-        JsonNode currentNode = objectNode.get(SERIES_STATUS);
-        if (null != currentNode) {
-            series.setSeriesStatus(currentNode.textValue());
-            objectNode.remove(SERIES_STATUS);
-        }
-        // Deserialize seriesStartDate
-        currentNode = objectNode.get(SERIES_START_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = Deserialize.dateFormat.parse(currentNode.textValue());
-                series.setSeriesStartDate(parsedDate);
-                objectNode.remove(SERIES_START_DATE);
-            } catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The arkivdel you tried to create " +
-                        "has a malformed arkivperiodeStartDato. Make sure format is " +
-                        NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize seriesEndDate
-        currentNode = objectNode.get(SERIES_END_DATE);
-        if (null != currentNode) {
-            try {
-                Date parsedDate = Deserialize.dateFormat.parse(currentNode.textValue());
-                series.setSeriesEndDate(parsedDate);
-                objectNode.remove(SERIES_END_DATE);
-            } catch (ParseException e) {
-                throw new NikitaMalformedInputDataException("The arkivdel you tried to create " +
-                        "has a malformed arkivperiodeSluttDato. Make sure format is " +
-                        NOARK_DATE_FORMAT_PATTERN);
-            }
-        }
-        // Deserialize referencePrecursor
-        currentNode = objectNode.get(SERIES_PRECURSOR);
-        if (null != currentNode) {
+    static {
+        addNoarkEntity(properties);
+        addDocumentMedium(properties);
+        addStorageLocation(properties);
+        addDisposal(properties);
+        addDisposalUndertaken(properties);
+        addDeletion(properties);
+        addScreening(properties);
+        addClassified(properties);
+        properties.add(SERIES_STATUS, (series, parser) -> series.setSeriesStatus(readString(parser)));
+        properties.add(SERIES_START_DATE, (series, parser) -> series.setSeriesStartDate(
+                readDate(parser, "The arkivdel you tried to create " +
+                        "has a malformed arkivperiodeStartDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(SERIES_END_DATE, (series, parser) -> series.setSeriesEndDate(
+                readDate(parser, "The arkivdel you tried to create " +
+                        "has a malformed arkivperiodeSluttDato. Make sure format is " + NOARK_DATE_FORMAT_PATTERN)));
+        properties.add(SERIES_PRECURSOR, (series, parser) -> {
             Series seriesPrecursor = new Series();
-            seriesPrecursor.setSystemId(currentNode.textValue());
+            seriesPrecursor.setSystemId(readString(parser));
             series.setReferencePrecursor(seriesPrecursor);
             // TODO: Does this imply that the current arkivdel is the successor?
             // I would not set it here, as the service class has to check that
             // the seriesPrecursor object actually exists
-            objectNode.remove(SERIES_PRECURSOR);
-        }
-        // Deserialize referenceSuccessor
-        currentNode = objectNode.get(SERIES_SUCCESSOR);
-        if (null != currentNode) {
+        });
+        properties.add(SERIES_SUCCESSOR, (series, parser) -> {
             Series seriesSuccessor = new Series();
-            seriesSuccessor.setSystemId(currentNode.textValue());
+            seriesSuccessor.setSystemId(readString(parser));
             series.setReferenceSuccessor(seriesSuccessor);
             // TODO: Does this imply that the current arkivdel is the precursor?
             // I would not set it here, as the service class should do this
-            objectNode.remove(SERIES_SUCCESSOR);
-        }
-        series.setReferenceDisposal(CommonUtils.Hateoas.Deserialize.deserialiseDisposal(objectNode));
-        series.setReferenceDisposalUndertaken(CommonUtils.Hateoas.Deserialize.deserialiseDisposalUndertaken(objectNode));
-        series.setReferenceDeletion(CommonUtils.Hateoas.Deserialize.deserialiseDeletion(objectNode));
-        series.setReferenceScreening(CommonUtils.Hateoas.Deserialize.deserialiseScreening(objectNode));
-        series.setReferenceClassified(CommonUtils.Hateoas.Deserialize.deserialiseClassified(objectNode));
+        });
+    }
+
+    @Override
+    public Series deserialize(JsonParser jsonParser, DeserializationContext dc)
+            throws IOException {
+
+        Series series = new Series();
+        List<String> unrecognised = properties.read(jsonParser, series);
 
         // Check that all obligatory values are present
         checkForObligatoryNoarkValues(series);
 
-        // Check that there are no additional values left after processing the tree
-        // If there are additional throw a malformed input exception
-        if (objectNode.size() != 0) {
+        // Check that there were no properties other than the ones in the table
+        // If there were, throw a malformed input exception
+        if (!unrecognised.isEmpty()) {
             throw new NikitaMalformedInputDataException("The arkivdel you tried to create is malformed. The "
                     + "following fields are not recognised as arkivdel fields [" +
-                    CommonUtils.Hateoas.Deserialize.checkNodeObjectEmpty(objectNode) + "]");
+                    String.join(", ", unrecognised) + "]");
         }
         return series;
     }
@@ -0,0 +1,18 @@
+package nikita.util.deserialisers.interfaces;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Reads the value of one property of an incoming JSON object into the entity being deserialised.
+ *
+ * The parser is positioned at the first token of the value when read is called, and must be left at the last
+ * token of the value, i.e. at the value itself for a scalar, or at the END_ARRAY / END_OBJECT of an array or
+ * object.
+ */
+@FunctionalInterface
+public interface PropertyReader<T> {
+
+    void read(T entity, JsonParser jsonParser) throws IOException;
+}
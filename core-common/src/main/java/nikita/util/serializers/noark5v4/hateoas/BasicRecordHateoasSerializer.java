@@ -8,12 +8,12 @@ import nikita.model.noark5.v4.BasicRecord;
 import nikita.model.noark5.v4.hateoas.HateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.CommonUtils;
+import nikita.util.NoarkDateCodec;
 import nikita.util.serializers.noark5v4.hateoas.interfaces.IHateoasSerializer;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 
-import static nikita.config.Constants.DATE_TIME_FORMAT;
 import static nikita.config.N5ResourceMappings.*;
 
 /**
@@ -44,7 +44,7 @@ public class BasicRecordHateoasSerializer extends HateoasSerializer implements I
         CommonUtils.Hateoas.Serialize.printSystemIdEntity(jgen, basicRecord);
         CommonUtils.Hateoas.Serialize.printCreateEntity(jgen, basicRecord);
         if (basicRecord.getArchivedDate() != null) {
-            jgen.writeStringField(RECORD_ARCHIVED_DATE, DATE_TIME_FORMAT.format(basicRecord.getArchivedDate()));
+            jgen.writeStringField(RECORD_ARCHIVED_DATE, NoarkDateCodec.formatDateTime(basicRecord.getArchivedDate()));
         }
         if (basicRecord.getArchivedBy()!= null) {
             jgen.writeStringField(RECORD_ARCHIVED_BY, basicRecord.getArchivedBy());
@@ -8,13 +8,12 @@ import nikita.model.noark5.v4.CaseFile;
 import nikita.model.noark5.v4.hateoas.HateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.CommonUtils;
+import nikita.util.NoarkDateCodec;
 import nikita.util.serializers.noark5v4.hateoas.interfaces.IHateoasSerializer;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 
-import static nikita.config.Constants.DATE_FORMAT;
-import static nikita.config.Constants.DATE_TIME_FORMAT;
 import static nikita.config.N5ResourceMappings.*;
 
 /**
@@ -63,13 +62,13 @@ public class CaseFileHateoasSerializer extends HateoasSerializer implements IHat
         }
         CommonUtils.Hateoas.Serialize.printStorageLocation(jgen, caseFile);
         if (caseFile.getCreatedDate() != null) {
-            jgen.writeStringField(CREATED_DATE, DATE_TIME_FORMAT.format(caseFile.getCreatedDate()));
+            jgen.writeStringField(CREATED_DATE, NoarkDateCodec.formatDateTime(caseFile.getCreatedDate()));
         }
         if (caseFile.getCreatedBy() != null) {
             jgen.writeStringField(CREATED_BY, caseFile.getCreatedBy());
         }
         if (caseFile.getFinalisedDate() != null) {
-            jgen.writeStringField(FINALISED_DATE, DATE_TIME_FORMAT.format(caseFile.getFinalisedDate()));
+            jgen.writeStringField(FINALISED_DATE, NoarkDateCodec.formatDateTime(caseFile.getFinalisedDate()));
         }
         if (caseFile.getFinalisedBy() != null) {
             jgen.writeStringField(FINALISED_BY, caseFile.getFinalisedBy());
@@ -84,7 +83,7 @@ public class CaseFileHateoasSerializer extends HateoasSerializer implements IHat
             jgen.writeStringField(CASE_SEQUENCE_NUMBER, caseFile.getCaseSequenceNumber().toString());
         }
         if (caseFile.getCaseDate() != null) {
-            jgen.writeStringField(CASE_DATE, DATE_FORMAT.format(caseFile.getCaseDate()));
+            jgen.writeStringField(CASE_DATE, NoarkDateCodec.formatDate(caseFile.getCaseDate()));
         }
         if (caseFile.getAdministrativeUnit() != null) {
             jgen.writeStringField(CASE_ADMINISTRATIVE_UNIT, caseFile.getAdministrativeUnit());
@@ -99,7 +98,7 @@ public class CaseFileHateoasSerializer extends HateoasSerializer implements IHat
             jgen.writeStringField(CASE_STATUS, caseFile.getCaseStatus());
         }
         if (caseFile.getLoanedDate() != null) {
-            jgen.writeStringField(CASE_LOANED_DATE, DATE_FORMAT.format(caseFile.getLoanedDate()));
+            jgen.writeStringField(CASE_LOANED_DATE, NoarkDateCodec.formatDate(caseFile.getLoanedDate()));
         }
         if (caseFile.getLoanedTo() != null) {
             jgen.writeStringField(CASE_LOANED_TO, caseFile.getLoanedTo());
@@ -5,11 +5,11 @@ import nikita.model.noark5.v4.DocumentDescription;
 import nikita.model.noark5.v4.hateoas.HateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.CommonUtils;
+import nikita.util.NoarkDateCodec;
 import nikita.util.serializers.noark5v4.hateoas.interfaces.IHateoasSerializer;
 
 import java.io.IOException;
 
-import static nikita.config.Constants.DATE_FORMAT;
 import static nikita.config.N5ResourceMappings.*;
 
 /**
@@ -49,7 +49,8 @@ public class DocumentDescriptionHateoasSerializer extends HateoasSerializer impl
         }
         CommonUtils.Hateoas.Serialize.printCreateEntity(jgen, documentDescription);
         if (documentDescription.getAssociationDate()!= null) {
-            jgen.writeStringField(DOCUMENT_DESCRIPTION_ASSOCIATION_DATE, DATE_FORMAT.format(documentDescription.getAssociationDate()));
+            jgen.writeStringField(DOCUMENT_DESCRIPTION_ASSOCIATION_DATE,
+                    NoarkDateCodec.formatDate(documentDescription.getAssociationDate()));
         }
         if (documentDescription.getAssociatedWithRecordAs() != null) {
             jgen.writeStringField(DOCUMENT_DESCRIPTION_ASSOCIATED_WITH_RECORD_AS, documentDescription.getAssociatedWithRecordAs());
@@ -5,11 +5,11 @@ import nikita.model.noark5.v4.Record;
 import nikita.model.noark5.v4.hateoas.HateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.CommonUtils;
+import nikita.util.NoarkDateCodec;
 import nikita.util.serializers.noark5v4.hateoas.interfaces.IHateoasSerializer;
 
 import java.io.IOException;
 
-import static nikita.config.Constants.DATE_TIME_FORMAT;
 import static nikita.config.N5ResourceMappings.RECORD_ARCHIVED_BY;
 import static nikita.config.N5ResourceMappings.RECORD_ARCHIVED_DATE;
 
@@ -40,7 +40,7 @@ public class RecordHateoasSerializer extends HateoasSerializer implements IHateo
         CommonUtils.Hateoas.Serialize.printCreateEntity(jgen, record);
 
         if (record.getArchivedDate() != null) {
-            jgen.writeStringField(RECORD_ARCHIVED_DATE, DATE_TIME_FORMAT.format(record.getArchivedDate()));
+            jgen.writeStringField(RECORD_ARCHIVED_DATE, NoarkDateCodec.formatDateTime(record.getArchivedDate()));
         }
         if (record.getArchivedBy() != null) {
             jgen.writeStringField(RECORD_ARCHIVED_BY, record.getArchivedBy());
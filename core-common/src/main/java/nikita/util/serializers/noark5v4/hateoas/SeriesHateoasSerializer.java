@@ -5,11 +5,11 @@ import nikita.model.noark5.v4.Series;
 import nikita.model.noark5.v4.hateoas.HateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.CommonUtils;
+import nikita.util.NoarkDateCodec;
 import nikita.util.serializers.noark5v4.hateoas.interfaces.IHateoasSerializer;
 
 import java.io.IOException;
 
-import static nikita.config.Constants.DATE_FORMAT;
 import static nikita.config.N5ResourceMappings.*;
 
 /**
@@ -45,10 +45,10 @@ public class SeriesHateoasSerializer extends HateoasSerializer implements IHateo
         CommonUtils.Hateoas.Serialize.printCreateEntity(jgen, series);
         CommonUtils.Hateoas.Serialize.printFinaliseEntity(jgen, series);
         if (series.getSeriesStartDate() != null) {
-            jgen.writeStringField(SERIES_START_DATE, DATE_FORMAT.format(series.getSeriesStartDate()));
+            jgen.writeStringField(SERIES_START_DATE, NoarkDateCodec.formatDate(series.getSeriesStartDate()));
         }
         if (series.getSeriesEndDate() != null) {
-            jgen.writeStringField(SERIES_END_DATE, DATE_FORMAT.format(series.getSeriesEndDate()));
+            jgen.writeStringField(SERIES_END_DATE, NoarkDateCodec.formatDate(series.getSeriesEndDate()));
         }
         if (series.getReferencePrecursor() != null && series.getReferencePrecursor().getSystemId() != null) {
             jgen.writeStringField(SERIES_PRECURSOR, series.getReferencePrecursor().getSystemId());
@@ -0,0 +1,660 @@
+package nikita.extraction;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import nikita.extraction.config.ExtractionProperties;
+import nikita.extraction.interfaces.IDocumentStore;
+import nikita.extraction.xml.ArkivstrukturWriter;
+import nikita.extraction.xml.ArkivuttrekkWriter;
+import nikita.extraction.xml.EndringsloggWriter;
+import nikita.model.noark5.v4.Class;
+import nikita.model.noark5.v4.ClassificationSystem;
+import nikita.model.noark5.v4.DocumentDescription;
+import nikita.model.noark5.v4.DocumentObject;
+import nikita.model.noark5.v4.File;
+import nikita.model.noark5.v4.Fonds;
+import nikita.model.noark5.v4.Record;
+import nikita.model.noark5.v4.Series;
+import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.exceptions.NikitaEntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static nikita.extraction.config.ExtractionConstants.*;
+
+/**
+ * Extracts a fonds, with everything it contains, into a Noark 5 extraction (arkivuttrekk) package: a directory
+ * holding arkivstruktur.xml, endringslogg.xml, arkivuttrekk.xml and the documents of the fonds under
+ * dokumenter/.
+ * <p>
+ * The fonds structure is walked depth first, fonds → series → classification system → class → file → record →
+ * document description → document object, reading the children of each entity through a database cursor of
+ * their own and writing each entity as it is read. Nothing but the entities on the path from the fonds to the
+ * current entity is held in memory, so a fonds of any size is extracted in constant memory.
+ * <p>
+ * The content of each series, or of each top level class of a series with a classification system, is
+ * extracted as a partition of its own on a ForkJoinPool of ExtractionProperties.parallelism threads, to a
+ * fragment file that is merged into arkivstruktur.xml in a fixed order, see Extraction. A partition keeps a
+ * cursor open on its connection for each level of the structure it is in. The MySQL driver reads the whole
+ * result of a query when it is run, unless the connection has useCursorFetch set, so on MySQL the children of
+ * each entity on the path are held in memory while they are extracted. The fonds and its series are read in
+ * short transactions of their own before the partitions start, so an extraction only holds a connection for
+ * each running partition and never waits for a partition while holding one; a connection pool smaller than
+ * parallelism slows the extraction down, but does not deadlock it.
+ * <p>
+ * Documents are copied into the package by a DocumentCopier, on copyThreads threads of its own with at most
+ * copyQueueSize copies waiting, while the extraction of metadata goes on. They are copied with
+ * IDocumentStore.transferTo() to a FileChannel, so that the bytes are not copied through the JVM when the
+ * store is a local file system.
+ * <p>
+ * Every extraction writes manifest.txt, listing the systemID, version and document checksum of every entity of
+ * the fonds, see ManifestWriter. Given the manifest of a prior extraction of the fonds, an extraction is
+ * incremental: an entity is only written, and its document only copied, if it is new or its version, which
+ * Hibernate increments on every update, or the checksum of its document differs from the manifest. The
+ * entities containing a changed entity are written around it, so arkivstruktur.xml keeps its structure, but
+ * their other children are left out. The whole fonds is still read, to find what changed and to write the new
+ * manifest, but unchanged documents, most of the bytes of a package, are not copied.
+ * <p>
+ * The number of entities, documents and document bytes extracted are exposed as meters, and progress is logged
+ * every PROGRESS_INTERVAL entities.
+ */
+public class ArchiveExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveExtractor.class);
+
+    // Entities extracted between each progress report in the log
+    private static final int PROGRESS_INTERVAL = 10000;
+    private static final int OUTPUT_BUFFER_SIZE = 65536;
+    // Longest file extension kept from the original file name of a document
+    private static final int MAX_EXTENSION_LENGTH = 10;
+
+    private static final String FONDS_BY_SYSTEM_ID = "from Fonds f where f.systemId = :systemId";
+    private static final String SUB_FONDS_BY_FONDS =
+            "from Fonds f where f.referenceParentFonds.id = :parent order by f.id";
+    private static final String SERIES_BY_FONDS =
+            "from Series s where s.referenceFonds.id = :parent order by s.id";
+    private static final String CLASSIFICATION_SYSTEM_BY_SERIES =
+            "select s.referenceClassificationSystem from Series s where s.id = :parent";
+    private static final String CLASS_ID_BY_CLASSIFICATION_SYSTEM = "select c.id from Class c where " +
+            "c.referenceClassificationSystem.id = :parent and c.referenceParentClass is null order by c.id";
+    private static final String CLASS_BY_CLASS =
+            "from Class c where c.referenceParentClass.id = :parent order by c.id";
+    private static final String FILE_BY_SERIES =
+            "from File f where f.referenceSeries.id = :parent and f.referenceParentFile is null order by f.id";
+    private static final String FILE_BY_CLASS =
+            "from File f where f.referenceClass.id = :parent and f.referenceParentFile is null order by f.id";
+    private static final String FILE_BY_FILE =
+            "from File f where f.referenceParentFile.id = :parent order by f.id";
+    private static final String RECORD_BY_SERIES =
+            "from Record r where r.referenceSeries.id = :parent and r.referenceFile is null order by r.id";
+    private static final String RECORD_BY_CLASS =
+            "from Record r where r.referenceClass.id = :parent and r.referenceFile is null order by r.id";
+    private static final String RECORD_BY_FILE =
+            "from Record r where r.referenceFile.id = :parent order by r.id";
+    private static final String DOCUMENT_DESCRIPTION_BY_RECORD = "select d from DocumentDescription d " +
+            "join d.referenceRecord r where r.id = :parent order by d.id";
+    private static final String DOCUMENT_OBJECT_BY_DOCUMENT_DESCRIPTION =
+            "from DocumentObject o where o.referenceDocumentDescription.id = :parent order by o.id";
+
+    private final SessionFactory sessionFactory;
+    private final IDocumentStore documentStore;
+    private final ExtractionProperties properties;
+    private final Meter entitiesExtracted;
+    private final Meter documentsExtracted;
+    private final Meter bytesExtracted;
+    private final Timer extractions;
+
+    public ArchiveExtractor(SessionFactory sessionFactory, IDocumentStore documentStore,
+                            MetricRegistry metricRegistry) {
+        this(sessionFactory, documentStore, new ExtractionProperties(), metricRegistry);
+    }
+
+    public ArchiveExtractor(SessionFactory sessionFactory, IDocumentStore documentStore,
+                            ExtractionProperties properties, MetricRegistry metricRegistry) {
+        this.sessionFactory = sessionFactory;
+        this.documentStore = documentStore;
+        this.properties = properties;
+        this.entitiesExtracted = metricRegistry.meter(MetricRegistry.name(ArchiveExtractor.class, "entities"));
+        this.documentsExtracted = metricRegistry.meter(MetricRegistry.name(ArchiveExtractor.class, "documents"));
+        this.bytesExtracted = metricRegistry.meter(MetricRegistry.name(ArchiveExtractor.class, "bytes"));
+        this.extractions = metricRegistry.timer(MetricRegistry.name(ArchiveExtractor.class, "extractions"));
+    }
+
+    /**
+     * Extract the fonds with the given systemID into packageDirectory.
+     *
+     * @param packageDirectory where the package is written. Created if it does not exist. Must not already
+     *                         hold a package
+     * @return what was extracted
+     * @throws NikitaEntityNotFoundException if there is no fonds with the given systemID
+     */
+    public ExtractionStatistics extract(String fondsSystemId, Path packageDirectory) throws IOException {
+        return extract(fondsSystemId, packageDirectory, null);
+    }
+
+    /**
+     * Extract what has changed in the fonds with the given systemID since a prior extraction of it into
+     * packageDirectory.
+     *
+     * @param packageDirectory where the package is written. Created if it does not exist. Must not already
+     *                         hold a package
+     * @param priorManifest    the manifest.txt of the prior extraction, or null to extract everything
+     * @return what was extracted
+     * @throws NikitaEntityNotFoundException if there is no fonds with the given systemID
+     * @throws IOException                   if priorManifest is not the manifest of an extraction of the fonds
+     */
+    public ExtractionStatistics extract(String fondsSystemId, Path packageDirectory, Path priorManifest)
+            throws IOException {
+        ExtractionManifest prior = null;
+        if (priorManifest != null) {
+            prior = ExtractionManifest.read(priorManifest);
+            if (!fondsSystemId.equals(prior.getFondsSystemId())) {
+                throw new IOException(priorManifest + " is the manifest of fonds " + prior.getFondsSystemId() +
+                        ", not of fonds " + fondsSystemId);
+            }
+        }
+        Files.createDirectories(packageDirectory.resolve(DOCUMENT_DIRECTORY));
+        Path fragmentDirectory = Files.createDirectories(packageDirectory.resolve(FRAGMENT_DIRECTORY));
+        ExtractionStatistics statistics = new ExtractionStatistics();
+        Map<String, String> fileChecksums = new LinkedHashMap<>();
+
+        Timer.Context timer = extractions.time();
+        ForkJoinPool partitionPool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        DocumentCopier copier = new DocumentCopier(documentStore, properties.getCopyThreads(),
+                properties.getCopyQueueSize(), size -> {
+            statistics.addDocument(size);
+            documentsExtracted.mark();
+            bytesExtracted.mark(size);
+        });
+        try {
+            Fonds fonds = read(session -> (Fonds) session.createQuery(FONDS_BY_SYSTEM_ID)
+                    .setParameter("systemId", fondsSystemId)
+                    .uniqueResult());
+            if (fonds == null) {
+                throw new NikitaEntityNotFoundException("Could not find fonds with systemID " + fondsSystemId);
+            }
+            if (prior == null) {
+                logger.info("Extracting fonds " + fondsSystemId + " to " + packageDirectory);
+            } else {
+                logger.info("Extracting what has changed in fonds " + fondsSystemId + " since " +
+                        priorManifest + " to " + packageDirectory);
+            }
+
+            Extraction extraction = new Extraction(packageDirectory, fragmentDirectory, statistics, copier,
+                    partitionPool, prior);
+            MessageDigest digest = newDigest();
+            try (OutputStream output = new BufferedOutputStream(new DigestOutputStream(
+                    Files.newOutputStream(packageDirectory.resolve(ARKIVSTRUKTUR_FILE)), digest),
+                    OUTPUT_BUFFER_SIZE);
+                 ArkivstrukturWriter writer = new ArkivstrukturWriter(output);
+                 ManifestWriter manifest = new ManifestWriter(packageDirectory.resolve(MANIFEST_FILE))) {
+                writer.writeStartDocument();
+                manifest.writeHeader(fonds.getSystemId());
+                extraction.extractFonds(new Partition(null, new ElementPath(writer), manifest), fonds, true);
+                writer.writeEndDocument();
+            }
+            fileChecksums.put(ARKIVSTRUKTUR_FILE, toHex(digest));
+            copier.await();
+            if (prior != null) {
+                Map<String, Long> removed = prior.countNotFound();
+                statistics.addRemovedEntities(removed.values().stream().mapToLong(Long::longValue).sum());
+                if (!removed.isEmpty()) {
+                    logger.info("Removed from fonds " + fondsSystemId + " since " + priorManifest + ": " +
+                            removed);
+                }
+            }
+
+            digest = newDigest();
+            try (OutputStream output = new DigestOutputStream(
+                    Files.newOutputStream(packageDirectory.resolve(ENDRINGSLOGG_FILE)), digest)) {
+                EndringsloggWriter.write(output);
+            }
+            fileChecksums.put(ENDRINGSLOGG_FILE, toHex(digest));
+
+            try (OutputStream output = Files.newOutputStream(packageDirectory.resolve(ARKIVUTTREKK_FILE))) {
+                ArkivuttrekkWriter.write(output, fonds, statistics, fileChecksums);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write extraction of fonds " + fondsSystemId, e);
+        } finally {
+            partitionPool.shutdownNow();
+            copier.close();
+            deleteFragments(fragmentDirectory);
+            timer.stop();
+        }
+        logger.info("Extracted fonds " + fondsSystemId + ": " + statistics);
+        return statistics;
+    }
+
+    /**
+     * Run query in a read only transaction and session of its own, so that its connection is given back once it
+     * is done.
+     */
+    private <T> T read(Function<StatelessSession, T> query) {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            Transaction transaction = session.beginTransaction();
+            try {
+                return query.apply(session);
+            } finally {
+                transaction.rollback();
+            }
+        } finally {
+            session.close();
+        }
+    }
+
+    private static void deleteFragments(Path fragmentDirectory) {
+        try (DirectoryStream<Path> fragments = Files.newDirectoryStream(fragmentDirectory)) {
+            for (Path fragment : fragments) {
+                Files.deleteIfExists(fragment);
+            }
+            Files.deleteIfExists(fragmentDirectory);
+        } catch (IOException e) {
+            logger.warn("Could not delete the fragments in " + fragmentDirectory + ". " + e);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(PACKAGE_CHECKSUM_DIGEST);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(PACKAGE_CHECKSUM_DIGEST + " is not available", e);
+        }
+    }
+
+    private static String toHex(MessageDigest digest) {
+        return DatatypeConverter.printHexBinary(digest.digest()).toLowerCase();
+    }
+
+    /**
+     * @return the extension of the original file name of a document, including the dot, or "" if it has none
+     * that is safe to use in a file name
+     */
+    static String getExtension(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        if (dot == -1 || originalFilename.length() - dot - 1 > MAX_EXTENSION_LENGTH) {
+            return "";
+        }
+        String extension = originalFilename.substring(dot + 1);
+        if (extension.isEmpty() || !extension.chars().allMatch(Character::isLetterOrDigit)) {
+            return "";
+        }
+        return "." + extension.toLowerCase();
+    }
+
+    /**
+     * The state of one extraction, shared by the threads extracting its partitions.
+     * <p>
+     * The fonds and its series are walked on the calling thread, each level read in a transaction of its own
+     * before the partitions below it start, so that no connection is held while waiting for them. The rest of
+     * the structure is split into partitions, the content of a series, or of a top level class of a series with
+     * a classification system, that are extracted on the partition pool, each in its own session and to a
+     * fragment file of its own. All partitions of a fonds are started before the first is merged, and the
+     * fragments are merged in the order the partitions were started, which is the order of the primary keys of
+     * the series and classes. So arkivstruktur.xml is the same whatever the order partitions finish in, and the
+     * same as it would be if extracted by a single thread.
+     * <p>
+     * A partition reads in a transaction of its own, so the package is not a snapshot of a single point in
+     * time when the fonds is changed during extraction.
+     * <p>
+     * Each partition writes its part of the manifest next to its fragment, and the parts are merged with the
+     * fragments. The fragment of a partition where nothing changed is empty, and the series or class it belongs
+     * to is then only written if it has changed itself.
+     */
+    private class Extraction {
+
+        private final Path packageDirectory;
+        private final Path fragmentDirectory;
+        private final ExtractionStatistics statistics;
+        private final DocumentCopier copier;
+        private final ForkJoinPool partitionPool;
+        // The manifest of the prior extraction, null if everything is extracted
+        private final ExtractionManifest prior;
+        // Numbers the fragments in the order the partitions are started
+        private int fragmentNumber;
+
+        Extraction(Path packageDirectory, Path fragmentDirectory, ExtractionStatistics statistics,
+                   DocumentCopier copier, ForkJoinPool partitionPool, ExtractionManifest prior) {
+            this.packageDirectory = packageDirectory;
+            this.fragmentDirectory = fragmentDirectory;
+            this.statistics = statistics;
+            this.copier = copier;
+            this.partitionPool = partitionPool;
+            this.prior = prior;
+        }
+
+        void extractFonds(Partition partition, Fonds fonds, boolean root) throws IOException, XMLStreamException {
+            ElementPath elements = partition.elements;
+            elements.push(writer -> {
+                writer.writeStartFonds(fonds, root);
+                statistics.addFonds();
+                extracted();
+            }, ArkivstrukturWriter::writeEndElement);
+            // The arkiv element is written even if nothing has changed, so the package is still valid
+            if (isChanged(partition, fonds, null) || root) {
+                elements.writePending();
+            }
+
+            // The series are read before their partitions start, so no connection is held waiting for them
+            List<SeriesPartitions> seriesPartitions = read(session -> readSeries(session, fonds));
+            for (SeriesPartitions partitions : seriesPartitions) {
+                // The files and records of a series with a classification system are found through its classes
+                if (partitions.classificationSystem != null) {
+                    for (Long classId : partitions.classIds) {
+                        partitions.fragments.add(startPartition(classPartition -> extractClass(classPartition,
+                                (Class) classPartition.session.get(Class.class, classId))));
+                    }
+                } else {
+                    Long seriesId = partitions.series.getId();
+                    partitions.fragments.add(startPartition(seriesPartition -> {
+                        EntityCursor.forEach(seriesPartition.session, File.class, FILE_BY_SERIES, seriesId,
+                                file -> extractFile(seriesPartition, file));
+                        EntityCursor.forEach(seriesPartition.session, Record.class, RECORD_BY_SERIES, seriesId,
+                                record -> extractRecord(seriesPartition, record));
+                    }));
+                }
+            }
+
+            for (SeriesPartitions partitions : seriesPartitions) {
+                Series series = partitions.series;
+                ClassificationSystem classificationSystem = partitions.classificationSystem;
+                elements.push(writer -> {
+                    writer.writeStartSeries(series);
+                    statistics.addSeries();
+                    extracted();
+                }, ArkivstrukturWriter::writeEndElement);
+                if (isChanged(partition, series, null)) {
+                    elements.writePending();
+                }
+                if (classificationSystem != null) {
+                    elements.push(writer -> {
+                        writer.writeStartClassificationSystem(classificationSystem);
+                        statistics.addClassificationSystem();
+                        extracted();
+                    }, ArkivstrukturWriter::writeEndElement);
+                    if (isChanged(partition, classificationSystem, null)) {
+                        elements.writePending();
+                    }
+                }
+                for (Future<Path> fragment : partitions.fragments) {
+                    merge(partition, fragment);
+                }
+                if (classificationSystem != null) {
+                    elements.pop();
+                }
+                elements.pop();
+            }
+
+            List<Fonds> subFondsList = read(session -> EntityCursor.list(session, SUB_FONDS_BY_FONDS,
+                    fonds.getId()));
+            for (Fonds subFonds : subFondsList) {
+                extractFonds(partition, subFonds, false);
+            }
+            elements.pop();
+        }
+
+        /**
+         * @return the series of fonds, with their classification systems and the ids of the top level classes
+         * of those, each with no partitions started yet
+         */
+        private List<SeriesPartitions> readSeries(StatelessSession session, Fonds fonds) {
+            List<SeriesPartitions> seriesPartitions = new ArrayList<>();
+            for (Series series : EntityCursor.<Series>list(session, SERIES_BY_FONDS, fonds.getId())) {
+                ClassificationSystem classificationSystem = (ClassificationSystem) session
+                        .createQuery(CLASSIFICATION_SYSTEM_BY_SERIES)
+                        .setParameter("parent", series.getId())
+                        .uniqueResult();
+                List<Long> classIds = classificationSystem == null ? new ArrayList<>() :
+                        EntityCursor.list(session, CLASS_ID_BY_CLASSIFICATION_SYSTEM, classificationSystem.getId());
+                seriesPartitions.add(new SeriesPartitions(series, classificationSystem, classIds));
+            }
+            return seriesPartitions;
+        }
+
+        /**
+         * Start extracting a partition to a fragment of its own on the partition pool.
+         *
+         * @return the fragment, once it is written
+         */
+        private Future<Path> startPartition(PartitionAction action) {
+            Path fragment = fragmentDirectory.resolve(++fragmentNumber + ".xml");
+            return partitionPool.submit(() -> {
+                StatelessSession session = sessionFactory.openStatelessSession();
+                try {
+                    Transaction transaction = session.beginTransaction();
+                    try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(fragment),
+                            OUTPUT_BUFFER_SIZE);
+                         ArkivstrukturWriter writer = new ArkivstrukturWriter(output);
+                         ManifestWriter manifest = new ManifestWriter(getManifestPart(fragment))) {
+                        action.extract(new Partition(session, new ElementPath(writer), manifest));
+                        writer.flush();
+                    } finally {
+                        transaction.rollback();
+                    }
+                } finally {
+                    session.close();
+                }
+                return fragment;
+            });
+        }
+
+        /**
+         * Wait for a partition to be extracted, and copy its fragment and part of the manifest to those of
+         * partition.
+         */
+        private void merge(Partition partition, Future<Path> extracted) throws IOException, XMLStreamException {
+            Path fragment;
+            try {
+                fragment = extracted.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a partition of the extraction");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof XMLStreamException) {
+                    throw (XMLStreamException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException("Extraction of a partition failed", cause);
+            }
+            // Nothing is written to the fragment of a partition where nothing has changed
+            if (Files.size(fragment) > 0) {
+                partition.elements.writePending();
+                partition.elements.getWriter().writeFragment(fragment);
+            }
+            Path manifestPart = getManifestPart(fragment);
+            partition.manifest.append(manifestPart);
+            Files.delete(fragment);
+            Files.delete(manifestPart);
+        }
+
+        private Path getManifestPart(Path fragment) {
+            return fragment.resolveSibling(fragment.getFileName() + ".manifest");
+        }
+
+        void extractClass(Partition partition, Class klass) throws IOException, XMLStreamException {
+            StatelessSession session = partition.session;
+            partition.elements.push(writer -> {
+                writer.writeStartClass(klass);
+                statistics.addClass();
+                extracted();
+            }, ArkivstrukturWriter::writeEndElement);
+            if (isChanged(partition, klass, null)) {
+                partition.elements.writePending();
+            }
+            EntityCursor.forEach(session, Class.class, CLASS_BY_CLASS, klass.getId(),
+                    subClass -> extractClass(partition, subClass));
+            EntityCursor.forEach(session, File.class, FILE_BY_CLASS, klass.getId(),
+                    file -> extractFile(partition, file));
+            EntityCursor.forEach(session, Record.class, RECORD_BY_CLASS, klass.getId(),
+                    record -> extractRecord(partition, record));
+            partition.elements.pop();
+        }
+
+        void extractFile(Partition partition, File file) throws IOException, XMLStreamException {
+            StatelessSession session = partition.session;
+            partition.elements.push(writer -> {
+                writer.writeStartFile(file);
+                statistics.addFile();
+                extracted();
+            }, writer -> writer.writeEndFile(file));
+            if (isChanged(partition, file, null)) {
+                partition.elements.writePending();
+            }
+            EntityCursor.forEach(session, File.class, FILE_BY_FILE, file.getId(),
+                    subFile -> extractFile(partition, subFile));
+            EntityCursor.forEach(session, Record.class, RECORD_BY_FILE, file.getId(),
+                    record -> extractRecord(partition, record));
+            partition.elements.pop();
+        }
+
+        void extractRecord(Partition partition, Record record) throws IOException, XMLStreamException {
+            partition.elements.push(writer -> {
+                writer.writeStartRecord(record);
+                statistics.addRecord();
+                extracted();
+            }, writer -> writer.writeEndRecord(record));
+            if (isChanged(partition, record, null)) {
+                partition.elements.writePending();
+            }
+            EntityCursor.forEach(partition.session, DocumentDescription.class, DOCUMENT_DESCRIPTION_BY_RECORD,
+                    record.getId(), documentDescription -> extractDocumentDescription(partition,
+                            documentDescription));
+            partition.elements.pop();
+        }
+
+        void extractDocumentDescription(Partition partition, DocumentDescription documentDescription)
+                throws IOException, XMLStreamException {
+            partition.elements.push(writer -> {
+                writer.writeStartDocumentDescription(documentDescription);
+                statistics.addDocumentDescription();
+                extracted();
+            }, ArkivstrukturWriter::writeEndElement);
+            if (isChanged(partition, documentDescription, null)) {
+                partition.elements.writePending();
+            }
+            EntityCursor.forEach(partition.session, DocumentObject.class, DOCUMENT_OBJECT_BY_DOCUMENT_DESCRIPTION,
+                    documentDescription.getId(), documentObject -> extractDocumentObject(partition,
+                            documentObject));
+            partition.elements.pop();
+        }
+
+        void extractDocumentObject(Partition partition, DocumentObject documentObject)
+                throws IOException, XMLStreamException {
+            if (!isChanged(partition, documentObject, documentObject.getChecksum())) {
+                return;
+            }
+            partition.elements.writePending();
+            ArkivstrukturWriter writer = partition.elements.getWriter();
+            String reference = documentObject.getReferenceDocumentFile();
+            if (reference == null) {
+                writer.writeDocumentObject(documentObject, null, null);
+            } else {
+                String documentFile = DOCUMENT_DIRECTORY + "/" + documentObject.getSystemId() +
+                        getExtension(documentObject.getOriginalFilename());
+                long size = documentStore.size(reference);
+                copier.copy(reference, size, packageDirectory.resolve(documentFile));
+                writer.writeDocumentObject(documentObject, documentFile, size);
+            }
+            statistics.addDocumentObject();
+            extracted();
+        }
+
+        /**
+         * Add entity to the manifest, and compare it with the manifest of the prior extraction.
+         *
+         * @param checksum the checksum of the document of a DocumentObject, null for other entities
+         * @return true if the entity is to be written, as it has changed since the prior extraction or there is
+         * none
+         */
+        private boolean isChanged(Partition partition, INoarkSystemIdEntity entity, String checksum)
+                throws IOException {
+            partition.manifest.write(entity, checksum);
+            if (prior == null || prior.isChanged(entity.getSystemId(), entity.getVersion(), checksum)) {
+                return true;
+            }
+            statistics.addUnchangedEntity();
+            return false;
+        }
+
+        private void extracted() {
+            entitiesExtracted.mark();
+            if (statistics.getEntities() % PROGRESS_INTERVAL == 0) {
+                logger.info("Extraction progress: " + statistics);
+            }
+        }
+    }
+
+    /**
+     * The session of a partition, and where it writes its fragment and its part of the manifest. The fonds and
+     * its series are extracted as a partition of their own, writing to arkivstruktur.xml and manifest.txt, that
+     * has no session; what it needs is read with read().
+     */
+    private static class Partition {
+
+        private final StatelessSession session;
+        private final ElementPath elements;
+        private final ManifestWriter manifest;
+
+        Partition(StatelessSession session, ElementPath elements, ManifestWriter manifest) {
+            this.session = session;
+            this.elements = elements;
+            this.manifest = manifest;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionAction {
+        void extract(Partition partition) throws IOException, XMLStreamException;
+    }
+
+    /**
+     * A series of a fonds, and the partitions its content is extracted in.
+     */
+    private static class SeriesPartitions {
+
+        private final Series series;
+        private final ClassificationSystem classificationSystem;
+        // The top level classes of the classification system, empty if there is none
+        private final List<Long> classIds;
+        private final List<Future<Path>> fragments = new ArrayList<>();
+
+        SeriesPartitions(Series series, ClassificationSystem classificationSystem, List<Long> classIds) {
+            this.series = series;
+            this.classificationSystem = classificationSystem;
+            this.classIds = classIds;
+        }
+    }
+}
@@ -0,0 +1,1219 @@
+package nikita.extraction;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import nikita.extraction.config.ImportProperties;
+import nikita.extraction.interfaces.IDocumentSink;
+import nikita.extraction.interfaces.IImportListener;
+import nikita.extraction.xml.ArkivstrukturReader;
+import nikita.model.noark5.v4.BasicRecord;
+import nikita.model.noark5.v4.CaseFile;
+import nikita.model.noark5.v4.Class;
+import nikita.model.noark5.v4.ClassificationSystem;
+import nikita.model.noark5.v4.DocumentDescription;
+import nikita.model.noark5.v4.DocumentObject;
+import nikita.model.noark5.v4.File;
+import nikita.model.noark5.v4.Fonds;
+import nikita.model.noark5.v4.Record;
+import nikita.model.noark5.v4.RegistryEntry;
+import nikita.model.noark5.v4.Series;
+import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
+import nikita.model.noark5.v4.interfaces.entities.INoarkCreateEntity;
+import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.NoarkDateCodec;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static nikita.config.N5ResourceMappings.*;
+import static nikita.extraction.config.ExtractionConstants.*;
+
+/**
+ * Imports a Noark 5 extraction (arkivuttrekk) package, arkivstruktur.xml and the documents it refers to, into
+ * the core. The counterpart of ArchiveExtractor, and reads what it writes.
+ * <p>
+ * arkivstruktur.xml is read with a StAX reader, and each arkiv, underarkiv, arkivdel, klassifikasjonssystem,
+ * klasse, mappe, registrering, dokumentbeskrivelse and dokumentobjekt is mapped to its entity and inserted
+ * through a StatelessSession as soon as its metadata is read, in JDBC batches of jdbcBatchSize. Nothing but the
+ * entities on the path from the arkiv to the current element is held in memory, so a package of any size is
+ * imported in constant memory. Metadata the core has no property or entity for, e.g. merknad or
+ * korrespondansepart, is skipped, and the skipped elements are counted by name in the ExtractionStatistics and
+ * logged when the import is done. With strict set in the ImportProperties the import fails on such an element
+ * instead, so nothing in the package is silently left out. Entities are owned by the user the import is run
+ * for; dokumentobjekt, which has no systemID in the package, is given one.
+ * <p>
+ * As the StatelessSession bypasses the Hibernate event listeners, neither Hibernate Search nor Envers see the
+ * inserts and updates of an import. The entities committed by each transaction are handed to an IImportListener
+ * instead, which e.g. indexes them. Imported entities have no audit revision until they are next changed through
+ * the core.
+ * <p>
+ * The documents are verified against the checksum and file size given in the package, and stored through an
+ * IDocumentSink, by a DocumentVerifier on verifyThreads threads of its own while the import of metadata goes on.
+ * The DocumentObjects waiting for their documents are inserted when the transaction they belong to commits, so a
+ * DocumentObject is never committed without its document.
+ * <p>
+ * Entities are inserted batchSize to a transaction. Every insert, and every update of an entity whose metadata
+ * follows its children, e.g. saksmappe, is a step, and once a transaction has committed the number of steps done
+ * is recorded in .import-checkpoint in the package. An import of a package with a checkpoint resumes after the
+ * recorded step; the committed entities are read again, but not inserted, and are looked up by systemID when a
+ * later entity refers to them. As the checkpoint is written after the commit, the steps of the batch following
+ * the checkpoint might already be committed, so they are only taken if the entity is not already present. The
+ * checkpoint is removed when the import is done.
+ * <p>
+ * The number of entities, documents and document bytes imported are exposed as meters, and progress is logged
+ * every PROGRESS_INTERVAL entities.
+ */
+public class ArchiveImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveImporter.class);
+
+    // Entities imported between each progress report in the log
+    private static final int PROGRESS_INTERVAL = 10000;
+    private static final int INPUT_BUFFER_SIZE = 65536;
+
+    private static final String DOCUMENT_OBJECT_BY_DOCUMENT_DESCRIPTION = "select o.id from DocumentObject o " +
+            "where o.referenceDocumentDescription.id = :parent and o.versionNumber = :versionNumber " +
+            "and o.variantFormat = :variantFormat";
+    private static final String INSERT_RECORD_DOCUMENT_DESCRIPTION = "insert into record_document_description " +
+            "(f_pk_record_id, f_pk_document_description_id) values (:record, :documentDescription)";
+    private static final String INSERT_DOCUMENT_OBJECT_CHECKSUM = "insert into document_object_checksum " +
+            "(document_object_id, checksum_algorithm, checksum) values (:documentObject, :algorithm, :checksum)";
+
+    // Keys of the checkpoint file
+    private static final String CHECKPOINT_STEPS = "steps";
+    private static final String CHECKPOINT_BATCH_SIZE = "batchSize";
+    private static final String CHECKPOINT_SIZE = "arkivstrukturSize";
+    private static final String CHECKPOINT_LAST_MODIFIED = "arkivstrukturLastModified";
+
+    private final SessionFactory sessionFactory;
+    private final IDocumentSink documentSink;
+    private final ImportProperties properties;
+    private final IImportListener importListener;
+    private final Meter entitiesImported;
+    private final Meter documentsImported;
+    private final Meter bytesImported;
+    private final Timer imports;
+
+    public ArchiveImporter(SessionFactory sessionFactory, IDocumentSink documentSink,
+                           MetricRegistry metricRegistry) {
+        this(sessionFactory, documentSink, new ImportProperties(), metricRegistry);
+    }
+
+    public ArchiveImporter(SessionFactory sessionFactory, IDocumentSink documentSink,
+                           ImportProperties properties, MetricRegistry metricRegistry) {
+        this(sessionFactory, documentSink, properties, entities -> {
+        }, metricRegistry);
+    }
+
+    public ArchiveImporter(SessionFactory sessionFactory, IDocumentSink documentSink, ImportProperties properties,
+                           IImportListener importListener, MetricRegistry metricRegistry) {
+        this.sessionFactory = sessionFactory;
+        this.documentSink = documentSink;
+        this.properties = properties;
+        this.importListener = importListener;
+        this.entitiesImported = metricRegistry.meter(MetricRegistry.name(ArchiveImporter.class, "entities"));
+        this.documentsImported = metricRegistry.meter(MetricRegistry.name(ArchiveImporter.class, "documents"));
+        this.bytesImported = metricRegistry.meter(MetricRegistry.name(ArchiveImporter.class, "bytes"));
+        this.imports = metricRegistry.timer(MetricRegistry.name(ArchiveImporter.class, "imports"));
+    }
+
+    /**
+     * Import the package in packageDirectory, resuming an earlier import of it that failed.
+     *
+     * @param owner the user the imported entities are owned by, and created by where the package does not say
+     * @return what was imported by this call. Entities committed by an earlier, failed, import are not counted
+     * @throws IOException if the package is malformed, a document does not match its checksum or the import
+     *                     failed otherwise. What was committed is kept, and importing the package again resumes
+     *                     from there
+     */
+    public ExtractionStatistics importPackage(Path packageDirectory, String owner) throws IOException {
+        Path arkivstruktur = packageDirectory.resolve(ARKIVSTRUKTUR_FILE);
+        Path checkpoint = packageDirectory.resolve(IMPORT_CHECKPOINT_FILE);
+        Properties resumeFrom = readCheckpoint(checkpoint, arkivstruktur);
+        ExtractionStatistics statistics = new ExtractionStatistics();
+
+        Timer.Context timer = imports.time();
+        DocumentVerifier verifier = new DocumentVerifier(documentSink, properties.getVerifyThreads(),
+                properties.getVerifyQueueSize());
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.setJdbcBatchSize(properties.getJdbcBatchSize());
+            Import anImport = new Import(packageDirectory, checkpoint, arkivstruktur, owner, resumeFrom, session,
+                    verifier, statistics);
+            if (anImport.resumeStep > 0) {
+                logger.info("Resuming import of " + packageDirectory + " after step " + anImport.resumeStep);
+            } else {
+                logger.info("Importing " + packageDirectory);
+            }
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(arkivstruktur),
+                    INPUT_BUFFER_SIZE);
+                 ArkivstrukturReader reader = new ArkivstrukturReader(input)) {
+                anImport.importDocument(reader);
+            } catch (XMLStreamException e) {
+                anImport.rollback();
+                throw new IOException("Could not import " + arkivstruktur + ". " + e.getMessage(), e);
+            } catch (RuntimeException | IOException e) {
+                anImport.rollback();
+                throw e;
+            }
+        } finally {
+            session.close();
+            verifier.close();
+            timer.stop();
+        }
+        Files.deleteIfExists(checkpoint);
+        logger.info("Imported " + packageDirectory + ": " + statistics);
+        if (!statistics.getSkippedElements().isEmpty()) {
+            logger.warn("Skipped metadata of " + packageDirectory + " the core has no property for: " +
+                    statistics.getSkippedElements());
+        }
+        return statistics;
+    }
+
+    /**
+     * @return the checkpoint of an earlier import of the package, empty if there is none
+     * @throws IOException if the checkpoint was written for another arkivstruktur.xml
+     */
+    private static Properties readCheckpoint(Path checkpoint, Path arkivstruktur) throws IOException {
+        Properties properties = new Properties();
+        if (!Files.exists(checkpoint)) {
+            return properties;
+        }
+        try (InputStream input = Files.newInputStream(checkpoint)) {
+            properties.load(input);
+        }
+        if (!Long.toString(Files.size(arkivstruktur)).equals(properties.getProperty(CHECKPOINT_SIZE)) ||
+                !Long.toString(Files.getLastModifiedTime(arkivstruktur).toMillis())
+                        .equals(properties.getProperty(CHECKPOINT_LAST_MODIFIED))) {
+            throw new IOException(arkivstruktur + " has changed since the import recorded in " + checkpoint +
+                    " failed. Remove the entities that were imported and the checkpoint to import it again");
+        }
+        return properties;
+    }
+
+    /**
+     * Replace the checkpoint, so that it is either the old or the new one if the import is killed while writing.
+     */
+    private static void writeCheckpoint(Path checkpoint, Path arkivstruktur, long steps, int batchSize)
+            throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(CHECKPOINT_STEPS, Long.toString(steps));
+        properties.setProperty(CHECKPOINT_BATCH_SIZE, Integer.toString(batchSize));
+        properties.setProperty(CHECKPOINT_SIZE, Long.toString(Files.size(arkivstruktur)));
+        properties.setProperty(CHECKPOINT_LAST_MODIFIED,
+                Long.toString(Files.getLastModifiedTime(arkivstruktur).toMillis()));
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (OutputStream output = Files.newOutputStream(temporary)) {
+            properties.store(output, "Import of " + ARKIVSTRUKTUR_FILE + ", resumed after steps");
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The state of one import.
+     * <p>
+     * Each element is read by a method of its own, which maps the metadata of the element to its entity and
+     * descends into its children. An entity is inserted when its first child starts, as the children refer to
+     * it, or when its element ends. Metadata read after the entity was inserted is written with an update when
+     * the element ends.
+     */
+    private class Import {
+
+        private final Path packageDirectory;
+        private final Path checkpoint;
+        private final Path arkivstruktur;
+        private final String owner;
+        private final StatelessSession session;
+        private final DocumentVerifier verifier;
+        private final ExtractionStatistics statistics;
+        // Steps committed by earlier imports of the package, and the number of steps they committed at a time
+        private final long resumeStep;
+        private final int resumeBatchSize;
+        private final int batchSize;
+        // DocumentObjects and links between records and document descriptions inserted when the batch commits
+        private final List<PendingDocument> pendingDocuments = new ArrayList<>();
+        private final List<Long[]> pendingLinks = new ArrayList<>();
+        // Entities inserted or updated by the current transaction, handed to the IImportListener once it commits
+        private final List<INikitaEntity> written = new ArrayList<>();
+        private ArkivstrukturReader reader;
+        private Transaction transaction;
+        private long step;
+        private int stepsInBatch;
+
+        Import(Path packageDirectory, Path checkpoint, Path arkivstruktur, String owner, Properties resumeFrom,
+               StatelessSession session, DocumentVerifier verifier, ExtractionStatistics statistics) {
+            this.packageDirectory = packageDirectory.toAbsolutePath().normalize();
+            this.checkpoint = checkpoint;
+            this.arkivstruktur = arkivstruktur;
+            this.owner = owner;
+            this.session = session;
+            this.verifier = verifier;
+            this.statistics = statistics;
+            this.batchSize = Math.max(1, properties.getBatchSize());
+            this.resumeStep = Long.parseLong(resumeFrom.getProperty(CHECKPOINT_STEPS, "0"));
+            this.resumeBatchSize = Integer.parseInt(resumeFrom.getProperty(CHECKPOINT_BATCH_SIZE,
+                    Integer.toString(batchSize)));
+        }
+
+        void importDocument(ArkivstrukturReader reader) throws IOException, XMLStreamException {
+            this.reader = reader;
+            transaction = session.beginTransaction();
+            reader.readStartDocument();
+            importFonds(null);
+            commit();
+        }
+
+        void rollback() {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+        }
+
+        // Elements
+
+        void importFonds(Node<Fonds> parent) throws IOException, XMLStreamException {
+            Fonds fonds = new Fonds();
+            Node<Fonds> node = new Node<>(fonds, parent);
+            if (parent != null) {
+                fonds.setReferenceParentFonds(parent.entity);
+            }
+            while (reader.nextChild()) {
+                String name = reader.getLocalName();
+                if (SUB_FONDS.equals(name)) {
+                    persist(node);
+                    importFonds(node);
+                } else if (SERIES.equals(name)) {
+                    persist(node);
+                    importSeries(node);
+                } else {
+                    metadata(node, readFonds(fonds, name));
+                }
+            }
+            complete(node);
+        }
+
+        void importSeries(Node<Fonds> parent) throws IOException, XMLStreamException {
+            Series series = new Series();
+            series.setReferenceFonds(parent.entity);
+            Node<Series> node = new Node<>(series, parent);
+            while (reader.nextChild()) {
+                String name = reader.getLocalName();
+                if (CLASSIFICATION_SYSTEM.equals(name)) {
+                    persist(node);
+                    Node<ClassificationSystem> classificationSystem = importClassificationSystem();
+                    // The series refers to its classification system, which is inserted after the series
+                    series.setReferenceClassificationSystem(classificationSystem.entity);
+                    node.references.add(classificationSystem);
+                    node.changed = true;
+                } else if (FILE.equals(name)) {
+                    persist(node);
+                    importFile(node, null, null);
+                } else if (REGISTRATION.equals(name)) {
+                    persist(node);
+                    importRecord(node, null, null);
+                } else {
+                    metadata(node, readSeries(series, name));
+                }
+            }
+            complete(node);
+        }
+
+        Node<ClassificationSystem> importClassificationSystem() throws IOException, XMLStreamException {
+            ClassificationSystem classificationSystem = new ClassificationSystem();
+            Node<ClassificationSystem> node = new Node<>(classificationSystem, null);
+            while (reader.nextChild()) {
+                String name = reader.getLocalName();
+                if (CLASS.equals(name)) {
+                    persist(node);
+                    importClass(node, null);
+                } else {
+                    metadata(node, readClassificationSystem(classificationSystem, name));
+                }
+            }
+            complete(node);
+            return node;
+        }
+
+        void importClass(Node<ClassificationSystem> classificationSystem, Node<Class> parentClass)
+                throws IOException, XMLStreamException {
+            Class klass = new Class();
+            Node<Class> node;
+            if (parentClass != null) {
+                klass.setReferenceParentClass(parentClass.entity);
+                node = new Node<>(klass, parentClass);
+            } else {
+                klass.setReferenceClassificationSystem(classificationSystem.entity);
+                node = new Node<>(klass, classificationSystem);
+            }
+            while (reader.nextChild()) {
+                String name = reader.getLocalName();
+                if (CLASS.equals(name)) {
+                    persist(node);
+                    importClass(classificationSystem, node);
+                } else if (FILE.equals(name)) {
+                    persist(node);
+                    importFile(null, node, null);
+                } else if (REGISTRATION.equals(name)) {
+                    persist(node);
+                    importRecord(null, node, null);
+                } else {
+                    metadata(node, readClass(klass, name));
+                }
+            }
+            complete(node);
+        }
+
+        /**
+         * Import a mappe, belonging to exactly one of series, klass and parentFile.
+         */
+        void importFile(Node<Series> series, Node<Class> klass, Node<File> parentFile)
+                throws IOException, XMLStreamException {
+            File file = CASE_FILE.equals(reader.getType()) ? new CaseFile() : new File();
+            Node<File> node;
+            if (series != null) {
+                file.setReferenceSeries(series.entity);
+                node = new Node<>(file, series);
+            } else if (klass != null) {
+                file.setReferenceClass(klass.entity);
+                node = new Node<>(file, klass);
+            } else {
+                file.setReferenceParentFile(parentFile.entity);
+                node = new Node<>(file, parentFile);
+            }
+            while (reader.nextChild()) {
+                String name = reader.getLocalName();
+                if (FILE.equals(name)) {
+                    persist(node);
+                    importFile(null, null, node);
+                } else if (REGISTRATION.equals(name)) {
+                    persist(node);
+                    importRecord(null, null, node);
+                } else {
+                    metadata(node, readFile(file, name));
+                }
+            }
+            complete(node);
+        }
+
+        /**
+         * Import a registrering, belonging to exactly one of series, klass and file.
+         */
+        void importRecord(Node<Series> series, Node<Class> klass, Node<File> file)
+                throws IOException, XMLStreamException {
+            String type = reader.getType();
+            Record record = REGISTRY_ENTRY.equals(type) ? new RegistryEntry() :
+                    BASIC_RECORD.equals(type) ? new BasicRecord() : new Record();
+            Node<Record> node;
+            if (series != null) {
+                record.setReferenceSeries(series.entity);
+                node = new Node<>(record, series);
+            } else if (klass != null) {
+                record.setReferenceClass(klass.entity);
+                node = new Node<>(record, klass);
+            } else {
+                record.setReferenceFile(file.entity);
+                node = new Node<>(record, file);
+            }
+            while (reader.nextChild()) {
+                String name = reader.getLocalName();
+                if (DOCUMENT_DESCRIPTION.equals(name)) {
+                    persist(node);
+                    importDocumentDescription(node);
+                } else {
+                    metadata(node, readRecord(record, name));
+                }
+            }
+            complete(node);
+        }
+
+        void importDocumentDescription(Node<Record> record) throws IOException, XMLStreamException {
+            DocumentDescription documentDescription = new DocumentDescription();
+            Node<DocumentDescription> node = new Node<>(documentDescription, record);
+            while (reader.nextChild()) {
+                String name = reader.getLocalName();
+                if (DOCUMENT_OBJECT.equals(name)) {
+                    persist(node);
+                    importDocumentObject(node);
+                } else {
+                    metadata(node, readDocumentDescription(documentDescription, name));
+                }
+            }
+            complete(node);
+        }
+
+        /**
+         * Read a dokumentobjekt, which has no children, and queue its document for verification. The
+         * DocumentObject is inserted when the batch commits.
+         */
+        void importDocumentObject(Node<DocumentDescription> documentDescription)
+                throws IOException, XMLStreamException {
+            DocumentObject documentObject = new DocumentObject();
+            documentObject.setReferenceDocumentDescription(documentDescription.entity);
+            Path document = null;
+            while (reader.nextChild()) {
+                if (DOCUMENT_OBJECT_REFERENCE_DOCUMENT_FILE.equals(reader.getLocalName())) {
+                    String documentFile = reader.getElementText();
+                    document = resolveDocument(documentFile);
+                    documentObject.setOriginalFilename(document.getFileName().toString());
+                } else if (!readDocumentObject(documentObject, reader.getLocalName())) {
+                    skip(documentObject);
+                }
+            }
+            if (!nextStep()) {
+                return;
+            }
+            resolve(documentDescription);
+            if (isUncertain() && documentObjectExists(documentObject)) {
+                endStep();
+                return;
+            }
+            documentObject.setSystemId(UUID.randomUUID().toString());
+            prepare(documentObject);
+            Future<Long> verified = document == null ? null : verifier.verify(document, documentObject);
+            pendingDocuments.add(new PendingDocument(documentObject, verified));
+            endStep();
+        }
+
+        /**
+         * @param documentFile referanseDokumentfil, relative to the package
+         * @throws XMLStreamException if documentFile is outside the package
+         */
+        private Path resolveDocument(String documentFile) throws XMLStreamException {
+            Path document = packageDirectory.resolve(documentFile).normalize();
+            if (!document.startsWith(packageDirectory) || document.equals(packageDirectory)) {
+                throw new XMLStreamException(DOCUMENT_OBJECT_REFERENCE_DOCUMENT_FILE + " (" + documentFile +
+                        ") is outside the package", reader.getLocation());
+            }
+            return document;
+        }
+
+        // Persistence
+
+        /**
+         * Insert the entity of node, unless it is already inserted or was committed by an earlier import.
+         */
+        private void persist(Node<?> node) throws IOException, XMLStreamException {
+            if (node.persisted) {
+                return;
+            }
+            node.persisted = true;
+            node.changed = false;
+            if (node.entity.getSystemId() == null) {
+                throw new XMLStreamException("Missing " + SYSTEM_ID, reader.getLocation());
+            }
+            if (!nextStep()) {
+                return;
+            }
+            for (Node<?> reference : node.references) {
+                resolve(reference);
+            }
+            if (isUncertain() && find(node)) {
+                endStep();
+                return;
+            }
+            prepare(node.entity);
+            session.insert(node.entity);
+            written.add(node.entity);
+            if (node.entity instanceof Fonds) {
+                statistics.addFonds();
+            } else if (node.entity instanceof Series) {
+                statistics.addSeries();
+            } else if (node.entity instanceof ClassificationSystem) {
+                statistics.addClassificationSystem();
+            } else if (node.entity instanceof Class) {
+                statistics.addClass();
+            } else if (node.entity instanceof File) {
+                statistics.addFile();
+            } else if (node.entity instanceof Record) {
+                statistics.addRecord();
+            } else if (node.entity instanceof DocumentDescription) {
+                statistics.addDocumentDescription();
+                pendingLinks.add(new Long[]{node.references.get(0).entity.getId(), node.entity.getId()});
+            }
+            imported();
+            endStep();
+        }
+
+        /**
+         * Finish the entity of node once its element has ended: insert it, or update it with the metadata
+         * read after it was inserted.
+         */
+        private void complete(Node<?> node) throws IOException, XMLStreamException {
+            if (!node.persisted) {
+                persist(node);
+                return;
+            }
+            if (!node.changed || !nextStep()) {
+                return;
+            }
+            resolve(node);
+            for (Node<?> reference : node.references) {
+                resolve(reference);
+            }
+            session.update(node.entity);
+            written.add(node.entity);
+            endStep();
+        }
+
+        /**
+         * Look up the id and version of an entity committed by an earlier import, if not known.
+         */
+        private void resolve(Node<?> node) throws IOException {
+            // ClassificationSystem and DocumentDescription have a primitive id, which is 0 until it is set
+            Long id = node.entity.getId();
+            if (id != null && id != 0) {
+                return;
+            }
+            if (!find(node)) {
+                throw new IOException(node.entity.getBaseTypeName() + " " + node.entity.getSystemId() +
+                        " was imported before " + checkpoint + " was written, but is not in the database");
+            }
+        }
+
+        /**
+         * @return true if the entity of node is in the database, in which case its id and version, and the
+         * properties set by prepare(), are set to what is stored, so that an update leaves them as they are
+         */
+        private boolean find(Node<?> node) {
+            Object[] found = (Object[]) session.createQuery("select e.id, e.version, e.ownedBy, e.createdDate, " +
+                    "e.createdBy from " + node.entity.getClass().getSimpleName() + " e where e.systemId = :systemId")
+                    .setParameter("systemId", node.entity.getSystemId())
+                    .uniqueResult();
+            if (found == null) {
+                return false;
+            }
+            node.entity.setId((Long) found[0]);
+            // setVersion() refuses to change the version, so it is set the way Hibernate sets it
+            sessionFactory.getClassMetadata(node.entity.getClass())
+                    .setPropertyValue(node.entity, "version", found[1]);
+            node.entity.setOwnedBy((String) found[2]);
+            node.entity.setDeleted(false);
+            node.entity.setCreatedDate((Date) found[3]);
+            node.entity.setCreatedBy((String) found[4]);
+            return true;
+        }
+
+        private boolean documentObjectExists(DocumentObject documentObject) {
+            return !session.createQuery(DOCUMENT_OBJECT_BY_DOCUMENT_DESCRIPTION)
+                    .setParameter("parent", documentObject.getReferenceDocumentDescription().getId())
+                    .setParameter("versionNumber", documentObject.getVersionNumber())
+                    .setParameter("variantFormat", documentObject.getVariantFormat())
+                    .setMaxResults(1)
+                    .list()
+                    .isEmpty();
+        }
+
+        private <T extends INikitaEntity & INoarkCreateEntity> void prepare(T entity) {
+            entity.setOwnedBy(owner);
+            entity.setDeleted(false);
+            if (entity.getCreatedDate() == null) {
+                entity.setCreatedDate(new Date());
+            }
+            if (entity.getCreatedBy() == null) {
+                entity.setCreatedBy(owner);
+            }
+        }
+
+        /**
+         * @return true if the step is to be taken, false if an earlier import committed it
+         */
+        private boolean nextStep() {
+            return ++step > resumeStep;
+        }
+
+        /**
+         * @return true if the current step might have been committed by an earlier import, after it wrote the
+         * last checkpoint
+         */
+        private boolean isUncertain() {
+            return resumeStep > 0 && step <= resumeStep + resumeBatchSize;
+        }
+
+        private void endStep() throws IOException {
+            if (++stepsInBatch >= batchSize) {
+                commit();
+                transaction = session.beginTransaction();
+            }
+        }
+
+        /**
+         * Insert the DocumentObjects of the batch once their documents are stored, commit and record the
+         * checkpoint.
+         */
+        private void commit() throws IOException {
+            for (PendingDocument pending : pendingDocuments) {
+                DocumentObject documentObject = pending.documentObject;
+                if (pending.verified != null) {
+                    long size = await(pending.verified);
+                    statistics.addDocument(size);
+                    documentsImported.mark();
+                    bytesImported.mark(size);
+                }
+                session.insert(documentObject);
+                written.add(documentObject);
+                Map<String, String> checksums = documentObject.getChecksums() == null ?
+                        Collections.emptyMap() : documentObject.getChecksums();
+                for (Map.Entry<String, String> checksum : checksums.entrySet()) {
+                    session.createNativeQuery(INSERT_DOCUMENT_OBJECT_CHECKSUM)
+                            .setParameter("documentObject", documentObject.getId())
+                            .setParameter("algorithm", checksum.getKey())
+                            .setParameter("checksum", checksum.getValue())
+                            .executeUpdate();
+                }
+                statistics.addDocumentObject();
+                imported();
+            }
+            pendingDocuments.clear();
+            for (Long[] link : pendingLinks) {
+                session.createNativeQuery(INSERT_RECORD_DOCUMENT_DESCRIPTION)
+                        .setParameter("record", link[0])
+                        .setParameter("documentDescription", link[1])
+                        .executeUpdate();
+            }
+            pendingLinks.clear();
+            transaction.commit();
+            stepsInBatch = 0;
+            if (step > resumeStep) {
+                writeCheckpoint(checkpoint, arkivstruktur, step, batchSize);
+            }
+            importListener.committed(new ArrayList<>(written));
+            written.clear();
+        }
+
+        private long await(Future<Long> verified) throws IOException {
+            try {
+                return verified.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a document to be verified");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException("Verification of a document failed", cause);
+            }
+        }
+
+        private void imported() {
+            entitiesImported.mark();
+            if (statistics.getEntities() % PROGRESS_INTERVAL == 0) {
+                logger.info("Import progress: " + statistics);
+            }
+        }
+
+        /**
+         * Record a metadata element of node, or skip it if it was not known to the entity.
+         */
+        private void metadata(Node<?> node, boolean known) throws XMLStreamException {
+            if (!known) {
+                skip(node.entity);
+            } else if (node.persisted) {
+                node.changed = true;
+            }
+        }
+
+        /**
+         * Skip the current element, which entity has no property for, and count it.
+         *
+         * @throws XMLStreamException if the import is strict
+         */
+        private void skip(INoarkSystemIdEntity entity) throws XMLStreamException {
+            String name = reader.getLocalName();
+            if (properties.isStrict()) {
+                throw new XMLStreamException(entity.getBaseTypeName() + " has no property for " + name,
+                        reader.getLocation());
+            }
+            statistics.addSkippedElement(name);
+            reader.skipElement();
+        }
+
+        // Metadata. Each method sets the property of the entity named by the current element, and returns false
+        // if the entity has no such property
+
+        private boolean readFonds(Fonds fonds, String name) throws XMLStreamException {
+            switch (name) {
+                case SYSTEM_ID:
+                    fonds.setSystemId(text());
+                    return true;
+                case TITLE:
+                    fonds.setTitle(text());
+                    return true;
+                case DESCRIPTION:
+                    fonds.setDescription(text());
+                    return true;
+                case FONDS_STATUS:
+                    fonds.setFondsStatus(text());
+                    return true;
+                case DOCUMENT_MEDIUM:
+                    fonds.setDocumentMedium(text());
+                    return true;
+                case CREATED_DATE:
+                    fonds.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    fonds.setCreatedBy(text());
+                    return true;
+                case FINALISED_DATE:
+                    fonds.setFinalisedDate(dateTime());
+                    return true;
+                case FINALISED_BY:
+                    fonds.setFinalisedBy(text());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readSeries(Series series, String name) throws XMLStreamException {
+            switch (name) {
+                case SYSTEM_ID:
+                    series.setSystemId(text());
+                    return true;
+                case TITLE:
+                    series.setTitle(text());
+                    return true;
+                case DESCRIPTION:
+                    series.setDescription(text());
+                    return true;
+                case SERIES_STATUS:
+                    series.setSeriesStatus(text());
+                    return true;
+                case DOCUMENT_MEDIUM:
+                    series.setDocumentMedium(text());
+                    return true;
+                case CREATED_DATE:
+                    series.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    series.setCreatedBy(text());
+                    return true;
+                case FINALISED_DATE:
+                    series.setFinalisedDate(dateTime());
+                    return true;
+                case FINALISED_BY:
+                    series.setFinalisedBy(text());
+                    return true;
+                case SERIES_START_DATE:
+                    series.setSeriesStartDate(date());
+                    return true;
+                case SERIES_END_DATE:
+                    series.setSeriesEndDate(date());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readClassificationSystem(ClassificationSystem classificationSystem, String name)
+                throws XMLStreamException {
+            switch (name) {
+                case SYSTEM_ID:
+                    classificationSystem.setSystemId(text());
+                    return true;
+                case CLASSIFICATION_TYPE:
+                    classificationSystem.setClassificationType(text());
+                    return true;
+                case TITLE:
+                    classificationSystem.setTitle(text());
+                    return true;
+                case DESCRIPTION:
+                    classificationSystem.setDescription(text());
+                    return true;
+                case CREATED_DATE:
+                    classificationSystem.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    classificationSystem.setCreatedBy(text());
+                    return true;
+                case FINALISED_DATE:
+                    classificationSystem.setFinalisedDate(dateTime());
+                    return true;
+                case FINALISED_BY:
+                    classificationSystem.setFinalisedBy(text());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readClass(Class klass, String name) throws XMLStreamException {
+            switch (name) {
+                case SYSTEM_ID:
+                    klass.setSystemId(text());
+                    return true;
+                case CLASS_ID:
+                    klass.setClassId(text());
+                    return true;
+                case TITLE:
+                    klass.setTitle(text());
+                    return true;
+                case DESCRIPTION:
+                    klass.setDescription(text());
+                    return true;
+                case CREATED_DATE:
+                    klass.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    klass.setCreatedBy(text());
+                    return true;
+                case FINALISED_DATE:
+                    klass.setFinalisedDate(dateTime());
+                    return true;
+                case FINALISED_BY:
+                    klass.setFinalisedBy(text());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readFile(File file, String name) throws XMLStreamException {
+            switch (name) {
+                case SYSTEM_ID:
+                    file.setSystemId(text());
+                    return true;
+                case FILE_ID:
+                    file.setFileId(text());
+                    return true;
+                case TITLE:
+                    file.setTitle(text());
+                    return true;
+                case FILE_PUBLIC_TITLE:
+                    file.setOfficialTitle(text());
+                    return true;
+                case DESCRIPTION:
+                    file.setDescription(text());
+                    return true;
+                case DOCUMENT_MEDIUM:
+                    file.setDocumentMedium(text());
+                    return true;
+                case CREATED_DATE:
+                    file.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    file.setCreatedBy(text());
+                    return true;
+                case FINALISED_DATE:
+                    file.setFinalisedDate(dateTime());
+                    return true;
+                case FINALISED_BY:
+                    file.setFinalisedBy(text());
+                    return true;
+                default:
+                    return file instanceof CaseFile && readCaseFile((CaseFile) file, name);
+            }
+        }
+
+        private boolean readCaseFile(CaseFile caseFile, String name) throws XMLStreamException {
+            switch (name) {
+                case CASE_YEAR:
+                    caseFile.setCaseYear(integer());
+                    return true;
+                case CASE_SEQUENCE_NUMBER:
+                    caseFile.setCaseSequenceNumber(integer());
+                    return true;
+                case CASE_DATE:
+                    caseFile.setCaseDate(date());
+                    return true;
+                case CASE_ADMINISTRATIVE_UNIT:
+                    caseFile.setAdministrativeUnit(text());
+                    return true;
+                case CASE_RESPONSIBLE:
+                    caseFile.setCaseResponsible(text());
+                    return true;
+                case CASE_RECORDS_MANAGEMENT_UNIT:
+                    caseFile.setRecordsManagementUnit(text());
+                    return true;
+                case CASE_STATUS:
+                    caseFile.setCaseStatus(text());
+                    return true;
+                case CASE_LOANED_DATE:
+                    caseFile.setLoanedDate(date());
+                    return true;
+                case CASE_LOANED_TO:
+                    caseFile.setLoanedTo(text());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readRecord(Record record, String name) throws XMLStreamException {
+            switch (name) {
+                case SYSTEM_ID:
+                    record.setSystemId(text());
+                    return true;
+                case CREATED_DATE:
+                    record.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    record.setCreatedBy(text());
+                    return true;
+                case RECORD_ARCHIVED_DATE:
+                    record.setArchivedDate(dateTime());
+                    return true;
+                case RECORD_ARCHIVED_BY:
+                    record.setArchivedBy(text());
+                    return true;
+                default:
+                    if (record instanceof RegistryEntry && readRegistryEntry((RegistryEntry) record, name)) {
+                        return true;
+                    }
+                    return record instanceof BasicRecord && readBasicRecord((BasicRecord) record, name);
+            }
+        }
+
+        private boolean readBasicRecord(BasicRecord basicRecord, String name) throws XMLStreamException {
+            switch (name) {
+                case BASIC_RECORD_ID:
+                    basicRecord.setRecordId(text());
+                    return true;
+                case TITLE:
+                    basicRecord.setTitle(text());
+                    return true;
+                case FILE_PUBLIC_TITLE:
+                    basicRecord.setOfficialTitle(text());
+                    return true;
+                case DESCRIPTION:
+                    basicRecord.setDescription(text());
+                    return true;
+                case DOCUMENT_MEDIUM:
+                    basicRecord.setDocumentMedium(text());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readRegistryEntry(RegistryEntry registryEntry, String name) throws XMLStreamException {
+            switch (name) {
+                case REGISTRY_ENTRY_YEAR:
+                    registryEntry.setRecordYear(integer());
+                    return true;
+                case REGISTRY_ENTRY_SEQUENCE_NUMBER:
+                    registryEntry.setRecordSequenceNumber(integer());
+                    return true;
+                case REGISTRY_ENTRY_NUMBER:
+                    registryEntry.setRegistryEntryNumber(integer());
+                    return true;
+                case REGISTRY_ENTRY_TYPE:
+                    registryEntry.setRegistryEntryType(text());
+                    return true;
+                case REGISTRY_ENTRY_STATUS:
+                    registryEntry.setRecordStatus(text());
+                    return true;
+                case REGISTRY_ENTRY_DATE:
+                    registryEntry.setRecordDate(date());
+                    return true;
+                case REGISTRY_ENTRY_DOCUMENT_DATE:
+                    registryEntry.setDocumentDate(date());
+                    return true;
+                case REGISTRY_ENTRY_RECEIVED_DATE:
+                    registryEntry.setReceivedDate(dateTime());
+                    return true;
+                case REGISTRY_ENTRY_SENT_DATE:
+                    registryEntry.setSentDate(dateTime());
+                    return true;
+                case REGISTRY_ENTRY_DUE_DATE:
+                    registryEntry.setDueDate(date());
+                    return true;
+                case REGISTRY_ENTRY_RECORD_FREEDOM_ASSESSMENT_DATE:
+                    registryEntry.setFreedomAssessmentDate(date());
+                    return true;
+                case REGISTRY_ENTRY_NUMBER_OF_ATTACHMENTS:
+                    registryEntry.setNumberOfAttachments(integer());
+                    return true;
+                case CASE_LOANED_DATE:
+                    registryEntry.setLoanedDate(date());
+                    return true;
+                case CASE_LOANED_TO:
+                    registryEntry.setLoanedTo(text());
+                    return true;
+                case CASE_RECORDS_MANAGEMENT_UNIT:
+                    registryEntry.setRecordsManagementUnit(text());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readDocumentDescription(DocumentDescription documentDescription, String name)
+                throws XMLStreamException {
+            switch (name) {
+                case SYSTEM_ID:
+                    documentDescription.setSystemId(text());
+                    return true;
+                case DOCUMENT_DESCRIPTION_DOCUMENT_TYPE:
+                    documentDescription.setDocumentType(text());
+                    return true;
+                case DOCUMENT_DESCRIPTION_STATUS:
+                    documentDescription.setDocumentStatus(text());
+                    return true;
+                case TITLE:
+                    documentDescription.setTitle(text());
+                    return true;
+                case DESCRIPTION:
+                    documentDescription.setDescription(text());
+                    return true;
+                case CREATED_DATE:
+                    documentDescription.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    documentDescription.setCreatedBy(text());
+                    return true;
+                case DOCUMENT_MEDIUM:
+                    documentDescription.setDocumentMedium(text());
+                    return true;
+                case DOCUMENT_DESCRIPTION_ASSOCIATED_WITH_RECORD_AS:
+                    documentDescription.setAssociatedWithRecordAs(text());
+                    return true;
+                case DOCUMENT_DESCRIPTION_DOCUMENT_NUMBER:
+                    documentDescription.setDocumentNumber(integer());
+                    return true;
+                case DOCUMENT_DESCRIPTION_ASSOCIATION_DATE:
+                    documentDescription.setAssociationDate(date());
+                    return true;
+                case DOCUMENT_DESCRIPTION_ASSOCIATED_BY:
+                    documentDescription.setAssociatedBy(text());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean readDocumentObject(DocumentObject documentObject, String name) throws XMLStreamException {
+            switch (name) {
+                case DOCUMENT_OBJECT_VERSION_NUMBER:
+                    documentObject.setVersionNumber(integer());
+                    return true;
+                case DOCUMENT_OBJECT_VARIANT_FORMAT:
+                    documentObject.setVariantFormat(text());
+                    return true;
+                case DOCUMENT_OBJECT_FORMAT:
+                    documentObject.setFormat(text());
+                    return true;
+                case DOCUMENT_OBJECT_FORMAT_DETAILS:
+                    documentObject.setFormatDetails(text());
+                    return true;
+                case CREATED_DATE:
+                    documentObject.setCreatedDate(dateTime());
+                    return true;
+                case CREATED_BY:
+                    documentObject.setCreatedBy(text());
+                    return true;
+                case DOCUMENT_OBJECT_CHECKSUM:
+                    documentObject.setChecksum(text());
+                    return true;
+                case DOCUMENT_OBJECT_CHECKSUM_ALGORITHM:
+                    documentObject.setChecksumAlgorithm(text());
+                    return true;
+                case DOCUMENT_OBJECT_FILE_SIZE:
+                    documentObject.setFileSize(longValue());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private String text() throws XMLStreamException {
+            return reader.getElementText();
+        }
+
+        private Integer integer() throws XMLStreamException {
+            String text = reader.getElementText();
+            try {
+                return Integer.valueOf(text);
+            } catch (NumberFormatException e) {
+                throw new XMLStreamException("Expected a number, found " + text, reader.getLocation());
+            }
+        }
+
+        private Long longValue() throws XMLStreamException {
+            String text = reader.getElementText();
+            try {
+                return Long.valueOf(text);
+            } catch (NumberFormatException e) {
+                throw new XMLStreamException("Expected a number, found " + text, reader.getLocation());
+            }
+        }
+
+        private Date date() throws XMLStreamException {
+            String text = reader.getElementText();
+            try {
+                return NoarkDateCodec.parseDate(text);
+            } catch (DateTimeParseException e) {
+                throw new XMLStreamException("Expected a date, found " + text, reader.getLocation());
+            }
+        }
+
+        private Date dateTime() throws XMLStreamException {
+            String text = reader.getElementText();
+            try {
+                return NoarkDateCodec.parseDateTime(text);
+            } catch (DateTimeParseException e) {
+                throw new XMLStreamException("Expected a date time, found " + text, reader.getLocation());
+            }
+        }
+    }
+
+    /**
+     * An entity being imported, and the entities it refers to, which are inserted before it. The first
+     * reference, if any, is its parent.
+     */
+    private static class Node<T extends INikitaEntity & INoarkSystemIdEntity & INoarkCreateEntity> {
+
+        private final T entity;
+        private final List<Node<?>> references;
+        // Inserted, or committed by an earlier import
+        private boolean persisted;
+        // Metadata read after the entity was inserted, to be written with an update
+        private boolean changed;
+
+        Node(T entity, Node<?> parent) {
+            this.entity = entity;
+            this.references = parent == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(parent));
+        }
+    }
+
+    /**
+     * A DocumentObject waiting for its document to be verified and stored before it is inserted.
+     */
+    private static class PendingDocument {
+
+        private final DocumentObject documentObject;
+        // Null if the DocumentObject has no document
+        private final Future<Long> verified;
+
+        PendingDocument(DocumentObject documentObject, Future<Long> verified) {
+            this.documentObject = documentObject;
+            this.verified = verified;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package nikita.extraction;
+
+import nikita.extraction.interfaces.IDocumentStore;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * Copies documents into an extraction package on threads of its own, so that the metadata of the next entities
+ * are read and written while documents are copied.
+ * <p>
+ * At most queueSize copies are waiting or running at a time; copy() blocks when the queue is full, so
+ * extraction of metadata can not get arbitrarily far ahead of the copying. The first copy that fails makes the
+ * following calls to copy() and await() throw.
+ */
+final class DocumentCopier implements AutoCloseable {
+
+    private final IDocumentStore documentStore;
+    private final ExecutorService copiers;
+    private final Semaphore queue;
+    private final int queueSize;
+    private final LongConsumer onCopied;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    /**
+     * @param onCopied called with the size of each document once it is copied
+     */
+    DocumentCopier(IDocumentStore documentStore, int threads, int queueSize, LongConsumer onCopied) {
+        this.documentStore = documentStore;
+        this.queueSize = Math.max(1, queueSize);
+        this.queue = new Semaphore(this.queueSize);
+        this.onCopied = onCopied;
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        this.copiers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "extraction-copy-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a copy of the document stored under reference to target, which must not exist.
+     */
+    void copy(String reference, long size, Path target) throws IOException {
+        checkFailure();
+        try {
+            queue.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting to copy " + reference);
+        }
+        copiers.execute(() -> {
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                documentStore.transferTo(reference, 0, size, channel);
+                onCopied.accept(size);
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, new IOException("Could not copy " + reference + " to " + target, e));
+            } finally {
+                queue.release();
+            }
+        });
+    }
+
+    /**
+     * Wait until every queued document is copied.
+     *
+     * @throws IOException if a copy failed
+     */
+    void await() throws IOException {
+        try {
+            queue.acquire(queueSize);
+            queue.release(queueSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for documents to be copied");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        IOException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        copiers.shutdownNow();
+    }
+}
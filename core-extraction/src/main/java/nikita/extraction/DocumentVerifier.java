@@ -0,0 +1,133 @@
+package nikita.extraction;
+
+import nikita.extraction.interfaces.IDocumentSink;
+import nikita.model.noark5.v4.DocumentObject;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies the documents of an imported package against the checksum and file size of their DocumentObjects,
+ * and hands them to an IDocumentSink, on threads of its own so that the metadata of the next entities are read
+ * and inserted meanwhile.
+ * <p>
+ * A document is verified before it is handed to the sink, so a document that does not match its DocumentObject is
+ * never stored; a document with a checksum is read twice for this. At most queueSize documents are waiting or
+ * being verified at a time; verify() blocks when the queue is full.
+ */
+final class DocumentVerifier implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final IDocumentSink documentSink;
+    private final ExecutorService verifiers;
+    private final Semaphore queue;
+
+    DocumentVerifier(IDocumentSink documentSink, int threads, int queueSize) {
+        this.documentSink = documentSink;
+        this.queue = new Semaphore(Math.max(1, queueSize));
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        this.verifiers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "import-verify-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue verification of document, and storing it if it is intact. documentObject must not be used until the
+     * returned future is done.
+     *
+     * @return the size of the document, once it is verified and stored. Fails with an IOException if the
+     * document does not match its DocumentObject or could not be stored
+     */
+    Future<Long> verify(Path document, DocumentObject documentObject) throws IOException {
+        try {
+            queue.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting to verify " + document);
+        }
+        String checksum = documentObject.getChecksum();
+        String checksumAlgorithm = documentObject.getChecksumAlgorithm();
+        Long fileSize = documentObject.getFileSize();
+        try {
+            return verifiers.submit(() -> {
+                try {
+                    return verifyAndStore(document, documentObject, checksum, checksumAlgorithm, fileSize);
+                } finally {
+                    queue.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            queue.release();
+            throw e;
+        }
+    }
+
+    private long verifyAndStore(Path document, DocumentObject documentObject, String checksum,
+                                String checksumAlgorithm, Long fileSize) throws IOException {
+        long size = Files.size(document);
+        if (fileSize != null && fileSize != size) {
+            throw new IOException("The size of " + document + " (" + size + ") does not match filstoerrelse (" +
+                    fileSize + ")");
+        }
+        if (checksum != null) {
+            MessageDigest digest = getDigest(checksumAlgorithm);
+            try (InputStream input = new DigestInputStream(Files.newInputStream(document), digest)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (input.read(buffer) != -1) {
+                    // Read to the end
+                }
+            }
+            String actual = DatatypeConverter.printHexBinary(digest.digest());
+            if (!actual.equalsIgnoreCase(checksum)) {
+                throw new IOException("The " + checksumAlgorithm + " checksum of " + document + " (" +
+                        actual.toLowerCase() + ") does not match sjekksum (" + checksum + ")");
+            }
+        }
+        try (InputStream input = Files.newInputStream(document)) {
+            documentSink.store(input, documentObject);
+        }
+        return size;
+    }
+
+    /**
+     * @param algorithm the name of a checksum algorithm as written in a package, e.g. SHA256 or SHA-256
+     */
+    static MessageDigest getDigest(String algorithm) throws IOException {
+        if (algorithm == null) {
+            throw new IOException("A document has sjekksum, but no sjekksumAlgoritme");
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            // Packages name the SHA-2 algorithms without the dash MessageDigest wants
+            if (algorithm.matches("(?i)SHA\\d+")) {
+                try {
+                    return MessageDigest.getInstance("SHA-" + algorithm.substring(3));
+                } catch (NoSuchAlgorithmException ignored) {
+                    // Reported below
+                }
+            }
+            throw new IOException("Unknown checksum algorithm (" + algorithm + ")", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        verifiers.shutdownNow();
+    }
+}
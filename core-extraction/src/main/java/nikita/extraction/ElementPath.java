@@ -0,0 +1,76 @@
+package nikita.extraction;
+
+import nikita.extraction.xml.ArkivstrukturWriter;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The elements from the top of arkivstruktur.xml, or of a fragment of it, to the entity being extracted, whose
+ * start is only written when needed.
+ * <p>
+ * An incremental extraction only writes the entities that have changed, but a changed entity must be written
+ * within the elements of the entities containing it, changed or not. So an element is pushed when its entity
+ * is read, its start, and the start of every element around it, is written by writePending() once the entity or
+ * something it contains is to be written, and its end is written when it is popped, if its start was.
+ */
+final class ElementPath {
+
+    @FunctionalInterface
+    interface ElementAction {
+        void write(ArkivstrukturWriter writer) throws XMLStreamException;
+    }
+
+    private final ArkivstrukturWriter writer;
+    private final List<Element> elements = new ArrayList<>();
+    // The number of elements, from the top, whose start has been written
+    private int written;
+
+    ElementPath(ArkivstrukturWriter writer) {
+        this.writer = writer;
+    }
+
+    ArkivstrukturWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * @param start writes the start of the element, and the metadata preceding its children
+     * @param end   writes the metadata following its children, and the end of the element
+     */
+    void push(ElementAction start, ElementAction end) {
+        elements.add(new Element(start, end));
+    }
+
+    /**
+     * Write the start of every element pushed whose start has not been written.
+     */
+    void writePending() throws XMLStreamException {
+        for (; written < elements.size(); written++) {
+            elements.get(written).start.write(writer);
+        }
+    }
+
+    /**
+     * Pop the innermost element, writing its end if its start was written.
+     */
+    void pop() throws XMLStreamException {
+        Element element = elements.remove(elements.size() - 1);
+        if (written > elements.size()) {
+            written = elements.size();
+            element.end.write(writer);
+        }
+    }
+
+    private static class Element {
+
+        private final ElementAction start;
+        private final ElementAction end;
+
+        Element(ElementAction start, ElementAction end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package nikita.extraction;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads the results of a query through a forward only database cursor.
+ * <p>
+ * The query runs in a StatelessSession, which keeps no persistence context, so an entity is garbage once the
+ * cursor has moved past it and memory use does not grow with the number of rows. Lazy associations of the
+ * entities can not be loaded; children are read with queries of their own.
+ */
+final class EntityCursor {
+
+    // Rows fetched from the database at a time
+    static final int FETCH_SIZE = 100;
+
+    // You shall not instantiate me!
+    private EntityCursor() {
+    }
+
+    @FunctionalInterface
+    interface EntityAction<T> {
+        void accept(T entity) throws IOException, XMLStreamException;
+    }
+
+    /**
+     * @return all the results of query, which must be known to be few, e.g. the series of a fonds
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> list(StatelessSession session, String query, Object parent) {
+        return (List<T>) session.createQuery(query)
+                .setParameter("parent", parent)
+                .list();
+    }
+
+    /**
+     * Hand every entity returned by query to action, in the order given by query.
+     *
+     * @param query  a HQL query with one parameter named parent, or none if parent is null
+     * @param parent the value of the parameter, normally the primary key of the parent of the entities
+     */
+    static <T> void forEach(StatelessSession session, Class<T> entityClass, String query, Object parent,
+                            EntityAction<? super T> action) throws IOException, XMLStreamException {
+        Query<?> hibernateQuery = session.createQuery(query)
+                .setFetchSize(FETCH_SIZE)
+                .setReadOnly(true);
+        if (parent != null) {
+            hibernateQuery.setParameter("parent", parent);
+        }
+        ScrollableResults results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (results.next()) {
+                action.accept(entityClass.cast(results.get(0)));
+            }
+        } finally {
+            results.close();
+        }
+    }
+}
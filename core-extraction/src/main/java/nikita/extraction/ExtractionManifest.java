@@ -0,0 +1,113 @@
+package nikita.extraction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The manifest of a prior extraction of a fonds, as written by ManifestWriter: the systemID, version and
+ * document checksum of every entity of the fonds at the time of that extraction. An incremental extraction
+ * compares each entity with the manifest and leaves out the entities that have not changed since.
+ * <p>
+ * The entries are held in memory, one small object per entity, while the extraction runs, and are looked up
+ * from any partition thread. An entry is marked when it is looked up, so the entries left unmarked when the
+ * extraction is done are the entities that have been removed from the fonds since.
+ */
+final class ExtractionManifest {
+
+    private final String fondsSystemId;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private ExtractionManifest(String fondsSystemId) {
+        this.fondsSystemId = fondsSystemId;
+    }
+
+    /**
+     * @throws IOException if manifest can not be read or is not a manifest
+     */
+    static ExtractionManifest read(Path manifest) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(ManifestWriter.HEADER)) {
+                throw new IOException(manifest + " is not an extraction manifest");
+            }
+            ExtractionManifest extractionManifest =
+                    new ExtractionManifest(header.substring(ManifestWriter.HEADER.length()).trim());
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] fields = line.split(ManifestWriter.SEPARATOR, -1);
+                if (fields.length != 4) {
+                    throw new IOException("Malformed entry on line " + lineNumber + " of " + manifest);
+                }
+                try {
+                    extractionManifest.entries.put(fields[1], new Entry(fields[0].intern(),
+                            fields[2].isEmpty() ? null : Long.valueOf(fields[2]),
+                            fields[3].isEmpty() ? null : fields[3]));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed version on line " + lineNumber + " of " + manifest, e);
+                }
+            }
+            return extractionManifest;
+        }
+    }
+
+    /**
+     * @return the systemID of the fonds the manifest was written for
+     */
+    String getFondsSystemId() {
+        return fondsSystemId;
+    }
+
+    /**
+     * Compare an entity with its entry, and mark the entry as found.
+     *
+     * @param checksum the checksum of the document of a DocumentObject, null for other entities
+     * @return true if the entity is not in the manifest, or has another version or document since
+     */
+    boolean isChanged(String systemId, Long version, String checksum) {
+        Entry entry = entries.get(systemId);
+        if (entry == null) {
+            return true;
+        }
+        entry.found = true;
+        return !Objects.equals(entry.version, version) ||
+                !Objects.equals(entry.checksum, checksum);
+    }
+
+    /**
+     * @return the number of entities in the manifest not looked up by isChanged(), i.e. removed from the fonds
+     * once the extraction is done. Counted by type, as written in the manifest
+     */
+    Map<String, Long> countNotFound() {
+        Map<String, Long> remaining = new TreeMap<>();
+        for (Entry entry : entries.values()) {
+            if (!entry.found) {
+                remaining.merge(entry.type, 1L, Long::sum);
+            }
+        }
+        return remaining;
+    }
+
+    private static class Entry {
+
+        private final String type;
+        private final Long version;
+        private final String checksum;
+        // Set by any partition thread, read once the extraction is done
+        private volatile boolean found;
+
+        Entry(String type, Long version, String checksum) {
+            this.type = type;
+            this.version = version;
+            this.checksum = checksum;
+        }
+    }
+}
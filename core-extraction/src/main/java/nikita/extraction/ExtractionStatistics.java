@@ -0,0 +1,181 @@
+package nikita.extraction;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of what an extraction has written, or an import has inserted, so far. Can be read while the extraction
+ * or import is running.
+ */
+public class ExtractionStatistics {
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final LongAdder fonds = new LongAdder();
+    private final LongAdder series = new LongAdder();
+    private final LongAdder classificationSystems = new LongAdder();
+    private final LongAdder classes = new LongAdder();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder documentDescriptions = new LongAdder();
+    private final LongAdder documentObjects = new LongAdder();
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder documentBytes = new LongAdder();
+    private final LongAdder unchangedEntities = new LongAdder();
+    private final LongAdder removedEntities = new LongAdder();
+    private final Map<String, LongAdder> skippedElements = new ConcurrentHashMap<>();
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getFonds() {
+        return fonds.sum();
+    }
+
+    public long getSeries() {
+        return series.sum();
+    }
+
+    public long getClassificationSystems() {
+        return classificationSystems.sum();
+    }
+
+    public long getClasses() {
+        return classes.sum();
+    }
+
+    public long getFiles() {
+        return files.sum();
+    }
+
+    public long getRecords() {
+        return records.sum();
+    }
+
+    public long getDocumentDescriptions() {
+        return documentDescriptions.sum();
+    }
+
+    public long getDocumentObjects() {
+        return documentObjects.sum();
+    }
+
+    /**
+     * @return the number of document files copied into the package
+     */
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    public long getDocumentBytes() {
+        return documentBytes.sum();
+    }
+
+    /**
+     * @return the number of entities an incremental extraction left out of arkivstruktur.xml, as they had not
+     * changed since the prior extraction
+     */
+    public long getUnchangedEntities() {
+        return unchangedEntities.sum();
+    }
+
+    /**
+     * @return the number of entities of the prior extraction that are no longer in the fonds, known once an
+     * incremental extraction is done
+     */
+    public long getRemovedEntities() {
+        return removedEntities.sum();
+    }
+
+    /**
+     * @return the number of times each metadata element an import has no property for was skipped, by element
+     * name
+     */
+    public Map<String, Long> getSkippedElements() {
+        Map<String, Long> skipped = new TreeMap<>();
+        skippedElements.forEach((name, count) -> skipped.put(name, count.sum()));
+        return skipped;
+    }
+
+    /**
+     * @return the number of entities of all types written to arkivstruktur.xml
+     */
+    public long getEntities() {
+        return getFonds() + getSeries() + getClassificationSystems() + getClasses() + getFiles() + getRecords() +
+                getDocumentDescriptions() + getDocumentObjects();
+    }
+
+    void addFonds() {
+        fonds.increment();
+    }
+
+    void addSeries() {
+        series.increment();
+    }
+
+    void addClassificationSystem() {
+        classificationSystems.increment();
+    }
+
+    void addClass() {
+        classes.increment();
+    }
+
+    void addFile() {
+        files.increment();
+    }
+
+    void addRecord() {
+        records.increment();
+    }
+
+    void addDocumentDescription() {
+        documentDescriptions.increment();
+    }
+
+    void addDocumentObject() {
+        documentObjects.increment();
+    }
+
+    void addDocument(long size) {
+        documents.increment();
+        documentBytes.add(size);
+    }
+
+    void addUnchangedEntity() {
+        unchangedEntities.increment();
+    }
+
+    void addRemovedEntities(long count) {
+        removedEntities.add(count);
+    }
+
+    void addSkippedElement(String name) {
+        skippedElements.computeIfAbsent(name, key -> new LongAdder()).increment();
+    }
+
+    @Override
+    public String toString() {
+        long seconds = Math.max(1, (System.currentTimeMillis() - startTime) / 1000);
+        return "ExtractionStatistics{" +
+                "fonds=" + getFonds() +
+                ", series=" + getSeries() +
+                ", classificationSystems=" + getClassificationSystems() +
+                ", classes=" + getClasses() +
+                ", files=" + getFiles() +
+                ", records=" + getRecords() +
+                ", documentDescriptions=" + getDocumentDescriptions() +
+                ", documentObjects=" + getDocumentObjects() +
+                ", documents=" + getDocuments() +
+                ", documentBytes=" + getDocumentBytes() +
+                ", unchangedEntities=" + getUnchangedEntities() +
+                ", removedEntities=" + getRemovedEntities() +
+                ", skippedElements=" + getSkippedElements() +
+                ", entitiesPerSecond=" + getEntities() / seconds +
+                ", megabytesPerSecond=" + getDocumentBytes() / seconds / 1048576 +
+                '}';
+    }
+}
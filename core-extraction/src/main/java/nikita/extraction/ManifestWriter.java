@@ -0,0 +1,79 @@
+package nikita.extraction;
+
+import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the manifest of an extraction, a line of text for every entity of the fonds, whether an incremental
+ * extraction wrote it to arkivstruktur.xml or not:
+ * <p>
+ * type TAB systemID TAB version TAB checksum
+ * <p>
+ * type is the base type name of the entity, e.g. mappe, and checksum the checksum of the document of a
+ * DocumentObject as stored in the core, empty for other entities. The first line names the fonds. The manifest
+ * of an extraction is the ExtractionManifest of the next, incremental, extraction of the fonds.
+ * <p>
+ * Like arkivstruktur.xml, the manifest is written in parts by the partitions of the extraction and the parts are
+ * merged with append(), so it lists the entities in the order they are found in the fonds.
+ */
+final class ManifestWriter implements AutoCloseable {
+
+    static final String HEADER = "# Extraction manifest of fonds ";
+    static final String SEPARATOR = "\t";
+
+    private final BufferedWriter writer;
+
+    /**
+     * @param manifest where the manifest, or a part of it, is written. Replaced if it exists
+     */
+    ManifestWriter(Path manifest) throws IOException {
+        this.writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8);
+    }
+
+    void writeHeader(String fondsSystemId) throws IOException {
+        writer.write(HEADER + fondsSystemId);
+        writer.newLine();
+    }
+
+    /**
+     * @param checksum the checksum of the document of a DocumentObject, null for other entities
+     */
+    void write(INoarkSystemIdEntity entity, String checksum) throws IOException {
+        writer.write(entity.getBaseTypeName());
+        writer.write(SEPARATOR);
+        writer.write(entity.getSystemId());
+        writer.write(SEPARATOR);
+        if (entity.getVersion() != null) {
+            writer.write(entity.getVersion().toString());
+        }
+        writer.write(SEPARATOR);
+        if (checksum != null) {
+            writer.write(checksum);
+        }
+        writer.newLine();
+    }
+
+    /**
+     * Copy a part written by another ManifestWriter to the end of the manifest.
+     */
+    void append(Path part) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(part, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
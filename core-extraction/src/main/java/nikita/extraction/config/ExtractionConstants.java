@@ -0,0 +1,42 @@
+package nikita.extraction.config;
+
+/**
+ * Names used in a Noark 5 extraction (arkivuttrekk) package.
+ */
+public final class ExtractionConstants {
+
+    // Files of the package
+    public static final String ARKIVSTRUKTUR_FILE = "arkivstruktur.xml";
+    public static final String ENDRINGSLOGG_FILE = "endringslogg.xml";
+    public static final String ARKIVUTTREKK_FILE = "arkivuttrekk.xml";
+    // Versions and document checksums of the entities of the fonds, compared by the next, incremental, extraction
+    public static final String MANIFEST_FILE = "manifest.txt";
+    // Directory of the package holding the documents, referred to by referanseDokumentfil
+    public static final String DOCUMENT_DIRECTORY = "dokumenter";
+    // Directory of the package holding partial arkivstruktur.xml while they are merged. Removed when done
+    public static final String FRAGMENT_DIRECTORY = ".fragments";
+    // File in the package recording how far an import of it has come. Removed when the import is done
+    public static final String IMPORT_CHECKPOINT_FILE = ".import-checkpoint";
+
+    // Namespaces and schemas
+    public static final String ARKIVSTRUKTUR_NAMESPACE = "http://www.arkivverket.no/standarder/noark5/arkivstruktur";
+    public static final String ARKIVSTRUKTUR_SCHEMA = "arkivstruktur.xsd";
+    public static final String ENDRINGSLOGG_NAMESPACE = "http://www.arkivverket.no/standarder/noark5/endringslogg";
+    public static final String ENDRINGSLOGG_SCHEMA = "endringslogg.xsd";
+    public static final String ADDML_NAMESPACE = "http://www.arkivverket.no/standarder/addml";
+    public static final String ADDML_SCHEMA = "addml.xsd";
+    public static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+    public static final String XSI_PREFIX = "xsi";
+
+    // Elements of endringslogg.xml and arkivuttrekk.xml
+    public static final String ENDRINGSLOGG = "endringslogg";
+    public static final String ADDML = "addml";
+
+    // The checksum algorithm of the package files, as named in arkivuttrekk.xml and known to MessageDigest
+    public static final String PACKAGE_CHECKSUM_ALGORITHM = "SHA256";
+    public static final String PACKAGE_CHECKSUM_DIGEST = "SHA-256";
+
+    // You shall not instantiate me!
+    private ExtractionConstants() {
+    }
+}
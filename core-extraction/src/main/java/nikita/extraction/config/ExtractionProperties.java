@@ -0,0 +1,40 @@
+package nikita.extraction.config;
+
+/**
+ * How an extraction is run.
+ */
+public class ExtractionProperties {
+
+    // Number of series, or classes of a series with a classification system, extracted at the same time
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // Number of documents copied into the package at the same time
+    private int copyThreads = 4;
+
+    // Documents waiting to be copied at most. Extraction of metadata waits when the queue is full
+    private int copyQueueSize = 256;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getCopyThreads() {
+        return copyThreads;
+    }
+
+    public void setCopyThreads(int copyThreads) {
+        this.copyThreads = copyThreads;
+    }
+
+    public int getCopyQueueSize() {
+        return copyQueueSize;
+    }
+
+    public void setCopyQueueSize(int copyQueueSize) {
+        this.copyQueueSize = copyQueueSize;
+    }
+}
@@ -0,0 +1,62 @@
+package nikita.extraction.config;
+
+/**
+ * How an extraction package is imported.
+ */
+public class ImportProperties {
+
+    // Entities inserted in each transaction. Progress is recorded after each, so a failed import resumes there
+    private int batchSize = 1000;
+
+    // Inserts sent to the database in each JDBC batch
+    private int jdbcBatchSize = 50;
+
+    // Number of documents verified and stored at the same time
+    private int verifyThreads = 4;
+
+    // Documents waiting to be verified at most. Reading of metadata waits when the queue is full
+    private int verifyQueueSize = 256;
+
+    // Fail on metadata elements the core has no property for, rather than skip and count them
+    private boolean strict = false;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize;
+    }
+
+    public void setJdbcBatchSize(int jdbcBatchSize) {
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    public int getVerifyThreads() {
+        return verifyThreads;
+    }
+
+    public void setVerifyThreads(int verifyThreads) {
+        this.verifyThreads = verifyThreads;
+    }
+
+    public int getVerifyQueueSize() {
+        return verifyQueueSize;
+    }
+
+    public void setVerifyQueueSize(int verifyQueueSize) {
+        this.verifyQueueSize = verifyQueueSize;
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    public void setStrict(boolean strict) {
+        this.strict = strict;
+    }
+}
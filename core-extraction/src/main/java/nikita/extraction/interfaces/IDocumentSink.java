@@ -0,0 +1,21 @@
+package nikita.extraction.interfaces;
+
+import nikita.model.noark5.v4.DocumentObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where the documents of an imported extraction package are stored. Called from several threads at a time.
+ */
+public interface IDocumentSink {
+
+    /**
+     * Store the document of documentObject and set its referenceDocumentFile to where it was stored. A sink
+     * that calculates checksums of its own while storing may replace the checksum, checksum algorithm and file
+     * size read from the package, which have been verified by the time the DocumentObject is persisted.
+     *
+     * @param document the content of the document, to be read to its end. Closed by the caller
+     */
+    void store(InputStream document, DocumentObject documentObject) throws IOException;
+}
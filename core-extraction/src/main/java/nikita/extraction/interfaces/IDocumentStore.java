@@ -0,0 +1,23 @@
+package nikita.extraction.interfaces;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Where the documents of the DocumentObjects being extracted are read from. Documents are addressed by
+ * DocumentObject.referenceDocumentFile.
+ */
+public interface IDocumentStore {
+
+    /**
+     * @return the length of the document in bytes
+     */
+    long size(String reference) throws IOException;
+
+    /**
+     * Write length bytes of the document, starting at position, to target. A store keeping documents in local
+     * files should use FileChannel.transferTo(), so that the bytes of a document copied to a file are not read
+     * into the JVM.
+     */
+    void transferTo(String reference, long position, long length, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,19 @@
+package nikita.extraction.interfaces;
+
+import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
+
+import java.util.List;
+
+/**
+ * Told about the entities an import has committed. The import inserts through a StatelessSession, which
+ * bypasses the Hibernate event listeners, so this is where e.g. the search indexes learn of imported entities.
+ */
+public interface IImportListener {
+
+    /**
+     * Called once a transaction of the import has committed.
+     *
+     * @param entities the entities the transaction inserted or updated, with their ids set
+     */
+    void committed(List<INikitaEntity> entities);
+}
@@ -0,0 +1,121 @@
+package nikita.extraction.xml;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+import static nikita.config.N5ResourceMappings.FONDS;
+import static nikita.extraction.config.ExtractionConstants.ARKIVSTRUKTUR_NAMESPACE;
+import static nikita.extraction.config.ExtractionConstants.XSI_NAMESPACE;
+
+/**
+ * Reads arkivstruktur.xml one element at a time with a StAX stream reader, so the size of the file does not
+ * affect the memory used to read it.
+ * <p>
+ * The reader is positioned on an element. nextChild() moves to the next child of the element the reader was
+ * positioned on, which is then read with getElementText(), skipped with skipElement() or, if it is an entity,
+ * descended into with nextChild() in turn. Once nextChild() returns false the reader is on the end of the
+ * element and the caller goes on with the children of its parent. Whitespace and comments between elements
+ * are ignored.
+ * <p>
+ * DTDs and external entities are not supported, so a package can not make the reader fetch anything.
+ */
+public class ArkivstrukturReader implements AutoCloseable {
+
+    private static final XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+
+    static {
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final XMLStreamReader reader;
+
+    /**
+     * @param input arkivstruktur.xml. Not closed by close()
+     */
+    public ArkivstrukturReader(InputStream input) throws XMLStreamException {
+        this.reader = inputFactory.createXMLStreamReader(input);
+    }
+
+    /**
+     * Move to the arkiv element of the document.
+     *
+     * @throws XMLStreamException if the document is not a Noark 5 arkivstruktur
+     */
+    public void readStartDocument() throws XMLStreamException {
+        reader.nextTag();
+        if (!FONDS.equals(reader.getLocalName()) || !ARKIVSTRUKTUR_NAMESPACE.equals(reader.getNamespaceURI())) {
+            throw new XMLStreamException("Expected " + FONDS + " in " + ARKIVSTRUKTUR_NAMESPACE + ", found " +
+                    reader.getName(), reader.getLocation());
+        }
+    }
+
+    /**
+     * Move to the next child of the current element.
+     *
+     * @return true if the reader is on the start of a child, false if it is on the end of the current element
+     */
+    public boolean nextChild() throws XMLStreamException {
+        return reader.nextTag() == XMLStreamConstants.START_ELEMENT;
+    }
+
+    /**
+     * @return the name of the current element, without namespace
+     */
+    public String getLocalName() {
+        return reader.getLocalName();
+    }
+
+    /**
+     * @return the xsi:type of the current element without namespace prefix, e.g. saksmappe, or null if it has
+     * none
+     */
+    public String getType() {
+        String type = reader.getAttributeValue(XSI_NAMESPACE, "type");
+        if (type == null) {
+            return null;
+        }
+        return type.substring(type.indexOf(':') + 1);
+    }
+
+    /**
+     * Read the text of the current element, which must have no children. The reader is left on the end of the
+     * element.
+     *
+     * @return the text, with surrounding whitespace removed
+     */
+    public String getElementText() throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+
+    /**
+     * Skip the current element and everything it contains. The reader is left on the end of the element.
+     */
+    public void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * @return where the reader is in the document, for error messages
+     */
+    public Location getLocation() {
+        return reader.getLocation();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        reader.close();
+    }
+}
@@ -0,0 +1,301 @@
+package nikita.extraction.xml;
+
+import nikita.model.noark5.v4.BasicRecord;
+import nikita.model.noark5.v4.CaseFile;
+import nikita.model.noark5.v4.Class;
+import nikita.model.noark5.v4.ClassificationSystem;
+import nikita.model.noark5.v4.DocumentDescription;
+import nikita.model.noark5.v4.DocumentObject;
+import nikita.model.noark5.v4.File;
+import nikita.model.noark5.v4.Fonds;
+import nikita.model.noark5.v4.Record;
+import nikita.model.noark5.v4.RegistryEntry;
+import nikita.model.noark5.v4.Series;
+import nikita.util.NoarkDateCodec;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static nikita.config.N5ResourceMappings.*;
+import static nikita.extraction.config.ExtractionConstants.*;
+
+/**
+ * Writes arkivstruktur.xml one entity at a time with a StAX stream writer, so the size of the file does not
+ * affect the memory used to write it.
+ * <p>
+ * An entity is written by a start method, which writes its element and its metadata, followed by its children
+ * and an end method. Metadata of the extensions of mappe and registrering, e.g. saksmappe and journalpost,
+ * follow the children in the schema, so the end methods of those entities write them before closing the
+ * element. Metadata without a value are left out.
+ * <p>
+ * Parts of the structure can be written to fragments by writers of their own, e.g. on other threads, and
+ * merged into the document with writeFragment(). A writer used for a fragment writes neither the XML
+ * declaration nor namespace declarations, so the fragment is valid where it is merged.
+ */
+public class ArkivstrukturWriter implements AutoCloseable {
+
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+
+    private final OutputStream output;
+    private final XMLStreamWriter writer;
+
+    /**
+     * @param output where arkivstruktur.xml, or a fragment of it, is written. Not closed by close()
+     */
+    public ArkivstrukturWriter(OutputStream output) throws XMLStreamException {
+        this.output = output;
+        this.writer = outputFactory.createXMLStreamWriter(output, "UTF-8");
+        this.writer.setDefaultNamespace(ARKIVSTRUKTUR_NAMESPACE);
+        this.writer.setPrefix(XSI_PREFIX, XSI_NAMESPACE);
+    }
+
+    public void writeStartDocument() throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+    }
+
+    public void writeEndDocument() throws XMLStreamException {
+        writer.writeEndDocument();
+        writer.flush();
+    }
+
+    /**
+     * @param root true for the arkiv element of the document, false for an underarkiv
+     */
+    public void writeStartFonds(Fonds fonds, boolean root) throws XMLStreamException {
+        if (root) {
+            writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, FONDS);
+            writer.writeDefaultNamespace(ARKIVSTRUKTUR_NAMESPACE);
+            writer.writeNamespace(XSI_PREFIX, XSI_NAMESPACE);
+            writer.writeAttribute(XSI_NAMESPACE, "schemaLocation",
+                    ARKIVSTRUKTUR_NAMESPACE + " " + ARKIVSTRUKTUR_SCHEMA);
+        } else {
+            writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, SUB_FONDS);
+        }
+        element(SYSTEM_ID, fonds.getSystemId());
+        element(TITLE, fonds.getTitle());
+        element(DESCRIPTION, fonds.getDescription());
+        element(FONDS_STATUS, fonds.getFondsStatus());
+        element(DOCUMENT_MEDIUM, fonds.getDocumentMedium());
+        dateTimeElement(CREATED_DATE, fonds.getCreatedDate());
+        element(CREATED_BY, fonds.getCreatedBy());
+        dateTimeElement(FINALISED_DATE, fonds.getFinalisedDate());
+        element(FINALISED_BY, fonds.getFinalisedBy());
+    }
+
+    public void writeStartSeries(Series series) throws XMLStreamException {
+        writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, SERIES);
+        element(SYSTEM_ID, series.getSystemId());
+        element(TITLE, series.getTitle());
+        element(DESCRIPTION, series.getDescription());
+        element(SERIES_STATUS, series.getSeriesStatus());
+        element(DOCUMENT_MEDIUM, series.getDocumentMedium());
+        dateTimeElement(CREATED_DATE, series.getCreatedDate());
+        element(CREATED_BY, series.getCreatedBy());
+        dateTimeElement(FINALISED_DATE, series.getFinalisedDate());
+        element(FINALISED_BY, series.getFinalisedBy());
+        dateElement(SERIES_START_DATE, series.getSeriesStartDate());
+        dateElement(SERIES_END_DATE, series.getSeriesEndDate());
+    }
+
+    public void writeStartClassificationSystem(ClassificationSystem classificationSystem)
+            throws XMLStreamException {
+        writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, CLASSIFICATION_SYSTEM);
+        element(SYSTEM_ID, classificationSystem.getSystemId());
+        element(CLASSIFICATION_TYPE, classificationSystem.getClassificationType());
+        element(TITLE, classificationSystem.getTitle());
+        element(DESCRIPTION, classificationSystem.getDescription());
+        dateTimeElement(CREATED_DATE, classificationSystem.getCreatedDate());
+        element(CREATED_BY, classificationSystem.getCreatedBy());
+        dateTimeElement(FINALISED_DATE, classificationSystem.getFinalisedDate());
+        element(FINALISED_BY, classificationSystem.getFinalisedBy());
+    }
+
+    public void writeStartClass(Class klass) throws XMLStreamException {
+        writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, CLASS);
+        element(SYSTEM_ID, klass.getSystemId());
+        element(CLASS_ID, klass.getClassId());
+        element(TITLE, klass.getTitle());
+        element(DESCRIPTION, klass.getDescription());
+        dateTimeElement(CREATED_DATE, klass.getCreatedDate());
+        element(CREATED_BY, klass.getCreatedBy());
+        dateTimeElement(FINALISED_DATE, klass.getFinalisedDate());
+        element(FINALISED_BY, klass.getFinalisedBy());
+    }
+
+    public void writeStartFile(File file) throws XMLStreamException {
+        writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, FILE);
+        if (file instanceof CaseFile) {
+            writer.writeAttribute(XSI_NAMESPACE, "type", CASE_FILE);
+        }
+        element(SYSTEM_ID, file.getSystemId());
+        element(FILE_ID, file.getFileId());
+        element(TITLE, file.getTitle());
+        element(FILE_PUBLIC_TITLE, file.getOfficialTitle());
+        element(DESCRIPTION, file.getDescription());
+        element(DOCUMENT_MEDIUM, file.getDocumentMedium());
+        dateTimeElement(CREATED_DATE, file.getCreatedDate());
+        element(CREATED_BY, file.getCreatedBy());
+        dateTimeElement(FINALISED_DATE, file.getFinalisedDate());
+        element(FINALISED_BY, file.getFinalisedBy());
+    }
+
+    public void writeEndFile(File file) throws XMLStreamException {
+        if (file instanceof CaseFile) {
+            CaseFile caseFile = (CaseFile) file;
+            element(CASE_YEAR, caseFile.getCaseYear());
+            element(CASE_SEQUENCE_NUMBER, caseFile.getCaseSequenceNumber());
+            dateElement(CASE_DATE, caseFile.getCaseDate());
+            element(CASE_ADMINISTRATIVE_UNIT, caseFile.getAdministrativeUnit());
+            element(CASE_RESPONSIBLE, caseFile.getCaseResponsible());
+            element(CASE_RECORDS_MANAGEMENT_UNIT, caseFile.getRecordsManagementUnit());
+            element(CASE_STATUS, caseFile.getCaseStatus());
+            dateElement(CASE_LOANED_DATE, caseFile.getLoanedDate());
+            element(CASE_LOANED_TO, caseFile.getLoanedTo());
+        }
+        writer.writeEndElement();
+    }
+
+    public void writeStartRecord(Record record) throws XMLStreamException {
+        writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, REGISTRATION);
+        if (record instanceof RegistryEntry) {
+            writer.writeAttribute(XSI_NAMESPACE, "type", REGISTRY_ENTRY);
+        } else if (record instanceof BasicRecord) {
+            writer.writeAttribute(XSI_NAMESPACE, "type", BASIC_RECORD);
+        }
+        element(SYSTEM_ID, record.getSystemId());
+        dateTimeElement(CREATED_DATE, record.getCreatedDate());
+        element(CREATED_BY, record.getCreatedBy());
+        dateTimeElement(RECORD_ARCHIVED_DATE, record.getArchivedDate());
+        element(RECORD_ARCHIVED_BY, record.getArchivedBy());
+    }
+
+    public void writeEndRecord(Record record) throws XMLStreamException {
+        if (record instanceof BasicRecord) {
+            BasicRecord basicRecord = (BasicRecord) record;
+            element(BASIC_RECORD_ID, basicRecord.getRecordId());
+            element(TITLE, basicRecord.getTitle());
+            element(FILE_PUBLIC_TITLE, basicRecord.getOfficialTitle());
+            element(DESCRIPTION, basicRecord.getDescription());
+            element(DOCUMENT_MEDIUM, basicRecord.getDocumentMedium());
+        }
+        if (record instanceof RegistryEntry) {
+            RegistryEntry registryEntry = (RegistryEntry) record;
+            element(REGISTRY_ENTRY_YEAR, registryEntry.getRecordYear());
+            element(REGISTRY_ENTRY_SEQUENCE_NUMBER, registryEntry.getRecordSequenceNumber());
+            element(REGISTRY_ENTRY_NUMBER, registryEntry.getRegistryEntryNumber());
+            element(REGISTRY_ENTRY_TYPE, registryEntry.getRegistryEntryType());
+            element(REGISTRY_ENTRY_STATUS, registryEntry.getRecordStatus());
+            dateElement(REGISTRY_ENTRY_DATE, registryEntry.getRecordDate());
+            dateElement(REGISTRY_ENTRY_DOCUMENT_DATE, registryEntry.getDocumentDate());
+            dateTimeElement(REGISTRY_ENTRY_RECEIVED_DATE, registryEntry.getReceivedDate());
+            dateTimeElement(REGISTRY_ENTRY_SENT_DATE, registryEntry.getSentDate());
+            dateElement(REGISTRY_ENTRY_DUE_DATE, registryEntry.getDueDate());
+            dateElement(REGISTRY_ENTRY_RECORD_FREEDOM_ASSESSMENT_DATE, registryEntry.getFreedomAssessmentDate());
+            element(REGISTRY_ENTRY_NUMBER_OF_ATTACHMENTS, registryEntry.getNumberOfAttachments());
+            dateElement(CASE_LOANED_DATE, registryEntry.getLoanedDate());
+            element(CASE_LOANED_TO, registryEntry.getLoanedTo());
+            element(CASE_RECORDS_MANAGEMENT_UNIT, registryEntry.getRecordsManagementUnit());
+        }
+        writer.writeEndElement();
+    }
+
+    public void writeStartDocumentDescription(DocumentDescription documentDescription)
+            throws XMLStreamException {
+        writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, DOCUMENT_DESCRIPTION);
+        element(SYSTEM_ID, documentDescription.getSystemId());
+        element(DOCUMENT_DESCRIPTION_DOCUMENT_TYPE, documentDescription.getDocumentType());
+        element(DOCUMENT_DESCRIPTION_STATUS, documentDescription.getDocumentStatus());
+        element(TITLE, documentDescription.getTitle());
+        element(DESCRIPTION, documentDescription.getDescription());
+        dateTimeElement(CREATED_DATE, documentDescription.getCreatedDate());
+        element(CREATED_BY, documentDescription.getCreatedBy());
+        element(DOCUMENT_MEDIUM, documentDescription.getDocumentMedium());
+        element(DOCUMENT_DESCRIPTION_ASSOCIATED_WITH_RECORD_AS, documentDescription.getAssociatedWithRecordAs());
+        element(DOCUMENT_DESCRIPTION_DOCUMENT_NUMBER, documentDescription.getDocumentNumber());
+        dateElement(DOCUMENT_DESCRIPTION_ASSOCIATION_DATE, documentDescription.getAssociationDate());
+        element(DOCUMENT_DESCRIPTION_ASSOCIATED_BY, documentDescription.getAssociatedBy());
+    }
+
+    /**
+     * Write a dokumentobjekt, which has no children.
+     *
+     * @param documentFile the path of the document within the package, or null if the DocumentObject has no
+     *                     document
+     * @param fileSize     the size of the document in the package, or null if the DocumentObject has no document
+     */
+    public void writeDocumentObject(DocumentObject documentObject, String documentFile, Long fileSize)
+            throws XMLStreamException {
+        writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, DOCUMENT_OBJECT);
+        element(DOCUMENT_OBJECT_VERSION_NUMBER, documentObject.getVersionNumber());
+        element(DOCUMENT_OBJECT_VARIANT_FORMAT, documentObject.getVariantFormat());
+        element(DOCUMENT_OBJECT_FORMAT, documentObject.getFormat());
+        element(DOCUMENT_OBJECT_FORMAT_DETAILS, documentObject.getFormatDetails());
+        dateTimeElement(CREATED_DATE, documentObject.getCreatedDate());
+        element(CREATED_BY, documentObject.getCreatedBy());
+        element(DOCUMENT_OBJECT_REFERENCE_DOCUMENT_FILE, documentFile);
+        element(DOCUMENT_OBJECT_CHECKSUM, documentObject.getChecksum());
+        element(DOCUMENT_OBJECT_CHECKSUM_ALGORITHM, documentObject.getChecksumAlgorithm());
+        if (fileSize != null) {
+            element(DOCUMENT_OBJECT_FILE_SIZE, fileSize.toString());
+        }
+        writer.writeEndElement();
+    }
+
+    /**
+     * Close the element of a fonds, series, classification system, class or document description.
+     */
+    public void writeEndElement() throws XMLStreamException {
+        writer.writeEndElement();
+    }
+
+    /**
+     * Copy a fragment written by another ArkivstrukturWriter to the current position of the document.
+     */
+    public void writeFragment(Path fragment) throws IOException, XMLStreamException {
+        // Make the writer close the start tag of the current element before the fragment is copied
+        writer.writeCharacters("");
+        writer.flush();
+        Files.copy(fragment, output);
+    }
+
+    public void flush() throws XMLStreamException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        writer.close();
+    }
+
+    private void element(String name, String value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeStartElement(ARKIVSTRUKTUR_NAMESPACE, name);
+            writer.writeCharacters(value);
+            writer.writeEndElement();
+        }
+    }
+
+    private void element(String name, Integer value) throws XMLStreamException {
+        if (value != null) {
+            element(name, value.toString());
+        }
+    }
+
+    private void dateElement(String name, Date value) throws XMLStreamException {
+        if (value != null) {
+            element(name, NoarkDateCodec.formatDate(value));
+        }
+    }
+
+    private void dateTimeElement(String name, Date value) throws XMLStreamException {
+        if (value != null) {
+            element(name, NoarkDateCodec.formatDateTime(value));
+        }
+    }
+}
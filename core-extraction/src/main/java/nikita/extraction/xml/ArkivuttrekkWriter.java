@@ -0,0 +1,138 @@
+package nikita.extraction.xml;
+
+import nikita.extraction.ExtractionStatistics;
+import nikita.model.noark5.v4.Fonds;
+import nikita.util.NoarkDateCodec;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Map;
+
+import static nikita.config.N5ResourceMappings.*;
+import static nikita.extraction.config.ExtractionConstants.*;
+
+/**
+ * Writes arkivuttrekk.xml, the ADDML description of an extraction package. It names the fonds that was
+ * extracted, lists the XML files of the package with their SHA256 checksums and gives the number of
+ * occurrences of each type of entity in arkivstruktur.xml.
+ */
+public final class ArkivuttrekkWriter {
+
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+
+    // You shall not instantiate me!
+    private ArkivuttrekkWriter() {
+    }
+
+    /**
+     * @param fonds         the fonds that was extracted
+     * @param statistics    what was written to arkivstruktur.xml
+     * @param fileChecksums the files of the package described, by name, with their hex encoded checksums
+     */
+    public static void write(OutputStream output, Fonds fonds, ExtractionStatistics statistics,
+                             Map<String, String> fileChecksums) throws XMLStreamException {
+        XMLStreamWriter writer = outputFactory.createXMLStreamWriter(output, "UTF-8");
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.setDefaultNamespace(ADDML_NAMESPACE);
+        writer.setPrefix(XSI_PREFIX, XSI_NAMESPACE);
+        writer.writeStartElement(ADDML_NAMESPACE, ADDML);
+        writer.writeDefaultNamespace(ADDML_NAMESPACE);
+        writer.writeNamespace(XSI_PREFIX, XSI_NAMESPACE);
+        writer.writeAttribute(XSI_NAMESPACE, "schemaLocation", ADDML_NAMESPACE + " " + ADDML_SCHEMA);
+
+        writer.writeStartElement(ADDML_NAMESPACE, "dataset");
+        writer.writeStartElement(ADDML_NAMESPACE, "reference");
+        writer.writeStartElement(ADDML_NAMESPACE, "content");
+        writer.writeStartElement(ADDML_NAMESPACE, "additionalElements");
+        additionalElement(writer, "archivalDataCreated", NoarkDateCodec.formatDateTime(new Date()));
+        additionalElement(writer, SYSTEM_ID, fonds.getSystemId());
+        additionalElement(writer, TITLE, fonds.getTitle());
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+
+        writer.writeStartElement(ADDML_NAMESPACE, "dataObjects");
+        writer.writeStartElement(ADDML_NAMESPACE, "dataObject");
+        writer.writeAttribute("name", "Noark 5 arkivuttrekk");
+        writer.writeStartElement(ADDML_NAMESPACE, "dataObjects");
+        for (Map.Entry<String, String> file : fileChecksums.entrySet()) {
+            writer.writeStartElement(ADDML_NAMESPACE, "dataObject");
+            writer.writeAttribute("name", file.getKey().substring(0, file.getKey().lastIndexOf('.')));
+            writer.writeStartElement(ADDML_NAMESPACE, "properties");
+            writer.writeStartElement(ADDML_NAMESPACE, "property");
+            writer.writeAttribute("name", "file");
+            writer.writeStartElement(ADDML_NAMESPACE, "properties");
+            property(writer, "name", file.getKey());
+            writer.writeStartElement(ADDML_NAMESPACE, "property");
+            writer.writeAttribute("name", "checksum");
+            writer.writeStartElement(ADDML_NAMESPACE, "properties");
+            property(writer, "algorithm", PACKAGE_CHECKSUM_ALGORITHM);
+            property(writer, "value", file.getValue());
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndElement();
+            if (ARKIVSTRUKTUR_FILE.equals(file.getKey())) {
+                writer.writeStartElement(ADDML_NAMESPACE, "property");
+                writer.writeAttribute("name", "info");
+                writer.writeStartElement(ADDML_NAMESPACE, "properties");
+                occurrences(writer, FONDS, statistics.getFonds());
+                occurrences(writer, SERIES, statistics.getSeries());
+                occurrences(writer, CLASSIFICATION_SYSTEM, statistics.getClassificationSystems());
+                occurrences(writer, CLASS, statistics.getClasses());
+                occurrences(writer, FILE, statistics.getFiles());
+                occurrences(writer, REGISTRATION, statistics.getRecords());
+                occurrences(writer, DOCUMENT_DESCRIPTION, statistics.getDocumentDescriptions());
+                occurrences(writer, DOCUMENT_OBJECT, statistics.getDocumentObjects());
+                writer.writeEndElement();
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+    }
+
+    private static void additionalElement(XMLStreamWriter writer, String name, String value)
+            throws XMLStreamException {
+        if (value != null) {
+            writer.writeStartElement(ADDML_NAMESPACE, "additionalElement");
+            writer.writeAttribute("name", name);
+            value(writer, value);
+            writer.writeEndElement();
+        }
+    }
+
+    private static void property(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        writer.writeStartElement(ADDML_NAMESPACE, "property");
+        writer.writeAttribute("name", name);
+        value(writer, value);
+        writer.writeEndElement();
+    }
+
+    private static void occurrences(XMLStreamWriter writer, String element, long count) throws XMLStreamException {
+        writer.writeStartElement(ADDML_NAMESPACE, "property");
+        writer.writeAttribute("name", "numberOfOccurrences");
+        value(writer, element);
+        writer.writeStartElement(ADDML_NAMESPACE, "properties");
+        property(writer, "value", Long.toString(count));
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    private static void value(XMLStreamWriter writer, String value) throws XMLStreamException {
+        writer.writeStartElement(ADDML_NAMESPACE, "value");
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+}
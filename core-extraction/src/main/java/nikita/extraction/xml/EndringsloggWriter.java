@@ -0,0 +1,37 @@
+package nikita.extraction.xml;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+
+import static nikita.extraction.config.ExtractionConstants.*;
+
+/**
+ * Writes endringslogg.xml, the log of changes made to metadata of the extracted entities.
+ * <p>
+ * The changes are recorded by Envers in the audit tables of the core, which are not read yet, so the log is
+ * written without entries.
+ */
+public final class EndringsloggWriter {
+
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+
+    // You shall not instantiate me!
+    private EndringsloggWriter() {
+    }
+
+    public static void write(OutputStream output) throws XMLStreamException {
+        XMLStreamWriter writer = outputFactory.createXMLStreamWriter(output, "UTF-8");
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.setDefaultNamespace(ENDRINGSLOGG_NAMESPACE);
+        writer.setPrefix(XSI_PREFIX, XSI_NAMESPACE);
+        writer.writeStartElement(ENDRINGSLOGG_NAMESPACE, ENDRINGSLOGG);
+        writer.writeDefaultNamespace(ENDRINGSLOGG_NAMESPACE);
+        writer.writeNamespace(XSI_PREFIX, XSI_NAMESPACE);
+        writer.writeAttribute(XSI_NAMESPACE, "schemaLocation", ENDRINGSLOGG_NAMESPACE + " " + ENDRINGSLOGG_SCHEMA);
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+    }
+}
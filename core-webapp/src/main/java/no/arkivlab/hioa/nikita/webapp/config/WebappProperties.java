@@ -6,6 +6,10 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 
 /**
  * Properties specific to nikita-noark5-core.
@@ -41,6 +45,10 @@ public class WebappProperties {
     private final Logging logging = new Logging();
     private final StorageProperties storageProperties = new StorageProperties();
     private final ChecksumProperties checksumProperties = new ChecksumProperties();
+    private final ImportProperties importProperties = new ImportProperties();
+    private final SearchProperties searchProperties = new SearchProperties();
+
+    private final ExtractionProperties extractionProperties = new ExtractionProperties();
 
     public Async getAsync() {
         return async;
@@ -86,10 +94,60 @@ public class WebappProperties {
         return storageProperties;
     }
 
+    /**
+     * The storage properties are configured under nikita-noark5-core.storage in the yml files. Property
+     * binding goes via the getter name, so this alias is what makes those values reach storageProperties.
+     */
+    public StorageProperties getStorage() {
+        return storageProperties;
+    }
+
     public ChecksumProperties getChecksumProperties() {
         return checksumProperties;
     }
 
+    /**
+     * The checksum properties are configured under nikita-noark5-core.checksum in the yml files, see
+     * getStorage().
+     */
+    public ChecksumProperties getChecksum() {
+        return checksumProperties;
+    }
+
+    public ImportProperties getImportProperties() {
+        return importProperties;
+    }
+
+    /**
+     * The import properties are configured under nikita-noark5-core.import in the yml files, see getStorage().
+     */
+    public ImportProperties getImport() {
+        return importProperties;
+    }
+
+    public SearchProperties getSearchProperties() {
+        return searchProperties;
+    }
+
+    /**
+     * The search properties are configured under nikita-noark5-core.search in the yml files, see getStorage().
+     */
+    public SearchProperties getSearch() {
+        return searchProperties;
+    }
+
+    public ExtractionProperties getExtractionProperties() {
+        return extractionProperties;
+    }
+
+    /**
+     * The extraction properties are configured under nikita-noark5-core.extraction in the yml files, see
+     * getStorage().
+     */
+    public ExtractionProperties getExtraction() {
+        return extractionProperties;
+    }
+
     public Logging getLogging() {
         return logging;
     }
@@ -153,6 +211,9 @@ public class WebappProperties {
 
         private int timeToLiveSeconds = 3600;
 
+        // Entries held by each cache at most
+        private long maximumSize = 1000;
+
         public int getTimeToLiveSeconds() {
             return timeToLiveSeconds;
         }
@@ -160,6 +221,14 @@ public class WebappProperties {
         public void setTimeToLiveSeconds(int timeToLiveSeconds) {
             this.timeToLiveSeconds = timeToLiveSeconds;
         }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
     }
 
     public static class Mail {
@@ -575,6 +644,43 @@ public class WebappProperties {
     public class StorageProperties {
         private String location = "/tmp/upload-dir";
 
+        // Where documents are kept: filesystem (under location) or s3
+        private String backend = "filesystem";
+
+        private final S3Properties s3 = new S3Properties();
+
+        private final FixityProperties fixity = new FixityProperties();
+
+        private final CompressionProperties compression = new CompressionProperties();
+
+        // Size in bytes of each buffer used when writing uploaded documents to storage
+        private int bufferSize = 262144;
+
+        // Maximum number of upload buffers that can be in use at the same time
+        private int bufferPoolSize = 32;
+
+        // Whether upload buffers are allocated outside the heap. This only saves a copy when documents are read
+        // from files, an upload request body is copied into a direct buffer through a heap array
+        private boolean directBuffers = false;
+
+        // fsync documents and their directories as they are stored by the filesystem backend
+        private boolean fsync = true;
+
+        // How long the first of several concurrent writers waits for others to share a directory fsync
+        private int fsyncCommitWindowMillis = 2;
+
+        // How documents are laid out under location: flat, hex or date
+        private String layout = "hex";
+
+        // Move documents stored with another layout into the current layout when the application starts
+        private boolean migrateLayout = false;
+
+        // Number of DocumentObjects handled per transaction when migrating layout
+        private int migrationBatchSize = 500;
+
+        // Chunked upload sessions left untouched for longer than this are deleted
+        private int uploadSessionExpiryMinutes = 1440;
+
         public String getLocation() {
             return location;
         }
@@ -582,17 +688,535 @@ public class WebappProperties {
         public void setLocation(String location) {
             this.location = location;
         }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getBufferPoolSize() {
+            return bufferPoolSize;
+        }
+
+        public void setBufferPoolSize(int bufferPoolSize) {
+            this.bufferPoolSize = bufferPoolSize;
+        }
+
+        public boolean isDirectBuffers() {
+            return directBuffers;
+        }
+
+        public void setDirectBuffers(boolean directBuffers) {
+            this.directBuffers = directBuffers;
+        }
+
+        public boolean isFsync() {
+            return fsync;
+        }
+
+        public void setFsync(boolean fsync) {
+            this.fsync = fsync;
+        }
+
+        public int getFsyncCommitWindowMillis() {
+            return fsyncCommitWindowMillis;
+        }
+
+        public void setFsyncCommitWindowMillis(int fsyncCommitWindowMillis) {
+            this.fsyncCommitWindowMillis = fsyncCommitWindowMillis;
+        }
+
+        public String getLayout() {
+            return layout;
+        }
+
+        public void setLayout(String layout) {
+            this.layout = layout;
+        }
+
+        public boolean isMigrateLayout() {
+            return migrateLayout;
+        }
+
+        public void setMigrateLayout(boolean migrateLayout) {
+            this.migrateLayout = migrateLayout;
+        }
+
+        public int getMigrationBatchSize() {
+            return migrationBatchSize;
+        }
+
+        public void setMigrationBatchSize(int migrationBatchSize) {
+            this.migrationBatchSize = migrationBatchSize;
+        }
+
+        public String getBackend() {
+            return backend;
+        }
+
+        public void setBackend(String backend) {
+            this.backend = backend;
+        }
+
+        public S3Properties getS3() {
+            return s3;
+        }
+
+        public FixityProperties getFixity() {
+            return fixity;
+        }
+
+        public CompressionProperties getCompression() {
+            return compression;
+        }
+
+        public int getUploadSessionExpiryMinutes() {
+            return uploadSessionExpiryMinutes;
+        }
+
+        public void setUploadSessionExpiryMinutes(int uploadSessionExpiryMinutes) {
+            this.uploadSessionExpiryMinutes = uploadSessionExpiryMinutes;
+        }
+
+        public class S3Properties {
+
+            // e.g. https://s3.eu-north-1.amazonaws.com or http://localhost:9000 for a local stand-in
+            private String endpoint = "http://localhost:9000";
+
+            private String region = "us-east-1";
+
+            private String bucket = "nikita";
+
+            // Prepended to the reference of every document to form its object key
+            private String keyPrefix = "";
+
+            private String accessKey;
+
+            private String secretKey;
+
+            // Documents larger than this are uploaded in parts of this size. S3 requires at least 5 MB
+            private long partSize = 8388608;
+
+            // Number of parts of a multipart upload transferred at the same time
+            private int parallelParts = 4;
+
+            public String getEndpoint() {
+                return endpoint;
+            }
+
+            public void setEndpoint(String endpoint) {
+                this.endpoint = endpoint;
+            }
+
+            public String getRegion() {
+                return region;
+            }
+
+            public void setRegion(String region) {
+                this.region = region;
+            }
+
+            public String getBucket() {
+                return bucket;
+            }
+
+            public void setBucket(String bucket) {
+                this.bucket = bucket;
+            }
+
+            public String getKeyPrefix() {
+                return keyPrefix;
+            }
+
+            public void setKeyPrefix(String keyPrefix) {
+                this.keyPrefix = keyPrefix;
+            }
+
+            public String getAccessKey() {
+                return accessKey;
+            }
+
+            public void setAccessKey(String accessKey) {
+                this.accessKey = accessKey;
+            }
+
+            public String getSecretKey() {
+                return secretKey;
+            }
+
+            public void setSecretKey(String secretKey) {
+                this.secretKey = secretKey;
+            }
+
+            public long getPartSize() {
+                return partSize;
+            }
+
+            public void setPartSize(long partSize) {
+                this.partSize = partSize;
+            }
+
+            public int getParallelParts() {
+                return parallelParts;
+            }
+
+            public void setParallelParts(int parallelParts) {
+                this.parallelParts = parallelParts;
+            }
+        }
+
+        public class FixityProperties {
+
+            // Whether stored documents are audited on the cron schedule below
+            private boolean enabled = false;
+
+            // When an audit is started. An audit interrupted by a restart is resumed at startup
+            private String cron = "0 0 2 * * *";
+
+            // Number of documents hashed at the same time
+            private int threads = 2;
+
+            // Upper limit on how fast all threads together read documents. 0 means no limit
+            private int maxMegabytesPerSecond = 20;
+
+            // Number of DocumentObjects audited between each checkpoint
+            private int batchSize = 200;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getMaxMegabytesPerSecond() {
+                return maxMegabytesPerSecond;
+            }
+
+            public void setMaxMegabytesPerSecond(int maxMegabytesPerSecond) {
+                this.maxMegabytesPerSecond = maxMegabytesPerSecond;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        public class CompressionProperties {
+
+            // Whether documents of the mime types below are compressed when stored
+            private boolean enabled = false;
+
+            // The codec new documents are compressed with. Only deflate is available
+            private String codec = "deflate";
+
+            // From 1 (fastest) to 9 (smallest)
+            private int level = 6;
+
+            // Documents are compressed in independent frames of this many bytes, so a range request only
+            // has to decompress the frames it covers
+            private int frameSize = 262144;
+
+            // A single * matches anything, e.g. text/* or application/*+xml
+            private List<String> mimeTypes = new ArrayList<>(Arrays.asList("text/*", "application/xml",
+                    "application/*+xml", "application/json", "image/tiff", "image/bmp"));
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getCodec() {
+                return codec;
+            }
+
+            public void setCodec(String codec) {
+                this.codec = codec;
+            }
+
+            public int getLevel() {
+                return level;
+            }
+
+            public void setLevel(int level) {
+                this.level = level;
+            }
+
+            public int getFrameSize() {
+                return frameSize;
+            }
+
+            public void setFrameSize(int frameSize) {
+                this.frameSize = frameSize;
+            }
+
+            public List<String> getMimeTypes() {
+                return mimeTypes;
+            }
+
+            public void setMimeTypes(List<String> mimeTypes) {
+                this.mimeTypes = mimeTypes;
+            }
+        }
     }
 
     public class ChecksumProperties {
+        // The checksum recorded on DocumentObjects, and the content key of stored documents
         private String checksumAlgorithm = "SHA-256";
 
+        // Further checksums calculated in the same pass over an upload and stored with the DocumentObject
+        private List<String> additionalChecksumAlgorithms = new ArrayList<>();
+
+        // Hash uploads on separate threads while the next part of the upload is read
+        private boolean pipelinedHashing = false;
+
         public String getChecksumAlgorithm() {
             return checksumAlgorithm;
         }
 
-        public void setChecksumAlgorithm(String checksum_algorithm) {
+        public void setChecksumAlgorithm(String checksumAlgorithm) {
             this.checksumAlgorithm = checksumAlgorithm;
         }
+
+        public List<String> getAdditionalChecksumAlgorithms() {
+            return additionalChecksumAlgorithms;
+        }
+
+        public void setAdditionalChecksumAlgorithms(List<String> additionalChecksumAlgorithms) {
+            this.additionalChecksumAlgorithms = additionalChecksumAlgorithms;
+        }
+
+        public boolean isPipelinedHashing() {
+            return pipelinedHashing;
+        }
+
+        public void setPipelinedHashing(boolean pipelinedHashing) {
+            this.pipelinedHashing = pipelinedHashing;
+        }
+    }
+
+    public class ImportProperties {
+        // Entities persisted in each transaction of a bulk import
+        private int batchSize = 500;
+
+        // Entities persisted between flushing and clearing the persistence context within a transaction
+        private int flushInterval = 50;
+
+        private final PackageProperties packages = new PackageProperties();
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(int flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public PackageProperties getPackages() {
+            return packages;
+        }
+
+        /**
+         * Import of Noark 5 extraction packages, import-api/arkivstruktur/ny-arkivuttrekk or --import-package
+         */
+        public class PackageProperties {
+
+            // Directory holding the packages that can be imported. Packages are named relative to it
+            private String directory = "/tmp/import-dir";
+
+            // Entities inserted in each transaction. A failed import resumes after the last one committed
+            private int batchSize = 1000;
+
+            // Inserts sent to the database in each JDBC batch
+            private int jdbcBatchSize = 50;
+
+            // Number of documents verified and stored at the same time
+            private int verifyThreads = 4;
+
+            // Documents waiting to be verified at most
+            private int verifyQueueSize = 256;
+
+            // Fail on metadata the core has no property for, rather than skip it and report it when done
+            private boolean strict = false;
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getJdbcBatchSize() {
+                return jdbcBatchSize;
+            }
+
+            public void setJdbcBatchSize(int jdbcBatchSize) {
+                this.jdbcBatchSize = jdbcBatchSize;
+            }
+
+            public int getVerifyThreads() {
+                return verifyThreads;
+            }
+
+            public void setVerifyThreads(int verifyThreads) {
+                this.verifyThreads = verifyThreads;
+            }
+
+            public int getVerifyQueueSize() {
+                return verifyQueueSize;
+            }
+
+            public void setVerifyQueueSize(int verifyQueueSize) {
+                this.verifyQueueSize = verifyQueueSize;
+            }
+
+            public boolean isStrict() {
+                return strict;
+            }
+
+            public void setStrict(boolean strict) {
+                this.strict = strict;
+            }
+        }
+    }
+
+    public class SearchProperties {
+        // Index changed entities in batches after commit, rather than within the transaction that changed them
+        private boolean asyncIndexing = true;
+
+        // Entities indexed in each batch
+        private int batchSize = 100;
+
+        // Milliseconds between batches. A batch is also started as soon as batchSize entities are queued
+        private long flushInterval = 1000;
+
+        // File the queue is kept in, so what was not indexed when the application stopped is indexed when it
+        // starts again. It must survive a restart and belong to this node only. Empty to keep the queue in memory only
+        private String journal = "";
+
+        public boolean isAsyncIndexing() {
+            return asyncIndexing;
+        }
+
+        public void setAsyncIndexing(boolean asyncIndexing) {
+            this.asyncIndexing = asyncIndexing;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public String getJournal() {
+            return journal;
+        }
+
+        public void setJournal(String journal) {
+            this.journal = journal;
+        }
+    }
+
+    /**
+     * Extraction of fonds into Noark 5 extraction packages, --extract-fonds
+     */
+    public class ExtractionProperties {
+        // Directory the packages are written to. Packages are named relative to it
+        private String directory = "/tmp/extraction-dir";
+
+        // Number of series, or classes of a series with a classification system, extracted at the same time
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        // Number of documents copied into the package at the same time
+        private int copyThreads = 4;
+
+        // Documents waiting to be copied at most
+        private int copyQueueSize = 256;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getCopyThreads() {
+            return copyThreads;
+        }
+
+        public void setCopyThreads(int copyThreads) {
+            this.copyThreads = copyThreads;
+        }
+
+        public int getCopyQueueSize() {
+            return copyQueueSize;
+        }
+
+        public void setCopyQueueSize(int copyQueueSize) {
+            this.copyQueueSize = copyQueueSize;
+        }
     }
 }
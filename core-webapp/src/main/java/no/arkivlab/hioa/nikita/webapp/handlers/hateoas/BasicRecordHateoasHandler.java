@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IBasicRecordHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -27,89 +26,85 @@ import static nikita.config.N5ResourceMappings.*;
 public class BasicRecordHateoasHandler extends RecordHateoasHandler implements IBasicRecordHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
-        super.addEntityLinks(entity, hateoasNoarkObject);
-        //addStorageLocation(entity, hateoasNoarkObject);
-        addNewStorageLocation(entity, hateoasNoarkObject);
-        //addComment(entity, hateoasNoarkObject);
-        addNewComment(entity, hateoasNoarkObject);
-        //addAuthor(entity, hateoasNoarkObject);
-        addNewAuthor(entity, hateoasNoarkObject);
-        //addCrossReference(entity, hateoasNoarkObject);
-        addNewCrossReference(entity, hateoasNoarkObject);
-        //addKeyword(entity, hateoasNoarkObject);
-        addNewKeyword(entity, hateoasNoarkObject);
+        super.addEntityLinks(entity, hateoasNoarkObject, context);
+        //addStorageLocation(entity, hateoasNoarkObject, context);
+        addNewStorageLocation(entity, hateoasNoarkObject, context);
+        //addComment(entity, hateoasNoarkObject, context);
+        addNewComment(entity, hateoasNoarkObject, context);
+        //addAuthor(entity, hateoasNoarkObject, context);
+        addNewAuthor(entity, hateoasNoarkObject, context);
+        //addCrossReference(entity, hateoasNoarkObject, context);
+        addNewCrossReference(entity, hateoasNoarkObject, context);
+        //addKeyword(entity, hateoasNoarkObject, context);
+        addNewKeyword(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH +
-                entity.getSystemId() + SLASH + AUTHOR + SLASH, REL_FONDS_STRUCTURE_AUTHOR, false));
+    public void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH + AUTHOR +
+                SLASH, REL_FONDS_STRUCTURE_AUTHOR));
     }
 
     @Override
-    public void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH +
-                entity.getSystemId() + SLASH + NEW_AUTHOR + SLASH, REL_FONDS_STRUCTURE_NEW_AUTHOR, false));
+    public void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_AUTHOR + SLASH, REL_FONDS_STRUCTURE_NEW_AUTHOR));
     }
 
     @Override
-    public void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH +
-                entity.getSystemId() + SLASH + COMMENT + SLASH, REL_FONDS_STRUCTURE_COMMENT, false));
+    public void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH + COMMENT +
+                SLASH, REL_FONDS_STRUCTURE_COMMENT));
     }
 
     @Override
-    public void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH +
-                entity.getSystemId() + SLASH + NEW_COMMENT + SLASH, REL_FONDS_STRUCTURE_NEW_COMMENT, false));
+    public void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_COMMENT + SLASH, REL_FONDS_STRUCTURE_NEW_COMMENT));
     }
 
     @Override
-    public void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH +
-                entity.getSystemId() + SLASH + STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_STORAGE_LOCATION, false));
+    public void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_STORAGE_LOCATION));
     }
 
     @Override
-    public void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH
-                + entity.getSystemId() + SLASH + NEW_STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION,
-                false));
+    public void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION));
     }
 
     @Override
-    public void addKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH +
-                KEYWORD + SLASH, REL_FONDS_STRUCTURE_KEYWORD, false));
+    public void addKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH + KEYWORD +
+                SLASH, REL_FONDS_STRUCTURE_KEYWORD));
     }
 
     @Override
-    public void addNewKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH +
-                NEW_KEYWORD + SLASH, REL_FONDS_STRUCTURE_NEW_KEYWORD, false));
+    public void addNewKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_KEYWORD + SLASH, REL_FONDS_STRUCTURE_NEW_KEYWORD));
     }
 
     @Override
-    public void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH +
-                CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_CROSS_REFERENCE, false));
+    public void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_CROSS_REFERENCE));
     }
 
     @Override
-    public void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH +
-                NEW_CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_NEW_CROSS_REFERENCE, false));
+    public void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                     LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_NEW_CROSS_REFERENCE));
     }
 }
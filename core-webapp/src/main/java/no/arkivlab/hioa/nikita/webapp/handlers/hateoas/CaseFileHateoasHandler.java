@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.ICaseFileHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -27,87 +26,88 @@ import static nikita.config.N5ResourceMappings.*;
 public class CaseFileHateoasHandler extends HateoasHandler implements ICaseFileHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addNewClass(entity, hateoasNoarkObject);
-        //addClass(entity, hateoasNoarkObject);
-        addNewPrecedence(entity, hateoasNoarkObject);
-        //addPrecedence(entity, hateoasNoarkObject);
-        addNewCaseParty(entity, hateoasNoarkObject);
-        //addCaseParty(entity, hateoasNoarkObject);
-        addNewCaseStatus(entity, hateoasNoarkObject);
-        //addCaseStatus(entity, hateoasNoarkObject);
-        addNewSecondaryClassification(entity, hateoasNoarkObject);
-        //addSecondaryClassification(entity, hateoasNoarkObject);
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        addNewClass(entity, hateoasNoarkObject, context);
+        //addClass(entity, hateoasNoarkObject, context);
+        addNewPrecedence(entity, hateoasNoarkObject, context);
+        //addPrecedence(entity, hateoasNoarkObject, context);
+        addNewCaseParty(entity, hateoasNoarkObject, context);
+        //addCaseParty(entity, hateoasNoarkObject, context);
+        addNewCaseStatus(entity, hateoasNoarkObject, context);
+        //addCaseStatus(entity, hateoasNoarkObject, context);
+        addNewSecondaryClassification(entity, hateoasNoarkObject, context);
+        //addSecondaryClassification(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH + NEW_CLASS
-                + SLASH, REL_CASE_HANDLING_NEW_CLASS,
-                false));
+    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + NEW_CLASS + SLASH, REL_CASE_HANDLING_NEW_CLASS));
     }
 
     @Override
-    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH + CLASS +
-                SLASH, REL_CASE_HANDLING_CLASS, false));
+    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + CLASS + SLASH, REL_CASE_HANDLING_CLASS));
     }
 
     @Override
-    public void addNewPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH + NEW_PRECEDENCE
-                + SLASH, REL_CASE_HANDLING_NEW_PRECEDENCE, false));
+    public void addNewPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + NEW_PRECEDENCE + SLASH,
+                REL_CASE_HANDLING_NEW_PRECEDENCE));
     }
 
     @Override
-    public void addPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH +
-                PRECEDENCE + SLASH, REL_CASE_HANDLING_PRECEDENCE, false));
+    public void addPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + PRECEDENCE + SLASH, REL_CASE_HANDLING_PRECEDENCE));
     }
 
     @Override
-    public void addNewCaseParty(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH + NEW_CASE_PARTY
-                + SLASH, REL_CASE_HANDLING_NEW_CASE_PARTY, false));
+    public void addNewCaseParty(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + NEW_CASE_PARTY + SLASH,
+                REL_CASE_HANDLING_NEW_CASE_PARTY));
     }
 
     @Override
-    public void addCaseParty(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH + CASE_PARTY
-                + SLASH, REL_CASE_HANDLING_CASE_PARTY, false));
+    public void addCaseParty(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + CASE_PARTY + SLASH, REL_CASE_HANDLING_CASE_PARTY));
     }
 
     @Override
-    public void addCaseStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH + CASE_STATUS
-                + SLASH, REL_METADATA_CASE_STATUS, false));
+    public void addCaseStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + CASE_STATUS + SLASH, REL_METADATA_CASE_STATUS));
     }
 
     @Override
-    public void addNewCaseStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH + NEW_CASE_STATUS
-                + SLASH, REL_METADATA_CASE_STATUS, false));
+    public void addNewCaseStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + NEW_CASE_STATUS + SLASH, REL_METADATA_CASE_STATUS));
     }
 
     @Override
-    public void addSecondaryClassification(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH +
-                SECONDARY_CLASSIFICATION + SLASH, REL_CASE_HANDLING_SECONDARY_CLASSIFICATION, false));
+    public void addSecondaryClassification(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                           LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + SECONDARY_CLASSIFICATION + SLASH,
+                REL_CASE_HANDLING_SECONDARY_CLASSIFICATION));
     }
 
     @Override
-    public void addNewSecondaryClassification(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_SECONDARY_CLASSIFICATION + SLASH, REL_CASE_HANDLING_NEW_SECONDARY_CLASSIFICATION, false));
+    public void addNewSecondaryClassification(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH +
+                CASE_FILE + SLASH, entity.getSystemId(), SLASH + NEW_SECONDARY_CLASSIFICATION + SLASH,
+                REL_CASE_HANDLING_NEW_SECONDARY_CLASSIFICATION));
     }
 }
@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IClassHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -19,170 +18,165 @@ import static nikita.config.N5ResourceMappings.*;
 public class ClassHateoasHandler extends HateoasHandler implements IClassHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
         // links for primary entities
-        addClass(entity, hateoasNoarkObject);
-        addNewClass(entity, hateoasNoarkObject);
-        addRegistration(entity, hateoasNoarkObject);
-        addNewRegistration(entity, hateoasNoarkObject);
-        addFile(entity, hateoasNoarkObject);
-        addNewFile(entity, hateoasNoarkObject);
-        addClassificationSystem(entity, hateoasNoarkObject);
-        addParentClass(entity, hateoasNoarkObject);
-        addSubClass(entity, hateoasNoarkObject);
-        addNewSubClass(entity, hateoasNoarkObject);
+        addClass(entity, hateoasNoarkObject, context);
+        addNewClass(entity, hateoasNoarkObject, context);
+        addRegistration(entity, hateoasNoarkObject, context);
+        addNewRegistration(entity, hateoasNoarkObject, context);
+        addFile(entity, hateoasNoarkObject, context);
+        addNewFile(entity, hateoasNoarkObject, context);
+        addClassificationSystem(entity, hateoasNoarkObject, context);
+        addParentClass(entity, hateoasNoarkObject, context);
+        addSubClass(entity, hateoasNoarkObject, context);
+        addNewSubClass(entity, hateoasNoarkObject, context);
         // links for secondary entities (non-embeddable)
-        addKeyword(entity, hateoasNoarkObject);
-        addNewKeyword(entity, hateoasNoarkObject);
-        addCrossReference(entity, hateoasNoarkObject);
-        addNewCrossReference(entity, hateoasNoarkObject);
+        addKeyword(entity, hateoasNoarkObject, context);
+        addNewKeyword(entity, hateoasNoarkObject, context);
+        addCrossReference(entity, hateoasNoarkObject, context);
+        addNewCrossReference(entity, hateoasNoarkObject, context);
         // links for secondary entities (embeddable)
-        addNewClassified(entity, hateoasNoarkObject);
-        addNewDisposal(entity, hateoasNoarkObject);
-        addNewDisposalUndertaken(entity, hateoasNoarkObject);
-        addNewDeletion(entity, hateoasNoarkObject);
-        addNewScreening(entity, hateoasNoarkObject);
+        addNewClassified(entity, hateoasNoarkObject, context);
+        addNewDisposal(entity, hateoasNoarkObject, context);
+        addNewDisposalUndertaken(entity, hateoasNoarkObject, context);
+        addNewDeletion(entity, hateoasNoarkObject, context);
+        addNewScreening(entity, hateoasNoarkObject, context);
         // links for metadata entities
         // Class has no metadata entities
     }
 
     @Override
-    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + PARENT_CLASS +
-                SLASH, REL_FONDS_STRUCTURE_CLASS, false));
+    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + PARENT_CLASS + SLASH, REL_FONDS_STRUCTURE_CLASS));
     }
 
     @Override
-    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + SUB_CLASS +
-                SLASH, REL_FONDS_STRUCTURE_CLASS, false));
+    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + SUB_CLASS + SLASH, REL_FONDS_STRUCTURE_CLASS));
     }
 
     @Override
-    public void addParentClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + PARENT_CLASS +
-                SLASH, REL_FONDS_STRUCTURE_CLASS, false));
+    public void addParentClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + PARENT_CLASS + SLASH, REL_FONDS_STRUCTURE_CLASS));
     }
 
     @Override
-    public void addSubClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + SUB_CLASS +
-                SLASH, REL_FONDS_STRUCTURE_SUB_CLASS, false));
+    public void addSubClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + SUB_CLASS + SLASH, REL_FONDS_STRUCTURE_SUB_CLASS));
     }
 
     @Override
-    public void addNewSubClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + SUB_CLASS +
-                SLASH, REL_FONDS_STRUCTURE_NEW_SUB_CLASS, false));
+    public void addNewSubClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + SUB_CLASS + SLASH, REL_FONDS_STRUCTURE_NEW_SUB_CLASS));
     }
 
     @Override
-    public void addClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS +
-                SLASH + entity.getSystemId() + SLASH + CLASSIFICATION_SYSTEM + SLASH,
-                REL_FONDS_STRUCTURE_CLASSIFICATION_SYSTEM, false));
+    public void addClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                        LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + CLASSIFICATION_SYSTEM + SLASH,
+                REL_FONDS_STRUCTURE_CLASSIFICATION_SYSTEM));
     }
 
     @Override
-    public void addRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + REGISTRATION
-                + SLASH, REL_FONDS_STRUCTURE_REGISTRATION,
-                false));
+    public void addRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + REGISTRATION + SLASH, REL_FONDS_STRUCTURE_REGISTRATION));
     }
 
     @Override
-    public void addNewRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + NEW_RECORD
-                + SLASH, REL_FONDS_STRUCTURE_NEW_RECORD,
-                false));
+    public void addNewRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_RECORD + SLASH, REL_FONDS_STRUCTURE_NEW_RECORD));
     }
 
     @Override
-    public void addFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + FILE +
-                SLASH, REL_FONDS_STRUCTURE_FILE,
-                false));
+    public void addFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + FILE + SLASH, REL_FONDS_STRUCTURE_FILE));
     }
 
     @Override
-    public void addNewFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + NEW_FILE +
-                SLASH, REL_FONDS_STRUCTURE_NEW_FILE,
-                false));
+    public void addNewFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_FILE + SLASH, REL_FONDS_STRUCTURE_NEW_FILE));
     }
 
     @Override
-    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + NEW_CLASSIFIED
-                + SLASH, REL_FONDS_STRUCTURE_NEW_CLASSIFIED, false));
+    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_CLASSIFIED + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CLASSIFIED));
     }
 
     @Override
-    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + NEW_DISPOSAL
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL, false));
+    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_DISPOSAL + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL));
     }
 
     @Override
-    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH +
-                NEW_DISPOSAL_UNDERTAKEN + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN, false));
+    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                         LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_DISPOSAL_UNDERTAKEN + SLASH,
+                REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN));
     }
 
     @Override
-    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + NEW_DELETION
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DELETION, false));
+    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_DELETION + SLASH, REL_FONDS_STRUCTURE_NEW_DELETION));
     }
 
 
     @Override
-    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + NEW_SCREENING
-                + SLASH, REL_FONDS_STRUCTURE_NEW_SCREENING, false));
+    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_SCREENING + SLASH, REL_FONDS_STRUCTURE_NEW_SCREENING));
     }
 
     @Override
-    public void addKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + KEYWORD
-                + SLASH, REL_FONDS_STRUCTURE_KEYWORD, false));
+    public void addKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + KEYWORD + SLASH, REL_FONDS_STRUCTURE_KEYWORD));
     }
 
     @Override
-    public void addNewKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH + NEW_KEYWORD
-                + SLASH, REL_FONDS_STRUCTURE_NEW_KEYWORD, false));
+    public void addNewKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_KEYWORD + SLASH, REL_FONDS_STRUCTURE_NEW_KEYWORD));
     }
 
     @Override
-    public void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH +
-                CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_CROSS_REFERENCE, false));
+    public void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + CROSS_REFERENCE + SLASH,
+                REL_FONDS_STRUCTURE_CROSS_REFERENCE));
     }
 
     @Override
-    public void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS + SLASH + entity.getSystemId() + SLASH +
-                NEW_CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_NEW_CROSS_REFERENCE, false));
+    public void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                     LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                CLASS + SLASH, entity.getSystemId(), SLASH + NEW_CROSS_REFERENCE + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CROSS_REFERENCE));
     }
 }
@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IClassificationSystemHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -47,67 +46,70 @@ import static nikita.config.N5ResourceMappings.*;
 public class ClassificationSystemHateoasHandler extends HateoasHandler implements IClassificationSystemHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
         // links for primary entities
-        addNewClassificationSystem(entity, hateoasNoarkObject);
-        addNewSecondaryClassificationSystem(entity, hateoasNoarkObject);
-        addSecondaryClassificationSystem(entity, hateoasNoarkObject);
-        addClass(entity, hateoasNoarkObject);
-        addNewClass(entity, hateoasNoarkObject);
-        addSeries(entity, hateoasNoarkObject);
+        addNewClassificationSystem(entity, hateoasNoarkObject, context);
+        addNewSecondaryClassificationSystem(entity, hateoasNoarkObject, context);
+        addSecondaryClassificationSystem(entity, hateoasNoarkObject, context);
+        addClass(entity, hateoasNoarkObject, context);
+        addNewClass(entity, hateoasNoarkObject, context);
+        addSeries(entity, hateoasNoarkObject, context);
         // links for secondary entities
         // No secondary entities
         // links for metadata entities
-        addClassificationType(entity, hateoasNoarkObject);
+        addClassificationType(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + REFERENCE_CLASS
-                + SLASH, REL_FONDS_STRUCTURE_CLASS, false));
+    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + REFERENCE_CLASS + SLASH, REL_FONDS_STRUCTURE_CLASS));
     }
 
     @Override
-    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + NEW_REFERENCE_CLASS
-                + SLASH, REL_FONDS_STRUCTURE_NEW_CLASS, false));
+    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_REFERENCE_CLASS + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CLASS));
     }
 
     @Override
-    public void addSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + SERIES
-                + SLASH, REL_FONDS_STRUCTURE_SERIES, false));
+    public void addSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + SERIES + SLASH, REL_FONDS_STRUCTURE_SERIES));
     }
 
     @Override
-    public void addNewClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_CLASSIFICATION_SYSTEM + SLASH, REL_FONDS_STRUCTURE_NEW_CLASSIFICATION_SYSTEM, false));
+    public void addNewClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                           LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_CLASSIFICATION_SYSTEM + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CLASSIFICATION_SYSTEM));
     }
 
     @Override
-    public void addNewSecondaryClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_SECONDARY_CLASSIFICATION + SLASH, REL_FONDS_STRUCTURE_NEW_SECONDARY_CLASSIFICATION, false));
+    public void addNewSecondaryClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                                    LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_SECONDARY_CLASSIFICATION + SLASH,
+                REL_FONDS_STRUCTURE_NEW_SECONDARY_CLASSIFICATION));
     }
 
     @Override
-    public void addSecondaryClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                SECONDARY_CLASSIFICATION + SLASH, REL_FONDS_STRUCTURE_SECONDARY_CLASSIFICATION, false));
+    public void addSecondaryClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + SECONDARY_CLASSIFICATION + SLASH,
+                REL_FONDS_STRUCTURE_SECONDARY_CLASSIFICATION));
     }
 
     @Override
-    public void addClassificationType(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + CLASSIFICATION_SYSTEM_TYPE
-                + SLASH, REL_METADATA_CLASSIFICATION_SYSTEM_TYPE, false));
+    public void addClassificationType(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH + FILE +
+                SLASH, entity.getSystemId(), SLASH + CLASSIFICATION_SYSTEM_TYPE + SLASH,
+                REL_METADATA_CLASSIFICATION_SYSTEM_TYPE));
     }
 }
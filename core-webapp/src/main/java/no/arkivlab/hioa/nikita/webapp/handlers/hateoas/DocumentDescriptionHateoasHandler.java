@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IDocumentDescriptionHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -21,190 +20,207 @@ import static nikita.config.N5ResourceMappings.*;
 public class DocumentDescriptionHateoasHandler extends HateoasHandler implements IDocumentDescriptionHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
         // links for primary entities
-        addRecord(entity, hateoasNoarkObject);
-        addDocumentObject(entity, hateoasNoarkObject);
-        addNewDocumentObject(entity, hateoasNoarkObject);
+        addRecord(entity, hateoasNoarkObject, context);
+        addDocumentObject(entity, hateoasNoarkObject, context);
+        addNewDocumentObject(entity, hateoasNoarkObject, context);
         // links for secondary entities M:1
-        addNewClassified(entity, hateoasNoarkObject);
-        addNewDisposal(entity, hateoasNoarkObject);
-        addNewDisposalUndertaken(entity, hateoasNoarkObject);
-        addNewDeletion(entity, hateoasNoarkObject);
-        addNewScreening(entity, hateoasNoarkObject);
+        addNewClassified(entity, hateoasNoarkObject, context);
+        addNewDisposal(entity, hateoasNoarkObject, context);
+        addNewDisposalUndertaken(entity, hateoasNoarkObject, context);
+        addNewDeletion(entity, hateoasNoarkObject, context);
+        addNewScreening(entity, hateoasNoarkObject, context);
         // links for secondary entities 1:M
-        addStorageLocation(entity, hateoasNoarkObject);
-        addNewStorageLocation(entity, hateoasNoarkObject);
-        addComment(entity, hateoasNoarkObject);
-        addNewComment(entity, hateoasNoarkObject);
-        addAuthor(entity, hateoasNoarkObject);
-        addNewAuthor(entity, hateoasNoarkObject);
+        addStorageLocation(entity, hateoasNoarkObject, context);
+        addNewStorageLocation(entity, hateoasNoarkObject, context);
+        addComment(entity, hateoasNoarkObject, context);
+        addNewComment(entity, hateoasNoarkObject, context);
+        addAuthor(entity, hateoasNoarkObject, context);
+        addNewAuthor(entity, hateoasNoarkObject, context);
         // links for metadata entities
-        addDocumentMedium(entity, hateoasNoarkObject);
-        addDocumentType(entity, hateoasNoarkObject);
-        addDocumentStatus(entity, hateoasNoarkObject);
+        addDocumentMedium(entity, hateoasNoarkObject, context);
+        addDocumentType(entity, hateoasNoarkObject, context);
+        addDocumentStatus(entity, hateoasNoarkObject, context);
         // links for reference entities
-        addReferenceSeries(entity, hateoasNoarkObject);
-        addNewReferenceSeries(entity, hateoasNoarkObject);
+        addReferenceSeries(entity, hateoasNoarkObject, context);
+        addNewReferenceSeries(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + SERIES
-                + SLASH, REL_FONDS_STRUCTURE_REFERENCE_SERIES, false));
+    public void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + SERIES + SLASH,
+                REL_FONDS_STRUCTURE_REFERENCE_SERIES));
     }
 
     @Override
-    public void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH +
-                NEW_SERIES + SLASH, REL_FONDS_STRUCTURE_NEW_REFERENCE_SERIES, false));
+    public void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_SERIES + SLASH,
+                REL_FONDS_STRUCTURE_NEW_REFERENCE_SERIES));
     }
 
     @Override
-    public void addRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH +
-                REGISTRATION + SLASH, REL_FONDS_STRUCTURE_RECORD, false));
+    public void addRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + REGISTRATION + SLASH,
+                REL_FONDS_STRUCTURE_RECORD));
     }
 
     @Override
-    public void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + CLASSIFIED
-                + SLASH, REL_FONDS_STRUCTURE_CLASSIFIED, false));
+    public void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + CLASSIFIED + SLASH,
+                REL_FONDS_STRUCTURE_CLASSIFIED));
     }
 
     @Override
-    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH +
-                NEW_CLASSIFIED + SLASH, REL_FONDS_STRUCTURE_NEW_CLASSIFIED, false));
+    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_CLASSIFIED + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CLASSIFIED));
     }
 
     @Override
-    public void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + DISPOSAL
-                + SLASH, REL_FONDS_STRUCTURE_DISPOSAL, false));
+    public void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + DISPOSAL + SLASH,
+                REL_FONDS_STRUCTURE_DISPOSAL));
     }
 
     @Override
-    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + NEW_DISPOSAL
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL, false));
+    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_DISPOSAL + SLASH,
+                REL_FONDS_STRUCTURE_NEW_DISPOSAL));
     }
 
     @Override
-    public void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + DISPOSAL_UNDERTAKEN
-                + SLASH, REL_FONDS_STRUCTURE_DISPOSAL_UNDERTAKEN, false));
+    public void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + DISPOSAL_UNDERTAKEN + SLASH,
+                REL_FONDS_STRUCTURE_DISPOSAL_UNDERTAKEN));
     }
 
     @Override
-    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + NEW_DISPOSAL_UNDERTAKEN
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN, false));
+    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                         LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_DISPOSAL_UNDERTAKEN + SLASH,
+                REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN));
     }
 
     @Override
-    public void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + DELETION
-                + SLASH, REL_FONDS_STRUCTURE_DELETION, false));
+    public void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + DELETION + SLASH,
+                REL_FONDS_STRUCTURE_DELETION));
     }
 
     @Override
-    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + NEW_DELETION
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DELETION, false));
+    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_DELETION + SLASH,
+                REL_FONDS_STRUCTURE_NEW_DELETION));
     }
 
     @Override
-    public void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + SCREENING
-                + SLASH, REL_FONDS_STRUCTURE_SCREENING, false));
+    public void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + SCREENING + SLASH,
+                REL_FONDS_STRUCTURE_SCREENING));
     }
 
     @Override
-    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + NEW_SCREENING
-                + SLASH, REL_FONDS_STRUCTURE_NEW_SCREENING, false));
+    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_SCREENING + SLASH,
+                REL_FONDS_STRUCTURE_NEW_SCREENING));
     }
 
     @Override
-    public void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + AUTHOR
-                + SLASH, REL_FONDS_STRUCTURE_AUTHOR, false));
+    public void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + AUTHOR + SLASH,
+                REL_FONDS_STRUCTURE_AUTHOR));
     }
 
     @Override
-    public void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + NEW_AUTHOR
-                + SLASH, REL_FONDS_STRUCTURE_NEW_AUTHOR, false));
+    public void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_AUTHOR + SLASH,
+                REL_FONDS_STRUCTURE_NEW_AUTHOR));
     }
 
     @Override
-    public void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + COMMENT
-                + SLASH, REL_FONDS_STRUCTURE_COMMENT, false));
+    public void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + COMMENT + SLASH,
+                REL_FONDS_STRUCTURE_COMMENT));
     }
 
     @Override
-    public void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH + NEW_COMMENT
-                + SLASH, REL_FONDS_STRUCTURE_NEW_COMMENT, false));
+    public void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_COMMENT + SLASH,
+                REL_FONDS_STRUCTURE_NEW_COMMENT));
     }
 
     @Override
-    public void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH +
-                STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_STORAGE_LOCATION, false));
+    public void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + STORAGE_LOCATION + SLASH,
+                REL_FONDS_STRUCTURE_STORAGE_LOCATION));
     }
 
     @Override
-    public void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH +
-                NEW_STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION, false));
+    public void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_STORAGE_LOCATION + SLASH,
+                REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION));
     }
 
     @Override
-    public void addDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH +
-                DOCUMENT_OBJECT + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_OBJECT, false));
+    public void addDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + DOCUMENT_OBJECT + SLASH,
+                REL_FONDS_STRUCTURE_DOCUMENT_OBJECT));
     }
 
     @Override
-    public void addNewDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION + SLASH + entity.getSystemId() + SLASH +
-                NEW_DOCUMENT_OBJECT + SLASH, REL_FONDS_STRUCTURE_NEW_DOCUMENT_OBJECT, false));
+    public void addNewDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                     LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, entity.getSystemId(), SLASH + NEW_DOCUMENT_OBJECT + SLASH,
+                REL_FONDS_STRUCTURE_NEW_DOCUMENT_OBJECT));
     }
 
     @Override
-    public void addDocumentType(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + DOCUMENT_STATUS, REL_METADATA_DOCUMENT_STATUS, false));
+    public void addDocumentType(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH +
+                DOCUMENT_STATUS, REL_METADATA_DOCUMENT_STATUS));
     }
 
     @Override
-    public void addDocumentStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + DOCUMENT_TYPE, REL_METADATA_DOCUMENT_TYPE, false));
+    public void addDocumentStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH +
+                DOCUMENT_TYPE, REL_METADATA_DOCUMENT_TYPE));
     }
 }
@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IDocumentObjectHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -21,81 +20,89 @@ import static nikita.config.N5ResourceMappings.*;
 public class DocumentObjectHateoasHandler extends HateoasHandler implements IDocumentObjectHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
         // links for primary entities
         // link to record/documentdescription is one or the other
-        addRecord(entity, hateoasNoarkObject);
-        addDocumentDescription(entity, hateoasNoarkObject);
+        addRecord(entity, hateoasNoarkObject, context);
+        addDocumentDescription(entity, hateoasNoarkObject, context);
         // links for secondary entities
-        addConversion(entity, hateoasNoarkObject);
-        addNewConversion(entity, hateoasNoarkObject);
-        addElectronicSignature(entity, hateoasNoarkObject);
-        addReferenceDocumentFile(entity, hateoasNoarkObject);
-        addNewElectronicSignature(entity, hateoasNoarkObject);
+        addConversion(entity, hateoasNoarkObject, context);
+        addNewConversion(entity, hateoasNoarkObject, context);
+        addElectronicSignature(entity, hateoasNoarkObject, context);
+        addReferenceDocumentFile(entity, hateoasNoarkObject, context);
+        addNewElectronicSignature(entity, hateoasNoarkObject, context);
         // links for metadata entities
-        addVariantFormat(entity, hateoasNoarkObject);
-        addFormat(entity, hateoasNoarkObject);
+        addVariantFormat(entity, hateoasNoarkObject, context);
+        addFormat(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT + SLASH + entity.getSystemId() + SLASH +
-                REGISTRATION + SLASH, REL_FONDS_STRUCTURE_RECORD, false));
+    public void addRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_OBJECT + SLASH, entity.getSystemId(), SLASH + REGISTRATION + SLASH,
+                REL_FONDS_STRUCTURE_RECORD));
     }
 
     @Override
-    public void addConversion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT + SLASH + entity.getSystemId() + SLASH +
-                CONVERSION + SLASH, REL_FONDS_STRUCTURE_CONVERSION, false));
+    public void addConversion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_OBJECT + SLASH, entity.getSystemId(), SLASH + CONVERSION + SLASH,
+                REL_FONDS_STRUCTURE_CONVERSION));
     }
 
     @Override
-    public void addNewConversion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT + SLASH + entity.getSystemId() + SLASH +
-                NEW_CONVERSION + SLASH, REL_FONDS_STRUCTURE_NEW_CONVERSION, false));
+    public void addNewConversion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_OBJECT + SLASH, entity.getSystemId(), SLASH + NEW_CONVERSION + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CONVERSION));
     }
 
     @Override
-    public void addElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT + SLASH + entity.getSystemId() + SLASH +
-                ELECTRONIC_SIGNATURE + SLASH, REL_FONDS_STRUCTURE_ELECTRONIC_SIGNATURE, false));
+    public void addElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_OBJECT + SLASH, entity.getSystemId(), SLASH + ELECTRONIC_SIGNATURE + SLASH,
+                REL_FONDS_STRUCTURE_ELECTRONIC_SIGNATURE));
     }
 
     @Override
-    public void addNewElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT + SLASH + entity.getSystemId() + SLASH +
-                NEW_ELECTRONIC_SIGNATURE + SLASH, REL_FONDS_STRUCTURE_NEW_ELECTRONIC_SIGNATURE, false));
+    public void addNewElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                          LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_OBJECT + SLASH, entity.getSystemId(), SLASH + NEW_ELECTRONIC_SIGNATURE + SLASH,
+                REL_FONDS_STRUCTURE_NEW_ELECTRONIC_SIGNATURE));
     }
 
     @Override
-    public void addDocumentDescription(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT + SLASH + entity.getSystemId() + SLASH +
-                DOCUMENT_DESCRIPTION + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_DESCRIPTION, false));
+    public void addDocumentDescription(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_OBJECT + SLASH, entity.getSystemId(), SLASH + DOCUMENT_DESCRIPTION + SLASH,
+                REL_FONDS_STRUCTURE_DOCUMENT_DESCRIPTION));
     }
 
     @Override
-    public void addReferenceDocumentFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT + SLASH + entity.getSystemId() + SLASH +
-                REFERENCE_FILE + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_FILE, false));
+    public void addReferenceDocumentFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                         LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                DOCUMENT_OBJECT + SLASH, entity.getSystemId(), SLASH + REFERENCE_FILE + SLASH,
+                REL_FONDS_STRUCTURE_DOCUMENT_FILE));
     }
 
     @Override
-    public void addVariantFormat(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + VARIANT_FORMAT, REL_METADATA_VARIANT_FORMAT, false));
+    public void addVariantFormat(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH +
+                VARIANT_FORMAT, REL_METADATA_VARIANT_FORMAT));
     }
 
     @Override
-    public void addFormat(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + FORMAT, REL_METADATA_FORMAT, false));
+    public void addFormat(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH + FORMAT,
+                REL_METADATA_FORMAT));
     }
 }
@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IFileHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -21,160 +20,164 @@ import static nikita.config.N5ResourceMappings.*;
 public class FileHateoasHandler extends HateoasHandler implements IFileHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
-        addEndFile(entity, hateoasNoarkObject);
-        addExpandToCaseFile(entity, hateoasNoarkObject);
-        addExpandToMeetingFile(entity, hateoasNoarkObject);
-        addRegistration(entity, hateoasNoarkObject);
-        addNewRegistration(entity, hateoasNoarkObject);
-        addBasicRecord(entity, hateoasNoarkObject);
-        addNewBasicRecord(entity, hateoasNoarkObject);
-        addComment(entity, hateoasNoarkObject);
-        addNewComment(entity, hateoasNoarkObject);
-        addSubFile(entity, hateoasNoarkObject);
-        addNewSubFile(entity, hateoasNoarkObject);
-        addCrossReference(entity, hateoasNoarkObject);
-        addNewCrossReference(entity, hateoasNoarkObject);
-        addClass(entity, hateoasNoarkObject);
-        addNewClass(entity, hateoasNoarkObject);
-        addReferenceSeries(entity, hateoasNoarkObject);
-        addNewReferenceSeries(entity, hateoasNoarkObject);
-        addReferenceSecondaryClassification(entity, hateoasNoarkObject);
-        addNewReferenceSecondaryClassification(entity, hateoasNoarkObject);
+        addEndFile(entity, hateoasNoarkObject, context);
+        addExpandToCaseFile(entity, hateoasNoarkObject, context);
+        addExpandToMeetingFile(entity, hateoasNoarkObject, context);
+        addRegistration(entity, hateoasNoarkObject, context);
+        addNewRegistration(entity, hateoasNoarkObject, context);
+        addBasicRecord(entity, hateoasNoarkObject, context);
+        addNewBasicRecord(entity, hateoasNoarkObject, context);
+        addComment(entity, hateoasNoarkObject, context);
+        addNewComment(entity, hateoasNoarkObject, context);
+        addSubFile(entity, hateoasNoarkObject, context);
+        addNewSubFile(entity, hateoasNoarkObject, context);
+        addCrossReference(entity, hateoasNoarkObject, context);
+        addNewCrossReference(entity, hateoasNoarkObject, context);
+        addClass(entity, hateoasNoarkObject, context);
+        addNewClass(entity, hateoasNoarkObject, context);
+        addReferenceSeries(entity, hateoasNoarkObject, context);
+        addNewReferenceSeries(entity, hateoasNoarkObject, context);
+        addReferenceSecondaryClassification(entity, hateoasNoarkObject, context);
+        addNewReferenceSecondaryClassification(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addEndFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + FILE_END
-                + SLASH, REL_FONDS_STRUCTURE_END_FILE,
-                false));
+    public void addEndFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + FILE_END + SLASH, REL_FONDS_STRUCTURE_END_FILE));
     }
 
     @Override
-    public void addExpandToCaseFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                FILE_EXPAND_TO_CASE_FILE + SLASH, REL_FONDS_STRUCTURE_EXPAND_TO_CASE_FILE, false));
+    public void addExpandToCaseFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                    LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + FILE_EXPAND_TO_CASE_FILE + SLASH,
+                REL_FONDS_STRUCTURE_EXPAND_TO_CASE_FILE));
     }
 
     @Override
-    public void addExpandToMeetingFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                FILE_EXPAND_TO_MEETING_FILE + SLASH, REL_FONDS_STRUCTURE_EXPAND_TO_MEETING_FILE, false));
+    public void addExpandToMeetingFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + FILE_EXPAND_TO_MEETING_FILE + SLASH,
+                REL_FONDS_STRUCTURE_EXPAND_TO_MEETING_FILE));
     }
 
     @Override
-    public void addRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                REGISTRATION + SLASH, REL_FONDS_STRUCTURE_REGISTRATION, false));
+    public void addRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + REGISTRATION + SLASH, REL_FONDS_STRUCTURE_REGISTRATION));
     }
 
     @Override
-    public void addNewRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_RECORD + SLASH, REL_FONDS_STRUCTURE_NEW_REGISTRATION, false));
+    public void addNewRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_RECORD + SLASH, REL_FONDS_STRUCTURE_NEW_REGISTRATION));
     }
 
     @Override
-    public void addBasicRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + BASIC_RECORD
-                + SLASH, REL_FONDS_STRUCTURE_BASIC_RECORD, false));
+    public void addBasicRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + BASIC_RECORD + SLASH, REL_FONDS_STRUCTURE_BASIC_RECORD));
     }
 
     @Override
-    public void addNewBasicRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + NEW_BASIC_RECORD
-                + SLASH, REL_FONDS_STRUCTURE_NEW_BASIC_RECORD, false));
+    public void addNewBasicRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_BASIC_RECORD + SLASH,
+                REL_FONDS_STRUCTURE_NEW_BASIC_RECORD));
     }
 
     @Override
-    public void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                COMMENT + SLASH, REL_FONDS_STRUCTURE_COMMENT, false));
+    public void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + COMMENT + SLASH, REL_FONDS_STRUCTURE_COMMENT));
     }
 
     @Override
-    public void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_COMMENT + SLASH, REL_FONDS_STRUCTURE_NEW_COMMENT, false));
+    public void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_COMMENT + SLASH, REL_FONDS_STRUCTURE_NEW_COMMENT));
     }
 
     @Override
-    public void addSubFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                SUB_FILE + SLASH, REL_FONDS_STRUCTURE_SUB_FILE, false));
+    public void addSubFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + SUB_FILE + SLASH, REL_FONDS_STRUCTURE_SUB_FILE));
     }
 
     @Override
-    public void addNewSubFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_SUB_FILE + SLASH, REL_FONDS_STRUCTURE_NEW_SUB_FILE, false));
+    public void addNewSubFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_SUB_FILE + SLASH, REL_FONDS_STRUCTURE_NEW_SUB_FILE));
     }
 
     @Override
-    public void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_CROSS_REFERENCE, false));
+    public void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + CROSS_REFERENCE + SLASH,
+                REL_FONDS_STRUCTURE_CROSS_REFERENCE));
     }
 
     @Override
-    public void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_CROSS_REFERENCE + SLASH, REL_FONDS_STRUCTURE_NEW_CROSS_REFERENCE, false));
+    public void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                     LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_CROSS_REFERENCE + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CROSS_REFERENCE));
     }
 
     @Override
-    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + REFERENCE_CLASS
-                + SLASH, REL_FONDS_STRUCTURE_CLASS, false));
+    public void addClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + REFERENCE_CLASS + SLASH, REL_FONDS_STRUCTURE_CLASS));
     }
 
     @Override
-    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + NEW_REFERENCE_CLASS
-                + SLASH, REL_FONDS_STRUCTURE_NEW_CLASS, false));
+    public void addNewClass(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_REFERENCE_CLASS + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CLASS));
     }
 
     @Override
-    public void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH + SERIES
-                + SLASH, REL_FONDS_STRUCTURE_REFERENCE_SERIES, false));
+    public void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + SERIES + SLASH, REL_FONDS_STRUCTURE_REFERENCE_SERIES));
     }
 
     @Override
-    public void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_SERIES + SLASH, REL_FONDS_STRUCTURE_NEW_REFERENCE_SERIES, false));
+    public void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_SERIES + SLASH,
+                REL_FONDS_STRUCTURE_NEW_REFERENCE_SERIES));
     }
 
     @Override
-    public void addReferenceSecondaryClassification(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                SECONDARY_CLASSIFICATION + SLASH, REL_FONDS_STRUCTURE_SECONDARY_CLASSIFICATION, false));
+    public void addReferenceSecondaryClassification(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                                    LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + SECONDARY_CLASSIFICATION + SLASH,
+                REL_FONDS_STRUCTURE_SECONDARY_CLASSIFICATION));
     }
 
     @Override
-    public void addNewReferenceSecondaryClassification(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE + SLASH + entity.getSystemId() + SLASH +
-                NEW_SERIES + SLASH, REL_FONDS_STRUCTURE_NEW_SECONDARY_CLASSIFICATION, false));
+    public void addNewReferenceSecondaryClassification(
+            INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FILE + SLASH, entity.getSystemId(), SLASH + NEW_SERIES + SLASH,
+                REL_FONDS_STRUCTURE_NEW_SECONDARY_CLASSIFICATION));
     }
 }
@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IFondsCreatorHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -19,22 +18,21 @@ import static nikita.config.N5ResourceMappings.FONDS_CREATOR;
 public class FondsCreatorHateoasHandler extends HateoasHandler implements IFondsCreatorHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addFonds(entity, hateoasNoarkObject);
-        addNewFonds(entity, hateoasNoarkObject);
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        addFonds(entity, hateoasNoarkObject, context);
+        addNewFonds(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS + SLASH + entity.getSystemId() + SLASH +
-                FONDS + SLASH, REL_FONDS_STRUCTURE_FONDS, false));
+    public void addFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FONDS + SLASH, entity.getSystemId(), SLASH + FONDS + SLASH, REL_FONDS_STRUCTURE_FONDS));
     }
 
     @Override
-    public void addNewFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS_CREATOR + SLASH + entity.getSystemId() + SLASH +
-                NEW_FONDS + SLASH, REL_FONDS_STRUCTURE_NEW_FONDS, false));
+    public void addNewFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FONDS_CREATOR + SLASH, entity.getSystemId(), SLASH + NEW_FONDS + SLASH, REL_FONDS_STRUCTURE_NEW_FONDS));
     }
 }
@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IFondsHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -21,96 +20,97 @@ import static nikita.config.N5ResourceMappings.*;
 public class FondsHateoasHandler extends HateoasHandler implements IFondsHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addDocumentMedium(entity, hateoasNoarkObject);
-        addFondsCreator(entity, hateoasNoarkObject);
-        addSeries(entity, hateoasNoarkObject);
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        addDocumentMedium(entity, hateoasNoarkObject, context);
+        addFondsCreator(entity, hateoasNoarkObject, context);
+        addSeries(entity, hateoasNoarkObject, context);
         // It's not clear why addFonds would be part of this
-        //addFonds(entity, hateoasNoarkObject);
-        addNewFondsCreator(entity, hateoasNoarkObject);
-        addSubFonds(entity, hateoasNoarkObject);
-        addNewSubFonds(entity, hateoasNoarkObject);
-        addFondsStatus(entity, hateoasNoarkObject);
-        addNewSeries(entity, hateoasNoarkObject);
-        //addNewFonds(entity, hateoasNoarkObject);
+        //addFonds(entity, hateoasNoarkObject, context);
+        addNewFondsCreator(entity, hateoasNoarkObject, context);
+        addSubFonds(entity, hateoasNoarkObject, context);
+        addNewSubFonds(entity, hateoasNoarkObject, context);
+        addFondsStatus(entity, hateoasNoarkObject, context);
+        addNewSeries(entity, hateoasNoarkObject, context);
+        //addNewFonds(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addEntityLinksOnCreate(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addEntityLinks(entity, hateoasNoarkObject);
+    public void addEntityLinksOnCreate(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        addEntityLinks(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addEntityLinksOnRead(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addEntityLinks(entity, hateoasNoarkObject);
+    public void addEntityLinksOnRead(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                     LinkContext context) {
+        addEntityLinks(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addEntityLinksOnNew(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addDocumentMedium(entity, hateoasNoarkObject);
+    public void addEntityLinksOnNew(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                    LinkContext context) {
+        addDocumentMedium(entity, hateoasNoarkObject, context);
     }
 
 
-    public void addFondsCreator(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS +
-                SLASH + entity.getSystemId() + SLASH + FONDS_CREATOR + SLASH, REL_FONDS_STRUCTURE_FONDS_CREATOR,
-                false));
+    public void addFondsCreator(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FONDS + SLASH, entity.getSystemId(), SLASH + FONDS_CREATOR + SLASH, REL_FONDS_STRUCTURE_FONDS_CREATOR));
     }
 
-    public void addSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS +
-                SLASH + entity.getSystemId() + SLASH + SERIES + SLASH, REL_FONDS_STRUCTURE_SERIES, false));
+    public void addSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FONDS + SLASH, entity.getSystemId(), SLASH + SERIES + SLASH, REL_FONDS_STRUCTURE_SERIES));
     }
 
-    public void addFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS +
-                SLASH + entity.getSystemId() + SLASH + FONDS + SLASH, REL_FONDS_STRUCTURE_FONDS, false));
+    public void addFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FONDS + SLASH, entity.getSystemId(), SLASH + FONDS + SLASH, REL_FONDS_STRUCTURE_FONDS));
     }
 
-    public void addNewFondsCreator(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        if (authorisation.canCreateFonds()) {
-            hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                    NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS +
-                    SLASH + entity.getSystemId() + SLASH + NEW_FONDS_CREATOR + SLASH, REL_FONDS_STRUCTURE_NEW_FONDS_CREATOR,
-                    false));
+    public void addNewFondsCreator(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        if (context.getAuthorisation().canCreateFonds()) {
+            hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH +
+                    SLASH + FONDS + SLASH, entity.getSystemId(), SLASH + NEW_FONDS_CREATOR + SLASH,
+                    REL_FONDS_STRUCTURE_NEW_FONDS_CREATOR));
         }
     }
 
-    public void addSubFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS +
-                SLASH + entity.getSystemId() + SLASH + SUB_FONDS + SLASH, REL_FONDS_STRUCTURE_SUB_FONDS, false));
+    public void addSubFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FONDS + SLASH, entity.getSystemId(), SLASH + SUB_FONDS + SLASH, REL_FONDS_STRUCTURE_SUB_FONDS));
 
     }
 
-    public void addNewSubFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS + SLASH + entity.getSystemId() + SLASH + NEW_SUB_FONDS +
-                SLASH, REL_FONDS_STRUCTURE_NEW_SUB_FONDS, false));
+    public void addNewSubFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                FONDS + SLASH, entity.getSystemId(), SLASH + NEW_SUB_FONDS + SLASH, REL_FONDS_STRUCTURE_NEW_SUB_FONDS));
 
     }
 
-    public void addFondsStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH
-                + FONDS_STATUS + SLASH, REL_METADATA_FONDS_STATUS, false));
+    public void addFondsStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH +
+                FONDS_STATUS + SLASH, REL_METADATA_FONDS_STATUS));
     }
 
-    public void addNewFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        if (authorisation.canCreateFonds()) {
-            hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                    NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS +
-                    SLASH + entity.getSystemId() + SLASH + NEW_FONDS + SLASH, REL_FONDS_STRUCTURE_NEW_FONDS, false));
+    public void addNewFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        if (context.getAuthorisation().canCreateFonds()) {
+            hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH +
+                    SLASH + FONDS + SLASH, entity.getSystemId(), SLASH + NEW_FONDS + SLASH,
+                    REL_FONDS_STRUCTURE_NEW_FONDS));
         }
     }
 
-    public void addNewSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        if (authorisation.canCreateSeries()) {
-            hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                    NOARK_FONDS_STRUCTURE_PATH + SLASH + FONDS +
-                    SLASH + entity.getSystemId() + SLASH + NEW_SERIES + SLASH, REL_FONDS_STRUCTURE_NEW_SERIES, false));
+    public void addNewSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        if (context.getAuthorisation().canCreateSeries()) {
+            hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH +
+                    SLASH + FONDS + SLASH, entity.getSystemId(), SLASH + NEW_SERIES + SLASH,
+                    REL_FONDS_STRUCTURE_NEW_SERIES));
         }
     }
 }
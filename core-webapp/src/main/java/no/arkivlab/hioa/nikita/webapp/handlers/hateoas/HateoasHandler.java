@@ -2,15 +2,21 @@ package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
 import nikita.model.noark5.v4.hateoas.Link;
+import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.security.IAuthorisation;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static nikita.config.Constants.*;
+import static nikita.config.HATEOASConstants.NEXT;
 import static nikita.config.HATEOASConstants.SELF;
 import static nikita.config.N5ResourceMappings.DOCUMENT_MEDIUM;
 
@@ -19,27 +25,19 @@ import static nikita.config.N5ResourceMappings.DOCUMENT_MEDIUM;
  * <p>
  * Used to add Hateoas links with information
  * <p>
- * Note that the contextServletPath is set when addLinks is called
+ * Handlers are shared by all requests and keep no per request state. Everything a link depends on besides the
+ * entity is in the LinkContext created by addLinks.
  */
 @Component("hateoasHandler")
 public class HateoasHandler implements IHateoasHandler {
 
-    protected String contextServletPath = "";
-    protected String servletPath = "";
-    protected String contextPath = "";
-    IAuthorisation authorisation;
+    // The path up to the systemId of each entity type seen, e.g. hateoas-api/arkivstruktur/arkivdel/
+    private final ConcurrentMap<String, String> entityPaths = new ConcurrentHashMap<>();
 
     @Override
     public void addLinks(IHateoasNoarkObject hateoasNoarkObject, HttpServletRequest request,
                          IAuthorisation authorisation) {
-        setParameters(request);
-        this.authorisation = authorisation;
-
-        Iterable<INoarkSystemIdEntity> entities = hateoasNoarkObject.getList();
-        for (INoarkSystemIdEntity entity : entities) {
-            addSelfLink(entity, hateoasNoarkObject);
-            addEntityLinks(entity, hateoasNoarkObject);
-        }
+        addLinks(hateoasNoarkObject, new LinkContext(request, authorisation));
         // If hateoasNoarkObject is a list add a self link.
         // { "entity": [], "_links": [] }
         if (!hateoasNoarkObject.isSingleEntity() && hateoasNoarkObject.getList().size() > 0) {
@@ -49,6 +47,15 @@ public class HateoasHandler implements IHateoasHandler {
         }
     }
 
+    @Override
+    public void addLinks(IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        Iterable<INoarkSystemIdEntity> entities = hateoasNoarkObject.getList();
+        for (INoarkSystemIdEntity entity : entities) {
+            addSelfLink(entity, hateoasNoarkObject, context);
+            addEntityLinks(entity, hateoasNoarkObject, context);
+        }
+    }
+
     @Override
     public void addLinksOnCreate(IHateoasNoarkObject hateoasNoarkObject, HttpServletRequest request,
                                  IAuthorisation authorisation) {
@@ -58,12 +65,11 @@ public class HateoasHandler implements IHateoasHandler {
     @Override
     public void addLinksOnNew(IHateoasNoarkObject hateoasNoarkObject, HttpServletRequest request,
                               IAuthorisation authorisation) {
-        setParameters(request);
-        this.authorisation = authorisation;
+        LinkContext context = new LinkContext(request, authorisation);
 
         Iterable<INoarkSystemIdEntity> entities = hateoasNoarkObject.getList();
         for (INoarkSystemIdEntity entity : entities) {
-            addEntityLinksOnNew(entity, hateoasNoarkObject);
+            addEntityLinksOnNew(entity, hateoasNoarkObject, context);
         }
     }
 
@@ -86,51 +92,80 @@ public class HateoasHandler implements IHateoasHandler {
     }
 
     @Override
-    public void addSelfLink(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        String systemId = entity.getSystemId();
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + systemId + SLASH,
-                    getRelSelfLink(), false));
+    public void addSelfLink(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                            LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH,
+                getRelSelfLink()));
+    }
+
+    @Override
+    public void addNextLink(IHateoasNoarkObject hateoasNoarkObject, HttpServletRequest request, Integer top) {
+        List<INoarkSystemIdEntity> entities = hateoasNoarkObject.getList();
+        if (hateoasNoarkObject.isSingleEntity() || entities.size() < Pagination.getPageSize(top)) {
+            return;
+        }
+        INoarkSystemIdEntity last = entities.get(entities.size() - 1);
+        if (!(last instanceof INikitaEntity)) {
+            return;
+        }
+        // Continue after the last entity instead of skipping, whatever the client used to get here
+        String href = ServletUriComponentsBuilder.fromRequest(request)
+                .replaceQueryParam("skip")
+                .replaceQueryParam(Pagination.SKIP_TOKEN, Pagination.createSkipToken((INikitaEntity) last))
+                .build().toUriString();
+        hateoasNoarkObject.addSelfLink(new Link(href, NEXT, false));
     }
 
     @Override
-    public void addDocumentMedium(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH
-                + SLASH + DOCUMENT_MEDIUM, REL_METADATA_DOCUMENT_MEDIUM, false));
+    public void addDocumentMedium(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH +
+                DOCUMENT_MEDIUM, REL_METADATA_DOCUMENT_MEDIUM));
     }
 
     // Sub class should handle this, empty links otherwise!
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
     }
 
     // Sub class should handle this, empty links otherwise!
     @Override
-    public void addEntityLinksOnCreate(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addEntityLinks(entity, hateoasNoarkObject);
+    public void addEntityLinksOnCreate(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        addEntityLinks(entity, hateoasNoarkObject, context);
     }
 
     // Sub class should handle this, empty links otherwise!
     @Override
-    public void addEntityLinksOnNew(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinksOnNew(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                    LinkContext context) {
     }
 
     // Sub class should handle this, empty links otherwise!
     @Override
-    public void addEntityLinksOnRead(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addEntityLinks(entity, hateoasNoarkObject);
+    public void addEntityLinksOnRead(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                     LinkContext context) {
+        addEntityLinks(entity, hateoasNoarkObject, context);
     }
 
     protected String getRelSelfLink() {
         return SELF;
     }
 
-    protected void setParameters(HttpServletRequest request) {
-        this.servletPath = request.getServletPath();
-        this.contextPath = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
-        this.contextServletPath = contextPath + servletPath + SLASH;
-        this.servletPath += SLASH;
-        this.contextPath += SLASH;
+    /**
+     * @return the part of the api the entities handled are found under, e.g. arkivstruktur
+     */
+    protected String getStructurePath() {
+        return NOARK_FONDS_STRUCTURE_PATH;
+    }
+
+    /**
+     * @return the path of entity relative to the application, up to its systemId
+     */
+    protected String getEntityPath(INoarkSystemIdEntity entity) {
+        return entityPaths.computeIfAbsent(entity.getBaseTypeName(), baseTypeName ->
+                HATEOAS_API_PATH + SLASH + getStructurePath() + SLASH + baseTypeName + SLASH);
     }
 }
 
@@ -0,0 +1,67 @@
+package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
+
+import nikita.model.noark5.v4.hateoas.Link;
+import no.arkivlab.hioa.nikita.webapp.security.IAuthorisation;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static nikita.config.Constants.SLASH;
+
+/**
+ * What the links of one response are built from: the address of the application as seen by the client, and
+ * what the user is allowed to do.
+ * <p>
+ * The hateoas handlers are singletons shared by all requests, so this is created once per call to addLinks and
+ * handed to the methods adding the links, instead of being kept in the handler.
+ * <p>
+ * The handlers describe a link by the constant parts of its path before and after the systemId. The constant
+ * parts are concatenations of compile time constants, so each is a single string literal in the class file,
+ * and a link is built by copying contextPath, the path before the systemId, the systemId and the path after it
+ * into a buffer of exactly the right size.
+ */
+public final class LinkContext {
+
+    private final String contextPath;
+    private final IAuthorisation authorisation;
+
+    public LinkContext(String contextPath, IAuthorisation authorisation) {
+        this.contextPath = contextPath.endsWith(SLASH) ? contextPath : contextPath + SLASH;
+        this.authorisation = authorisation;
+    }
+
+    public LinkContext(HttpServletRequest request, IAuthorisation authorisation) {
+        this(ServletUriComponentsBuilder.fromContextPath(request).toUriString(), authorisation);
+    }
+
+    /**
+     * @return the address of the application, ending with a slash
+     */
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    public IAuthorisation getAuthorisation() {
+        return authorisation;
+    }
+
+    /**
+     * @param path the path relative to the application, e.g. hateoas-api/metadata/dokumentmedium
+     */
+    public Link link(String path, String rel) {
+        return new Link(contextPath.concat(path), rel, false);
+    }
+
+    /**
+     * @param path     the path relative to the application up to the systemId, e.g. hateoas-api/arkivstruktur/arkiv/
+     * @param systemId the systemId of the entity the link belongs to
+     * @param subPath  the path after the systemId, e.g. /arkivdel/
+     */
+    public Link link(String path, String systemId, String subPath, String rel) {
+        String id = String.valueOf(systemId);
+        StringBuilder href = new StringBuilder(contextPath.length() + path.length() + id.length() +
+                subPath.length());
+        href.append(contextPath).append(path).append(id).append(subPath);
+        return new Link(href.toString(), rel, false);
+    }
+}
@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IRecordHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -21,137 +20,133 @@ import static nikita.config.N5ResourceMappings.*;
 public class RecordHateoasHandler extends HateoasHandler implements IRecordHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
-        addReferenceSeries(entity, hateoasNoarkObject);
-        addNewDocumentDescription(entity, hateoasNoarkObject);
-        addDocumentDescription(entity, hateoasNoarkObject);
-        addNewDocumentObject(entity, hateoasNoarkObject);
-        addDocumentObject(entity, hateoasNoarkObject);
-        addNewReferenceSeries(entity, hateoasNoarkObject);
-        addClassified(entity, hateoasNoarkObject);
-        addNewClassified(entity, hateoasNoarkObject);
-        addDisposal(entity, hateoasNoarkObject);
-        addNewDisposal(entity, hateoasNoarkObject);
-        addDisposalUndertaken(entity, hateoasNoarkObject);
-        addNewDisposalUndertaken(entity, hateoasNoarkObject);
-        addDeletion(entity, hateoasNoarkObject);
-        addNewDeletion(entity, hateoasNoarkObject);
-        addScreening(entity, hateoasNoarkObject);
-        addNewScreening(entity, hateoasNoarkObject);
+        addReferenceSeries(entity, hateoasNoarkObject, context);
+        addNewDocumentDescription(entity, hateoasNoarkObject, context);
+        addDocumentDescription(entity, hateoasNoarkObject, context);
+        addNewDocumentObject(entity, hateoasNoarkObject, context);
+        addDocumentObject(entity, hateoasNoarkObject, context);
+        addNewReferenceSeries(entity, hateoasNoarkObject, context);
+        addClassified(entity, hateoasNoarkObject, context);
+        addNewClassified(entity, hateoasNoarkObject, context);
+        addDisposal(entity, hateoasNoarkObject, context);
+        addNewDisposal(entity, hateoasNoarkObject, context);
+        addDisposalUndertaken(entity, hateoasNoarkObject, context);
+        addNewDisposalUndertaken(entity, hateoasNoarkObject, context);
+        addDeletion(entity, hateoasNoarkObject, context);
+        addNewDeletion(entity, hateoasNoarkObject, context);
+        addScreening(entity, hateoasNoarkObject, context);
+        addNewScreening(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + REFERENCE_SERIES
-                + SLASH, REL_FONDS_STRUCTURE_REFERENCE_SERIES, false));
+    public void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                REFERENCE_SERIES + SLASH, REL_FONDS_STRUCTURE_REFERENCE_SERIES));
     }
 
     @Override
-    public void addNewDocumentDescription(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + NEW_DOCUMENT_DESCRIPTION
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DOCUMENT_DESCRIPTION, false));
+    public void addNewDocumentDescription(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                          LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_DOCUMENT_DESCRIPTION + SLASH, REL_FONDS_STRUCTURE_NEW_DOCUMENT_DESCRIPTION));
     }
 
     @Override
-    public void addDocumentDescription(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH +
-                entity.getSystemId() + SLASH + DOCUMENT_DESCRIPTION
-                + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_DESCRIPTION, false));
+    public void addDocumentDescription(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                DOCUMENT_DESCRIPTION + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_DESCRIPTION));
     }
 
     @Override
-    public void addNewDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + NEW_DOCUMENT_OBJECT
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DOCUMENT_OBJECT, false));
+    public void addNewDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                     LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_DOCUMENT_OBJECT + SLASH, REL_FONDS_STRUCTURE_NEW_DOCUMENT_OBJECT));
     }
 
     @Override
-    public void addDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH +
-                entity.getSystemId() + SLASH + DOCUMENT_OBJECT
-                + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_OBJECT, false));
+    public void addDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                DOCUMENT_OBJECT + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_OBJECT));
     }
 
     @Override
-    public void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + REFERENCE_NEW_SERIES
-                + SLASH, REL_FONDS_STRUCTURE_NEW_REFERENCE_SERIES, false));
+    public void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                REFERENCE_NEW_SERIES + SLASH, REL_FONDS_STRUCTURE_NEW_REFERENCE_SERIES));
     }
 
     @Override
-    public void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + CLASSIFIED
-                + SLASH, REL_FONDS_STRUCTURE_CLASSIFIED, false));
+    public void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                CLASSIFIED + SLASH, REL_FONDS_STRUCTURE_CLASSIFIED));
     }
 
     @Override
-    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH +
-                NEW_CLASSIFIED + SLASH, REL_FONDS_STRUCTURE_NEW_CLASSIFIED, false));
+    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_CLASSIFIED + SLASH, REL_FONDS_STRUCTURE_NEW_CLASSIFIED));
     }
 
     @Override
-    public void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + DISPOSAL
-                + SLASH, REL_FONDS_STRUCTURE_DISPOSAL, false));
+    public void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH + DISPOSAL +
+                SLASH, REL_FONDS_STRUCTURE_DISPOSAL));
     }
 
     @Override
-    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + NEW_DISPOSAL
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL, false));
+    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_DISPOSAL + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL));
     }
 
     @Override
-    public void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + DISPOSAL_UNDERTAKEN
-                + SLASH, REL_FONDS_STRUCTURE_DISPOSAL_UNDERTAKEN, false));
+    public void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                DISPOSAL_UNDERTAKEN + SLASH, REL_FONDS_STRUCTURE_DISPOSAL_UNDERTAKEN));
     }
 
     @Override
-    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + NEW_DISPOSAL_UNDERTAKEN
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN, false));
+    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                         LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_DISPOSAL_UNDERTAKEN + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN));
     }
 
     @Override
-    public void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + DELETION
-                + SLASH, REL_FONDS_STRUCTURE_DELETION, false));
+    public void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH + DELETION +
+                SLASH, REL_FONDS_STRUCTURE_DELETION));
     }
 
     @Override
-    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + NEW_DELETION
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DELETION, false));
+    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_DELETION + SLASH, REL_FONDS_STRUCTURE_NEW_DELETION));
     }
 
     @Override
-    public void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + SCREENING
-                + SLASH, REL_FONDS_STRUCTURE_SCREENING, false));
+    public void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH + SCREENING +
+                SLASH, REL_FONDS_STRUCTURE_SCREENING));
     }
 
     @Override
-    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH + NEW_SCREENING
-                + SLASH, REL_FONDS_STRUCTURE_NEW_SCREENING, false));
+    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH +
+                NEW_SCREENING + SLASH, REL_FONDS_STRUCTURE_NEW_SCREENING));
     }
 }
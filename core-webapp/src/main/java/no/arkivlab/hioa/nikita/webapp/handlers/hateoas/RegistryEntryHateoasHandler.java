@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IRegistryEntryHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -21,88 +20,97 @@ import static nikita.config.N5ResourceMappings.*;
 public class RegistryEntryHateoasHandler extends BasicRecordHateoasHandler implements IRegistryEntryHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
 
-        super.addEntityLinks(entity, hateoasNoarkObject);
-        addElectronicSignature(entity, hateoasNoarkObject);
-        addNewElectronicSignature(entity, hateoasNoarkObject);
-        addPrecedence(entity, hateoasNoarkObject);
-        addNewPrecedence(entity, hateoasNoarkObject);
-        addSignOff(entity, hateoasNoarkObject);
-        addNewSignOff(entity, hateoasNoarkObject);
-        addDocumentFlow(entity, hateoasNoarkObject);
-        addNewDocumentFlow(entity, hateoasNoarkObject);
-        addCorrespondencePart(entity, hateoasNoarkObject);
-        addNewCorrespondencePart(entity, hateoasNoarkObject);
+        super.addEntityLinks(entity, hateoasNoarkObject, context);
+        addElectronicSignature(entity, hateoasNoarkObject, context);
+        addNewElectronicSignature(entity, hateoasNoarkObject, context);
+        addPrecedence(entity, hateoasNoarkObject, context);
+        addNewPrecedence(entity, hateoasNoarkObject, context);
+        addSignOff(entity, hateoasNoarkObject, context);
+        addNewSignOff(entity, hateoasNoarkObject, context);
+        addDocumentFlow(entity, hateoasNoarkObject, context);
+        addNewDocumentFlow(entity, hateoasNoarkObject, context);
+        addCorrespondencePart(entity, hateoasNoarkObject, context);
+        addNewCorrespondencePart(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + ELECTRONIC_SIGNATURE + SLASH, REL_FONDS_STRUCTURE_ELECTRONIC_SIGNATURE, false));
+    public void addElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + ELECTRONIC_SIGNATURE + SLASH,
+                REL_FONDS_STRUCTURE_ELECTRONIC_SIGNATURE));
     }
 
     @Override
-    public void addNewElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + NEW_ELECTRONIC_SIGNATURE + SLASH, REL_FONDS_STRUCTURE_NEW_ELECTRONIC_SIGNATURE, false));
+    public void addNewElectronicSignature(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                          LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + NEW_ELECTRONIC_SIGNATURE + SLASH,
+                REL_FONDS_STRUCTURE_NEW_ELECTRONIC_SIGNATURE));
     }
 
     @Override
-    public void addPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + PRECEDENCE + SLASH, REL_FONDS_STRUCTURE_PRECEDENCE, false));
+    public void addPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + PRECEDENCE + SLASH,
+                REL_FONDS_STRUCTURE_PRECEDENCE));
     }
 
     @Override
-    public void addNewPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + NEW_PRECEDENCE + SLASH, REL_FONDS_STRUCTURE_NEW_PRECEDENCE, false));
+    public void addNewPrecedence(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + NEW_PRECEDENCE + SLASH,
+                REL_FONDS_STRUCTURE_NEW_PRECEDENCE));
     }
 
     @Override
-    public void addSignOff(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + SIGN_OFF + SLASH, REL_FONDS_STRUCTURE_SIGN_OFF, false));
+    public void addSignOff(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + SIGN_OFF + SLASH, REL_FONDS_STRUCTURE_SIGN_OFF));
     }
 
     @Override
-    public void addNewSignOff(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + NEW_SIGN_OFF + SLASH, REL_FONDS_STRUCTURE_NEW_SIGN_OFF, false));
+    public void addNewSignOff(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + NEW_SIGN_OFF + SLASH,
+                REL_FONDS_STRUCTURE_NEW_SIGN_OFF));
     }
 
     @Override
-    public void addDocumentFlow(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + DOCUMENT_FLOW + SLASH, REL_FONDS_STRUCTURE_DOCUMENT_FLOW, false));
+    public void addDocumentFlow(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + DOCUMENT_FLOW + SLASH,
+                REL_FONDS_STRUCTURE_DOCUMENT_FLOW));
     }
 
     @Override
-    public void addNewDocumentFlow(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + NEW_DOCUMENT_FLOW + SLASH, REL_FONDS_STRUCTURE_NEW_DOCUMENT_FLOW, false));
+    public void addNewDocumentFlow(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + NEW_DOCUMENT_FLOW + SLASH,
+                REL_FONDS_STRUCTURE_NEW_DOCUMENT_FLOW));
     }
 
     @Override
-    public void addCorrespondencePart(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + CORRESPONDENCE_PART + SLASH, REL_FONDS_STRUCTURE_CORRESPONDENCE_PART, false));
+    public void addCorrespondencePart(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + CORRESPONDENCE_PART + SLASH,
+                REL_FONDS_STRUCTURE_CORRESPONDENCE_PART));
     }
 
     @Override
-    public void addNewCorrespondencePart(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRY_ENTRY + SLASH +
-                entity.getSystemId() + SLASH + NEW_CORRESPONDENCE_PART + SLASH, REL_FONDS_STRUCTURE_NEW_CORRESPONDENCE_PART, false));
+    public void addNewCorrespondencePart(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                         LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRY_ENTRY + SLASH, entity.getSystemId(), SLASH + NEW_CORRESPONDENCE_PART + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CORRESPONDENCE_PART));
     }
 }
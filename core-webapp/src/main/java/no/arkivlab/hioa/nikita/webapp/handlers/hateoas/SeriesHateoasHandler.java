@@ -1,7 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.ISeriesHateoasHandler;
 import org.springframework.stereotype.Component;
@@ -28,55 +27,57 @@ import static nikita.config.N5ResourceMappings.*;
 public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateoasHandler {
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addDocumentMedium(entity, hateoasNoarkObject);
-        addNewRegistration(entity, hateoasNoarkObject);
-        addNewFile(entity, hateoasNoarkObject);
-        addNewCaseFile(entity, hateoasNoarkObject);
-        addNewClassificationSystem(entity, hateoasNoarkObject);
-        addRegistration(entity, hateoasNoarkObject);
-        addFile(entity, hateoasNoarkObject);
-        addCaseFile(entity, hateoasNoarkObject);
-        addClassificationSystem(entity, hateoasNoarkObject);
-        addSeriesSuccessor(entity, hateoasNoarkObject);
-        addNewSeriesSuccessor(entity, hateoasNoarkObject);
-        addSeriesPrecursor(entity, hateoasNoarkObject);
-        addNewSeriesPrecursor(entity, hateoasNoarkObject);
-        addFonds(entity, hateoasNoarkObject);
-        addSeriesStatus(entity, hateoasNoarkObject);
-        addClassified(entity, hateoasNoarkObject);
-        addNewClassified(entity, hateoasNoarkObject);
-        addDisposal(entity, hateoasNoarkObject);
-        addNewDisposal(entity, hateoasNoarkObject);
-        addDisposalUndertaken(entity, hateoasNoarkObject);
-        addNewDisposalUndertaken(entity, hateoasNoarkObject);
-        addDeletion(entity, hateoasNoarkObject);
-        addNewDeletion(entity, hateoasNoarkObject);
-        addScreening(entity, hateoasNoarkObject);
-        addNewScreening(entity, hateoasNoarkObject);
-        addNewStorageLocation(entity, hateoasNoarkObject);
-        addListStorageLocation(entity, hateoasNoarkObject);
-        addNewListStorageLocation(entity, hateoasNoarkObject);
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        addDocumentMedium(entity, hateoasNoarkObject, context);
+        addNewRegistration(entity, hateoasNoarkObject, context);
+        addNewFile(entity, hateoasNoarkObject, context);
+        addNewCaseFile(entity, hateoasNoarkObject, context);
+        addNewClassificationSystem(entity, hateoasNoarkObject, context);
+        addRegistration(entity, hateoasNoarkObject, context);
+        addFile(entity, hateoasNoarkObject, context);
+        addCaseFile(entity, hateoasNoarkObject, context);
+        addClassificationSystem(entity, hateoasNoarkObject, context);
+        addSeriesSuccessor(entity, hateoasNoarkObject, context);
+        addNewSeriesSuccessor(entity, hateoasNoarkObject, context);
+        addSeriesPrecursor(entity, hateoasNoarkObject, context);
+        addNewSeriesPrecursor(entity, hateoasNoarkObject, context);
+        addFonds(entity, hateoasNoarkObject, context);
+        addSeriesStatus(entity, hateoasNoarkObject, context);
+        addClassified(entity, hateoasNoarkObject, context);
+        addNewClassified(entity, hateoasNoarkObject, context);
+        addDisposal(entity, hateoasNoarkObject, context);
+        addNewDisposal(entity, hateoasNoarkObject, context);
+        addDisposalUndertaken(entity, hateoasNoarkObject, context);
+        addNewDisposalUndertaken(entity, hateoasNoarkObject, context);
+        addDeletion(entity, hateoasNoarkObject, context);
+        addNewDeletion(entity, hateoasNoarkObject, context);
+        addScreening(entity, hateoasNoarkObject, context);
+        addNewScreening(entity, hateoasNoarkObject, context);
+        addNewStorageLocation(entity, hateoasNoarkObject, context);
+        addListStorageLocation(entity, hateoasNoarkObject, context);
+        addNewListStorageLocation(entity, hateoasNoarkObject, context);
     }
 
     @Override
     /**
      * Get a list of Series status values (GET)
      */
-    public void addSeriesStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + FONDS_STATUS + SLASH, REL_METADATA_FONDS_STATUS, false));
+    public void addSeriesStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH +
+                FONDS_STATUS + SLASH, REL_METADATA_FONDS_STATUS));
     }
 
     @Override
     /**
      * Get the successor Series (GET)
      */
-    public void addSeriesSuccessor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH
-                + SERIES_ASSOCIATE_AS_SUCCESSOR + SLASH, REL_FONDS_STRUCTURE_SUCCESSOR,
-                false));
+    public void addSeriesSuccessor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + SERIES_ASSOCIATE_AS_SUCCESSOR + SLASH,
+                REL_FONDS_STRUCTURE_SUCCESSOR));
     }
 
     @Override
@@ -84,11 +85,11 @@ public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateo
      * Associate an existing Series (A) as the successor of another existing Series (B). (A) becomes the
      * successor to (B). A is identified first, B is identified through a ref link (PUT)
      */
-    public void addNewSeriesSuccessor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH
-                + NEW_SERIES_SUCCESSOR + SLASH, REL_FONDS_STRUCTURE_NEW_SUCCESSOR,
-                false));
+    public void addNewSeriesSuccessor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_SERIES_SUCCESSOR + SLASH,
+                REL_FONDS_STRUCTURE_NEW_SUCCESSOR));
 
     }
 
@@ -96,11 +97,10 @@ public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateo
     /**
      * Get the precursor Series object (GET)
      */
-    public void addSeriesPrecursor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH +
-                SERIES_PRECURSOR + SLASH, REL_FONDS_STRUCTURE_PRECURSOR,
-                false));
+    public void addSeriesPrecursor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + SERIES_PRECURSOR + SLASH, REL_FONDS_STRUCTURE_PRECURSOR));
     }
 
     @Override
@@ -108,23 +108,23 @@ public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateo
      * Associate an existing Series (A) as the precursor  of another existing Series (B). (A) becomes the
      * precursor to (B). A is identified first, B is identified through a ref link (PUT)
      */
-    public void addNewSeriesPrecursor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH +
-                NEW_SERIES_PRECURSOR + SLASH, REL_FONDS_STRUCTURE_NEW_PRECURSOR,
-                false));
+    public void addNewSeriesPrecursor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_SERIES_PRECURSOR + SLASH,
+                REL_FONDS_STRUCTURE_NEW_PRECURSOR));
     }
 
     @Override
     /**
      * Add a new registration to a Series (POST)
      */
-    public void addNewRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        if (authorisation.canCreateRegistrationAttachedToSeries()) {
-            hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                    NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH +
-                    NEW_RECORD + SLASH, REL_FONDS_STRUCTURE_NEW_REGISTRATION,
-                    false));
+    public void addNewRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                   LinkContext context) {
+        if (context.getAuthorisation().canCreateRegistrationAttachedToSeries()) {
+            hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH +
+                    SLASH + SERIES + SLASH, entity.getSystemId(), SLASH + NEW_RECORD + SLASH,
+                    REL_FONDS_STRUCTURE_NEW_REGISTRATION));
         }
     }
 
@@ -132,11 +132,11 @@ public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateo
     /**
      * Add a new File to a Series (POST)
      */
-    public void addNewFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        if (authorisation.canCreateFileAttachedToSeries()) {
-            hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                    NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH
-                    + NEW_FILE + SLASH, REL_FONDS_STRUCTURE_NEW_FILE, false));
+    public void addNewFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        if (context.getAuthorisation().canCreateFileAttachedToSeries()) {
+            hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH +
+                    SLASH + SERIES + SLASH, entity.getSystemId(), SLASH + NEW_FILE + SLASH,
+                    REL_FONDS_STRUCTURE_NEW_FILE));
         }
     }
 
@@ -144,23 +144,24 @@ public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateo
     /**
      * Add a new CaseFile to a Series (POST)
      */
-    public void addNewCaseFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        if (authorisation.canCreateFileAttachedToSeries()) {
-            hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                    NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH
-                    + NEW_CASE_FILE + SLASH, REL_FONDS_STRUCTURE_NEW_CASE_FILE, false));
+    public void addNewCaseFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        if (context.getAuthorisation().canCreateFileAttachedToSeries()) {
+            hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH +
+                    SLASH + SERIES + SLASH, entity.getSystemId(), SLASH + NEW_CASE_FILE + SLASH,
+                    REL_FONDS_STRUCTURE_NEW_CASE_FILE));
         }
     }
     @Override
     /**
      * Associate an existing ClassificationSystem as the precursor of an existing Series (PUT)
      */
-    public void addNewClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        if (authorisation.canCreateClassifcationSystemAttachedToSeries()) {
-            hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                    NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASSIFICATION_SYSTEM +
-                    SLASH + entity.getSystemId() + SLASH + NEW_CLASSIFICATION_SYSTEM + SLASH,
-                    REL_FONDS_STRUCTURE_NEW_CLASSIFICATION_SYSTEM, false));
+    public void addNewClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                           LinkContext context) {
+        if (context.getAuthorisation().canCreateClassifcationSystemAttachedToSeries()) {
+            hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH +
+                    SLASH + CLASSIFICATION_SYSTEM + SLASH, entity.getSystemId(), SLASH + NEW_CLASSIFICATION_SYSTEM +
+                    SLASH, REL_FONDS_STRUCTURE_NEW_CLASSIFICATION_SYSTEM));
         }
     }
 
@@ -168,44 +169,40 @@ public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateo
     /**
      * Get a list of Registration objects associated with a Series (paginated) (GET)
      */
-    public void addRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRATION +
-                SLASH + entity.getSystemId() + SLASH + REGISTRATION + SLASH, REL_FONDS_STRUCTURE_REGISTRATION,
-                false));
+    public void addRegistration(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                REGISTRATION + SLASH, entity.getSystemId(), SLASH + REGISTRATION + SLASH,
+                REL_FONDS_STRUCTURE_REGISTRATION));
     }
 
     @Override
     /**
      * Get a list of File objects associated with a Series (paginated) (GET)
      */
-    public void addFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES +
-                SLASH + entity.getSystemId() + SLASH + FILE + SLASH, REL_FONDS_STRUCTURE_FILE,
-                false));
+    public void addFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + FILE + SLASH, REL_FONDS_STRUCTURE_FILE));
     }
 
     @Override
     /**
      * Get a list of CaseFile objects associated with a Series (paginated) (GET)
      */
-    public void addCaseFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES +
-                SLASH + entity.getSystemId() + SLASH + CASE_FILE + SLASH, REL_FONDS_STRUCTURE_CASE_FILE,
-                false));
+    public void addCaseFile(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + CASE_FILE + SLASH, REL_FONDS_STRUCTURE_CASE_FILE));
     }
 
     @Override
     /**
      * Get the ClassificationSystem associated with the Series (GET)
      */
-    public void addClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES +
-                SLASH + entity.getSystemId() + SLASH + CLASSIFICATION_SYSTEM + SLASH,
-                REL_FONDS_STRUCTURE_CLASSIFICATION_SYSTEM, false));
+    public void addClassificationSystem(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                        LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + CLASSIFICATION_SYSTEM + SLASH,
+                REL_FONDS_STRUCTURE_CLASSIFICATION_SYSTEM));
 
     }
 
@@ -213,141 +210,143 @@ public class SeriesHateoasHandler extends HateoasHandler implements ISeriesHateo
     /**
      * Get the Fonds associated with the Series (GET)
      */
-    public void addFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES +
-                SLASH + entity.getSystemId() + SLASH + FONDS + SLASH,
-                REL_FONDS_STRUCTURE_FONDS, false));
+    public void addFonds(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + FONDS + SLASH, REL_FONDS_STRUCTURE_FONDS));
     }
 
     @Override
     /**
      * Get the Classified associated with the Series (GET)
      */
-    public void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + CLASSIFIED
-                + SLASH, REL_FONDS_STRUCTURE_CLASSIFIED, false));
+    public void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                              LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + CLASSIFIED + SLASH, REL_FONDS_STRUCTURE_CLASSIFIED));
     }
 
     @Override
     /**
      * Add a new Classified to a Series (POST)
      */
-    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH +
-                NEW_CLASSIFIED + SLASH, REL_FONDS_STRUCTURE_NEW_CLASSIFIED, false));
+    public void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                 LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_CLASSIFIED + SLASH,
+                REL_FONDS_STRUCTURE_NEW_CLASSIFIED));
     }
 
     @Override
     /**
      * Get the Disposal associated with the Series (GET)
      */
-    public void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + DISPOSAL
-                + SLASH, REL_FONDS_STRUCTURE_DISPOSAL, false));
+    public void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + DISPOSAL + SLASH, REL_FONDS_STRUCTURE_DISPOSAL));
     }
 
     @Override
     /**
      * Add a new Disposal to a Series (POST)
      */
-    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + NEW_DISPOSAL
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL, false));
+    public void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_DISPOSAL + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL));
     }
 
     @Override
     /**
      * Get the DisposalUndertaken associated with the Series (GET)
      */
-    public void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + DISPOSAL_UNDERTAKEN
-                + SLASH, REL_FONDS_STRUCTURE_DISPOSAL_UNDERTAKEN, false));
+    public void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + DISPOSAL_UNDERTAKEN + SLASH,
+                REL_FONDS_STRUCTURE_DISPOSAL_UNDERTAKEN));
     }
 
     @Override
     /**
      * Add a new DisposalUndertaken to a Series (POST)
      */
-    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + NEW_DISPOSAL_UNDERTAKEN
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN, false));
+    public void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                         LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_DISPOSAL_UNDERTAKEN + SLASH,
+                REL_FONDS_STRUCTURE_NEW_DISPOSAL_UNDERTAKEN));
     }
 
     @Override
     /**
      * Get the Deletion associated with the Series object (GET)
      */
-    public void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + DELETION
-                + SLASH, REL_FONDS_STRUCTURE_DELETION, false));
+    public void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + DELETION + SLASH, REL_FONDS_STRUCTURE_DELETION));
     }
 
     @Override
     /**
      * Add a new Deletion to a Series (POST)
      */
-    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + NEW_DELETION
-                + SLASH, REL_FONDS_STRUCTURE_NEW_DELETION, false));
+    public void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_DELETION + SLASH, REL_FONDS_STRUCTURE_NEW_DELETION));
     }
 
     @Override
     /**
      * Get the Screening associated with the Series (GET)
      */
-    public void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + SCREENING
-                + SLASH, REL_FONDS_STRUCTURE_SCREENING, false));
+    public void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + SCREENING + SLASH, REL_FONDS_STRUCTURE_SCREENING));
     }
 
     @Override
     /**
      * Add a new Screening to a Series (POST)
      */
-    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH + NEW_SCREENING
-                + SLASH, REL_FONDS_STRUCTURE_NEW_SCREENING, false));
+    public void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_SCREENING + SLASH,
+                REL_FONDS_STRUCTURE_NEW_SCREENING));
     }
 
     @Override
     /**
      * Get a list of StorageLocation associated with the Series  (GET)
      */
-    public void addListStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH +
-                STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_STORAGE_LOCATION, false));
+    public void addListStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                       LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + STORAGE_LOCATION + SLASH,
+                REL_FONDS_STRUCTURE_STORAGE_LOCATION));
     }
 
     @Override
     /**
      * Add a new StorageLocation to be associated with the Series (POST)
      */
-    public void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH +
-                NEW_STORAGE_LOCATION + SLASH, REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION, false));
+    public void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                      LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_STORAGE_LOCATION + SLASH,
+                REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION));
     }
 
     @Override
     /**
      * Add a new list of StorageLocation to be associated with the Series (POST)
      */
-    public void addNewListStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES + SLASH + entity.getSystemId() + SLASH +
-                NEW_STORAGE_LOCATIONS + SLASH, REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION_LIST, false));
+    public void addNewListStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                          LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH +
+                SERIES + SLASH, entity.getSystemId(), SLASH + NEW_STORAGE_LOCATIONS + SLASH,
+                REL_FONDS_STRUCTURE_NEW_STORAGE_LOCATION_LIST));
     }
 
 }
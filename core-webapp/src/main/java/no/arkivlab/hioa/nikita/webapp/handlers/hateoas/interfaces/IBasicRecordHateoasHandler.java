@@ -2,6 +2,7 @@ package no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 
 /**
  * Created by tsodring on 2/6/17.
@@ -10,23 +11,24 @@ import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
  */
 public interface IBasicRecordHateoasHandler extends IRecordHateoasHandler {
 
-    void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context);
 
-    void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewCrossReference(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewKeyword(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 }
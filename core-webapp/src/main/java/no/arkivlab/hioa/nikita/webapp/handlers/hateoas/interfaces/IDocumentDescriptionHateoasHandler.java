@@ -2,6 +2,7 @@ package no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 
 /**
  * Created by tsodring on 2/6/17.
@@ -10,51 +11,55 @@ import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
  */
 public interface IDocumentDescriptionHateoasHandler extends IHateoasHandler {
 
-    void addRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addRecord(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewDocumentObject(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewReferenceSeries(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context);
 
-    void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewClassified(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewDisposal(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context);
 
-    void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewDisposalUndertaken(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                  LinkContext context);
 
-    void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewDeletion(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewScreening(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewStorageLocation(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context);
 
-    void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewComment(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addNewAuthor(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addDocumentType(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addDocumentType(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addDocumentStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addDocumentStatus(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
 }
 
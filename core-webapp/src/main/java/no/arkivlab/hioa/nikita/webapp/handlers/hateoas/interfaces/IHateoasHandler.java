@@ -2,6 +2,7 @@ package no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.security.IAuthorisation;
 
 import javax.servlet.http.HttpServletRequest;
@@ -16,11 +17,25 @@ public interface IHateoasHandler {
     void addLinks(IHateoasNoarkObject hateoasNoarkObject, HttpServletRequest request,
                   IAuthorisation authorisation);
 
-    void addSelfLink(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    /**
+     * Add the links of the entities in hateoasNoarkObject, with a context created earlier for the request. Used
+     * when a response is streamed, and links are added to one entity at a time.
+     */
+    void addLinks(IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addSelfLink(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addDocumentMedium(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    /**
+     * Add a link to the next page of a paginated list. The link is only added if the list filled a page, as
+     * there might be more entities after it.
+     *
+     * @param top the page size the client asked for, or null
+     */
+    void addNextLink(IHateoasNoarkObject hateoasNoarkObject, HttpServletRequest request, Integer top);
+
+    void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
+
+    void addDocumentMedium(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
     void addLinksOnCreate(IHateoasNoarkObject hateoasNoarkObject,
                           HttpServletRequest request, IAuthorisation authorisation);
@@ -38,11 +53,12 @@ public interface IHateoasHandler {
                        HttpServletRequest request, IAuthorisation authorisation);
 
     // In many ways, these should be private
-    void addEntityLinksOnCreate(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addEntityLinksOnCreate(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                                LinkContext context);
 
-    void addEntityLinksOnRead(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addEntityLinksOnRead(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
-    void addEntityLinksOnNew(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject);
+    void addEntityLinksOnNew(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context);
 
 
 }
@@ -1,9 +1,9 @@
 package no.arkivlab.hioa.nikita.webapp.handlers.hateoas.metadata;
 
 import nikita.model.noark5.v4.hateoas.IHateoasNoarkObject;
-import nikita.model.noark5.v4.hateoas.Link;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.HateoasHandler;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.metadata.IMetadataHateoasHandler;
 import org.springframework.stereotype.Component;
 
@@ -18,29 +18,25 @@ import static nikita.config.Constants.*;
 public class MetadataHateoasHandler extends HateoasHandler implements IMetadataHateoasHandler {
 
     @Override
-    public void addSelfLink(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        String systemId = entity.getSystemId();
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + entity.getBaseTypeName() + SLASH + systemId + SLASH,
-                getRelSelfLink(), false));
+    protected String getStructurePath() {
+        return NOARK_METADATA_PATH;
     }
 
     @Override
-    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        addCode(entity, hateoasNoarkObject);
+    public void addEntityLinks(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject,
+                               LinkContext context) {
+        addCode(entity, hateoasNoarkObject, context);
     }
 
     @Override
-    public void addCode(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + entity.getBaseTypeName() + SLASH + entity.getSystemId() + SLASH,
-                REL_METADATA + entity.getBaseTypeName() + SLASH, false));
+    public void addCode(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(getEntityPath(entity), entity.getSystemId(), SLASH,
+                REL_METADATA + entity.getBaseTypeName() + SLASH));
     }
 
     @Override
-    public void addNewCode(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject) {
-        hateoasNoarkObject.addLink(entity, new Link(contextPath + HATEOAS_API_PATH + SLASH +
-                NOARK_METADATA_PATH + SLASH + NEW + DASH + entity.getBaseTypeName(),
-                REL_METADATA + NEW + DASH + entity.getBaseTypeName() + SLASH, false));
+    public void addNewCode(INoarkSystemIdEntity entity, IHateoasNoarkObject hateoasNoarkObject, LinkContext context) {
+        hateoasNoarkObject.addLink(entity, context.link(HATEOAS_API_PATH + SLASH + NOARK_METADATA_PATH + SLASH + NEW +
+                DASH + entity.getBaseTypeName(), REL_METADATA + NEW + DASH + entity.getBaseTypeName() + SLASH));
     }
 }
@@ -0,0 +1,121 @@
+package no.arkivlab.hioa.nikita.webapp.model.storage;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * One pass of the fixity audit over all DocumentObjects. lastDocumentObjectId is the checkpoint: every
+ * DocumentObject with a lower or equal id has been checked. A run without a finishedDate was interrupted and
+ * is resumed from its checkpoint.
+ */
+@Entity
+@Table(name = "nikita_fixity_audit_run")
+public class FixityAuditRun {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fixity_audit_run_seq")
+    @SequenceGenerator(name = "fixity_audit_run_seq", sequenceName = "fixity_audit_run_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "started_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startedDate;
+
+    @Column(name = "finished_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date finishedDate;
+
+    @Column(name = "last_document_object_id")
+    private Long lastDocumentObjectId = 0L;
+
+    @Column(name = "examined")
+    private long examined;
+
+    @Column(name = "passed")
+    private long passed;
+
+    @Column(name = "failed")
+    private long failed;
+
+    @Column(name = "bytes_read")
+    private long bytesRead;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Date getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Date startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Date getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Date finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    public Long getLastDocumentObjectId() {
+        return lastDocumentObjectId;
+    }
+
+    public void setLastDocumentObjectId(Long lastDocumentObjectId) {
+        this.lastDocumentObjectId = lastDocumentObjectId;
+    }
+
+    public long getExamined() {
+        return examined;
+    }
+
+    public void setExamined(long examined) {
+        this.examined = examined;
+    }
+
+    public long getPassed() {
+        return passed;
+    }
+
+    public void setPassed(long passed) {
+        this.passed = passed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public String toString() {
+        return "FixityAuditRun{" +
+                "id=" + id +
+                ", startedDate=" + startedDate +
+                ", finishedDate=" + finishedDate +
+                ", lastDocumentObjectId=" + lastDocumentObjectId +
+                ", examined=" + examined +
+                ", passed=" + passed +
+                ", failed=" + failed +
+                ", bytesRead=" + bytesRead +
+                '}';
+    }
+}
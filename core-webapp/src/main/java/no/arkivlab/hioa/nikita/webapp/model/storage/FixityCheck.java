@@ -0,0 +1,137 @@
+package no.arkivlab.hioa.nikita.webapp.model.storage;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * The result of the latest fixity check of the file of a DocumentObject. There is at most one FixityCheck
+ * per DocumentObject, it is overwritten every time the file is checked.
+ */
+@Entity
+@Table(name = "nikita_fixity_check")
+public class FixityCheck {
+
+    @Id
+    @Column(name = "document_object_id")
+    private Long documentObjectId;
+
+    @Column(name = "system_id")
+    private String systemId;
+
+    @Column(name = "reference_document_file")
+    private String referenceDocumentFile;
+
+    @Column(name = "checksum_algorithm")
+    private String checksumAlgorithm;
+
+    @Column(name = "expected_checksum")
+    private String expectedChecksum;
+
+    @Column(name = "actual_checksum")
+    private String actualChecksum;
+
+    @Column(name = "status", length = 20)
+    @Enumerated(EnumType.STRING)
+    private FixityStatus status;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Column(name = "checked_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date checkedDate;
+
+    @Column(name = "fixity_audit_run_id")
+    private Long fixityAuditRunId;
+
+    public Long getDocumentObjectId() {
+        return documentObjectId;
+    }
+
+    public void setDocumentObjectId(Long documentObjectId) {
+        this.documentObjectId = documentObjectId;
+    }
+
+    public String getSystemId() {
+        return systemId;
+    }
+
+    public void setSystemId(String systemId) {
+        this.systemId = systemId;
+    }
+
+    public String getReferenceDocumentFile() {
+        return referenceDocumentFile;
+    }
+
+    public void setReferenceDocumentFile(String referenceDocumentFile) {
+        this.referenceDocumentFile = referenceDocumentFile;
+    }
+
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    public void setChecksumAlgorithm(String checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    public String getExpectedChecksum() {
+        return expectedChecksum;
+    }
+
+    public void setExpectedChecksum(String expectedChecksum) {
+        this.expectedChecksum = expectedChecksum;
+    }
+
+    public String getActualChecksum() {
+        return actualChecksum;
+    }
+
+    public void setActualChecksum(String actualChecksum) {
+        this.actualChecksum = actualChecksum;
+    }
+
+    public FixityStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(FixityStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Date getCheckedDate() {
+        return checkedDate;
+    }
+
+    public void setCheckedDate(Date checkedDate) {
+        this.checkedDate = checkedDate;
+    }
+
+    public Long getFixityAuditRunId() {
+        return fixityAuditRunId;
+    }
+
+    public void setFixityAuditRunId(Long fixityAuditRunId) {
+        this.fixityAuditRunId = fixityAuditRunId;
+    }
+
+    @Override
+    public String toString() {
+        return "FixityCheck{" +
+                "documentObjectId=" + documentObjectId +
+                ", systemId='" + systemId + '\'' +
+                ", referenceDocumentFile='" + referenceDocumentFile + '\'' +
+                ", status=" + status +
+                ", checkedDate=" + checkedDate +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package no.arkivlab.hioa.nikita.webapp.model.storage;
+
+public enum FixityStatus {
+    // The stored file has the checksum recorded on the DocumentObject
+    OK,
+    // The stored file has a different checksum than the one recorded
+    MISMATCH,
+    // There is no stored file at referenceDocumentFile
+    MISSING,
+    // The file could not be read, or the checksum algorithm is unknown
+    ERROR
+}
@@ -0,0 +1,74 @@
+package no.arkivlab.hioa.nikita.webapp.run;
+
+import nikita.extraction.ExtractionStatistics;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.extraction.IArchiveExtractionService;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NikitaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Extracts a fonds into a Noark 5 extraction package from the command line, and exits once it is extracted:
+ * <p>
+ * java -jar core-webapp.jar --extract-fonds=[systemID] [--extract-package=[package]] [--extract-prior=[package]]
+ * <p>
+ * The package is named relative to the extraction directory (nikita-noark5-core.extraction.directory), and is
+ * named after the systemID of the fonds if not given. Given extract-prior, a package of an earlier extraction of
+ * the fonds, only what has changed since is extracted. The exit code is 0 if the fonds was extracted, 1 if not.
+ * Without --extract-fonds the application starts as usual.
+ */
+@Component
+public class ArchiveExtractionRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveExtractionRunner.class);
+
+    public static final String EXTRACT_FONDS_OPTION = "extract-fonds";
+    public static final String EXTRACT_PACKAGE_OPTION = "extract-package";
+    public static final String EXTRACT_PRIOR_OPTION = "extract-prior";
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private IArchiveExtractionService archiveExtractionService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String fondsSystemId = getOption(args, EXTRACT_FONDS_OPTION);
+        if (fondsSystemId == null) {
+            return;
+        }
+        String packageName = getOption(args, EXTRACT_PACKAGE_OPTION);
+        if (packageName == null) {
+            packageName = fondsSystemId;
+        }
+
+        int exitCode;
+        try {
+            ExtractionStatistics statistics = archiveExtractionService.extractFonds(fondsSystemId, packageName,
+                    getOption(args, EXTRACT_PRIOR_OPTION));
+            logger.info("Extracted fonds " + fondsSystemId + " to package " + packageName + ": " + statistics);
+            exitCode = 0;
+        } catch (NikitaException | nikita.util.exceptions.NikitaException e) {
+            logger.error(e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private static String getOption(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.get(0);
+    }
+}
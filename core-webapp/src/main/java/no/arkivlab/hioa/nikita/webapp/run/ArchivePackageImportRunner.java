@@ -0,0 +1,72 @@
+package no.arkivlab.hioa.nikita.webapp.run;
+
+import nikita.extraction.ExtractionStatistics;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IArchivePackageImportService;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NikitaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Imports a Noark 5 extraction package from the command line, and exits once it is imported:
+ * <p>
+ * java -jar core-webapp.jar --import-package=[package] [--import-owner=[user]]
+ * <p>
+ * The package is named relative to the package directory (nikita-noark5-core.import.packages.directory), and the
+ * imported entities are owned by import-owner, admin if not given. The exit code is 0 if the package was
+ * imported, 1 if not. Without --import-package the application starts as usual.
+ */
+@Component
+public class ArchivePackageImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivePackageImportRunner.class);
+
+    public static final String IMPORT_PACKAGE_OPTION = "import-package";
+    public static final String IMPORT_OWNER_OPTION = "import-owner";
+    public static final String DEFAULT_IMPORT_OWNER = "admin";
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private IArchivePackageImportService archivePackageImportService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String packageName = getOption(args, IMPORT_PACKAGE_OPTION);
+        if (packageName == null) {
+            return;
+        }
+        String owner = getOption(args, IMPORT_OWNER_OPTION);
+        if (owner == null) {
+            owner = DEFAULT_IMPORT_OWNER;
+        }
+
+        int exitCode;
+        try {
+            ExtractionStatistics statistics = archivePackageImportService.importPackage(packageName, owner);
+            logger.info("Imported package " + packageName + ": " + statistics);
+            exitCode = 0;
+        } catch (NikitaException | nikita.util.exceptions.NikitaException e) {
+            logger.error(e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private static String getOption(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.get(0);
+    }
+}
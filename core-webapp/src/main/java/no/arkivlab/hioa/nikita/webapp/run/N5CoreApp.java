@@ -15,6 +15,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -29,6 +30,8 @@ import java.util.Arrays;
 
 //Enabling asynchronous handling for application events
 @EnableAsync
+// Enabling scheduled jobs, e.g. the fixity audit of stored documents
+@EnableScheduling
 @ComponentScan({"no.arkivlab.hioa.nikita.webapp.spring.datasource",
         "no.arkivlab.hioa.nikita.webapp.spring.security",
         "no.arkivlab.hioa.nikita.webapp.web",
@@ -53,6 +56,7 @@ public class N5CoreApp extends SpringBootServletInitializer {
             SecurityConfig.class,
             SecurityOffConfig.class,
             ServiceConfig.class,
+            CacheConfig.class,
             ServletConfig.class,
             //Pac4JConfig.class,
             AppWebMvcConfiguration.class,
@@ -0,0 +1,97 @@
+package no.arkivlab.hioa.nikita.webapp.security;
+
+import no.arkivlab.hioa.nikita.webapp.model.security.Authority;
+import no.arkivlab.hioa.nikita.webapp.model.security.User;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Evicts the tokens of a user from the JwtAuthenticationCache when the user is changed or deleted, e.g. its
+ * password, enabled flag or authorities, so that the next request with one of its tokens is validated against
+ * the user as it is in the database. A change to an authority evicts every token, as any user may have it.
+ * <p>
+ * Users and authorities are evicted once the transaction that changed them has committed. The authorities of a
+ * user are a collection of their own to Hibernate, for which there is no event after commit, so a user is
+ * evicted when its authorities are flushed, and again when the transaction completes. A request validated
+ * between the flush and the commit still sees the old authorities and may cache them again.
+ */
+@Component
+public class AuthenticationCacheEvictor implements PostCommitUpdateEventListener, PostCommitDeleteEventListener,
+        PostCollectionUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JwtAuthenticationCache authenticationCache;
+
+    public AuthenticationCacheEvictor(EntityManagerFactory entityManagerFactory,
+                                      JwtAuthenticationCache authenticationCache) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.authenticationCache = authenticationCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry listenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        listenerRegistry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+        if (owner instanceof User || owner instanceof Authority) {
+            evict(owner);
+            event.getSession().getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, session) -> evict(owner));
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was committed, so the cached users are as they are in the database
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was committed, so the cached users are as they are in the database
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == User.class || entityClass == Authority.class;
+    }
+
+    private void evict(Object entity) {
+        if (entity instanceof User) {
+            authenticationCache.evictUser(((User) entity).getId());
+        } else if (entity instanceof Authority) {
+            authenticationCache.evictAll();
+        }
+    }
+}
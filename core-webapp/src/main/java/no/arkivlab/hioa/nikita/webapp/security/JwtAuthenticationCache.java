@@ -0,0 +1,111 @@
+package no.arkivlab.hioa.nikita.webapp.security;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The users of tokens that have been validated, so that a client sending the same token again is authenticated
+ * without verifying the signature of the token or reading the user and its authorities from the database.
+ * <p>
+ * Tokens are held by their SHA-256 hash, not as they are. An entry is used until the token expires, but no longer
+ * than jwt.cache.timeToLive seconds, so a change to a user that is not evicted here, e.g. made directly in the
+ * database, is seen within that time. Changes made through JPA to a user, its authorities or an authority are
+ * evicted by the AuthenticationCacheEvictor once committed.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private final Cache<String, Entry> cache;
+
+    public JwtAuthenticationCache(@Value("${jwt.cache.maximumSize:10000}") long maximumSize,
+                                  @Value("${jwt.cache.timeToLive:300}") long timeToLive,
+                                  MetricRegistry metricRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        metricRegistry.register(MetricRegistry.name("cache", "authentication", "hits"),
+                (Gauge<Long>) () -> cache.stats().hitCount());
+        metricRegistry.register(MetricRegistry.name("cache", "authentication", "misses"),
+                (Gauge<Long>) () -> cache.stats().missCount());
+        metricRegistry.register(MetricRegistry.name("cache", "authentication", "size"),
+                (Gauge<Long>) cache::size);
+    }
+
+    /**
+     * @return the user of token, or null if token has not been validated or has expired
+     */
+    public JwtUser get(String token) {
+        String key = hash(token);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiration <= System.currentTimeMillis()) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry.user;
+    }
+
+    /**
+     * A token that does not say when it expires is not cached, but validated on every request.
+     *
+     * @param token      a token that has been validated for user
+     * @param expiration when token expires, null if the token has no expiration
+     */
+    public void put(String token, JwtUser user, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        cache.put(hash(token), new Entry(user, expiration.getTime()));
+    }
+
+    /**
+     * Forget the tokens of a user, e.g. as the user has been changed or deleted. The next request with any of them
+     * is validated against the user as it is in the database.
+     */
+    public void evictUser(Long userId) {
+        cache.asMap().values().removeIf(entry -> userId.equals(entry.user.getId()));
+    }
+
+    /**
+     * Forget all tokens, e.g. as an authority several users may have has been changed.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final JwtUser user;
+        private final long expiration;
+
+        private Entry(JwtUser user, long expiration) {
+            this.user = user;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -6,8 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -27,32 +27,58 @@ public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
     @Value("${jwt.header}")
     private String tokenHeader;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         String authToken = request.getHeader(this.tokenHeader);
-        String username = jwtTokenUtil.getUsernameFromToken(authToken);
-
-        logger.info("checking authentication für user " + username);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            // It is not compelling necessary to load the use details from the database. You could also store the information
-            // in the token and read it from it. It's up to you ;)
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            // For simple validation it is completely sufficient to just check the token integrity. You don't have to call
-            // the database compellingly. Again it's up to you ;)
-            if (jwtTokenUtil.validateToken(authToken, userDetails)) {
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        if (authToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // A token seen before is trusted until it expires, without checking it or the user again
+            JwtUser user = authenticationCache.get(authToken);
+            if (user == null) {
+                user = validate(authToken);
+            }
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                logger.info("authenticated user " + username + ", setting security context");
+                if (logger.isDebugEnabled()) {
+                    logger.debug("authenticated user " + user.getUsername() + ", setting security context");
+                }
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
 
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Check the token against the user in the database, and remember the user of a valid token.
+     *
+     * @return the user of the token, or null if the token is not valid
+     */
+    private JwtUser validate(String authToken) {
+        String username = jwtTokenUtil.getUsernameFromToken(authToken);
+        if (username == null) {
+            return null;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("checking authentication for user " + username);
+        }
+        JwtUser user;
+        try {
+            user = (JwtUser) this.userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        if (!jwtTokenUtil.validateToken(authToken, user)) {
+            return null;
+        }
+        authenticationCache.put(authToken, user, jwtTokenUtil.getExpirationDateFromToken(authToken));
+        return user;
+    }
+}
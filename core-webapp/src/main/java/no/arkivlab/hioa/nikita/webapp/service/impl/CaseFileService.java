@@ -7,18 +7,14 @@ import no.arkivlab.hioa.nikita.webapp.service.interfaces.ICaseFileService;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IRegistryEntryService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.List;
 
 import static nikita.config.Constants.INFO_CANNOT_FIND_OBJECT;
@@ -38,8 +34,6 @@ public class CaseFileService implements ICaseFileService {
     @Autowired
     EntityManager entityManager;
 
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
 
     public CaseFileService() {
     }
@@ -74,24 +68,7 @@ public class CaseFileService implements ICaseFileService {
 
     // All READ operations
     @Override
-    public List<CaseFile> findCaseFileByOwnerPaginated(Integer top, Integer skip) {
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
-
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<CaseFile> criteriaQuery = criteriaBuilder.createQuery(CaseFile.class);
-        Root<CaseFile> from = criteriaQuery.from(CaseFile.class);
-        CriteriaQuery<CaseFile> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<CaseFile> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<CaseFile> findCaseFileByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, CaseFile.class, top, skip, skipToken);
     }
 }
@@ -6,6 +6,7 @@ import no.arkivlab.hioa.nikita.webapp.service.interfaces.IClassService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityEditWhenClosedException;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,10 +18,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.Date;
 import java.util.List;
 
@@ -39,8 +36,6 @@ public class ClassService implements IClassService {
     @Autowired
     EntityManager entityManager;
 
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
 
     public ClassService() {
     }
@@ -385,24 +380,7 @@ public class ClassService implements IClassService {
 
     // All READ operations
     @Override
-    public List<Class> findClassByOwnerPaginated(Integer top, Integer skip) {
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
-
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Class> criteriaQuery = criteriaBuilder.createQuery(Class.class);
-        Root<Class> from = criteriaQuery.from(Class.class);
-        CriteriaQuery<Class> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<Class> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<Class> findClassByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, Class.class, top, skip, skipToken);
     }
 }
\ No newline at end of file
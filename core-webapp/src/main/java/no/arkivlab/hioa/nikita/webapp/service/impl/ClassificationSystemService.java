@@ -7,6 +7,7 @@ import no.arkivlab.hioa.nikita.webapp.service.interfaces.IClassService;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IClassificationSystemService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,10 +19,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.Date;
 import java.util.List;
 
@@ -42,8 +39,6 @@ public class ClassificationSystemService implements IClassificationSystemService
     @Autowired
     EntityManager entityManager;
 
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
 
     public ClassificationSystemService() {
     }
@@ -389,25 +384,8 @@ public class ClassificationSystemService implements IClassificationSystemService
 
     // All READ operations
     @Override
-    public List<ClassificationSystem> findClassificationSystemByOwnerPaginated(Integer top, Integer skip) {
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
-
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ClassificationSystem> criteriaQuery = criteriaBuilder.createQuery(ClassificationSystem.class);
-        Root<ClassificationSystem> from = criteriaQuery.from(ClassificationSystem.class);
-        CriteriaQuery<ClassificationSystem> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<ClassificationSystem> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<ClassificationSystem> findClassificationSystemByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, ClassificationSystem.class, top, skip, skipToken);
     }
 
 
@@ -5,6 +5,7 @@ import nikita.model.noark5.v4.DocumentObject;
 import nikita.repository.n5v4.IDocumentDescriptionRepository;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IDocumentDescriptionService;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,14 +17,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static nikita.config.Constants.INFO_CANNOT_FIND_OBJECT;
 
@@ -43,8 +41,6 @@ public class DocumentDescriptionService implements IDocumentDescriptionService {
     @Autowired
     EntityManager entityManager;
 
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
 
     public DocumentDescriptionService() {
     }
@@ -336,25 +332,17 @@ public class DocumentDescriptionService implements IDocumentDescriptionService {
 
     // All READ operations
     @Override
-    public List<DocumentDescription> findDocumentDescriptionByOwnerPaginated(Integer top, Integer skip) {
+    public List<DocumentDescription> findDocumentDescriptionByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, DocumentDescription.class, top, skip, skipToken);
+    }
 
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
+    public void forEachDocumentDescriptionByOwner(Consumer<DocumentDescription> action) {
+        Pagination.forEachByOwner(entityManager, DocumentDescription.class, action);
+    }
 
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<DocumentDescription> criteriaQuery = criteriaBuilder.createQuery(DocumentDescription.class);
-        Root<DocumentDescription> from = criteriaQuery.from(DocumentDescription.class);
-        CriteriaQuery<DocumentDescription> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<DocumentDescription> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<DocumentObject> findDocumentObjectByDocumentDescriptionPaginated(
+            DocumentDescription documentDescription, Integer top, Integer skip, String skipToken) {
+        return Pagination.findByParent(entityManager, DocumentObject.class, "referenceDocumentDescription",
+                documentDescription, top, skip, skipToken);
     }
 }
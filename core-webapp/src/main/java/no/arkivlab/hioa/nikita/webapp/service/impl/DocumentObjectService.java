@@ -1,16 +1,26 @@
 package no.arkivlab.hioa.nikita.webapp.service.impl;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import nikita.model.noark5.v4.DocumentObject;
 import nikita.repository.n5v4.IDocumentObjectRepository;
 import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.MultiDigest;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.StoredContent;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IDocumentObjectService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageFileNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
@@ -21,35 +31,29 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
-import java.io.File;
-import java.io.FileOutputStream;
+import javax.persistence.Query;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 @EnableConfigurationProperties(WebappProperties.class)
 public class DocumentObjectService implements IDocumentObjectService {
 
-    private final Path rootLocation;
     private final String checksumAlgorithm;
+    private final List<String> additionalChecksumAlgorithms;
+    private final ContentAddressedStore contentStore;
+    private final Timer uploadTime;
+    private final Meter uploadBytes;
+    private final Meter uploadDeduplicated;
+    private final Histogram uploadThroughput;
     private final Logger logger = LoggerFactory.getLogger(DocumentObjectService.class);
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
     private IDocumentObjectRepository documentObjectRepository;
     private EntityManager entityManager;
 
@@ -57,11 +61,21 @@ public class DocumentObjectService implements IDocumentObjectService {
     @Autowired
     public DocumentObjectService(IDocumentObjectRepository documentObjectRepository,
                                  EntityManager entityManager,
-                                 WebappProperties webappProperties) {
+                                 WebappProperties webappProperties,
+                                 ContentAddressedStore contentStore,
+                                 MetricRegistry metricRegistry) {
         this.documentObjectRepository = documentObjectRepository;
         this.entityManager = entityManager;
         this.checksumAlgorithm = webappProperties.getChecksumProperties().getChecksumAlgorithm();
-        this.rootLocation = Paths.get(webappProperties.getStorageProperties().getLocation());
+        this.additionalChecksumAlgorithms =
+                webappProperties.getChecksumProperties().getAdditionalChecksumAlgorithms();
+        this.contentStore = contentStore;
+        this.uploadTime = metricRegistry.timer(MetricRegistry.name(DocumentObjectService.class, "upload", "time"));
+        this.uploadBytes = metricRegistry.meter(MetricRegistry.name(DocumentObjectService.class, "upload", "bytes"));
+        this.uploadDeduplicated = metricRegistry.meter(
+                MetricRegistry.name(DocumentObjectService.class, "upload", "deduplicated"));
+        this.uploadThroughput = metricRegistry.histogram(
+                MetricRegistry.name(DocumentObjectService.class, "upload", "throughput"));
     }
 
     // All CREATE operations
@@ -80,75 +94,46 @@ public class DocumentObjectService implements IDocumentObjectService {
      * the checksum at the same time and update the DocumentObject with referenceToFile, size (bytes), checksum
      * and checksum algorithm
      *
-     * inputStream.read calculates the checksum while reading the input file as it is a DigestInputStream
+     * The file is written through a FileChannel using pooled buffers (see storageProperties bufferSize,
+     * bufferPoolSize and directBuffers). Each buffer is hashed in place with every configured checksum
+     * algorithm before it is written, so the file is only passed over once. The additional checksums are
+     * stored with the documentObject. Size, time and throughput of each upload are reported to the metrics
+     * registry.
+     *
+     * Files are content-addressed, they are named after the checksum of the content and identical content is
+     * only stored once. Where the file is placed under the storage root is decided by the configured
+     * IStorageLayout, and referenceDocumentFile is set to that location. If the documentObject already carries
+     * a checksum (calculated with the configured algorithm) for content that is present in storage, the upload
+     * is only hashed to verify it and nothing is written to disk.
      */
     public void storeAndCalculateChecksum(InputStream inputStream, DocumentObject documentObject) {
         try {
+            MultiDigest md = MultiDigest.getInstance(checksumAlgorithm, additionalChecksumAlgorithms);
+            String expectedKey = getExpectedChecksum(documentObject);
 
-            MessageDigest md = MessageDigest.getInstance(checksumAlgorithm);
-            String filename = UUID.randomUUID().toString();
-
-            Path directory = Paths.get(rootLocation + File.separator);
-            Path file = Paths.get(rootLocation + File.separator + filename);
-
-            // Check if the document storage directory exists, if not try to create it
-            // This should have been done with init!!
-            if (!Files.exists(directory)) {
-                Files.createDirectory(directory);
+            StoredContent storedContent;
+            long start = System.nanoTime();
+            if (contentStore.contains(expectedKey)) {
+                storedContent = contentStore.verify(inputStream, md);
+            } else {
+                storedContent = contentStore.store(inputStream, md, documentObject.getMimeType());
             }
+            reportUpload(storedContent, System.nanoTime() - start);
 
-            // Check if we actually can create the file
-            Path path = Files.createFile(file);
-
-            // Check if we can write something to the file
-            if (!Files.isWritable(file)) {
-                throw new StorageException("The file (" + file.getFileName() + ") is not writable server-side. This" +
-                        " file is being associated with " + documentObject);
+            if (storedContent.getSize() == 0L) {
+                logger.warn("An upload with 0 length content was rejected and nothing was stored");
+                throw new StorageException("The uploaded file has 0 length content. Rejecting upload! This file " +
+                        "is being associated with " + documentObject);
             }
-
-            // Create a DigestInputStream to be read with the checksumAlgorithm identified in the properties file
-            DigestInputStream digestInputStream = new DigestInputStream(inputStream, md);
-            FileOutputStream outputStream = new FileOutputStream(path.toFile());
-
-            // TODO: Should 8096 be configurable via properties or hardcoded
-            // We expect large-ish files ...
-            byte[] byteArray = new byte[8096];
-            int bytesCount = 0;
-            Long bytesTotal = new Long(0);
-
-            // Copy from input stream to output stream
-            while ((bytesCount = digestInputStream.read(byteArray, 0, byteArray.length)) != -1) {
-                outputStream.write(byteArray, 0, bytesCount);
-                bytesTotal += bytesCount;
+            if (expectedKey != null && !storedContent.getKey().equals(expectedKey)) {
+                throw new StorageException("The checksum of the uploaded file (" + storedContent.getKey() +
+                        ") does not match the checksum (" + expectedKey + ") set in " + documentObject);
             }
 
-            documentObject.setReferenceDocumentFile(file.toString());
-
-            // Tidy up and close outputStream
-            outputStream.flush();
-            outputStream.close();
-
-            if (bytesTotal == 0L) {
-                Files.delete(file);
-                logger.warn("The file (" + file.getFileName() + ") has 0 length content and should have been deleted");
-                throw new StorageException("The file (" + file.getFileName() + ") has 0 length content. Rejecting " +
-                        "upload! This file is being associated with " + documentObject);
-            }
-
-            // Get the digest
-            byte[] digest = digestInputStream.getMessageDigest().digest();
-
             // Finished with inputStream now as well
-            digestInputStream.close();
-
-            // Convert digest to HEX
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) {
-                sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
-            }
-            documentObject.setChecksum(sb.toString());
-            documentObject.setChecksumAlgorithm(checksumAlgorithm);
+            inputStream.close();
 
+            associateStoredContent(documentObject, storedContent);
         } catch (IOException e) {
             logger.error("When associating an uploaded file with " + documentObject + " an exception occurred." +
                     "Exception is " + e);
@@ -156,29 +141,130 @@ public class DocumentObjectService implements IDocumentObjectService {
         } catch (NoSuchAlgorithmException e) {
             logger.error("When associating an uploaded file with " + documentObject + " an exception occurred." +
                     "Exception is " + e);
-            throw new StorageException("Internal error, could not load checksum algorithm (" + checksumAlgorithm
-                    + ") when attempting to store a file associated with "
+            throw new StorageException("Internal error, could not load checksum algorithms (" + checksumAlgorithm
+                    + ", " + additionalChecksumAlgorithms + ") when attempting to store a file associated with "
                     + documentObject);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while waiting for an upload buffer when attempting to store a " +
+                    "file associated with " + documentObject);
         }
     }
 
+    /**
+     * Point documentObject at content that has been stored in the ContentAddressedStore, setting
+     * referenceDocumentFile, fileSize, checksum, checksum algorithm and the checksums calculated with any
+     * additional algorithms. Content the documentObject referred to
+     * before is released if nothing else refers to it.
+     */
+    @Override
+    public void associateStoredContent(DocumentObject documentObject, StoredContent storedContent) {
+        String previousReference = documentObject.getReferenceDocumentFile();
+        documentObject.setReferenceDocumentFile(storedContent.getReference());
+        documentObject.setFileSize(storedContent.getSize());
+        documentObject.setChecksum(storedContent.getKey());
+        documentObject.setChecksumAlgorithm(checksumAlgorithm);
+        documentObject.setChecksums(storedContent.getChecksums());
+
+        if (previousReference != null && !previousReference.equals(storedContent.getReference())) {
+            try {
+                releaseContent(previousReference, documentObject);
+            } catch (IOException e) {
+                logger.warn("Could not release stored content (" + previousReference + ") no longer referred " +
+                        "to by " + documentObject + ". " + e);
+            }
+        }
+    }
+
+    /**
+     * The checksum a client set on documentObject before a file was uploaded to it, which the upload must match.
+     * A checksum recorded by an earlier upload is not a claim about the next one, and a checksum that is not
+     * lowercase hex of the configured algorithm can not be a content key, so neither is expected.
+     *
+     * @return the content key the upload must have, or null if any content is accepted
+     */
+    @Override
+    public String getExpectedChecksum(DocumentObject documentObject) {
+        if (documentObject.getReferenceDocumentFile() != null || documentObject.getChecksum() == null ||
+                (documentObject.getChecksumAlgorithm() != null &&
+                        !checksumAlgorithm.equalsIgnoreCase(documentObject.getChecksumAlgorithm()))) {
+            return null;
+        }
+        String checksum = documentObject.getChecksum().toLowerCase();
+        try {
+            return MultiDigest.getInstance(checksumAlgorithm).isPrimaryChecksum(checksum) ? checksum : null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new StorageException("Internal error, could not load checksum algorithm (" + checksumAlgorithm +
+                    ") when checking the checksum set in " + documentObject);
+        }
+    }
+
+    /**
+     * Delete stored content that documentObject no longer refers to, unless some other DocumentObject still
+     * refers to it.
+     */
+    private void releaseContent(String reference, DocumentObject documentObject) throws IOException {
+        if (countReferencesToFile(reference, documentObject.getId()) == 0 && contentStore.release(reference)) {
+            logger.info("Deleted stored content (" + reference + ") as it is no longer referenced");
+        }
+    }
+
+    /**
+     * Count the DocumentObjects, including soft deleted ones, that refer to a stored file.
+     *
+     * @param referenceDocumentFile     the reference to count
+     * @param excludedDocumentObjectId  id of a DocumentObject not to count, or null
+     * @return the number of references
+     */
+    @Override
+    public long countReferencesToFile(String referenceDocumentFile, Long excludedDocumentObjectId) {
+        Query query = entityManager.createNativeQuery("SELECT COUNT(*) FROM document_object WHERE " +
+                "reference_document_file = :reference AND pk_document_object_id <> :id");
+        query.setParameter("reference", referenceDocumentFile);
+        query.setParameter("id", excludedDocumentObjectId == null ? -1L : excludedDocumentObjectId);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    /**
+     * Report size, time and throughput (bytes per second) of a finished upload to the metrics registry.
+     */
+    private void reportUpload(StoredContent storedContent, long elapsedNanos) {
+        long bytes = storedContent.getSize();
+        uploadTime.update(elapsedNanos, TimeUnit.NANOSECONDS);
+        uploadBytes.mark(bytes);
+        if (storedContent.isDeduplicated()) {
+            uploadDeduplicated.mark();
+        }
+        if (elapsedNanos > 0) {
+            long bytesPerSecond = bytes * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+            uploadThroughput.update(bytesPerSecond);
+            logger.debug("Stored " + storedContent + " in " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                    " ms (" + bytesPerSecond + " bytes/s)");
+        }
+    }
+
+    /**
+     * @return the local file holding the document, or null if the storage backend is not a local file system
+     */
     @Override
     public Path load(String filename) {
-        return rootLocation.resolve(filename);
+        return contentStore.getStorageBackend().toLocalPath(filename);
     }
 
     @Override
     public Resource loadAsResource(DocumentObject documentObject) {
         String filename = documentObject.getReferenceDocumentFile();
+        IStorageBackend storageBackend = contentStore.getStorageBackend();
         try {
-            Path file = load(filename);
-            Resource resource = new UrlResource(file.toUri());
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
-            } else {
+            if (filename == null || !storageBackend.exists(filename)) {
                 throw new StorageFileNotFoundException("Could not read file: " + filename);
             }
-        } catch (MalformedURLException e) {
+            Path file = storageBackend.toLocalPath(filename);
+            if (file != null) {
+                return new UrlResource(file.toUri());
+            }
+            return new InputStreamResource(storageBackend.get(filename));
+        } catch (IOException e) {
             throw new StorageFileNotFoundException("Could not read file: " + filename);
         }
     }
@@ -186,9 +272,7 @@ public class DocumentObjectService implements IDocumentObjectService {
     @Override
     public void init() {
         try {
-            if (!Files.exists(rootLocation)) {
-                Files.createDirectory(rootLocation);
-            }
+            contentStore.init();
         } catch (IOException e) {
             throw new StorageException("Could not initialize storage");
         }
@@ -322,25 +406,11 @@ public class DocumentObjectService implements IDocumentObjectService {
 
     // All READ operations
     @Override
-    public List<DocumentObject> findDocumentObjectByOwnerPaginated(Integer top, Integer skip) {
-
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
+    public List<DocumentObject> findDocumentObjectByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, DocumentObject.class, top, skip, skipToken);
+    }
 
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<DocumentObject> criteriaQuery = criteriaBuilder.createQuery(DocumentObject.class);
-        Root<DocumentObject> from = criteriaQuery.from(DocumentObject.class);
-        CriteriaQuery<DocumentObject> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<DocumentObject> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public void forEachDocumentObjectByOwner(Consumer<DocumentObject> action) {
+        Pagination.forEachByOwner(entityManager, DocumentObject.class, action);
     }
 }
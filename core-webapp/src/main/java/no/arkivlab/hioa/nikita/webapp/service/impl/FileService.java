@@ -8,6 +8,7 @@ import no.arkivlab.hioa.nikita.webapp.service.interfaces.IFileService;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IRecordService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,12 +20,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static nikita.config.Constants.INFO_CANNOT_FIND_OBJECT;
 
@@ -43,8 +41,6 @@ public class FileService implements IFileService {
     @Autowired
     EntityManager entityManager;
 
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
 
     public FileService() {
     }
@@ -420,25 +416,15 @@ public class FileService implements IFileService {
 
     // All READ operations
     @Override
-    public List<File> findFileByOwnerPaginated(Integer top, Integer skip) {
+    public List<File> findFileByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, File.class, top, skip, skipToken);
+    }
 
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
+    public void forEachFileByOwner(Consumer<File> action) {
+        Pagination.forEachByOwner(entityManager, File.class, action);
+    }
 
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<File> criteriaQuery = criteriaBuilder.createQuery(File.class);
-        Root<File> from = criteriaQuery.from(File.class);
-        CriteriaQuery<File> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<File> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<Record> findRecordByFilePaginated(File file, Integer top, Integer skip, String skipToken) {
+        return Pagination.findByParent(entityManager, Record.class, "referenceFile", file, top, skip, skipToken);
     }
 }
@@ -8,17 +8,13 @@ import nikita.util.exceptions.NikitaMalformedInputDataException;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IFondsCreatorService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 import java.util.List;
 
@@ -30,8 +26,6 @@ import static nikita.config.N5ResourceMappings.STATUS_OPEN;
 public class FondsCreatorService implements IFondsCreatorService {
 
     private static final Logger logger = LoggerFactory.getLogger(FondsCreatorService.class);
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
     private IFondsCreatorRepository fondsCreatorRepository;
     private IFondsRepository fondsRepository;
     private SeriesService seriesService;
@@ -96,27 +90,8 @@ public class FondsCreatorService implements IFondsCreatorService {
 
     // All READ operations
     @Override
-    public List<FondsCreator> findFondsCreatorByOwnerPaginated(Integer top, Integer skip) {
-
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
-
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<FondsCreator> criteriaQuery = criteriaBuilder.createQuery(FondsCreator.class);
-        Root<FondsCreator> from = criteriaQuery.from(FondsCreator.class);
-        CriteriaQuery<FondsCreator> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<FondsCreator> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-
-        return typedQuery.getResultList();
+    public List<FondsCreator> findFondsCreatorByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, FondsCreator.class, top, skip, skipToken);
     }
 
     @Override
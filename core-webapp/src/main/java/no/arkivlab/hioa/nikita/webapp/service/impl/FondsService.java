@@ -9,6 +9,7 @@ import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityEditWhenClosedException;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkInvalidStructureException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -19,12 +20,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.STATUS_CLOSED;
@@ -35,9 +33,6 @@ import static nikita.config.N5ResourceMappings.STATUS_OPEN;
 public class FondsService implements IFondsService {
 
     private static final Logger logger = LoggerFactory.getLogger(FondsService.class);
-    // TODO: Trying to pick up property from yaml file, but not working ...
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
     private IFondsRepository fondsRepository;
     private SeriesService seriesService;
     private FondsCreatorService fondsCreatorService;
@@ -534,27 +529,16 @@ public class FondsService implements IFondsService {
 
     // All READ operations
 
-    public List<Fonds> findFondsByOwnerPaginated(Integer top, Integer skip) {
-
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
-
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Fonds> criteriaQuery = criteriaBuilder.createQuery(Fonds.class);
-        Root<Fonds> from = criteriaQuery.from(Fonds.class);
-        CriteriaQuery<Fonds> select = criteriaQuery.select(from);
+    public List<Fonds> findFondsByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, Fonds.class, top, skip, skipToken);
+    }
 
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<Fonds> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
+    public void forEachFondsByOwner(Consumer<Fonds> action) {
+        Pagination.forEachByOwner(entityManager, Fonds.class, action);
+    }
 
-        return typedQuery.getResultList();
+    public List<Series> findSeriesByFondsPaginated(Fonds fonds, Integer top, Integer skip, String skipToken) {
+        return Pagination.findByParent(entityManager, Series.class, "referenceFonds", fonds, top, skip, skipToken);
     }
 
     /**
@@ -5,6 +5,7 @@ import nikita.model.noark5.v4.Record;
 import nikita.repository.n5v4.IRecordRepository;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IRecordService;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +17,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static nikita.config.Constants.INFO_CANNOT_FIND_OBJECT;
 
@@ -39,8 +37,6 @@ public class RecordService implements IRecordService {
     @Autowired
     EntityManager entityManager;
 
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
 
     public RecordService() {
     }
@@ -304,25 +300,17 @@ public class RecordService implements IRecordService {
 
     // All READ operations
 
-    public List<Record> findRecordByOwnerPaginated(Integer top, Integer skip) {
+    public List<Record> findRecordByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, Record.class, top, skip, skipToken);
+    }
 
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
+    public void forEachRecordByOwner(Consumer<Record> action) {
+        Pagination.forEachByOwner(entityManager, Record.class, action);
+    }
 
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Record> criteriaQuery = criteriaBuilder.createQuery(Record.class);
-        Root<Record> from = criteriaQuery.from(Record.class);
-        CriteriaQuery<Record> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<Record> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<DocumentDescription> findDocumentDescriptionByRecordPaginated(Record record,
+                                                                              Integer top, Integer skip, String skipToken) {
+        return Pagination.findByParent(entityManager, DocumentDescription.class, "referenceRecord", record,
+                top, skip, skipToken);
     }
 }
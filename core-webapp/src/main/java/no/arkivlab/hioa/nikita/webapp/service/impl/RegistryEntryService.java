@@ -7,17 +7,13 @@ import nikita.repository.n5v4.IRegistryEntryRepository;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IRegistryEntryService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 import java.util.HashSet;
 import java.util.List;
@@ -29,8 +25,6 @@ import static nikita.config.Constants.INFO_CANNOT_FIND_OBJECT;
 public class RegistryEntryService implements IRegistryEntryService {
 
     private static final Logger logger = LoggerFactory.getLogger(RegistryEntryService.class);
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
     private DocumentDescriptionService documentDescriptionService;
     private IRegistryEntryRepository registryEntryRepository;
     private EntityManager entityManager;
@@ -78,26 +72,8 @@ public class RegistryEntryService implements IRegistryEntryService {
     }
 
     // All READ operations
-    public List<RegistryEntry> findRegistryEntryByOwnerPaginated(Integer top, Integer skip) {
-
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
-
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<RegistryEntry> criteriaQuery = criteriaBuilder.createQuery(RegistryEntry.class);
-        Root<RegistryEntry> from = criteriaQuery.from(RegistryEntry.class);
-        CriteriaQuery<RegistryEntry> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<RegistryEntry> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<RegistryEntry> findRegistryEntryByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, RegistryEntry.class, top, skip, skipToken);
     }
 
     // systemId
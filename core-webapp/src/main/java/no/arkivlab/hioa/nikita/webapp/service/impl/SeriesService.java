@@ -10,6 +10,7 @@ import no.arkivlab.hioa.nikita.webapp.service.interfaces.ISeriesService;
 import no.arkivlab.hioa.nikita.webapp.util.NoarkUtils;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityEditWhenClosedException;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,12 +22,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static nikita.config.Constants.INFO_CANNOT_ASSOCIATE_WITH_CLOSED_OBJECT;
 import static nikita.config.Constants.INFO_CANNOT_FIND_OBJECT;
@@ -51,8 +50,6 @@ public class SeriesService implements ISeriesService {
     ISeriesRepository seriesRepository;
 
 
-    //@Value("${nikita-noark5-core.pagination.maxPageSize}")
-    Integer maxPageSize = new Integer(10);
 
     public SeriesService() {
     }
@@ -109,26 +106,16 @@ public class SeriesService implements ISeriesService {
 
     // All READ operations
 
-    public List<Series> findSeriesByOwnerPaginated(Integer top, Integer skip) {
+    public List<Series> findSeriesByOwnerPaginated(Integer top, Integer skip, String skipToken) {
+        return Pagination.findByOwner(entityManager, Series.class, top, skip, skipToken);
+    }
 
-        if (top == null || top > maxPageSize) {
-            top = maxPageSize;
-        }
-        if (skip == null) {
-            skip = 0;
-        }
+    public void forEachSeriesByOwner(Consumer<Series> action) {
+        Pagination.forEachByOwner(entityManager, Series.class, action);
+    }
 
-        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Series> criteriaQuery = criteriaBuilder.createQuery(Series.class);
-        Root<Series> from = criteriaQuery.from(Series.class);
-        CriteriaQuery<Series> select = criteriaQuery.select(from);
-
-        criteriaQuery.where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser));
-        TypedQuery<Series> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult(skip);
-        typedQuery.setMaxResults(maxPageSize);
-        return typedQuery.getResultList();
+    public List<File> findFileBySeriesPaginated(Series series, Integer top, Integer skip, String skipToken) {
+        return Pagination.findByParent(entityManager, File.class, "referenceSeries", series, top, skip, skipToken);
     }
 
     // NOTE: I am leaving these methods here for another while. They will probably be replaced
@@ -0,0 +1,95 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.extraction;
+
+import com.codahale.metrics.MetricRegistry;
+import nikita.extraction.ArchiveExtractor;
+import nikita.extraction.ExtractionStatistics;
+import nikita.extraction.config.ExtractionProperties;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.extraction.IArchiveExtractionService;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static nikita.extraction.config.ExtractionConstants.ARKIVSTRUKTUR_FILE;
+import static nikita.extraction.config.ExtractionConstants.MANIFEST_FILE;
+
+/**
+ * Extracts fonds into Noark 5 extraction packages in the configured extraction directory
+ * (nikita-noark5-core.extraction) with an ArchiveExtractor. Documents are read through the storage backend,
+ * so compressed documents and documents kept in S3 are extracted as they were uploaded.
+ */
+@Service
+public class ArchiveExtractionService implements IArchiveExtractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveExtractionService.class);
+
+    private final ArchiveExtractor archiveExtractor;
+    private final Path extractionDirectory;
+
+    public ArchiveExtractionService(EntityManagerFactory entityManagerFactory,
+                                    ContentAddressedStore contentAddressedStore,
+                                    WebappProperties webappProperties,
+                                    MetricRegistry metricRegistry) {
+        WebappProperties.ExtractionProperties extraction = webappProperties.getExtractionProperties();
+
+        ExtractionProperties extractionProperties = new ExtractionProperties();
+        extractionProperties.setParallelism(extraction.getParallelism());
+        extractionProperties.setCopyThreads(extraction.getCopyThreads());
+        extractionProperties.setCopyQueueSize(extraction.getCopyQueueSize());
+
+        this.archiveExtractor = new ArchiveExtractor(entityManagerFactory.unwrap(SessionFactory.class),
+                new StorageBackendDocumentStore(contentAddressedStore.getStorageBackend()),
+                extractionProperties, metricRegistry);
+        this.extractionDirectory = Paths.get(extraction.getDirectory()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public ExtractionStatistics extractFonds(String fondsSystemId, String packageName, String priorPackageName) {
+        if (fondsSystemId == null || fondsSystemId.isEmpty()) {
+            throw new NikitaMalformedInputDataException("No fonds given");
+        }
+        Path aPackage = resolvePackage(packageName);
+        if (Files.exists(aPackage.resolve(ARKIVSTRUKTUR_FILE))) {
+            throw new NikitaMalformedInputDataException("The package " + packageName + " already exists in " +
+                    "the extraction directory");
+        }
+        Path priorManifest = null;
+        if (priorPackageName != null) {
+            priorManifest = resolvePackage(priorPackageName).resolve(MANIFEST_FILE);
+            if (!Files.isRegularFile(priorManifest)) {
+                throw new NoarkEntityNotFoundException("Cannot find the package " + priorPackageName + ", a " +
+                        "directory with " + MANIFEST_FILE + ", in the extraction directory");
+            }
+        }
+        try {
+            return archiveExtractor.extract(fondsSystemId, aPackage, priorManifest);
+        } catch (IOException e) {
+            logger.error("Extraction of fonds " + fondsSystemId + " to " + aPackage + " failed", e);
+            throw new StorageException("Extraction of fonds " + fondsSystemId + " to package " + packageName +
+                    " failed. " + e.getMessage());
+        }
+    }
+
+    private Path resolvePackage(String packageName) {
+        if (packageName == null || packageName.isEmpty()) {
+            throw new NikitaMalformedInputDataException("No package given");
+        }
+        Path aPackage = extractionDirectory.resolve(packageName).normalize();
+        if (!aPackage.startsWith(extractionDirectory) || aPackage.equals(extractionDirectory)) {
+            throw new NikitaMalformedInputDataException("The package " + packageName + " is not in the " +
+                    "extraction directory");
+        }
+        return aPackage;
+    }
+}
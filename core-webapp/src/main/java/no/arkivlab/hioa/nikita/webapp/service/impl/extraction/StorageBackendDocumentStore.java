@@ -0,0 +1,33 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.extraction;
+
+import nikita.extraction.interfaces.IDocumentStore;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Reads the documents of an extraction through the IStorageBackend they are stored in, so a document is
+ * extracted with the bytes, size and checksum it was uploaded with whatever the backend does with it, e.g.
+ * decompressing it or fetching it from S3. Documents in local files are still copied with
+ * FileChannel.transferTo() by the FileSystemStorageBackend.
+ */
+public class StorageBackendDocumentStore implements IDocumentStore {
+
+    private final IStorageBackend storageBackend;
+
+    public StorageBackendDocumentStore(IStorageBackend storageBackend) {
+        this.storageBackend = storageBackend;
+    }
+
+    @Override
+    public long size(String reference) throws IOException {
+        return storageBackend.size(reference);
+    }
+
+    @Override
+    public void transferTo(String reference, long position, long length, WritableByteChannel target)
+            throws IOException {
+        storageBackend.transferTo(reference, position, length, target);
+    }
+}
@@ -0,0 +1,115 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.imprt;
+
+import com.codahale.metrics.MetricRegistry;
+import nikita.extraction.ArchiveImporter;
+import nikita.extraction.ExtractionStatistics;
+import nikita.extraction.config.ImportProperties;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IArchivePackageImportService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.search.IAsyncIndexingService;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static nikita.extraction.config.ExtractionConstants.ARKIVSTRUKTUR_FILE;
+
+/**
+ * Imports Noark 5 extraction packages from the configured package directory (nikita-noark5-core.import.packages)
+ * with an ArchiveImporter. Documents are stored in the ContentAddressedStore, like uploaded documents.
+ * <p>
+ * The import runs outside any Spring managed transaction; the importer commits every batchSize entities itself.
+ * An import that fails keeps what was committed, and importing the same package again resumes from there. A
+ * package is only imported by one request at a time.
+ * <p>
+ * The importer bypasses the Hibernate event listeners, so the imported entities are queued with the
+ * IAsyncIndexingService as each batch commits, and are searchable shortly after. Envers does not see the import
+ * either; imported entities get their first audit revision when they are next changed.
+ */
+@Service
+public class ArchivePackageImportService implements IArchivePackageImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivePackageImportService.class);
+
+    private final ArchiveImporter archiveImporter;
+    private final Path packageDirectory;
+    private final Set<Path> importsInProgress = ConcurrentHashMap.newKeySet();
+
+    public ArchivePackageImportService(EntityManagerFactory entityManagerFactory,
+                                       ContentAddressedStore contentAddressedStore,
+                                       IAsyncIndexingService asyncIndexingService,
+                                       WebappProperties webappProperties,
+                                       MetricRegistry metricRegistry) {
+        WebappProperties.ImportProperties.PackageProperties packageProperties =
+                webappProperties.getImportProperties().getPackages();
+        WebappProperties.ChecksumProperties checksumProperties = webappProperties.getChecksumProperties();
+
+        ImportProperties importProperties = new ImportProperties();
+        importProperties.setBatchSize(packageProperties.getBatchSize());
+        importProperties.setJdbcBatchSize(packageProperties.getJdbcBatchSize());
+        importProperties.setVerifyThreads(packageProperties.getVerifyThreads());
+        importProperties.setVerifyQueueSize(packageProperties.getVerifyQueueSize());
+        importProperties.setStrict(packageProperties.isStrict());
+
+        this.archiveImporter = new ArchiveImporter(entityManagerFactory.unwrap(SessionFactory.class),
+                new ContentAddressedDocumentSink(contentAddressedStore, checksumProperties.getChecksumAlgorithm(),
+                        checksumProperties.getAdditionalChecksumAlgorithms()),
+                importProperties, new IndexingImportListener(asyncIndexingService), metricRegistry);
+        this.packageDirectory = Paths.get(packageProperties.getDirectory()).toAbsolutePath().normalize();
+    }
+
+    // All CREATE operations
+
+    /**
+     * Import the package packageName, a directory with arkivstruktur.xml and the documents it refers to, in the
+     * package directory.
+     *
+     * @param packageName the name of the package, relative to the package directory
+     * @param owner       the user the imported entities are owned by
+     * @return what was imported
+     */
+    @Override
+    public ExtractionStatistics importPackage(String packageName, String owner) {
+        Path aPackage = resolvePackage(packageName);
+        if (!importsInProgress.add(aPackage)) {
+            throw new StorageException("The package " + packageName + " is already being imported");
+        }
+        try {
+            return archiveImporter.importPackage(aPackage, owner);
+        } catch (IOException e) {
+            logger.error("Import of package " + aPackage + " failed", e);
+            throw new StorageException("Import of package " + packageName + " failed, importing it again " +
+                    "resumes after what was imported. " + e.getMessage());
+        } finally {
+            importsInProgress.remove(aPackage);
+        }
+    }
+
+    private Path resolvePackage(String packageName) {
+        if (packageName == null || packageName.isEmpty()) {
+            throw new NikitaMalformedInputDataException("No package given");
+        }
+        Path aPackage = packageDirectory.resolve(packageName).normalize();
+        if (!aPackage.startsWith(packageDirectory) || aPackage.equals(packageDirectory)) {
+            throw new NikitaMalformedInputDataException("The package " + packageName + " is not in the " +
+                    "package directory");
+        }
+        if (!Files.isRegularFile(aPackage.resolve(ARKIVSTRUKTUR_FILE))) {
+            throw new NoarkEntityNotFoundException("Cannot find the package " + packageName + ", a directory " +
+                    "with " + ARKIVSTRUKTUR_FILE + ", in the package directory");
+        }
+        return aPackage;
+    }
+}
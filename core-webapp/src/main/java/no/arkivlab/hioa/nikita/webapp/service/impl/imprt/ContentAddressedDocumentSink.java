@@ -0,0 +1,54 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.imprt;
+
+import nikita.extraction.interfaces.IDocumentSink;
+import nikita.model.noark5.v4.DocumentObject;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.MultiDigest;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.StoredContent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Stores the documents of an imported extraction package in the ContentAddressedStore, as if they were
+ * uploaded. The DocumentObject is given the checksums of the configured algorithms, whatever the package used,
+ * so imported documents are addressed and audited like uploaded ones.
+ */
+public class ContentAddressedDocumentSink implements IDocumentSink {
+
+    private final ContentAddressedStore contentStore;
+    private final String checksumAlgorithm;
+    private final List<String> additionalChecksumAlgorithms;
+
+    public ContentAddressedDocumentSink(ContentAddressedStore contentStore, String checksumAlgorithm,
+                                        List<String> additionalChecksumAlgorithms) {
+        this.contentStore = contentStore;
+        this.checksumAlgorithm = checksumAlgorithm;
+        this.additionalChecksumAlgorithms = additionalChecksumAlgorithms;
+    }
+
+    @Override
+    public void store(InputStream document, DocumentObject documentObject) throws IOException {
+        StoredContent storedContent;
+        try {
+            MultiDigest md = MultiDigest.getInstance(checksumAlgorithm, additionalChecksumAlgorithms);
+            storedContent = contentStore.store(document, md, documentObject.getMimeType());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Checksum algorithm not available: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted storing the document of " + documentObject);
+        }
+        if (storedContent.getSize() == 0L) {
+            throw new IOException("The document of " + documentObject + " has 0 length content");
+        }
+        documentObject.setReferenceDocumentFile(storedContent.getReference());
+        documentObject.setFileSize(storedContent.getSize());
+        documentObject.setChecksum(storedContent.getKey());
+        documentObject.setChecksumAlgorithm(checksumAlgorithm);
+        documentObject.setChecksums(storedContent.getChecksums());
+    }
+}
@@ -0,0 +1,413 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.imprt;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import nikita.config.N5ResourceMappings;
+import nikita.model.noark5.v4.DocumentDescription;
+import nikita.model.noark5.v4.File;
+import nikita.model.noark5.v4.Fonds;
+import nikita.model.noark5.v4.Record;
+import nikita.model.noark5.v4.Series;
+import nikita.util.exceptions.NikitaException;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IFileImportService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IFondsImportService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IFondsStructureImportService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IRecordImportService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.ISeriesImportService;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityEditWhenClosedException;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkInvalidStructureException;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static nikita.config.Constants.INFO_CANNOT_FIND_OBJECT;
+import static nikita.config.N5ResourceMappings.SYSTEM_ID;
+
+/**
+ * Imports whole fonds structures, fonds → series → file → record → documentDescription, from one request.
+ * <p>
+ * The input is a fonds object, a JSON array of them or a stream of them one per line (application/x-ndjson). The
+ * entities an entity contains are given in an array named as in the API, e.g. the series of a fonds in
+ * "arkivdel", and must follow the properties of the entity. The input is read incrementally, one entity at a
+ * time, so a structure of any size is imported in constant memory.
+ * <p>
+ * Every entity is persisted through the import service of its parent, as if it was posted to importAPI, and
+ * batchSize entities are persisted in each transaction, flushing and clearing the persistence context every
+ * flushInterval entities (nikita-noark5-core.import). If anything in a transaction fails it is rolled back and
+ * its entities are persisted one transaction each, so that only the entity at fault, and the entities it
+ * contains, are rejected.
+ * <p>
+ * Once a transaction has committed, a result is written for each of its entities, in the order they were read,
+ * as a line of JSON with its type, systemID and the HTTP status importAPI would have answered with, e.g.
+ * {"type":"arkivdel","systemID":"...","status":201}. A rejected entity also has a message. An entity without a
+ * systemID is given one, so that the results can be matched with the input.
+ */
+@Service
+public class FondsStructureImportService implements IFondsStructureImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FondsStructureImportService.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final IFondsImportService fondsImportService;
+    private final ISeriesImportService seriesImportService;
+    private final IFileImportService fileImportService;
+    private final IRecordImportService recordImportService;
+    private final WebappProperties.ImportProperties importProperties;
+    private final Meter imported;
+    private final Meter rejected;
+
+    public FondsStructureImportService(EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager,
+                                       IFondsImportService fondsImportService,
+                                       ISeriesImportService seriesImportService,
+                                       IFileImportService fileImportService,
+                                       IRecordImportService recordImportService,
+                                       WebappProperties webappProperties,
+                                       MetricRegistry metricRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fondsImportService = fondsImportService;
+        this.seriesImportService = seriesImportService;
+        this.fileImportService = fileImportService;
+        this.recordImportService = recordImportService;
+        this.importProperties = webappProperties.getImportProperties();
+        this.imported = metricRegistry.meter(MetricRegistry.name(FondsStructureImportService.class, "imported"));
+        this.rejected = metricRegistry.meter(MetricRegistry.name(FondsStructureImportService.class, "rejected"));
+    }
+
+    // All CREATE operations
+
+    /**
+     * Import the fonds structures in input, writing a line of JSON to results for each entity.
+     * <p>
+     * Results are written while input is still being read, so a client sending a large structure has to read
+     * them as it sends, as e.g. curl does. If the input is not valid JSON, or not a valid fonds structure, what
+     * was read before the error is persisted and a last line with status 400 and the error is written.
+     */
+    @Override
+    public void importFondsStructure(InputStream input, OutputStream results) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(results)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Batch batch = new Batch(generator);
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null) {
+                    if (token == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            readEntity(parser, Level.FONDS, null, batch);
+                        }
+                    } else {
+                        readEntity(parser, Level.FONDS, null, batch);
+                    }
+                }
+                batch.persist();
+            } catch (NikitaMalformedInputDataException | JsonProcessingException e) {
+                batch.persist();
+                logger.info("Bulk import stopped at malformed input: " + e.getMessage());
+                generator.writeStartObject();
+                generator.writeNumberField("status", HttpStatus.BAD_REQUEST.value());
+                generator.writeStringField("message", e.getMessage());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Read the object the parser is positioned at, and the entities it contains, into batch. Properties are
+     * collected as they are met. When the array of contained entities is met the entity is complete, and is added
+     * to batch before them.
+     */
+    private void readEntity(JsonParser parser, Level level, Item parent, Batch batch) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            throw new NikitaMalformedInputDataException("Expected a " + level.name + " object, found " +
+                    parser.getCurrentToken());
+        }
+        ObjectNode properties = objectMapper.createObjectNode();
+        Item item = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (level.child != null && name.equalsIgnoreCase(level.child.name)) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new NikitaMalformedInputDataException("The " + name + " property of a " + level.name +
+                            " must be an array");
+                }
+                if (item == null) {
+                    item = batch.add(level, parent, properties);
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    readEntity(parser, level.child, item, batch);
+                }
+            } else if (item != null) {
+                throw new NikitaMalformedInputDataException("The " + name + " property of " + level.name + " " +
+                        item.systemId + " follows its " + level.child.name + " array. The properties of an " +
+                        "object must come before the objects it contains");
+            } else {
+                properties.set(name, objectMapper.readTree(parser));
+            }
+        }
+        if (item == null) {
+            batch.add(level, parent, properties);
+        }
+    }
+
+    /**
+     * Persist the entity of item associated with its parent.
+     */
+    private void save(Item item) {
+        switch (item.level) {
+            case FONDS:
+                item.entity = fondsImportService.createNewFonds((Fonds) item.entity);
+                break;
+            case SERIES:
+                item.entity = fondsImportService.createSeriesAssociatedWithFonds(item.parent.systemId,
+                        (Series) item.entity);
+                break;
+            case FILE:
+                item.entity = seriesImportService.createFileAssociatedWithSeries(item.parent.systemId,
+                        (File) item.entity);
+                break;
+            case RECORD:
+                item.entity = fileImportService.createRecordAssociatedWithFile(item.parent.systemId,
+                        (Record) item.entity);
+                break;
+            case DOCUMENT_DESCRIPTION:
+                item.entity = recordImportService.createDocumentDescriptionAssociatedWithRecord(
+                        item.parent.systemId, (DocumentDescription) item.entity);
+                break;
+        }
+    }
+
+    private static Object deserialise(Level level, ObjectNode properties) {
+        try {
+            return objectMapper.treeToValue(properties, level.type);
+        } catch (JsonProcessingException e) {
+            throw new NikitaMalformedInputDataException("The " + level.name + " you tried to create is " +
+                    "malformed. " + e.getOriginalMessage());
+        }
+    }
+
+    private static int statusOf(RuntimeException e) {
+        if (e instanceof NikitaMalformedInputDataException || e instanceof DataIntegrityViolationException) {
+            return HttpStatus.BAD_REQUEST.value();
+        } else if (e instanceof NoarkEntityNotFoundException) {
+            return HttpStatus.NOT_FOUND.value();
+        } else if (e instanceof NoarkEntityEditWhenClosedException || e instanceof NoarkInvalidStructureException) {
+            return HttpStatus.CONFLICT.value();
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
+    /**
+     * The entities of a fonds structure, and the array their children are given in.
+     */
+    private enum Level {
+        DOCUMENT_DESCRIPTION(DocumentDescription.class, N5ResourceMappings.DOCUMENT_DESCRIPTION, null),
+        RECORD(Record.class, N5ResourceMappings.REGISTRATION, DOCUMENT_DESCRIPTION),
+        FILE(File.class, N5ResourceMappings.FILE, RECORD),
+        SERIES(Series.class, N5ResourceMappings.SERIES, FILE),
+        FONDS(Fonds.class, N5ResourceMappings.FONDS, SERIES);
+
+        private final Class<?> type;
+        private final String name;
+        private final Level child;
+
+        Level(Class<?> type, String name, Level child) {
+            this.type = type;
+            this.name = name;
+            this.child = child;
+        }
+    }
+
+    /**
+     * An entity read from the input, and how it was imported.
+     */
+    private static final class Item {
+
+        private final Level level;
+        private final Item parent;
+        private final ObjectNode properties;
+        private final String systemId;
+        private Object entity;
+        private int status;
+        private String message;
+
+        private Item(Level level, Item parent, ObjectNode properties, String systemId) {
+            this.level = level;
+            this.parent = parent;
+            this.properties = properties;
+            this.systemId = systemId;
+        }
+
+        private boolean isRejected() {
+            return message != null;
+        }
+
+        /**
+         * Reject the entity if its parent was rejected.
+         *
+         * @return whether the entity was rejected
+         */
+        private boolean rejectWithParent() {
+            if (parent != null && parent.isRejected()) {
+                reject(new NoarkEntityNotFoundException(INFO_CANNOT_FIND_OBJECT + " " + parent.level.name + " " +
+                        parent.systemId + ", it was rejected"));
+            }
+            return isRejected();
+        }
+
+        private void reject(RuntimeException e) {
+            status = statusOf(e);
+            message = e instanceof NikitaException ? e.getMessage() : ExceptionUtils.getRootCauseMessage(e);
+        }
+    }
+
+    /**
+     * The entities read but not yet persisted.
+     */
+    private final class Batch {
+
+        private final JsonGenerator generator;
+        private final List<Item> items = new ArrayList<>();
+
+        private Batch(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        private Item add(Level level, Item parent, ObjectNode properties) throws IOException {
+            String systemId = null;
+            Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+            while (systemId == null && fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getKey().equalsIgnoreCase(SYSTEM_ID) && field.getValue().isTextual()) {
+                    systemId = field.getValue().textValue();
+                }
+            }
+            if (systemId == null) {
+                systemId = UUID.randomUUID().toString();
+                properties.put(SYSTEM_ID, systemId);
+            }
+            Item item = new Item(level, parent, properties, systemId);
+            // An entity known to fail is not allowed to roll back the transaction of the others
+            if (!item.rejectWithParent()) {
+                try {
+                    item.entity = deserialise(level, properties);
+                } catch (NikitaMalformedInputDataException e) {
+                    item.reject(e);
+                }
+            }
+            items.add(item);
+            if (items.size() >= importProperties.getBatchSize()) {
+                persist();
+            }
+            return item;
+        }
+
+        /**
+         * Persist the entities of the batch and write their results.
+         */
+        private void persist() throws IOException {
+            if (items.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.execute(status -> {
+                    int persisted = 0;
+                    for (Item item : items) {
+                        if (!item.isRejected()) {
+                            save(item);
+                            if (++persisted % importProperties.getFlushInterval() == 0) {
+                                entityManager.flush();
+                                entityManager.clear();
+                            }
+                        }
+                    }
+                    return null;
+                });
+                for (Item item : items) {
+                    if (!item.isRejected()) {
+                        item.status = HttpStatus.CREATED.value();
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.info("Bulk import of " + items.size() + " entities rolled back (" +
+                        ExceptionUtils.getRootCauseMessage(e) + "), persisting them one at a time");
+                for (Item item : items) {
+                    if (!item.isRejected()) {
+                        persistAlone(item);
+                    }
+                }
+            }
+            for (Item item : items) {
+                write(item);
+            }
+            generator.flush();
+            items.clear();
+        }
+
+        private void persistAlone(Item item) {
+            // Not to be associated with another entity that has the systemID of its parent
+            if (item.rejectWithParent()) {
+                return;
+            }
+            try {
+                // The entity of the rolled back transaction may have been given a key, so start over
+                item.entity = deserialise(item.level, item.properties);
+                transactionTemplate.execute(status -> {
+                    save(item);
+                    return null;
+                });
+                item.status = HttpStatus.CREATED.value();
+            } catch (RuntimeException e) {
+                item.reject(e);
+            }
+        }
+
+        private void write(Item item) throws IOException {
+            if (item.isRejected()) {
+                rejected.mark();
+            } else {
+                imported.mark();
+            }
+            generator.writeStartObject();
+            generator.writeStringField("type", item.level.name);
+            generator.writeStringField(SYSTEM_ID, item.systemId);
+            generator.writeNumberField("status", item.status);
+            if (item.isRejected()) {
+                generator.writeStringField("message", item.message);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.imprt;
+
+import nikita.extraction.interfaces.IImportListener;
+import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
+import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.search.IAsyncIndexingService;
+
+import java.util.List;
+
+/**
+ * Queues the indexed entities committed by an import of an extraction package with the IAsyncIndexingService.
+ * The import inserts through a StatelessSession, so they would otherwise never reach the search indexes.
+ */
+public class IndexingImportListener implements IImportListener {
+
+    private final IAsyncIndexingService indexingService;
+
+    public IndexingImportListener(IAsyncIndexingService indexingService) {
+        this.indexingService = indexingService;
+    }
+
+    @Override
+    public void committed(List<INikitaEntity> entities) {
+        for (INikitaEntity entity : entities) {
+            if (!indexingService.isIndexed(entity.getClass())) {
+                continue;
+            }
+            String systemId = null;
+            if (entity instanceof INoarkSystemIdEntity) {
+                systemId = ((INoarkSystemIdEntity) entity).getSystemId();
+            }
+            indexingService.queue(entity.getClass(), entity.getId(), systemId, false);
+        }
+    }
+}
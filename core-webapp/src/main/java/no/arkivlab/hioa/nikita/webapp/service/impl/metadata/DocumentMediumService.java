@@ -5,6 +5,9 @@ import nikita.repository.n5v4.metadata.IDocumentMediumRepository;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.metadata.IDocumentMediumService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +17,7 @@ import java.util.List;
 
 @Service
 @Transactional
+@CacheConfig(cacheNames = "documentMedium")
 public class DocumentMediumService implements IDocumentMediumService {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentMediumService.class);
@@ -31,6 +35,7 @@ public class DocumentMediumService implements IDocumentMediumService {
      * @return the newly persisted documentMedium object
      */
     @Override
+    @CacheEvict(allEntries = true)
     public DocumentMedium createNewDocumentMedium(DocumentMedium documentMedium) {
         documentMedium.setDeleted(false);
         documentMedium.setOwnedBy(SecurityContextHolder.getContext().getAuthentication().getName());
@@ -45,11 +50,13 @@ public class DocumentMediumService implements IDocumentMediumService {
      * @return
      */
     @Override
+    @Cacheable(key = "#root.methodName")
     public Iterable<DocumentMedium> findAll() {
         return documentMediumRepository.findAll();
     }
 
     @Override
+    @Cacheable(key = "#root.methodName")
     public List<DocumentMedium> findAll2() {
         return documentMediumRepository.findAll();
     }
@@ -63,6 +70,7 @@ public class DocumentMediumService implements IDocumentMediumService {
      * @return
      */
     @Override
+    @Cacheable(key = "'systemId:' + #p0")
     public DocumentMedium findBySystemId(String systemId) {
         return documentMediumRepository.findBySystemId(systemId);
     }
@@ -75,6 +83,7 @@ public class DocumentMediumService implements IDocumentMediumService {
      * @return
      */
     @Override
+    @Cacheable(key = "'description:' + #p0")
     public List<DocumentMedium> findByDescription(String description) {
         return documentMediumRepository.findByDescription(description);
     }
@@ -87,6 +96,7 @@ public class DocumentMediumService implements IDocumentMediumService {
      * @return
      */
     @Override
+    @Cacheable(key = "'code:' + #p0")
     public List<DocumentMedium> findByCode(String code) {
         return documentMediumRepository.findByCode(code);
     }
@@ -99,6 +109,7 @@ public class DocumentMediumService implements IDocumentMediumService {
      * @return
      */
     @Override
+    @CacheEvict(allEntries = true)
     public DocumentMedium update(DocumentMedium documentMedium) {
         return documentMediumRepository.save(documentMedium);
     }
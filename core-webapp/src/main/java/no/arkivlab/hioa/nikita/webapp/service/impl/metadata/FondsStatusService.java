@@ -5,6 +5,9 @@ import nikita.repository.n5v4.metadata.IFondsStatusRepository;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.metadata.IFondsStatusService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +17,7 @@ import java.util.List;
 
 @Service
 @Transactional
+@CacheConfig(cacheNames = "fondsStatus")
 public class FondsStatusService implements IFondsStatusService {
 
     private static final Logger logger = LoggerFactory.getLogger(FondsStatusService.class);
@@ -32,6 +36,7 @@ public class FondsStatusService implements IFondsStatusService {
      * @return the newly persisted fondsStatus object
      */
     @Override
+    @CacheEvict(allEntries = true)
     public FondsStatus createNewFondsStatus(FondsStatus fondsStatus) {
         fondsStatus.setDeleted(false);
         fondsStatus.setOwnedBy(SecurityContextHolder.getContext().getAuthentication().getName());
@@ -46,6 +51,7 @@ public class FondsStatusService implements IFondsStatusService {
      * @return
      */
     @Override
+    @Cacheable(key = "#root.methodName")
     public Iterable<FondsStatus> findAll() {
         return fondsStatusRepository.findAll();
     }
@@ -59,6 +65,7 @@ public class FondsStatusService implements IFondsStatusService {
      * @return
      */
     @Override
+    @Cacheable(key = "'systemId:' + #p0")
     public FondsStatus findBySystemId(String systemId) {
         return fondsStatusRepository.findBySystemId(systemId);
     }
@@ -71,6 +78,7 @@ public class FondsStatusService implements IFondsStatusService {
      * @return
      */
     @Override
+    @Cacheable(key = "'description:' + #p0")
     public List<FondsStatus> findByDescription(String description) {
         return fondsStatusRepository.findByDescription(description);
     }
@@ -83,6 +91,7 @@ public class FondsStatusService implements IFondsStatusService {
      * @return
      */
     @Override
+    @Cacheable(key = "'code:' + #p0")
     public List<FondsStatus> findByCode(String code) {
         return fondsStatusRepository.findByCode(code);
     }
@@ -95,6 +104,7 @@ public class FondsStatusService implements IFondsStatusService {
      * @return
      */
     @Override
+    @CacheEvict(allEntries = true)
     public FondsStatus update(FondsStatus fondsStatus) {
         return fondsStatusRepository.save(fondsStatus);
     }
@@ -0,0 +1,439 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.search;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.search.IAsyncIndexingService;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.search.FullTextSession;
+import org.hibernate.search.Search;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the Hibernate Search indexes up to date off the write path.
+ * <p>
+ * With nikita-noark5-core.search.asyncIndexing set, Hibernate Search does not index entities within the
+ * transaction that changed them (hibernate.search.indexing_strategy is manual, see DataSourceConfig). Instead
+ * an IndexingEventListener queues every indexed entity that is inserted, updated or deleted once its transaction
+ * has committed, and the queue is indexed in batches of batchSize entities on a thread of its own, every
+ * flushInterval milliseconds or as soon as batchSize entities are queued. Each batch loads the entities in a new
+ * session, so the index gets their state as committed, and sends their documents to the index, e.g.
+ * Elasticsearch, in one go.
+ * <p>
+ * The queue holds one entry per entity, keyed by type and systemID, so an entity updated many times before
+ * the next batch is indexed once. A batch that fails, e.g. as Elasticsearch is unavailable, is put back in the
+ * queue and retried with the next batch; work queued for an entity meanwhile takes precedence. There is a
+ * single indexing thread, so two batches never index the same entity at once.
+ * <p>
+ * The queue is kept in an IndexingJournal, nikita-noark5-core.search.journal, so entities that were queued but
+ * not indexed when the application stopped, or was killed, are indexed when it starts again. The journal belongs
+ * to one node and must survive a restart, so it is not shared or kept under /tmp. Without a journal they are
+ * lost, and are logged when the application stops.
+ * <p>
+ * The queue depth, the time from an entity being queued until it is indexed, the time taken by each batch and
+ * the number of entities indexed and failed are exposed through the metrics registry.
+ * <p>
+ * Writes the Hibernate event listeners never see, i.e. those through a StatelessSession or native SQL, are not
+ * queued by the IndexingEventListener, and are missing from the indexes unless queued otherwise. Whoever makes
+ * them queues the entities itself, as the import of extraction packages does, whether or not asyncIndexing is
+ * set; the queue is indexed in either case.
+ */
+@Service
+public class AsyncIndexingService implements IAsyncIndexingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncIndexingService.class);
+    // Milliseconds to wait for the queue to be indexed when the application stops
+    private static final long SHUTDOWN_TIMEOUT = 30000;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final WebappProperties.SearchProperties searchProperties;
+    private final Map<String, IndexingWork> queue = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private volatile Set<Class<?>> indexedTypes = Collections.emptySet();
+    private final BatchIndexer batchIndexer;
+    // Where the queue is kept, null if in memory only
+    private final Path journalFile;
+    // Guards the journal, and keeps it in step with the queue. Null until opened by recover()
+    private final Object journalLock = new Object();
+    private IndexingJournal journal;
+    private final ScheduledExecutorService indexer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer latency;
+    private final Timer batches;
+    private final Meter indexed;
+    private final Meter failed;
+
+    @Autowired
+    public AsyncIndexingService(EntityManagerFactory entityManagerFactory,
+                                WebappProperties webappProperties,
+                                MetricRegistry metricRegistry) {
+        this(entityManagerFactory, webappProperties, metricRegistry, null);
+    }
+
+    /**
+     * @param batchIndexer indexes each batch, in a session of its own if null
+     */
+    AsyncIndexingService(EntityManagerFactory entityManagerFactory, WebappProperties webappProperties,
+                         MetricRegistry metricRegistry, BatchIndexer batchIndexer) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.searchProperties = webappProperties.getSearchProperties();
+        this.batchIndexer = batchIndexer != null ? batchIndexer : this::indexInSession;
+        String file = searchProperties.getJournal();
+        this.journalFile = file == null || file.isEmpty() ? null : Paths.get(file);
+        metricRegistry.register(MetricRegistry.name(AsyncIndexingService.class, "queueDepth"),
+                (Gauge<Integer>) queue::size);
+        this.latency = metricRegistry.timer(MetricRegistry.name(AsyncIndexingService.class, "latency"));
+        this.batches = metricRegistry.timer(MetricRegistry.name(AsyncIndexingService.class, "batches"));
+        this.indexed = metricRegistry.meter(MetricRegistry.name(AsyncIndexingService.class, "indexed"));
+        this.failed = metricRegistry.meter(MetricRegistry.name(AsyncIndexingService.class, "failed"));
+    }
+
+    /**
+     * Queue what was left in the journal, start the indexing thread, and register the IndexingEventListener with
+     * Hibernate unless entities are indexed within their transactions.
+     */
+    @PostConstruct
+    public void init() {
+        recover();
+        FullTextEntityManager fullTextEntityManager =
+                org.hibernate.search.jpa.Search.getFullTextEntityManager(entityManagerFactory.createEntityManager());
+        try {
+            indexedTypes = new HashSet<>(fullTextEntityManager.getSearchFactory().getIndexedTypes());
+        } finally {
+            fullTextEntityManager.close();
+        }
+        long flushInterval = Math.max(1, searchProperties.getFlushInterval());
+        indexer.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        if (!searchProperties.isAsyncIndexing()) {
+            return;
+        }
+
+        IndexingEventListener listener = new IndexingEventListener(this, indexedTypes);
+        EventListenerRegistry listenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        logger.info("Indexing " + indexedTypes.size() + " entity types after commit, in batches of " +
+                searchProperties.getBatchSize());
+    }
+
+    /**
+     * Queue the entities left in the journal when the application last stopped.
+     */
+    void recover() {
+        if (journalFile == null) {
+            logger.warn("No indexing journal is configured, entities queued but not indexed are lost if the " +
+                    "application stops");
+            return;
+        }
+        synchronized (journalLock) {
+            IndexingJournal opened = new IndexingJournal(journalFile);
+            List<String> left;
+            try {
+                left = opened.open();
+            } catch (IOException e) {
+                logger.warn("Could not open the indexing journal " + journalFile + ", the queue is kept in " +
+                        "memory only. " + e);
+                return;
+            }
+            journal = opened;
+            for (String line : left) {
+                try {
+                    IndexingWork work = IndexingWork.fromLine(line, System.nanoTime());
+                    queue.merge(work.key, work, IndexingWork::coalesce);
+                } catch (ClassNotFoundException | RuntimeException e) {
+                    logger.warn("Skipping an unreadable line of the indexing journal (" + line + "). " + e);
+                }
+            }
+        }
+        if (!queue.isEmpty()) {
+            logger.info("Indexing " + queue.size() + " entities queued before the application last stopped");
+        }
+    }
+
+    /**
+     * Index what is left in the queue before the application stops. What is not indexed in time is left in the
+     * journal, or logged if there is none.
+     */
+    @PreDestroy
+    public void shutdown() {
+        indexer.execute(this::flush);
+        indexer.shutdown();
+        try {
+            if (!indexer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                logger.warn("The queue was not indexed within " + SHUTDOWN_TIMEOUT + " milliseconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (journalLock) {
+            if (!queue.isEmpty()) {
+                if (journal != null) {
+                    logger.warn(queue.size() + " entities were not indexed before shutdown, they are indexed " +
+                            "when the application starts again");
+                } else {
+                    logger.warn(queue.size() + " entities were not indexed before shutdown and are lost: " +
+                            queue.keySet());
+                }
+            }
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    logger.warn("Could not close the indexing journal. " + e);
+                }
+                journal = null;
+            }
+        }
+    }
+
+    // All CREATE operations
+
+    @Override
+    public void queue(Class<?> entityClass, Serializable id, String systemId, boolean purge) {
+        IndexingWork work = new IndexingWork(entityClass, id, systemId, purge, System.nanoTime());
+        synchronized (journalLock) {
+            if (journal != null) {
+                try {
+                    journal.append(work.toLine());
+                } catch (IOException e) {
+                    logger.warn("Could not add " + work.key + " to the indexing journal. " + e);
+                }
+            }
+            queue.merge(work.key, work, IndexingWork::coalesce);
+        }
+        if (queue.size() >= searchProperties.getBatchSize() && flushRequested.compareAndSet(false, true)) {
+            try {
+                indexer.execute(this::flush);
+            } catch (RuntimeException e) {
+                // Shutting down, the queue is flushed by shutdown()
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        flushRequested.set(false);
+        while (!queue.isEmpty()) {
+            List<IndexingWork> batch = takeBatch();
+            if (!index(batch)) {
+                // Put the batch back, keeping work queued for the same entities since
+                for (IndexingWork work : batch) {
+                    queue.merge(work.key, work, (queued, retried) -> retried.coalesce(queued));
+                }
+                return;
+            }
+            compactJournal();
+        }
+    }
+
+    @Override
+    public boolean isIndexed(Class<?> entityClass) {
+        return indexedTypes.contains(entityClass);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private List<IndexingWork> takeBatch() {
+        int batchSize = Math.max(1, searchProperties.getBatchSize());
+        List<IndexingWork> batch = new ArrayList<>(batchSize);
+        Iterator<String> keys = queue.keySet().iterator();
+        while (keys.hasNext() && batch.size() < batchSize) {
+            IndexingWork work = queue.remove(keys.next());
+            if (work != null) {
+                batch.add(work);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Rewrite the journal with what is queued once it holds more than twice as many lines. Called on the
+     * indexing thread between batches, when no entity has been taken from the queue without being indexed.
+     */
+    private void compactJournal() {
+        synchronized (journalLock) {
+            if (journal == null || journal.getLines() <= 2L * queue.size()) {
+                return;
+            }
+            try {
+                journal.rewrite(queue.values().stream()
+                        .map(IndexingWork::toLine)
+                        .collect(Collectors.toList()));
+            } catch (IOException e) {
+                logger.warn("Could not rewrite the indexing journal. " + e);
+            }
+        }
+    }
+
+    /**
+     * @return true if the batch was indexed
+     */
+    private boolean index(List<IndexingWork> batch) {
+        Timer.Context timer = batches.time();
+        try {
+            batchIndexer.index(batch);
+        } catch (RuntimeException e) {
+            failed.mark(batch.size());
+            logger.warn("Could not index " + batch.size() + " entities, retrying with the next batch. " + e);
+            return false;
+        } finally {
+            timer.stop();
+        }
+        long now = System.nanoTime();
+        for (IndexingWork work : batch) {
+            latency.update(now - work.queued, TimeUnit.NANOSECONDS);
+        }
+        indexed.mark(batch.size());
+        return true;
+    }
+
+    /**
+     * Load the entities of batch in a new session and send them to the index in one go.
+     */
+    private void indexInSession(List<IndexingWork> batch) {
+        Session session = entityManagerFactory.unwrap(SessionFactoryImplementor.class).openSession();
+        Transaction transaction = null;
+        try {
+            FullTextSession fullTextSession = Search.getFullTextSession(session);
+            fullTextSession.setHibernateFlushMode(FlushMode.MANUAL);
+            fullTextSession.setCacheMode(CacheMode.IGNORE);
+            fullTextSession.setDefaultReadOnly(true);
+            transaction = fullTextSession.beginTransaction();
+            for (IndexingWork work : batch) {
+                Object entity = work.purge ? null : fullTextSession.get(work.entityClass, work.id);
+                // An entity deleted since it was queued is removed from the index
+                if (entity == null) {
+                    fullTextSession.purge(work.entityClass, work.id);
+                } else {
+                    fullTextSession.index(entity);
+                }
+            }
+            fullTextSession.flushToIndexes();
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    @FunctionalInterface
+    interface BatchIndexer {
+        /**
+         * Index, or remove from the index, the entities of batch.
+         *
+         * @throws RuntimeException if the batch was not indexed
+         */
+        void index(List<IndexingWork> batch);
+    }
+
+    /**
+     * An entity to be indexed, or removed from the index.
+     */
+    static class IndexingWork {
+
+        // Marks work in the journal as indexing or purging
+        private static final String INDEX = "I";
+        private static final String PURGE = "P";
+
+        final String key;
+        final Class<?> entityClass;
+        final Serializable id;
+        final String systemId;
+        final boolean purge;
+        // When the entity was first queued, in System.nanoTime()
+        final long queued;
+
+        IndexingWork(Class<?> entityClass, Serializable id, String systemId, boolean purge, long queued) {
+            this.key = entityClass.getName() + "/" + (systemId != null ? systemId : "#" + id);
+            this.entityClass = entityClass;
+            this.id = id;
+            this.systemId = systemId;
+            this.purge = purge;
+            this.queued = queued;
+        }
+
+        private IndexingWork(IndexingWork work, long queued) {
+            this.key = work.key;
+            this.entityClass = work.entityClass;
+            this.id = work.id;
+            this.systemId = work.systemId;
+            this.purge = work.purge;
+            this.queued = queued;
+        }
+
+        /**
+         * @return later, queued since this
+         */
+        IndexingWork coalesce(IndexingWork later) {
+            return new IndexingWork(later, Math.min(queued, later.queued));
+        }
+
+        /**
+         * @return the work as a line of the journal
+         */
+        String toLine() {
+            return (purge ? PURGE : INDEX) + "\t" + entityClass.getName() + "\t" + id + "\t" +
+                    (systemId == null ? "" : systemId);
+        }
+
+        /**
+         * @param line a line of the journal, written by toLine(). The ids of indexed entities are Longs
+         */
+        static IndexingWork fromLine(String line, long queued) throws ClassNotFoundException {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 4) {
+                throw new IllegalArgumentException("Expected 4 fields, found " + fields.length);
+            }
+            return new IndexingWork(Class.forName(fields[1]), Long.valueOf(fields[2]),
+                    fields[3].isEmpty() ? null : fields[3], PURGE.equals(fields[0]), queued);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.search;
+
+import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.search.IAsyncIndexingService;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Hands the indexed entities inserted, updated or deleted by a transaction to the IAsyncIndexingService once
+ * the transaction has committed. Entities changed by a transaction that rolls back are never queued.
+ */
+class IndexingEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final IAsyncIndexingService indexingService;
+    private final Set<Class<?>> indexedTypes;
+
+    /**
+     * @param indexedTypes the entity classes with an index, as known to Hibernate Search
+     */
+    IndexingEventListener(IAsyncIndexingService indexingService, Set<Class<?>> indexedTypes) {
+        this.indexingService = indexingService;
+        this.indexedTypes = indexedTypes;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        queue(event.getPersister(), event.getId(), event.getEntity(), false);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        queue(event.getPersister(), event.getId(), event.getEntity(), false);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        queue(event.getPersister(), event.getId(), event.getEntity(), true);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was committed, so there is nothing to index
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was committed, so there is nothing to index
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was committed, so there is nothing to index
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return indexedTypes.contains(persister.getMappedClass());
+    }
+
+    private void queue(EntityPersister persister, Serializable id, Object entity, boolean purge) {
+        Class<?> entityClass = persister.getMappedClass();
+        if (!indexedTypes.contains(entityClass)) {
+            return;
+        }
+        String systemId = null;
+        if (entity instanceof INoarkSystemIdEntity) {
+            systemId = ((INoarkSystemIdEntity) entity).getSystemId();
+        }
+        indexingService.queue(entityClass, id, systemId, purge);
+    }
+}
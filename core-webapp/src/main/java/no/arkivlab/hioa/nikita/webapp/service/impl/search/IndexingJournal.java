@@ -0,0 +1,92 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.search;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The queue of the AsyncIndexingService on disk, so that entities queued but not indexed when the application
+ * stops are indexed when it starts again.
+ * <p>
+ * Each entity queued is appended to the journal as a line. The journal is emptied once the queue has been
+ * indexed, and rewritten with what is queued once it holds more than twice as many lines, so it does not grow
+ * without bounds while entities keep being queued. Lines are written through to the operating system, but are
+ * not forced to disk, so what was queued just before the machine, rather than the application, stopped might
+ * be lost.
+ * <p>
+ * Not thread safe; the AsyncIndexingService serialises the use of its journal.
+ */
+final class IndexingJournal implements Closeable {
+
+    private final Path file;
+    private BufferedWriter writer;
+    private long lines;
+
+    IndexingJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the journal for appending.
+     *
+     * @return the lines left in the journal when it was last closed
+     */
+    List<String> open() throws IOException {
+        List<String> left = new ArrayList<>();
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    left.add(line);
+                }
+            }
+        } else if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        lines = left.size();
+        return left;
+    }
+
+    void append(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+        writer.flush();
+        lines++;
+    }
+
+    /**
+     * Replace the journal with queued, so that it is either the old or the new journal if the application is
+     * killed while writing.
+     */
+    void rewrite(Collection<String> queued) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, queued, StandardCharsets.UTF_8);
+        writer.close();
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        lines = queued.size();
+    }
+
+    /**
+     * @return the number of lines in the journal, including those of entities since indexed
+     */
+    long getLines() {
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads no more than limit bytes from the underlying stream, e.g. so a chunk of an upload can not write past
+ * its range.
+ */
+public class BoundedInputStream extends InputStream {
+
+    private final InputStream inputStream;
+    private long remaining;
+
+    public BoundedInputStream(InputStream inputStream, long limit) {
+        this.inputStream = inputStream;
+        this.remaining = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int b = inputStream.read();
+        if (b >= 0) {
+            remaining--;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int bytesRead = inputStream.read(b, off, (int) Math.min(len, remaining));
+        if (bytesRead > 0) {
+            remaining -= bytesRead;
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -0,0 +1,101 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of equally sized ByteBuffers used when copying document streams to storage.
+ * <p>
+ * Buffers are allocated lazily, up to maxBuffers. When all buffers are in use, acquire() blocks until
+ * another upload releases its buffer. This puts an upper bound on the (direct) memory used for uploads
+ * regardless of how many requests are in flight.
+ */
+public class ByteBufferPool {
+
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final boolean direct;
+    private final BlockingQueue<ByteBuffer> available;
+    private final AtomicInteger allocated = new AtomicInteger(0);
+
+    public ByteBufferPool(int bufferSize, int maxBuffers, boolean direct) {
+        if (bufferSize < 1 || maxBuffers < 1) {
+            throw new IllegalArgumentException("ByteBufferPool requires a positive bufferSize (" + bufferSize +
+                    ") and maxBuffers (" + maxBuffers + ")");
+        }
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.direct = direct;
+        this.available = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    /**
+     * Get a cleared buffer from the pool, allocating a new one if the pool is not yet full.
+     *
+     * @return a cleared ByteBuffer of bufferSize capacity
+     * @throws InterruptedException if interrupted while waiting for a buffer to be released
+     */
+    public ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer buffer = available.poll();
+        if (buffer == null) {
+            buffer = allocateIfAllowed();
+            if (buffer == null) {
+                buffer = available.take();
+            }
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Get a cleared buffer from the pool if one is free or can be allocated, without waiting.
+     *
+     * @return a cleared ByteBuffer of bufferSize capacity, or null if all buffers are in use
+     */
+    public ByteBuffer tryAcquire() {
+        ByteBuffer buffer = available.poll();
+        if (buffer == null) {
+            buffer = allocateIfAllowed();
+        }
+        if (buffer != null) {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool. Buffers not originating from this pool are ignored.
+     *
+     * @param buffer the buffer to return
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == bufferSize && buffer.isDirect() == direct) {
+            available.offer(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getAllocated() {
+        return allocated.get();
+    }
+
+    public int getAvailable() {
+        return available.size();
+    }
+
+    private ByteBuffer allocateIfAllowed() {
+        int current;
+        do {
+            current = allocated.get();
+            if (current >= maxBuffers) {
+                return null;
+            }
+        } while (!allocated.compareAndSet(current, current + 1));
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+}
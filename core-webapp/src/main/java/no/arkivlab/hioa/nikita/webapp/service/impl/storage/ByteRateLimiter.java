@@ -0,0 +1,95 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how many bytes per second are read by all threads sharing the limiter. Each read is paid for
+ * after it has happened: a thread waits until the bytes read before it, by any thread, are within the
+ * limit, and then adds its own bytes to the account. Time spent idle is not saved up for later bursts.
+ */
+public class ByteRateLimiter {
+
+    private final long bytesPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    /**
+     * @param bytesPerSecond the limit, or 0 for no limit
+     */
+    public ByteRateLimiter(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public static ByteRateLimiter ofMegabytesPerSecond(int megabytesPerSecond) {
+        return new ByteRateLimiter(megabytesPerSecond * 1024L * 1024L);
+    }
+
+    /**
+     * Account for bytes that have been read, waiting as long as needed to keep within the limit.
+     *
+     * @param bytes the number of bytes read
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire(long bytes) throws InterruptedException {
+        if (bytesPerSecond <= 0 || bytes <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (nextFreeNanos < now) {
+                nextFreeNanos = now;
+            }
+            waitNanos = nextFreeNanos - now;
+            nextFreeNanos += TimeUnit.SECONDS.toNanos(bytes) / bytesPerSecond;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * @return inputStream, with every read accounted for by this limiter
+     */
+    public InputStream throttle(InputStream inputStream) {
+        if (bytesPerSecond <= 0) {
+            return inputStream;
+        }
+        return new FilterInputStream(inputStream) {
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value != -1) {
+                    account(1);
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int bytesRead = super.read(buffer, offset, length);
+                account(bytesRead);
+                return bytesRead;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                account(skipped);
+                return skipped;
+            }
+
+            private void account(long bytes) throws InterruptedIOException {
+                try {
+                    acquire(bytes);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while throttling reads");
+                }
+            }
+        };
+    }
+}
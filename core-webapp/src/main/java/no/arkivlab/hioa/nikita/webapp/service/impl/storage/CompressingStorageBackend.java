@@ -0,0 +1,627 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compresses documents of compressible mime types (XML, text, uncompressed TIFF etc.) before they are handed
+ * to another IStorageBackend, and decompresses them again when they are read. Callers always see the original
+ * bytes, so checksums, sizes and ranges are those of the original document, and the fixity audit verifies
+ * the original content.
+ * <p>
+ * A document is compressed in independent frames of frameSize bytes, so a range can be served by reading
+ * and decompressing only the frames it covers. A compressed document is laid out as
+ * <pre>
+ *     magic (8 bytes) codec id (1) frame size (4) original size (8) frame count (4)
+ *     index: the stored length of each frame (4 bytes each, the high bit set if the frame is stored raw)
+ *     frames
+ * </pre>
+ * Frames that do not get smaller are stored raw, and a document is stored as it is unless compression saves
+ * at least an eighth of its size. Whether a document is compressed is never guessed from its content: a
+ * compressed document is kept in the delegate under its reference with COMPRESSED_SUFFIX appended, and
+ * everything else under its reference unchanged, so documents stored before compression was turned on, or of
+ * other mime types, are passed through whatever bytes they start with. Compressed documents are never offered
+ * for sendfile, as the file on disk does not hold the original bytes.
+ * <p>
+ * Stored documents are never modified, so the parsed header and index of recently read documents are cached,
+ * and size() and range reads of a compressed document only read its frames.
+ */
+public class CompressingStorageBackend implements IStorageBackend {
+
+    public static final int MINIMUM_FRAME_SIZE = 4096;
+    public static final int MAXIMUM_FRAME_SIZE = 67108864;
+    // Appended to the reference of a compressed document in the delegate
+    public static final String COMPRESSED_SUFFIX = ".nkz";
+
+    private static final byte[] MAGIC = {(byte) 0x89, 'N', 'K', 'Z', '\r', '\n', 0x1a, '\n'};
+    private static final int HEADER_SIZE = MAGIC.length + 1 + 4 + 8 + 4;
+    private static final int RAW_FRAME = 0x80000000;
+    private static final int LENGTH_MASK = 0x7fffffff;
+    // Documents smaller than this are not worth compressing
+    private static final long MINIMUM_SIZE = 4096;
+    // Compression must save at least 1/MINIMUM_SAVINGS_DIVISOR of the size to be kept
+    private static final int MINIMUM_SAVINGS_DIVISOR = 8;
+    // Give up on a document if this many frames did not compress well, e.g. a JPEG labelled as TIFF
+    private static final int SAMPLE_FRAMES = 4;
+    // Read together with the header, so the index of most documents is read in a single request
+    private static final int INDEX_READ_AHEAD = 16384;
+    // The number of documents whose header and index are cached
+    private static final int CACHED_DOCUMENTS = 256;
+
+    private final IStorageBackend delegate;
+    private final CompressionCodec codec;
+    private final int level;
+    private final int frameSize;
+    private final List<String> mimeTypes = new ArrayList<>();
+    private final AtomicLong compressedDocuments = new AtomicLong(0);
+    private final AtomicLong originalBytes = new AtomicLong(0);
+    private final AtomicLong storedBytes = new AtomicLong(0);
+    private final Map<String, Stored> cache = new LinkedHashMap<String, Stored>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+            return size() > CACHED_DOCUMENTS;
+        }
+    };
+
+    /**
+     * @param delegate  where the (compressed) documents are kept
+     * @param codec     the codec new documents are compressed with
+     * @param level     the compression level, from 1 (fastest) to 9 (smallest)
+     * @param frameSize the number of original bytes in each frame
+     * @param mimeTypes the mime types to compress. A single * matches anything, e.g. text/* or
+     *                  application/*+xml
+     */
+    public CompressingStorageBackend(IStorageBackend delegate, CompressionCodec codec, int level, int frameSize,
+                                     Collection<String> mimeTypes) {
+        if (frameSize < MINIMUM_FRAME_SIZE || frameSize > MAXIMUM_FRAME_SIZE) {
+            throw new IllegalArgumentException("The frame size must be between " + MINIMUM_FRAME_SIZE +
+                    " and " + MAXIMUM_FRAME_SIZE + " bytes, not " + frameSize);
+        }
+        this.delegate = delegate;
+        this.codec = codec;
+        this.level = level;
+        this.frameSize = frameSize;
+        for (String mimeType : mimeTypes) {
+            if (mimeType != null && !mimeType.trim().isEmpty()) {
+                this.mimeTypes.add(mimeType.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    public IStorageBackend getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of documents stored compressed since startup
+     */
+    public long getCompressedDocuments() {
+        return compressedDocuments.get();
+    }
+
+    /**
+     * @return the original size of the documents stored compressed since startup
+     */
+    public long getOriginalBytes() {
+        return originalBytes.get();
+    }
+
+    /**
+     * @return the stored size of the documents stored compressed since startup
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    /**
+     * @return true if documents of mimeType are compressed when stored
+     */
+    public boolean isCompressible(String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        String type = mimeType;
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters);
+        }
+        type = type.trim().toLowerCase(Locale.ROOT);
+        for (String pattern : mimeTypes) {
+            int wildcard = pattern.indexOf('*');
+            if (wildcard < 0 ? pattern.equals(type) :
+                    type.length() >= pattern.length() - 1 &&
+                            type.startsWith(pattern.substring(0, wildcard)) &&
+                            type.endsWith(pattern.substring(wildcard + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void init() throws IOException {
+        delegate.init();
+    }
+
+    @Override
+    public boolean exists(String reference) throws IOException {
+        return getCached(reference) != null || delegate.exists(reference + COMPRESSED_SUFFIX) ||
+                delegate.exists(reference);
+    }
+
+    @Override
+    public long size(String reference) throws IOException {
+        Stored stored = resolve(reference);
+        return stored.index == null ? delegate.size(reference) : stored.index.originalSize;
+    }
+
+    @Override
+    public long lastModified(String reference) throws IOException {
+        return delegate.lastModified(resolve(reference).reference);
+    }
+
+    @Override
+    public void touch(String reference) throws IOException {
+        delegate.touch(resolve(reference).reference);
+    }
+
+    /**
+     * Store source as it is. Without a mime type there is nothing to decide compression on.
+     */
+    @Override
+    public void put(String reference, Path source) throws IOException {
+        evict(reference);
+        delegate.put(reference, source);
+        delegate.delete(reference + COMPRESSED_SUFFIX);
+    }
+
+    /**
+     * Store source, compressed if its mime type is compressible and compression pays off.
+     */
+    @Override
+    public void put(String reference, Path source, String mimeType) throws IOException {
+        long size = Files.size(source);
+        if (size < MINIMUM_SIZE || !isCompressible(mimeType)) {
+            put(reference, source);
+            return;
+        }
+        Path compressed = source.resolveSibling(source.getFileName() + ".z");
+        try {
+            long compressedSize = compress(source, compressed, size);
+            if (compressedSize < 0) {
+                put(reference, source);
+                return;
+            }
+            evict(reference);
+            delegate.put(reference + COMPRESSED_SUFFIX, compressed);
+            delegate.delete(reference);
+            Files.deleteIfExists(source);
+            compressedDocuments.incrementAndGet();
+            originalBytes.addAndGet(size);
+            storedBytes.addAndGet(compressedSize);
+        } finally {
+            Files.deleteIfExists(compressed);
+        }
+    }
+
+    @Override
+    public void copy(String sourceReference, String targetReference) throws IOException {
+        Stored stored = resolve(sourceReference);
+        evict(targetReference);
+        if (stored.index == null) {
+            delegate.copy(sourceReference, targetReference);
+        } else {
+            delegate.copy(stored.reference, targetReference + COMPRESSED_SUFFIX);
+        }
+    }
+
+    @Override
+    public InputStream get(String reference) throws IOException {
+        Stored stored = resolve(reference);
+        if (stored.index == null) {
+            return delegate.get(reference);
+        }
+        return getFrames(stored, 0, stored.index.originalSize);
+    }
+
+    @Override
+    public InputStream get(String reference, long position, long length) throws IOException {
+        Stored stored = resolve(reference);
+        if (stored.index == null) {
+            return delegate.get(reference, position, length);
+        }
+        return getFrames(stored, position, length);
+    }
+
+    @Override
+    public void transferTo(String reference, long position, long length, WritableByteChannel target)
+            throws IOException {
+        Stored stored = resolve(reference);
+        if (stored.index == null) {
+            delegate.transferTo(reference, position, length, target);
+            return;
+        }
+        try (InputStream inputStream = getFrames(stored, position, length)) {
+            byte[] buffer = new byte[65536];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, bytesRead);
+                while (byteBuffer.hasRemaining()) {
+                    target.write(byteBuffer);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(String reference) throws IOException {
+        evict(reference);
+        boolean deletedCompressed = delegate.delete(reference + COMPRESSED_SUFFIX);
+        return delegate.delete(reference) || deletedCompressed;
+    }
+
+    @Override
+    public Path toLocalPath(String reference) {
+        Stored stored = getCached(reference);
+        if (stored != null) {
+            return stored.index == null ? delegate.toLocalPath(reference) : null;
+        }
+        Path compressed = delegate.toLocalPath(reference + COMPRESSED_SUFFIX);
+        if (compressed != null && Files.exists(compressed)) {
+            return null;
+        }
+        return delegate.toLocalPath(reference);
+    }
+
+    /**
+     * Compress source into target.
+     *
+     * @return the size of target, or -1 if compression did not save enough to be worth it
+     */
+    private long compress(Path source, Path target, long size) throws IOException {
+        long frameCount = (size + frameSize - 1) / frameSize;
+        if (frameCount > (Integer.MAX_VALUE - HEADER_SIZE) / 4) {
+            return -1;
+        }
+        int[] entries = new int[(int) frameCount];
+        byte[] frame = new byte[frameSize];
+        byte[] compressedFrame = new byte[frameSize];
+        long dataStart = HEADER_SIZE + 4L * entries.length;
+        long storedSize = dataStart;
+        long limit = size - size / MINIMUM_SAVINGS_DIVISOR;
+        try (FileChannel inputChannel = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel outputChannel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+                     StandardOpenOption.WRITE)) {
+            outputChannel.position(dataStart);
+            long read = 0;
+            for (int i = 0; i < entries.length; i++) {
+                int length = (int) Math.min(frameSize, size - read);
+                ByteBuffer frameBuffer = ByteBuffer.wrap(frame, 0, length);
+                while (frameBuffer.hasRemaining()) {
+                    if (inputChannel.read(frameBuffer) == -1) {
+                        throw new EOFException("Unexpected end of " + source);
+                    }
+                }
+                read += length;
+                int compressedLength = codec.compress(frame, length, compressedFrame, level);
+                ByteBuffer output;
+                if (compressedLength < 0 || compressedLength >= length) {
+                    entries[i] = RAW_FRAME | length;
+                    output = ByteBuffer.wrap(frame, 0, length);
+                } else {
+                    entries[i] = compressedLength;
+                    output = ByteBuffer.wrap(compressedFrame, 0, compressedLength);
+                }
+                storedSize += output.remaining();
+                while (output.hasRemaining()) {
+                    outputChannel.write(output);
+                }
+                if (storedSize > limit ||
+                        (i == SAMPLE_FRAMES - 1 && storedSize - dataStart > read - read / MINIMUM_SAVINGS_DIVISOR)) {
+                    return -1;
+                }
+            }
+
+            ByteBuffer prefix = ByteBuffer.allocate((int) dataStart);
+            prefix.put(MAGIC).put(codec.getId()).putInt(frameSize).putLong(size).putInt(entries.length);
+            for (int entry : entries) {
+                prefix.putInt(entry);
+            }
+            prefix.flip();
+            long position = 0;
+            while (prefix.hasRemaining()) {
+                position += outputChannel.write(prefix, position);
+            }
+        }
+        return storedSize;
+    }
+
+    /**
+     * @return where and how the document is stored, from the cache or by reading the header and index of a
+     * compressed document
+     * @throws NoSuchFileException if nothing is stored under reference
+     */
+    private Stored resolve(String reference) throws IOException {
+        Stored stored = getCached(reference);
+        if (stored != null) {
+            return stored;
+        }
+        String compressedReference = reference + COMPRESSED_SUFFIX;
+        if (delegate.exists(compressedReference)) {
+            stored = new Stored(compressedReference, readIndex(compressedReference));
+        } else if (delegate.exists(reference)) {
+            stored = new Stored(reference, null);
+        } else {
+            throw new NoSuchFileException(reference);
+        }
+        synchronized (cache) {
+            cache.put(reference, stored);
+        }
+        return stored;
+    }
+
+    private Stored getCached(String reference) {
+        synchronized (cache) {
+            return cache.get(reference);
+        }
+    }
+
+    private void evict(String reference) {
+        synchronized (cache) {
+            cache.remove(reference);
+        }
+    }
+
+    /**
+     * @param storedReference the reference of a compressed document in the delegate
+     * @return the header and index of the document
+     * @throws IOException if the document does not start with a valid header and index
+     */
+    private Index readIndex(String storedReference) throws IOException {
+        long storedSize = delegate.size(storedReference);
+        if (storedSize < HEADER_SIZE) {
+            throw new IOException("Compressed document " + storedReference + " is shorter than its header");
+        }
+        int readAhead = (int) Math.min(storedSize, INDEX_READ_AHEAD);
+        byte[] prefix = new byte[readAhead];
+        try (InputStream inputStream = delegate.get(storedReference, 0, readAhead)) {
+            if (readFully(inputStream, prefix, 0, readAhead) != readAhead) {
+                throw new EOFException("Compressed document " + storedReference + " ends in its header");
+            }
+        }
+        Index index = Index.parseHeader(prefix, storedSize);
+        if (index == null) {
+            throw new IOException("Compressed document " + storedReference + " has an invalid header");
+        }
+        int prefixLength = HEADER_SIZE + 4 * index.entries.length;
+        if (prefixLength > readAhead) {
+            byte[] longerPrefix = new byte[prefixLength];
+            System.arraycopy(prefix, 0, longerPrefix, 0, readAhead);
+            try (InputStream inputStream = delegate.get(storedReference, readAhead, prefixLength - readAhead)) {
+                if (readFully(inputStream, longerPrefix, readAhead, prefixLength - readAhead) !=
+                        prefixLength - readAhead) {
+                    throw new EOFException("Compressed document " + storedReference + " ends in its index");
+                }
+            }
+            prefix = longerPrefix;
+        }
+        if (!index.parseIndex(prefix, storedSize)) {
+            throw new IOException("Compressed document " + storedReference + " has an invalid index");
+        }
+        return index;
+    }
+
+    /**
+     * Read only the frames covering length original bytes from position.
+     */
+    private InputStream getFrames(Stored stored, long position, long length) throws IOException {
+        Index index = stored.index;
+        if (length <= 0 || position >= index.originalSize) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        long end = Math.min(position + length, index.originalSize);
+        int firstFrame = (int) (position / index.frameSize);
+        int lastFrame = (int) ((end - 1) / index.frameSize);
+        long start = index.offsets[firstFrame];
+        InputStream inputStream = delegate.get(stored.reference, start, index.offsets[lastFrame + 1] - start);
+        return new FrameInputStream(inputStream, index, firstFrame,
+                position - (long) firstFrame * index.frameSize, end - position);
+    }
+
+    private static int readFully(InputStream inputStream, byte[] buffer, int offset, int length)
+            throws IOException {
+        int total = 0;
+        while (total < length) {
+            int bytesRead = inputStream.read(buffer, offset + total, length - total);
+            if (bytesRead == -1) {
+                break;
+            }
+            total += bytesRead;
+        }
+        return total;
+    }
+
+    /**
+     * Where a document is kept in the delegate, and the header and index if it is compressed.
+     */
+    private static class Stored {
+
+        private final String reference;
+        private final Index index;
+
+        Stored(String reference, Index index) {
+            this.reference = reference;
+            this.index = index;
+        }
+    }
+
+    /**
+     * The header and frame index of a compressed document.
+     */
+    private static class Index {
+
+        private final CompressionCodec codec;
+        private final int frameSize;
+        private final long originalSize;
+        private final int[] entries;
+        // Where each frame starts in the stored document, and where the last one ends
+        private final long[] offsets;
+
+        private Index(CompressionCodec codec, int frameSize, long originalSize, int frameCount) {
+            this.codec = codec;
+            this.frameSize = frameSize;
+            this.originalSize = originalSize;
+            this.entries = new int[frameCount];
+            this.offsets = new long[frameCount + 1];
+        }
+
+        /**
+         * @param storedSize the size of the stored document
+         * @return the header, or null if prefix does not start with a valid header
+         */
+        static Index parseHeader(byte[] prefix, long storedSize) {
+            ByteBuffer buffer = ByteBuffer.wrap(prefix, 0, HEADER_SIZE);
+            for (byte b : MAGIC) {
+                if (buffer.get() != b) {
+                    return null;
+                }
+            }
+            CompressionCodec codec = CompressionCodec.forId(buffer.get());
+            int frameSize = buffer.getInt();
+            long originalSize = buffer.getLong();
+            int frameCount = buffer.getInt();
+            if (codec == null || frameSize < MINIMUM_FRAME_SIZE || frameSize > MAXIMUM_FRAME_SIZE ||
+                    originalSize < 0 || frameCount < 0 || frameCount > (Integer.MAX_VALUE - HEADER_SIZE) / 4 ||
+                    frameCount != (originalSize + frameSize - 1) / frameSize ||
+                    storedSize < HEADER_SIZE + 4L * frameCount) {
+                return null;
+            }
+            return new Index(codec, frameSize, originalSize, frameCount);
+        }
+
+        /**
+         * Read the frame index following the header.
+         *
+         * @param storedSize the size of the stored document
+         * @return false if the index does not agree with the header or the stored size
+         */
+        boolean parseIndex(byte[] prefix, long storedSize) {
+            ByteBuffer buffer = ByteBuffer.wrap(prefix, HEADER_SIZE, 4 * entries.length);
+            long offset = HEADER_SIZE + 4L * entries.length;
+            for (int i = 0; i < entries.length; i++) {
+                int entry = buffer.getInt();
+                int length = entry & LENGTH_MASK;
+                if ((entry & RAW_FRAME) != 0 ? length != frameLength(i) : length >= frameLength(i)) {
+                    return false;
+                }
+                entries[i] = entry;
+                offsets[i] = offset;
+                offset += length;
+            }
+            offsets[entries.length] = offset;
+            return offset == storedSize;
+        }
+
+        int frameLength(int frame) {
+            return (int) Math.min(frameSize, originalSize - (long) frame * frameSize);
+        }
+    }
+
+    /**
+     * Decompresses consecutive frames, skipping the first bytes of the first one and stopping after length
+     * original bytes.
+     */
+    private static class FrameInputStream extends InputStream {
+
+        private final InputStream inputStream;
+        private final Index index;
+        private final byte[] compressed;
+        private final byte[] frame;
+        private int nextFrame;
+        private long skip;
+        private long remaining;
+        private int position;
+        private int limit;
+
+        FrameInputStream(InputStream inputStream, Index index, int firstFrame, long skip, long length) {
+            this.inputStream = inputStream;
+            this.index = index;
+            this.nextFrame = firstFrame;
+            this.skip = skip;
+            this.remaining = length;
+            int bufferSize = (int) Math.min(index.frameSize, Math.max(index.originalSize, 1));
+            this.compressed = new byte[bufferSize];
+            this.frame = new byte[bufferSize];
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (position >= limit) {
+                readFrame();
+            }
+            int count = (int) Math.min(Math.min(len, limit - position), remaining);
+            System.arraycopy(frame, position, b, off, count);
+            position += count;
+            remaining -= count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+
+        private void readFrame() throws IOException {
+            if (nextFrame >= index.entries.length) {
+                throw new EOFException("Compressed document ends " + remaining + " bytes early");
+            }
+            int entry = index.entries[nextFrame];
+            int length = entry & LENGTH_MASK;
+            int originalLength = index.frameLength(nextFrame);
+            if ((entry & RAW_FRAME) != 0) {
+                if (readFully(inputStream, frame, 0, length) != length) {
+                    throw new EOFException("Compressed document ends in frame " + nextFrame);
+                }
+            } else {
+                if (readFully(inputStream, compressed, 0, length) != length) {
+                    throw new EOFException("Compressed document ends in frame " + nextFrame);
+                }
+                index.codec.decompress(compressed, length, frame, originalLength);
+            }
+            nextFrame++;
+            position = (int) skip;
+            limit = originalLength;
+            skip = 0;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The codecs frames of a compressed document can be encoded with. The id is written to the header of every
+ * compressed document, so an id must never be reused for another codec.
+ */
+public enum CompressionCodec {
+
+    DEFLATE("deflate", (byte) 1) {
+        @Override
+        public int compress(byte[] source, int length, byte[] target, int level) {
+            Deflater deflater = new Deflater(level);
+            try {
+                deflater.setInput(source, 0, length);
+                deflater.finish();
+                int compressedLength = 0;
+                while (!deflater.finished() && compressedLength < target.length) {
+                    compressedLength += deflater.deflate(target, compressedLength, target.length - compressedLength);
+                }
+                return deflater.finished() ? compressedLength : -1;
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public void decompress(byte[] source, int length, byte[] target, int originalLength) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(source, 0, length);
+                int decompressedLength = 0;
+                while (!inflater.finished() && decompressedLength < originalLength) {
+                    int bytesInflated = inflater.inflate(target, decompressedLength,
+                            originalLength - decompressedLength);
+                    if (bytesInflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    decompressedLength += bytesInflated;
+                }
+                if (decompressedLength != originalLength || !inflater.finished()) {
+                    throw new IOException("Compressed frame does not hold the expected " + originalLength +
+                            " bytes");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt compressed frame. " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    private final String name;
+    private final byte id;
+
+    CompressionCodec(String name, byte id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * @param name a codec name as used in the configuration, e.g. deflate
+     * @return the codec, or null if there is no codec with that name
+     */
+    public static CompressionCodec forName(String name) {
+        for (CompressionCodec codec : values()) {
+            if (codec.name.equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the codec with the given id, or null if there is none
+     */
+    public static CompressionCodec forId(byte id) {
+        for (CompressionCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compress the first length bytes of source into target.
+     *
+     * @param level the compression level, from 1 (fastest) to 9 (smallest)
+     * @return the compressed length, or -1 if the compressed frame would not fit in target
+     */
+    public abstract int compress(byte[] source, int length, byte[] target, int level);
+
+    /**
+     * Decompress a frame compressed by compress().
+     *
+     * @param originalLength the number of bytes the frame decompresses to
+     * @throws IOException if the frame is corrupt or does not decompress to originalLength bytes
+     */
+    public abstract void decompress(byte[] source, int length, byte[] target, int originalLength)
+            throws IOException;
+}
@@ -0,0 +1,301 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageLayout;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStoredContentIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A document store where each file is named after the checksum of its content. Identical content uploaded
+ * many times (letterheads, standard forms etc.) is therefore only stored once. Where a file with a given key
+ * is placed is decided by an IStorageLayout, and where it is kept by an IStorageBackend. If the layout does not
+ * always place a key in the same location, content stored earlier is found through an IStoredContentIndex.
+ * <p>
+ * Uploads are first written to a local incoming directory while the checksum is calculated. When the upload
+ * is complete the file is handed to the backend under its content key, or simply deleted if content with
+ * that key is already present.
+ * <p>
+ * The store itself does not keep reference counts. A file is referenced by every DocumentObject whose
+ * referenceDocumentFile is equal to its location, so counting references is left to the caller who
+ * has access to the database. As a reference is only committed some time after the content has been
+ * stored, content is not deleted unless it has been left untouched for a grace period.
+ * <p>
+ * An upload interrupted by a crash leaves its file in the incoming directory, never in the store. init()
+ * sweeps such orphans away when the application starts.
+ */
+public class ContentAddressedStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressedStore.class);
+
+    public static final String INCOMING_DIRECTORY = "incoming";
+    public static final long RELEASE_GRACE_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    // Files in the incoming directory untouched for this long belong to no upload in progress, not even on
+    // another instance sharing the storage
+    public static final long ORPHAN_GRACE_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Path incomingLocation;
+    private final StorageWriter storageWriter;
+    private final IStorageLayout storageLayout;
+    private final IStorageBackend storageBackend;
+    private final IStoredContentIndex contentIndex;
+
+    /**
+     * @param incomingLocation where uploads are written before they are handed to the backend
+     */
+    public ContentAddressedStore(Path incomingLocation, StorageWriter storageWriter, IStorageLayout storageLayout,
+                                 IStorageBackend storageBackend) {
+        this(incomingLocation, storageWriter, storageLayout, storageBackend, null);
+    }
+
+    /**
+     * @param incomingLocation where uploads are written before they are handed to the backend
+     * @param contentIndex     finds content stored earlier when the layout is not stable, or null
+     */
+    public ContentAddressedStore(Path incomingLocation, StorageWriter storageWriter, IStorageLayout storageLayout,
+                                 IStorageBackend storageBackend, IStoredContentIndex contentIndex) {
+        this.incomingLocation = incomingLocation.toAbsolutePath().normalize();
+        this.storageWriter = storageWriter;
+        this.storageLayout = storageLayout;
+        this.storageBackend = storageBackend;
+        this.contentIndex = contentIndex;
+    }
+
+    /**
+     * @return the directory where files are written before they are moved into the store
+     */
+    public Path getIncomingLocation() {
+        return incomingLocation;
+    }
+
+    public IStorageBackend getStorageBackend() {
+        return storageBackend;
+    }
+
+    public void init() throws IOException {
+        Files.createDirectories(incomingLocation);
+        storageBackend.init();
+        sweepIncoming(ORPHAN_GRACE_PERIOD_MILLIS);
+    }
+
+    /**
+     * Delete files left in the incoming directory by uploads and copies that never completed. Only files
+     * directly in the incoming directory are considered; sub directories, like the one of resumable upload
+     * sessions, look after themselves.
+     *
+     * @param gracePeriodMillis how long a file must have been left untouched before it is deleted
+     * @return the number of files deleted
+     */
+    public int sweepIncoming(long gracePeriodMillis) throws IOException {
+        if (!Files.isDirectory(incomingLocation)) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(incomingLocation, Files::isRegularFile)) {
+            for (Path file : files) {
+                try {
+                    if (now - Files.getLastModifiedTime(file).toMillis() >= gracePeriodMillis &&
+                            Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not delete orphaned upload (" + file + "). " + e);
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted " + deleted + " orphaned uploads from " + incomingLocation);
+        }
+        return deleted;
+    }
+
+    /**
+     * @return the reference content with the given key has, or would have, with the current layout
+     */
+    public String locate(String key) {
+        return storageLayout.locate(key);
+    }
+
+    /**
+     * @return true if reference is where the current layout wants content with the given key, now or earlier
+     */
+    public boolean isLocated(String reference, String key) {
+        return storageLayout.isLocation(reference, key);
+    }
+
+    /**
+     * Find stored content with the given key, where the current layout places it today or, if the layout is
+     * not stable, wherever the layout placed it earlier.
+     *
+     * @return the reference of the content, or null if content with the key is not stored
+     */
+    public String find(String key) throws IOException {
+        String reference = locate(key);
+        if (storageBackend.exists(reference)) {
+            return reference;
+        }
+        if (!storageLayout.isStable() && contentIndex != null) {
+            String indexed = contentIndex.findReference(key);
+            if (indexed != null && storageLayout.isLocation(indexed, key) && storageBackend.exists(indexed)) {
+                return indexed;
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(String key) throws IOException {
+        return key != null && find(key) != null;
+    }
+
+    /**
+     * Write the content of inputStream to the store.
+     * <p>
+     * If the stream turns out to be empty, nothing is stored and the returned StoredContent has size 0.
+     *
+     * @param inputStream the incoming document
+     * @param digest      fresh digests. The hex encoded result of the primary digest becomes the content key
+     * @param mimeType    the mime type of the document, letting the backend decide how to store it
+     * @return the key, reference, size and checksums of the stored content
+     */
+    public StoredContent store(InputStream inputStream, MultiDigest digest, String mimeType)
+            throws IOException, InterruptedException {
+        Files.createDirectories(incomingLocation);
+        Path incoming = incomingLocation.resolve(UUID.randomUUID().toString());
+        long size;
+        try (FileChannel outputChannel = FileChannel.open(incoming, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            size = storageWriter.copy(inputStream, outputChannel, digest);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(incoming);
+            throw e;
+        }
+
+        Map<String, String> checksums = digest.digest();
+        String key = checksums.get(digest.getPrimaryAlgorithm());
+        if (size == 0) {
+            Files.delete(incoming);
+            return new StoredContent(key, locate(key), 0, false, checksums);
+        }
+        return commit(incoming, key, size, checksums, mimeType);
+    }
+
+    /**
+     * Move a completely written file, whose content key is already known, into the store. The file must be
+     * under the incoming directory. It is handed to the backend, or deleted if content with that key is
+     * already present.
+     *
+     * @param incoming  the file to move into the store
+     * @param key       the content key of the file
+     * @param size      the size of the file
+     * @param checksums the checksums of the file, keyed by algorithm
+     * @param mimeType  the mime type of the file, letting the backend decide how to store it
+     * @return the key, reference, size and checksums of the stored content
+     */
+    public StoredContent commit(Path incoming, String key, long size, Map<String, String> checksums,
+                                String mimeType) throws IOException {
+        String existing = find(key);
+        if (existing != null) {
+            Files.delete(incoming);
+            storageBackend.touch(existing);
+            return new StoredContent(key, existing, size, true, checksums);
+        }
+        String reference = locate(key);
+        storageBackend.put(reference, incoming, mimeType);
+        return new StoredContent(key, reference, size, false, checksums);
+    }
+
+    /**
+     * Calculate the content key of inputStream without writing it to the store. Used when the client has told
+     * us the checksum of content that is already present, so the upload only has to be verified.
+     *
+     * @param inputStream the incoming document
+     * @param digest      fresh digests
+     * @return the key, size and checksums of the content that was read. Deduplicated is true if the content
+     * is present
+     */
+    public StoredContent verify(InputStream inputStream, MultiDigest digest)
+            throws IOException, InterruptedException {
+        long size = storageWriter.digest(inputStream, digest);
+        Map<String, String> checksums = digest.digest();
+        String key = checksums.get(digest.getPrimaryAlgorithm());
+        String existing = size > 0 ? find(key) : null;
+        if (existing != null) {
+            storageBackend.touch(existing);
+            return new StoredContent(key, existing, size, true, checksums);
+        }
+        return new StoredContent(key, locate(key), size, false, checksums);
+    }
+
+    /**
+     * Make content that is stored under an old reference available where the current layout wants content
+     * with the given key, or where it already has content with the key. The old reference is left in place,
+     * so readers using it are not disturbed; use release() once nothing refers to it.
+     *
+     * @param reference where the content is stored now
+     * @param key       the content key
+     * @return the new reference, or reference if the layout already wants the content there
+     */
+    public String relocate(String reference, String key) throws IOException {
+        if (storageLayout.isLocation(reference, key)) {
+            return reference;
+        }
+        String newReference = find(key);
+        if (newReference == null) {
+            newReference = locate(key);
+            storageBackend.copy(reference, newReference);
+        }
+        return newReference;
+    }
+
+    /**
+     * Delete content that is no longer referenced. Content that has been stored or deduplicated within the
+     * grace period is left alone, as a reference to it might not have been committed yet.
+     *
+     * @param reference where the content is stored
+     * @return true if the content was deleted
+     */
+    public boolean release(String reference) throws IOException {
+        return release(reference, RELEASE_GRACE_PERIOD_MILLIS);
+    }
+
+    /**
+     * Delete content that is no longer referenced, unless it was touched within gracePeriodMillis.
+     *
+     * @param reference         where the content is stored
+     * @param gracePeriodMillis how long content must have been left untouched before it can be deleted
+     * @return true if the content was deleted
+     */
+    public boolean release(String reference, long gracePeriodMillis) throws IOException {
+        if (reference == null) {
+            return false;
+        }
+        if (!storageBackend.exists(reference)) {
+            return false;
+        }
+        long idle = System.currentTimeMillis() - storageBackend.lastModified(reference);
+        if (idle < gracePeriodMillis) {
+            return false;
+        }
+        return storageBackend.delete(reference);
+    }
+
+    public static String toHex(byte[] digest) {
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageLayout;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * Documents are stored in a directory per day they were stored, e.g. 2017/03/14/4f2a.... This makes
+ * incremental backups easy. As the location of new content depends on the date, content stored on an earlier
+ * day is found through the IStoredContentIndex, and a document under any date is where this layout wants it.
+ */
+public class DateStorageLayout implements IStorageLayout {
+
+    public static final String NAME = "date";
+
+    private static final DateTimeFormatter DIRECTORY_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final Pattern DATE_PREFIX = Pattern.compile("\\d{4}/\\d{2}/\\d{2}/");
+
+    @Override
+    public String locate(String key) {
+        return LocalDate.now().format(DIRECTORY_FORMAT) + "/" + key;
+    }
+
+    @Override
+    public boolean isLocation(String reference, String key) {
+        int prefixLength = reference.length() - key.length();
+        return reference.endsWith(key) && prefixLength > 0 &&
+                DATE_PREFIX.matcher(reference.substring(0, prefixLength)).matches();
+    }
+
+    @Override
+    public boolean isStable() {
+        return false;
+    }
+}
@@ -0,0 +1,171 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Makes new entries in a directory (files renamed into it, links, sub directories) durable by fsyncing the
+ * directory.
+ * <p>
+ * fsyncs of the same directory are group committed. The first thread to ask for a directory to be synced
+ * leads: it waits for the commit window so other writers can join, then fsyncs the directory once on
+ * behalf of everyone who asked before the fsync started. Those who ask while an fsync is in progress are
+ * covered by the next one. During bulk ingest into a few directories this replaces one fsync per file
+ * with one per window.
+ * <p>
+ * Some platforms (e.g. Windows) can not open a directory for fsync. Directory syncing is then turned off
+ * with a warning.
+ */
+public class DirectorySyncer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectorySyncer.class);
+
+    private final long commitWindowNanos;
+    private final ConcurrentMap<Path, Group> groups = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong syncs = new AtomicLong(0);
+    private volatile boolean supported = true;
+
+    /**
+     * @param commitWindowNanos how long the leader of a group waits for others to join before it fsyncs
+     */
+    public DirectorySyncer(long commitWindowNanos) {
+        this.commitWindowNanos = commitWindowNanos;
+    }
+
+    /**
+     * Return once an fsync of directory that started after this call has completed.
+     *
+     * @param directory the directory to sync
+     * @throws IOException if the fsync failed
+     */
+    public void sync(Path directory) throws IOException {
+        if (!supported) {
+            return;
+        }
+        requests.incrementAndGet();
+        Path key = directory.toAbsolutePath().normalize();
+        Group group = groups.compute(key, (path, existing) -> {
+            Group joined = existing != null ? existing : new Group();
+            joined.members++;
+            return joined;
+        });
+        try {
+            group.sync(directory);
+        } finally {
+            // The last to leave removes the group, so there is no group for a directory nobody is syncing
+            groups.computeIfPresent(key, (path, existing) -> --existing.members == 0 ? null : existing);
+        }
+    }
+
+    /**
+     * @return the number of times sync() has been called
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of fsyncs actually done
+     */
+    public long getSyncs() {
+        return syncs.get();
+    }
+
+    /**
+     * @return the number of directories being synced right now
+     */
+    public int getGroups() {
+        return groups.size();
+    }
+
+    private void fsync(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (AccessDeniedException | UnsupportedOperationException e) {
+            supported = false;
+            logger.warn("Directories can not be synced on this platform, renames into the document store " +
+                    "are not guaranteed to survive a crash. " + e);
+            return;
+        }
+        try {
+            channel.force(true);
+            syncs.incrementAndGet();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Sync requests for one directory. A ticket is taken for every request, and synced is the highest ticket
+     * covered by a completed fsync. members is the number of threads in sync() for the directory, and is only
+     * changed within the compute functions of groups.
+     */
+    private class Group {
+
+        private int members;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition done = lock.newCondition();
+        private long requested;
+        private long synced;
+        private boolean syncing;
+
+        void sync(Path directory) throws IOException {
+            lock.lock();
+            try {
+                long ticket = ++requested;
+                while (syncing && synced < ticket) {
+                    done.awaitUninterruptibly();
+                }
+                if (synced >= ticket) {
+                    return;
+                }
+                syncing = true;
+            } finally {
+                lock.unlock();
+            }
+
+            // Lead the group: let others join, then fsync for everyone who asked so far
+            long upTo = 0;
+            boolean completed = false;
+            try {
+                if (commitWindowNanos > 0) {
+                    LockSupport.parkNanos(commitWindowNanos);
+                }
+                lock.lock();
+                try {
+                    upTo = requested;
+                } finally {
+                    lock.unlock();
+                }
+                fsync(directory);
+                completed = true;
+            } finally {
+                lock.lock();
+                try {
+                    syncing = false;
+                    if (completed) {
+                        synced = Math.max(synced, upTo);
+                    }
+                    done.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
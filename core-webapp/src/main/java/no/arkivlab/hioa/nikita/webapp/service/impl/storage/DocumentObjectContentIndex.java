@@ -0,0 +1,36 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStoredContentIndex;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Finds stored content through the DocumentObjects referring to it, as their checksum is the content key.
+ */
+@Service
+public class DocumentObjectContentIndex implements IStoredContentIndex {
+
+    private final EntityManager entityManager;
+    private final String checksumAlgorithm;
+
+    public DocumentObjectContentIndex(EntityManager entityManager, WebappProperties webappProperties) {
+        this.entityManager = entityManager;
+        this.checksumAlgorithm = webappProperties.getChecksumProperties().getChecksumAlgorithm();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String findReference(String key) {
+        List<String> references = entityManager.createNativeQuery("SELECT reference_document_file FROM " +
+                "document_object WHERE checksum = :key AND checksum_algorithm = :algorithm AND " +
+                "reference_document_file IS NOT NULL")
+                .setParameter("key", key)
+                .setParameter("algorithm", checksumAlgorithm)
+                .setMaxResults(1)
+                .getResultList();
+        return references.isEmpty() ? null : references.get(0);
+    }
+}
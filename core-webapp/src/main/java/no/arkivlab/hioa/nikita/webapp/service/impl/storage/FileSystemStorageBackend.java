@@ -0,0 +1,209 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps stored documents as files under a root directory on a local or shared file system. References are
+ * resolved against the root; absolute references written by earlier versions resolve to themselves. A reference
+ * that resolves to a file outside the root is refused.
+ * <p>
+ * put() is a rename, so the staging directory must be on the same file system as the root directory.
+ * <p>
+ * When given a DirectorySyncer, writes are crash-safe: a file is fsynced before it is renamed into place,
+ * and the directory it is renamed into (and the parent of any directory created for it) is fsynced
+ * before put() returns. A crash can then leave a file in the staging directory, but never a truncated
+ * file in the store.
+ */
+public class FileSystemStorageBackend implements IStorageBackend {
+
+    public static final String NAME = "filesystem";
+
+    private final Path rootLocation;
+    private final Path stagingLocation;
+    private final DirectorySyncer directorySyncer;
+
+    public FileSystemStorageBackend(Path rootLocation, Path stagingLocation) {
+        this(rootLocation, stagingLocation, null);
+    }
+
+    /**
+     * @param rootLocation    where documents are stored
+     * @param stagingLocation where uploads are assembled, used for copies that can not be hard linked. No
+     *                        document is ever deleted from here
+     * @param directorySyncer used to make writes durable, or null to leave that to the operating system
+     */
+    public FileSystemStorageBackend(Path rootLocation, Path stagingLocation, DirectorySyncer directorySyncer) {
+        this.rootLocation = rootLocation.toAbsolutePath().normalize();
+        this.stagingLocation = stagingLocation.toAbsolutePath().normalize();
+        this.directorySyncer = directorySyncer;
+    }
+
+    @Override
+    public void init() throws IOException {
+        Files.createDirectories(rootLocation);
+    }
+
+    @Override
+    public boolean exists(String reference) {
+        return Files.isRegularFile(resolve(reference));
+    }
+
+    @Override
+    public long size(String reference) throws IOException {
+        return Files.size(resolve(reference));
+    }
+
+    @Override
+    public long lastModified(String reference) throws IOException {
+        return Files.getLastModifiedTime(resolve(reference)).toMillis();
+    }
+
+    @Override
+    public void touch(String reference) throws IOException {
+        Files.setLastModifiedTime(resolve(reference), FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    @Override
+    public void put(String reference, Path source) throws IOException {
+        Path target = resolve(reference);
+        List<Path> changedDirectories = createDirectories(target.getParent());
+        force(source);
+        // Should a concurrent upload of the same content win the race, its file is replaced by one with
+        // identical content
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        sync(changedDirectories);
+    }
+
+    /**
+     * The copy is a hard link if the file system supports it. Otherwise the file is copied to the staging
+     * directory and renamed into place, so the target never holds a partial copy.
+     */
+    @Override
+    public void copy(String sourceReference, String targetReference) throws IOException {
+        Path source = resolve(sourceReference);
+        Path target = resolve(targetReference);
+        if (!Files.isRegularFile(source)) {
+            throw new NoSuchFileException(sourceReference);
+        }
+        List<Path> changedDirectories = createDirectories(target.getParent());
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            // Content addressed, so whatever is there already is identical
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.createDirectories(stagingLocation);
+            Path staging = stagingLocation.resolve(UUID.randomUUID().toString());
+            try {
+                Files.copy(source, staging);
+                force(staging);
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(staging);
+            }
+        }
+        sync(changedDirectories);
+    }
+
+    @Override
+    public InputStream get(String reference) throws IOException {
+        return Files.newInputStream(resolve(reference));
+    }
+
+    @Override
+    public InputStream get(String reference, long position, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(reference), StandardOpenOption.READ);
+        channel.position(position);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public void transferTo(String reference, long position, long length, WritableByteChannel target)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(reference), StandardOpenOption.READ)) {
+            long end = position + length;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Unexpected end of " + reference + " at position " + position);
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Files in the staging directory are never deleted.
+     */
+    @Override
+    public boolean delete(String reference) throws IOException {
+        Path file = resolve(reference);
+        if (file.startsWith(stagingLocation)) {
+            return false;
+        }
+        return Files.deleteIfExists(file);
+    }
+
+    @Override
+    public Path toLocalPath(String reference) {
+        return resolve(reference);
+    }
+
+    /**
+     * Create directory and any missing parents.
+     *
+     * @return the directories that got a new entry: directory itself and the parent of every directory
+     * that was created
+     */
+    private List<Path> createDirectories(Path directory) throws IOException {
+        List<Path> changed = new ArrayList<>();
+        changed.add(directory);
+        if (directorySyncer != null) {
+            for (Path missing = directory; missing.getParent() != null && !Files.isDirectory(missing);
+                 missing = missing.getParent()) {
+                changed.add(missing.getParent());
+            }
+        }
+        Files.createDirectories(directory);
+        return changed;
+    }
+
+    private void force(Path file) throws IOException {
+        if (directorySyncer == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private void sync(List<Path> directories) throws IOException {
+        if (directorySyncer == null) {
+            return;
+        }
+        for (Path directory : directories) {
+            directorySyncer.sync(directory);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if reference is outside the root directory
+     */
+    private Path resolve(String reference) {
+        Path file = rootLocation.resolve(reference).normalize();
+        if (!file.startsWith(rootLocation)) {
+            throw new IllegalArgumentException("The reference " + reference + " is outside " + rootLocation);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,303 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.model.storage.FixityAuditRun;
+import no.arkivlab.hioa.nikita.webapp.model.storage.FixityCheck;
+import no.arkivlab.hioa.nikita.webapp.model.storage.FixityStatus;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IFixityAuditService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies that the stored file of every DocumentObject still has the checksum recorded when it was
+ * uploaded.
+ * <p>
+ * DocumentObjects are visited in id order, batchSize at a time. The files of a batch are hashed by a fixed
+ * pool of worker threads, and all reads share a ByteRateLimiter so the audit does not compete with users
+ * for storage bandwidth. Reading goes through the StorageWriter, so the audit also draws its buffers from
+ * the upload buffer pool.
+ * <p>
+ * When a batch is done its FixityChecks and the checkpoint (the highest id in the batch) are committed in
+ * one transaction. If the application is stopped during an audit, the next audit continues after the
+ * checkpoint instead of starting over.
+ */
+@Service
+public class FixityAuditService implements IFixityAuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixityAuditService.class);
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final IStorageBackend storageBackend;
+    private final StorageWriter storageWriter;
+    private final WebappProperties.StorageProperties.FixityProperties fixityProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong examined = new AtomicLong(0);
+    private final AtomicLong passed = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+    private final AtomicLong checkpoint = new AtomicLong(0);
+    private final Meter bytesRead;
+
+    public FixityAuditService(EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              IStorageBackend storageBackend,
+                              StorageWriter storageWriter,
+                              WebappProperties webappProperties,
+                              MetricRegistry metricRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storageBackend = storageBackend;
+        this.storageWriter = storageWriter;
+        this.fixityProperties = webappProperties.getStorageProperties().getFixity();
+        metricRegistry.register(MetricRegistry.name(FixityAuditService.class, "examined"),
+                (Gauge<Long>) examined::get);
+        metricRegistry.register(MetricRegistry.name(FixityAuditService.class, "passed"),
+                (Gauge<Long>) passed::get);
+        metricRegistry.register(MetricRegistry.name(FixityAuditService.class, "failed"),
+                (Gauge<Long>) failed::get);
+        metricRegistry.register(MetricRegistry.name(FixityAuditService.class, "checkpoint"),
+                (Gauge<Long>) checkpoint::get);
+        metricRegistry.register(MetricRegistry.name(FixityAuditService.class, "running"),
+                (Gauge<Boolean>) running::get);
+        this.bytesRead = metricRegistry.meter(MetricRegistry.name(FixityAuditService.class, "bytesRead"));
+    }
+
+    @Override
+    @Scheduled(cron = "${nikita-noark5-core.storage.fixity.cron:0 0 2 * * *}")
+    public void auditOnSchedule() {
+        if (!fixityProperties.isEnabled()) {
+            return;
+        }
+        if (running.get()) {
+            logger.info("Skipping scheduled fixity audit as the previous audit is still running");
+            return;
+        }
+        audit();
+    }
+
+    @Override
+    @Async
+    @EventListener
+    public void resumeOnStartup(ApplicationReadyEvent event) {
+        if (fixityProperties.isEnabled() && transactionTemplate.execute(status -> findUnfinishedRun()) != null) {
+            audit();
+        }
+    }
+
+    @Override
+    public FixityAuditRun audit() {
+        if (!running.compareAndSet(false, true)) {
+            throw new StorageException("A fixity audit is already running");
+        }
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, fixityProperties.getThreads()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fixity-audit-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ByteRateLimiter rateLimiter = ByteRateLimiter.ofMegabytesPerSecond(
+                fixityProperties.getMaxMegabytesPerSecond());
+        try {
+            FixityAuditRun run = transactionTemplate.execute(status -> startOrResumeRun());
+            updateProgress(run);
+            logger.info((run.getExamined() == 0 ? "Starting" : "Resuming") + " fixity audit " + run.getId() +
+                    " after DocumentObject with id " + run.getLastDocumentObjectId());
+            while (true) {
+                List<Object[]> batch = findNextBatch(run.getLastDocumentObjectId());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Long runId = run.getId();
+                Long lastId = (Long) batch.get(batch.size() - 1)[0];
+                AtomicLong batchBytes = new AtomicLong(0);
+                List<FixityCheck> checks = checkBatch(batch, runId, workers, rateLimiter, batchBytes);
+                run = transactionTemplate.execute(status ->
+                        recordBatch(runId, batch.size(), lastId, checks, batchBytes.get()));
+                updateProgress(run);
+                logger.info("Fixity audit " + runId + " examined " + run.getExamined() + ", passed " +
+                        run.getPassed() + ", failed " + run.getFailed() + " (last id " + lastId + ")");
+            }
+            Long runId = run.getId();
+            run = transactionTemplate.execute(status -> {
+                FixityAuditRun finished = entityManager.find(FixityAuditRun.class, runId);
+                finished.setFinishedDate(new Date());
+                return finished;
+            });
+            logger.info("Finished fixity audit " + run);
+            return run;
+        } finally {
+            workers.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private FixityAuditRun findUnfinishedRun() {
+        List<FixityAuditRun> runs = entityManager
+                .createQuery("SELECT r FROM FixityAuditRun r WHERE r.finishedDate IS NULL ORDER BY r.id DESC",
+                        FixityAuditRun.class)
+                .setMaxResults(1)
+                .getResultList();
+        return runs.isEmpty() ? null : runs.get(0);
+    }
+
+    private FixityAuditRun startOrResumeRun() {
+        FixityAuditRun run = findUnfinishedRun();
+        if (run == null) {
+            run = new FixityAuditRun();
+            run.setStartedDate(new Date());
+            entityManager.persist(run);
+        }
+        return run;
+    }
+
+    /**
+     * @return id, systemId, referenceDocumentFile, checksum and checksumAlgorithm of the next batchSize
+     * DocumentObjects
+     */
+    private List<Object[]> findNextBatch(long lastId) {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT d.id, d.systemId, d.referenceDocumentFile, d.checksum, d.checksumAlgorithm " +
+                        "FROM DocumentObject d WHERE d.id > :lastId ORDER BY d.id", Object[].class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(Math.max(1, fixityProperties.getBatchSize()))
+                .getResultList());
+    }
+
+    private List<FixityCheck> checkBatch(List<Object[]> batch, Long runId, ExecutorService workers,
+                                         ByteRateLimiter rateLimiter, AtomicLong batchBytes) {
+        List<Future<FixityCheck>> futures = new ArrayList<>(batch.size());
+        for (Object[] documentObject : batch) {
+            // Without a file and a checksum there is nothing to verify
+            if (documentObject[2] != null && documentObject[3] != null) {
+                futures.add(workers.submit(() -> check(documentObject, runId, rateLimiter, batchBytes)));
+            }
+        }
+        List<FixityCheck> checks = new ArrayList<>(futures.size());
+        try {
+            for (Future<FixityCheck> future : futures) {
+                checks.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Fixity audit " + runId + " was interrupted");
+        } catch (ExecutionException e) {
+            throw new StorageException("Fixity audit " + runId + " failed. " + e.getCause());
+        } finally {
+            for (Future<FixityCheck> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return checks;
+    }
+
+    private FixityCheck check(Object[] documentObject, Long runId, ByteRateLimiter rateLimiter,
+                              AtomicLong batchBytes) throws InterruptedException {
+        FixityCheck check = new FixityCheck();
+        check.setDocumentObjectId((Long) documentObject[0]);
+        check.setSystemId((String) documentObject[1]);
+        check.setReferenceDocumentFile((String) documentObject[2]);
+        check.setExpectedChecksum((String) documentObject[3]);
+        check.setChecksumAlgorithm((String) documentObject[4]);
+        check.setFixityAuditRunId(runId);
+        try {
+            if (check.getChecksumAlgorithm() == null) {
+                throw new NoSuchAlgorithmException("No checksum algorithm");
+            }
+            MultiDigest digest = MultiDigest.getInstance(check.getChecksumAlgorithm());
+            try (InputStream inputStream = rateLimiter.throttle(
+                    storageBackend.get(check.getReferenceDocumentFile()))) {
+                long size = storageWriter.digest(inputStream, digest);
+                batchBytes.addAndGet(size);
+                bytesRead.mark(size);
+            }
+            check.setActualChecksum(digest.digest().get(check.getChecksumAlgorithm()));
+            if (check.getActualChecksum().equalsIgnoreCase(check.getExpectedChecksum())) {
+                check.setStatus(FixityStatus.OK);
+            } else {
+                check.setStatus(FixityStatus.MISMATCH);
+                check.setMessage("Expected " + check.getExpectedChecksum() + " but the stored file has " +
+                        check.getActualChecksum());
+            }
+        } catch (NoSuchFileException e) {
+            check.setStatus(FixityStatus.MISSING);
+            check.setMessage("The file does not exist");
+        } catch (NoSuchAlgorithmException e) {
+            check.setStatus(FixityStatus.ERROR);
+            check.setMessage("Unknown checksum algorithm (" + check.getChecksumAlgorithm() + ")");
+        } catch (IOException e) {
+            check.setStatus(FixityStatus.ERROR);
+            check.setMessage(truncate("Could not read the file. " + e));
+        }
+        check.setCheckedDate(new Date());
+        if (check.getStatus() != FixityStatus.OK) {
+            logger.error("Fixity check of DocumentObject " + check.getSystemId() + " (" +
+                    check.getReferenceDocumentFile() + ") failed with " + check.getStatus() + ". " +
+                    check.getMessage());
+        }
+        return check;
+    }
+
+    private FixityAuditRun recordBatch(Long runId, int batchSize, Long lastId, List<FixityCheck> checks,
+                                       long batchBytes) {
+        FixityAuditRun run = entityManager.find(FixityAuditRun.class, runId);
+        for (FixityCheck check : checks) {
+            entityManager.merge(check);
+            if (check.getStatus() == FixityStatus.OK) {
+                run.setPassed(run.getPassed() + 1);
+            } else {
+                run.setFailed(run.getFailed() + 1);
+            }
+        }
+        run.setExamined(run.getExamined() + batchSize);
+        run.setBytesRead(run.getBytesRead() + batchBytes);
+        run.setLastDocumentObjectId(lastId);
+        return run;
+    }
+
+    private void updateProgress(FixityAuditRun run) {
+        examined.set(run.getExamined());
+        passed.set(run.getPassed());
+        failed.set(run.getFailed());
+        checkpoint.set(run.getLastDocumentObjectId());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
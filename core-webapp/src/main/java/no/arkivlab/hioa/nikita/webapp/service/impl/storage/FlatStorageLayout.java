@@ -0,0 +1,17 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageLayout;
+
+/**
+ * Every document is stored directly in the storage root. This is how documents were stored before layouts
+ * were introduced and is only suitable for small installations.
+ */
+public class FlatStorageLayout implements IStorageLayout {
+
+    public static final String NAME = "flat";
+
+    @Override
+    public String locate(String key) {
+        return key;
+    }
+}
@@ -0,0 +1,21 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageLayout;
+
+/**
+ * Two levels of directories named after the first four characters of the key, e.g. a key starting with
+ * 4f2a... is stored as 4f/2a/4f2a.... With hex keys this gives 65536 directories, so even with hundreds of
+ * millions of documents each directory holds a few thousand files.
+ */
+public class HexStorageLayout implements IStorageLayout {
+
+    public static final String NAME = "hex";
+
+    @Override
+    public String locate(String key) {
+        if (key.length() < 4) {
+            return key;
+        }
+        return key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key;
+    }
+}
@@ -0,0 +1,105 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * A set of MessageDigests that are updated with the same content, so a document only has to be read once
+ * however many checksums are wanted. The first algorithm is the primary one; its checksum is the content
+ * key in the ContentAddressedStore and the checksum recorded on the DocumentObject.
+ */
+public class MultiDigest {
+
+    private final String primaryAlgorithm;
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private MultiDigest(String primaryAlgorithm) {
+        this.primaryAlgorithm = primaryAlgorithm;
+    }
+
+    /**
+     * @param primaryAlgorithm     the algorithm of the content key
+     * @param additionalAlgorithms other algorithms to calculate in the same pass. Duplicates of the primary
+     *                             algorithm are ignored
+     * @throws NoSuchAlgorithmException if any of the algorithms is not available
+     */
+    public static MultiDigest getInstance(String primaryAlgorithm, Collection<String> additionalAlgorithms)
+            throws NoSuchAlgorithmException {
+        MultiDigest multiDigest = new MultiDigest(primaryAlgorithm);
+        multiDigest.digests.put(primaryAlgorithm, MessageDigest.getInstance(primaryAlgorithm));
+        if (additionalAlgorithms != null) {
+            for (String algorithm : additionalAlgorithms) {
+                String name = algorithm.trim();
+                if (!name.isEmpty() && !multiDigest.contains(name)) {
+                    multiDigest.digests.put(name, MessageDigest.getInstance(name));
+                }
+            }
+        }
+        return multiDigest;
+    }
+
+    public static MultiDigest getInstance(String algorithm) throws NoSuchAlgorithmException {
+        return getInstance(algorithm, Collections.emptyList());
+    }
+
+    public String getPrimaryAlgorithm() {
+        return primaryAlgorithm;
+    }
+
+    /**
+     * @return true if checksum is lowercase hex of the length the primary algorithm gives, so it can be used as
+     * a content key
+     */
+    public boolean isPrimaryChecksum(String checksum) {
+        if (checksum == null || checksum.length() != digests.get(primaryAlgorithm).getDigestLength() * 2) {
+            return false;
+        }
+        for (int i = 0; i < checksum.length(); i++) {
+            char c = checksum.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the digests in the order they were configured, the primary digest first
+     */
+    public Collection<MessageDigest> getMessageDigests() {
+        return Collections.unmodifiableCollection(digests.values());
+    }
+
+    /**
+     * Update every digest with the remaining content of buffer. The position of buffer is left unchanged.
+     */
+    public void update(ByteBuffer buffer) {
+        for (MessageDigest digest : digests.values()) {
+            digest.update(buffer.duplicate());
+        }
+    }
+
+    /**
+     * Complete the calculation. The digests are reset afterwards.
+     *
+     * @return the hex encoded checksum of each algorithm, keyed by algorithm, the primary algorithm first
+     */
+    public Map<String, String> digest() {
+        Map<String, String> checksums = new LinkedHashMap<>();
+        for (Map.Entry<String, MessageDigest> digest : digests.entrySet()) {
+            checksums.put(digest.getKey(), ContentAddressedStore.toHex(digest.getValue().digest()));
+        }
+        return checksums;
+    }
+
+    private boolean contains(String algorithm) {
+        for (String name : digests.keySet()) {
+            if (name.equalsIgnoreCase(algorithm)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
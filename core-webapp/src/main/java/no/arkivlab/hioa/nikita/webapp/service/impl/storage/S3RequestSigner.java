@@ -0,0 +1,122 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Signs requests to an S3-compatible object store with AWS Signature Version 4. Request bodies are not part of
+ * the signature (UNSIGNED-PAYLOAD), so documents can be streamed without being read twice.
+ */
+public class S3RequestSigner {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+
+    public S3RequestSigner(String region, String accessKey, String secretKey) {
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+    }
+
+    /**
+     * Add x-amz-date, x-amz-content-sha256 and Authorization to headers.
+     *
+     * @param method         the HTTP method
+     * @param url            the complete URL, with the path and query already encoded and the query sorted
+     * @param headers        the x-amz-* headers of the request. Signed headers are added to it
+     */
+    public void sign(String method, URL url, Map<String, String> headers) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String dateTime = now.format(DATE_TIME);
+        String date = now.format(DATE);
+        String scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+
+        headers.put("x-amz-date", dateTime);
+        headers.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+
+        TreeMap<String, String> signed = new TreeMap<>();
+        signed.put("host", url.getPort() == -1 || url.getPort() == url.getDefaultPort() ?
+                url.getHost() : url.getHost() + ":" + url.getPort());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            signed.put(header.getKey().toLowerCase(), header.getValue().trim());
+        }
+        StringBuilder canonicalHeaders = new StringBuilder();
+        for (Map.Entry<String, String> header : signed.entrySet()) {
+            canonicalHeaders.append(header.getKey()).append(':').append(header.getValue()).append('\n');
+        }
+        String signedHeaders = String.join(";", signed.keySet());
+
+        String canonicalRequest = method + "\n" +
+                url.getPath() + "\n" +
+                (url.getQuery() == null ? "" : url.getQuery()) + "\n" +
+                canonicalHeaders + "\n" +
+                signedHeaders + "\n" +
+                UNSIGNED_PAYLOAD;
+        String stringToSign = ALGORITHM + "\n" + dateTime + "\n" + scope + "\n" +
+                ContentAddressedStore.toHex(sha256(canonicalRequest));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, SERVICE);
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = ContentAddressedStore.toHex(hmac(signingKey, stringToSign));
+
+        headers.put("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope +
+                ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+    }
+
+    /**
+     * Percent-encode a path or query component as required by Signature Version 4.
+     *
+     * @param value       the value to encode
+     * @param keepSlashes true when encoding a path, where '/' separates segments
+     */
+    public static String encode(String value, boolean keepSlashes) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ||
+                    c == '-' || c == '_' || c == '.' || c == '~' || (keepSlashes && c == '/')) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xff));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
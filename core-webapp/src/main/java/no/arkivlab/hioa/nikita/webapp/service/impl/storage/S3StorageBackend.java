@@ -0,0 +1,503 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps stored documents as objects in a bucket of an S3-compatible object store (Amazon S3, MinIO, Ceph RGW
+ * and others), so storage can be scaled and shared independently of the nodes running the application.
+ * <p>
+ * Objects are addressed path-style, endpoint/bucket/keyPrefix + reference. Files larger than partSize are
+ * uploaded with a multipart upload, with up to parallelParts parts in transfer at the same time. Ranges are
+ * read with ranged GET requests.
+ * <p>
+ * S3 has no request that only sets the last modified time of an object, so an object is touched by copying it
+ * onto itself, in parts if it is too large to be copied in one request. As that rewrites the object in the
+ * store, an object modified within the last TOUCH_INTERVAL_MILLIS is not touched again.
+ * <p>
+ * Only plain HTTP(S) from the JDK is used, requests are signed with AWS Signature Version 4.
+ */
+public class S3StorageBackend implements IStorageBackend, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3StorageBackend.class);
+
+    public static final String NAME = "s3";
+
+    /**
+     * The largest object S3 copies in a single request
+     */
+    public static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * An object modified less than this long ago is not touched. It is half the release grace period, so a
+     * touched object is still protected for at least half the grace period after touch() returns.
+     */
+    public static final long TOUCH_INTERVAL_MILLIS = ContentAddressedStore.RELEASE_GRACE_PERIOD_MILLIS / 2;
+
+    /**
+     * The most parts S3 accepts in a multipart upload
+     */
+    private static final int MAX_PARTS = 10000;
+
+    private static final int BUFFER_SIZE = 65536;
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final Pattern ETAG = Pattern.compile("<ETag>([^<]+)</ETag>");
+
+    private final String endpoint;
+    private final String bucket;
+    private final String keyPrefix;
+    private final long partSize;
+    private final long maxCopySize;
+    private final Path stagingLocation;
+    private final S3RequestSigner signer;
+    private final ExecutorService partExecutor;
+
+    /**
+     * @param endpoint        e.g. https://s3.eu-north-1.amazonaws.com or http://localhost:9000
+     * @param region          the region to sign requests for
+     * @param bucket          the bucket holding the documents
+     * @param keyPrefix       prepended to every reference to form the object key, may be empty
+     * @param accessKey       the access key
+     * @param secretKey       the secret key
+     * @param partSize        files larger than this are uploaded in parts of this size. S3 requires at least 5 MB
+     * @param parallelParts   how many parts are transferred at the same time
+     * @param stagingLocation local directory used when an object is too large to be copied in the store
+     */
+    public S3StorageBackend(String endpoint, String region, String bucket, String keyPrefix, String accessKey,
+                            String secretKey, long partSize, int parallelParts, Path stagingLocation) {
+        this(endpoint, region, bucket, keyPrefix, accessKey, secretKey, partSize, parallelParts, stagingLocation,
+                MAX_COPY_SIZE);
+    }
+
+    /**
+     * @param maxCopySize the largest object the store copies in a single request, MAX_COPY_SIZE for S3
+     */
+    public S3StorageBackend(String endpoint, String region, String bucket, String keyPrefix, String accessKey,
+                            String secretKey, long partSize, int parallelParts, Path stagingLocation,
+                            long maxCopySize) {
+        this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix == null ? "" : keyPrefix;
+        this.partSize = partSize;
+        this.maxCopySize = maxCopySize;
+        this.stagingLocation = stagingLocation;
+        this.signer = new S3RequestSigner(region, accessKey, secretKey);
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        this.partExecutor = Executors.newFixedThreadPool(parallelParts, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create the bucket if it does not exist.
+     */
+    @Override
+    public void init() throws IOException {
+        HttpURLConnection connection = open("HEAD", null, null, null);
+        int status = connection.getResponseCode();
+        connection.disconnect();
+        if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            connection = open("PUT", null, null, null);
+            send(connection, new byte[0]);
+            expect(connection, "create bucket " + bucket, HttpURLConnection.HTTP_OK);
+            logger.info("Created bucket " + bucket + " at " + endpoint);
+        } else if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Could not access bucket " + bucket + " at " + endpoint + ", status " + status);
+        }
+    }
+
+    @Override
+    public boolean exists(String reference) throws IOException {
+        HttpURLConnection connection = open("HEAD", reference, null, null);
+        int status = connection.getResponseCode();
+        connection.disconnect();
+        if (status == HttpURLConnection.HTTP_OK) {
+            return true;
+        } else if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            return false;
+        }
+        throw new IOException("Could not check if " + reference + " exists, status " + status);
+    }
+
+    @Override
+    public long size(String reference) throws IOException {
+        HttpURLConnection connection = head(reference);
+        long size = connection.getContentLengthLong();
+        connection.disconnect();
+        return size;
+    }
+
+    @Override
+    public long lastModified(String reference) throws IOException {
+        HttpURLConnection connection = head(reference);
+        long lastModified = connection.getLastModified();
+        connection.disconnect();
+        return lastModified;
+    }
+
+    /**
+     * The object is copied onto itself with replaced metadata, which gives it a new last modified time. An
+     * object too large to be copied in one request is copied onto itself in parts. An object modified within
+     * the last TOUCH_INTERVAL_MILLIS is left alone.
+     */
+    @Override
+    public void touch(String reference) throws IOException {
+        HttpURLConnection head = head(reference);
+        long size = head.getContentLengthLong();
+        long lastModified = head.getLastModified();
+        head.disconnect();
+        if (System.currentTimeMillis() - lastModified < TOUCH_INTERVAL_MILLIS) {
+            return;
+        }
+        if (size > maxCopySize) {
+            copyMultipart(reference, reference, size);
+            return;
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-amz-copy-source", copySource(reference));
+        headers.put("x-amz-metadata-directive", "REPLACE");
+        HttpURLConnection connection = open("PUT", reference, null, headers);
+        send(connection, new byte[0]);
+        expectNoError(connection, "touch " + reference);
+    }
+
+    @Override
+    public void put(String reference, Path source) throws IOException {
+        long size = Files.size(source);
+        if (size <= partSize) {
+            HttpURLConnection connection = open("PUT", reference, null, null);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(size);
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                Files.copy(source, outputStream);
+            }
+            expect(connection, "put " + reference, HttpURLConnection.HTTP_OK);
+        } else {
+            putMultipart(reference, source, size);
+        }
+        Files.delete(source);
+    }
+
+    @Override
+    public void copy(String sourceReference, String targetReference) throws IOException {
+        if (size(sourceReference) > maxCopySize) {
+            // Too large to copy in the store, so go through the staging directory
+            Files.createDirectories(stagingLocation);
+            Path staging = stagingLocation.resolve(UUID.randomUUID().toString());
+            try (InputStream inputStream = get(sourceReference)) {
+                Files.copy(inputStream, staging);
+                put(targetReference, staging);
+            } finally {
+                Files.deleteIfExists(staging);
+            }
+            return;
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-amz-copy-source", copySource(sourceReference));
+        HttpURLConnection connection = open("PUT", targetReference, null, headers);
+        send(connection, new byte[0]);
+        expectNoError(connection, "copy " + sourceReference + " to " + targetReference);
+    }
+
+    @Override
+    public InputStream get(String reference) throws IOException {
+        HttpURLConnection connection = open("GET", reference, null, null);
+        int status = connection.getResponseCode();
+        if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            connection.disconnect();
+            throw new NoSuchFileException(reference);
+        }
+        expect(connection, "get " + reference, HttpURLConnection.HTTP_OK);
+        return connection.getInputStream();
+    }
+
+    @Override
+    public InputStream get(String reference, long position, long length) throws IOException {
+        if (length <= 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        HttpURLConnection connection = open("GET", reference, null, null);
+        connection.setRequestProperty("Range", "bytes=" + position + "-" + (position + length - 1));
+        int status = connection.getResponseCode();
+        if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            connection.disconnect();
+            throw new NoSuchFileException(reference);
+        }
+        if (status == HttpURLConnection.HTTP_OK && position == 0) {
+            // The store ignored the range and sent the whole object
+            return new BoundedInputStream(connection.getInputStream(), length);
+        }
+        expect(connection, "get bytes " + position + "-" + (position + length - 1) + " of " + reference,
+                HttpURLConnection.HTTP_PARTIAL);
+        return connection.getInputStream();
+    }
+
+    @Override
+    public boolean delete(String reference) throws IOException {
+        if (!exists(reference)) {
+            return false;
+        }
+        HttpURLConnection connection = open("DELETE", reference, null, null);
+        expect(connection, "delete " + reference, HttpURLConnection.HTTP_NO_CONTENT, HttpURLConnection.HTTP_OK);
+        return true;
+    }
+
+    @Override
+    public Path toLocalPath(String reference) {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        partExecutor.shutdownNow();
+    }
+
+    private void putMultipart(String reference, Path source, long size) throws IOException {
+        uploadMultipart(reference, size, partSize, (uploadId, partNumber, offset, length) ->
+                putPart(reference, uploadId, partNumber, source, offset, length));
+    }
+
+    /**
+     * Copy an object in parts, each copied in the store from a range of the source
+     */
+    private void copyMultipart(String sourceReference, String targetReference, long size) throws IOException {
+        long copyPartSize = Math.min(maxCopySize, Math.max(partSize, (size + MAX_PARTS - 1) / MAX_PARTS));
+        uploadMultipart(targetReference, size, copyPartSize, (uploadId, partNumber, offset, length) ->
+                copyPart(sourceReference, targetReference, uploadId, partNumber, offset, length));
+    }
+
+    /**
+     * Start a multipart upload, upload size bytes as parts of partLength with up to parallelParts at the same
+     * time, and complete the upload. The upload is aborted if a part fails.
+     */
+    private void uploadMultipart(String reference, long size, long partLength, PartUpload partUpload)
+            throws IOException {
+        HttpURLConnection connection = open("POST", reference, Collections.singletonMap("uploads", ""), null);
+        send(connection, new byte[0]);
+        String response = expect(connection, "start multipart upload of " + reference, HttpURLConnection.HTTP_OK);
+        Matcher matcher = UPLOAD_ID.matcher(response);
+        if (!matcher.find()) {
+            throw new IOException("No UploadId in response to multipart upload of " + reference + ": " + response);
+        }
+        String uploadId = matcher.group(1);
+
+        int parts = (int) ((size + partLength - 1) / partLength);
+        List<Future<String>> eTags = new ArrayList<>(parts);
+        try {
+            for (int part = 1; part <= parts; part++) {
+                long offset = (part - 1) * partLength;
+                long length = Math.min(partLength, size - offset);
+                int partNumber = part;
+                eTags.add(partExecutor.submit(() -> partUpload.upload(uploadId, partNumber, offset, length)));
+            }
+            StringBuilder complete = new StringBuilder("<CompleteMultipartUpload>");
+            for (int part = 1; part <= parts; part++) {
+                complete.append("<Part><PartNumber>").append(part).append("</PartNumber><ETag>")
+                        .append(eTags.get(part - 1).get()).append("</ETag></Part>");
+            }
+            complete.append("</CompleteMultipartUpload>");
+
+            connection = open("POST", reference, Collections.singletonMap("uploadId", uploadId), null);
+            send(connection, complete.toString().getBytes(StandardCharsets.UTF_8));
+            expectNoError(connection, "complete multipart upload of " + reference);
+        } catch (IOException | RuntimeException | InterruptedException | ExecutionException e) {
+            for (Future<String> eTag : eTags) {
+                eTag.cancel(true);
+            }
+            abortMultipart(reference, uploadId);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            throw new IOException("Multipart upload of " + reference + " failed. " + e, e);
+        }
+    }
+
+    private String putPart(String reference, String uploadId, int partNumber, Path source, long offset,
+                           long length) throws IOException {
+        Map<String, String> query = new TreeMap<>();
+        query.put("partNumber", Integer.toString(partNumber));
+        query.put("uploadId", uploadId);
+        HttpURLConnection connection = open("PUT", reference, query, null);
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(length);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+             OutputStream outputStream = connection.getOutputStream()) {
+            channel.position(offset);
+            InputStream inputStream = new BoundedInputStream(Channels.newInputStream(channel), length);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, bytesRead);
+            }
+        }
+        expect(connection, "put part " + partNumber + " of " + reference, HttpURLConnection.HTTP_OK);
+        String eTag = connection.getHeaderField("ETag");
+        if (eTag == null) {
+            throw new IOException("No ETag in response to part " + partNumber + " of " + reference);
+        }
+        return eTag;
+    }
+
+    private String copyPart(String sourceReference, String targetReference, String uploadId, int partNumber,
+                            long offset, long length) throws IOException {
+        Map<String, String> query = new TreeMap<>();
+        query.put("partNumber", Integer.toString(partNumber));
+        query.put("uploadId", uploadId);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-amz-copy-source", copySource(sourceReference));
+        headers.put("x-amz-copy-source-range", "bytes=" + offset + "-" + (offset + length - 1));
+        HttpURLConnection connection = open("PUT", targetReference, query, headers);
+        send(connection, new byte[0]);
+        String action = "copy part " + partNumber + " of " + sourceReference + " to " + targetReference;
+        String response = expect(connection, action, HttpURLConnection.HTTP_OK);
+        // The ETag of a copied part is in the body, which can also hold an error sent after 200 OK
+        Matcher matcher = ETAG.matcher(response);
+        if (response.contains("<Error>") || !matcher.find()) {
+            throw new IOException("Could not " + action + ": " + response);
+        }
+        return matcher.group(1);
+    }
+
+    private void abortMultipart(String reference, String uploadId) {
+        try {
+            HttpURLConnection connection = open("DELETE", reference,
+                    Collections.singletonMap("uploadId", uploadId), null);
+            expect(connection, "abort multipart upload of " + reference, HttpURLConnection.HTTP_NO_CONTENT,
+                    HttpURLConnection.HTTP_OK);
+        } catch (IOException e) {
+            logger.warn("Could not abort multipart upload " + uploadId + " of " + reference + ". " + e);
+        }
+    }
+
+    private HttpURLConnection head(String reference) throws IOException {
+        HttpURLConnection connection = open("HEAD", reference, null, null);
+        int status = connection.getResponseCode();
+        if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            connection.disconnect();
+            throw new NoSuchFileException(reference);
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            connection.disconnect();
+            throw new IOException("Could not get metadata of " + reference + ", status " + status);
+        }
+        return connection;
+    }
+
+    /**
+     * Open a signed connection to the object (or to the bucket if reference is null).
+     */
+    private HttpURLConnection open(String method, String reference, Map<String, String> query,
+                                   Map<String, String> amzHeaders) throws IOException {
+        StringBuilder url = new StringBuilder(endpoint).append('/').append(S3RequestSigner.encode(bucket, false));
+        if (reference != null) {
+            url.append('/').append(S3RequestSigner.encode(keyPrefix + reference, true));
+        }
+        if (query != null && !query.isEmpty()) {
+            StringJoiner queryString = new StringJoiner("&");
+            for (Map.Entry<String, String> parameter : new TreeMap<>(query).entrySet()) {
+                queryString.add(S3RequestSigner.encode(parameter.getKey(), false) + "=" +
+                        S3RequestSigner.encode(parameter.getValue(), false));
+            }
+            url.append('?').append(queryString);
+        }
+        URL requestUrl = new URL(url.toString());
+        Map<String, String> headers = amzHeaders == null ? new HashMap<>() : new HashMap<>(amzHeaders);
+        signer.sign(method, requestUrl, headers);
+
+        HttpURLConnection connection = (HttpURLConnection) requestUrl.openConnection();
+        connection.setRequestMethod(method);
+        connection.setInstanceFollowRedirects(false);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        return connection;
+    }
+
+    private String copySource(String reference) {
+        return "/" + S3RequestSigner.encode(bucket, false) + "/" + S3RequestSigner.encode(keyPrefix + reference,
+                true);
+    }
+
+    private static void send(HttpURLConnection connection, byte[] body) throws IOException {
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Read the response, failing unless the status is one of those expected.
+     *
+     * @return the response body
+     */
+    private static String expect(HttpURLConnection connection, String action, int... expected)
+            throws IOException {
+        int status = connection.getResponseCode();
+        for (int ok : expected) {
+            if (status == ok) {
+                if ("HEAD".equals(connection.getRequestMethod()) || "GET".equals(connection.getRequestMethod())) {
+                    return "";
+                }
+                return read(connection.getInputStream());
+            }
+        }
+        InputStream error = connection.getErrorStream();
+        throw new IOException("Could not " + action + ", status " + status +
+                (error == null ? "" : ": " + read(error)));
+    }
+
+    /**
+     * Copy and complete requests can fail after a 200 OK has been sent, with the error in the body.
+     */
+    private static void expectNoError(HttpURLConnection connection, String action) throws IOException {
+        String response = expect(connection, action, HttpURLConnection.HTTP_OK);
+        if (response.contains("<Error>")) {
+            throw new IOException("Could not " + action + ": " + response);
+        }
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            StringBuilder content = new StringBuilder();
+            char[] buffer = new char[4096];
+            int charsRead;
+            while ((charsRead = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, charsRead);
+            }
+            return content.toString();
+        }
+    }
+
+    /**
+     * Uploads one part of a multipart upload
+     *
+     * @return the ETag of the part
+     */
+    @FunctionalInterface
+    private interface PartUpload {
+        String upload(String uploadId, int partNumber, long offset, long length) throws IOException;
+    }
+}
@@ -0,0 +1,210 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import nikita.model.noark5.v4.DocumentObject;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.IDocumentObjectService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageLayoutMigrationService;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves stored documents into the configured IStorageLayout without taking the application down.
+ * <p>
+ * DocumentObjects are visited in id order, batchSize at a time, each batch in its own transaction. For each
+ * DocumentObject whose file is not where the current layout wants it, the file is copied within the storage
+ * backend (hard linked on a file system) to the new location, or to content with the same key already stored
+ * there, and referenceDocumentFile is updated. With the date layout a file under any date is where the layout
+ * wants it, so documents are only moved once. The old
+ * file is only deleted after the batch has been committed and no DocumentObject refers to it any more, so
+ * downloads in progress are not affected.
+ * <p>
+ * Documents are placed by their checksum when it was calculated with the configured algorithm, which also
+ * moves documents stored before content-addressing was introduced into the content-addressed store.
+ * <p>
+ * If a batch fails, e.g. because a DocumentObject was updated concurrently, its DocumentObjects are retried
+ * one by one so a single failure does not hold back the rest. Migration is idempotent, so it can simply be
+ * run again after a restart.
+ */
+@Service
+public class StorageLayoutMigrationService implements IStorageLayoutMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageLayoutMigrationService.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ContentAddressedStore contentStore;
+    private final IDocumentObjectService documentObjectService;
+    private final String checksumAlgorithm;
+    private final int batchSize;
+    private final boolean migrateOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong examined = new AtomicLong(0);
+    private final AtomicLong migrated = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+
+    public StorageLayoutMigrationService(EntityManager entityManager,
+                                         PlatformTransactionManager transactionManager,
+                                         ContentAddressedStore contentStore,
+                                         IDocumentObjectService documentObjectService,
+                                         WebappProperties webappProperties,
+                                         MetricRegistry metricRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contentStore = contentStore;
+        this.documentObjectService = documentObjectService;
+        this.checksumAlgorithm = webappProperties.getChecksumProperties().getChecksumAlgorithm();
+        this.batchSize = webappProperties.getStorageProperties().getMigrationBatchSize();
+        this.migrateOnStartup = webappProperties.getStorageProperties().isMigrateLayout();
+        metricRegistry.register(MetricRegistry.name(StorageLayoutMigrationService.class, "examined"),
+                (Gauge<Long>) examined::get);
+        metricRegistry.register(MetricRegistry.name(StorageLayoutMigrationService.class, "migrated"),
+                (Gauge<Long>) migrated::get);
+        metricRegistry.register(MetricRegistry.name(StorageLayoutMigrationService.class, "failed"),
+                (Gauge<Long>) failed::get);
+    }
+
+    @Override
+    @Async
+    @EventListener
+    public void migrateOnStartup(ApplicationReadyEvent event) {
+        if (migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    @Override
+    public long migrate() {
+        if (!running.compareAndSet(false, true)) {
+            throw new StorageException("A storage layout migration is already running");
+        }
+        long migratedBefore = migrated.get();
+        try {
+            logger.info("Starting migration of stored documents to the current storage layout");
+            long lastId = 0;
+            while (true) {
+                List<Long> ids = findNextBatch(lastId);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                migrateBatch(ids);
+                lastId = ids.get(ids.size() - 1);
+                logger.info("Storage layout migration examined " + examined.get() + ", migrated " +
+                        migrated.get() + ", failed " + failed.get() + " (last id " + lastId + ")");
+            }
+            logger.info("Finished migration of stored documents to the current storage layout");
+        } finally {
+            running.set(false);
+        }
+        return migrated.get() - migratedBefore;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private List<Long> findNextBatch(long lastId) {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT d.id FROM DocumentObject d WHERE d.id > :lastId ORDER BY d.id", Long.class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(batchSize)
+                .getResultList());
+    }
+
+    private void migrateBatch(List<Long> ids) {
+        List<String> oldReferences = new ArrayList<>();
+        try {
+            transactionTemplate.execute(status -> {
+                for (Long id : ids) {
+                    migrateDocumentObject(id, oldReferences);
+                }
+                return null;
+            });
+            migrated.addAndGet(oldReferences.size());
+        } catch (RuntimeException e) {
+            logger.warn("Storage layout migration of a batch failed, retrying one by one. " + e);
+            oldReferences.clear();
+            for (Long id : ids) {
+                List<String> oldReference = new ArrayList<>();
+                try {
+                    transactionTemplate.execute(status -> {
+                        migrateDocumentObject(id, oldReference);
+                        return null;
+                    });
+                    migrated.addAndGet(oldReference.size());
+                    oldReferences.addAll(oldReference);
+                } catch (RuntimeException ex) {
+                    failed.incrementAndGet();
+                    logger.error("Storage layout migration of DocumentObject with id " + id + " failed. " + ex);
+                }
+            }
+        }
+        examined.addAndGet(ids.size());
+        releaseOldReferences(oldReferences);
+    }
+
+    private void migrateDocumentObject(Long id, List<String> oldReferences) {
+        DocumentObject documentObject = entityManager.find(DocumentObject.class, id);
+        String reference = documentObject == null ? null : documentObject.getReferenceDocumentFile();
+        if (reference == null) {
+            return;
+        }
+        String key = getKey(documentObject);
+        if (contentStore.isLocated(reference, key)) {
+            return;
+        }
+        String newReference;
+        try {
+            if (!contentStore.getStorageBackend().exists(reference)) {
+                throw new StorageException("The file (" + reference + ") of " + documentObject +
+                        " does not exist");
+            }
+            newReference = contentStore.relocate(reference, key);
+        } catch (IOException e) {
+            throw new StorageException("Could not move the file (" + reference + ") of " + documentObject +
+                    " to the current storage layout. " + e);
+        }
+        documentObject.setReferenceDocumentFile(newReference);
+        oldReferences.add(reference);
+    }
+
+    private String getKey(DocumentObject documentObject) {
+        if (documentObject.getChecksum() != null &&
+                checksumAlgorithm.equalsIgnoreCase(documentObject.getChecksumAlgorithm())) {
+            return documentObject.getChecksum().toLowerCase();
+        }
+        return Paths.get(documentObject.getReferenceDocumentFile()).getFileName().toString();
+    }
+
+    private void releaseOldReferences(List<String> oldReferences) {
+        for (String reference : oldReferences) {
+            try {
+                Long references = transactionTemplate.execute(status ->
+                        documentObjectService.countReferencesToFile(reference, null));
+                if (references == 0) {
+                    contentStore.release(reference, 0);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not delete (" + reference + ") after storage layout migration. " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Copies an incoming document stream to a channel using buffers from a ByteBufferPool. Each buffer is
+ * filled completely before it is hashed in place and written, so the number of write calls is governed
+ * by the configured buffer size rather than by how the servlet container chunks the request body.
+ * <p>
+ * A FileInputStream is read through its FileChannel, straight into direct buffers. When no digest is needed and
+ * the output is a FileChannel too, the content is transferred with FileChannel.transferFrom and never passes
+ * through the buffers. Other streams can only be read into a byte array, so filling a direct buffer from them
+ * goes through a small heap array (see Channels.newChannel) and heap buffers are the better choice for them.
+ * <p>
+ * If a hashing executor is given, hashing is pipelined: while one buffer is hashed on the executor (each
+ * algorithm of a MultiDigest on its own thread) it is also written, and the next buffer is read. A second
+ * buffer is only taken if the pool has one to spare, so pipelining never makes a copy wait for buffers.
+ */
+public class StorageWriter {
+
+    private static final WritableByteChannel DISCARD = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer buffer) {
+            int length = buffer.remaining();
+            buffer.position(buffer.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final ByteBufferPool bufferPool;
+    private final ExecutorService hashingExecutor;
+
+    public StorageWriter(ByteBufferPool bufferPool) {
+        this(bufferPool, null);
+    }
+
+    /**
+     * @param hashingExecutor where buffers are hashed while the next is read, or null to hash in the
+     *                        copying thread
+     */
+    public StorageWriter(ByteBufferPool bufferPool, ExecutorService hashingExecutor) {
+        this.bufferPool = bufferPool;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    /**
+     * Copy everything from inputStream to outputChannel, updating digest with every byte written.
+     *
+     * @param inputStream   the incoming document
+     * @param outputChannel where the document is to be written
+     * @param digest        the digests to update while writing, or null if no digest is needed
+     * @return the number of bytes copied
+     * @throws IOException          if reading or writing fails
+     * @throws InterruptedException if interrupted while waiting for a free buffer
+     */
+    public long copy(InputStream inputStream, WritableByteChannel outputChannel, MultiDigest digest)
+            throws IOException, InterruptedException {
+        ReadableByteChannel inputChannel = inputChannel(inputStream);
+        if (digest == null && inputChannel instanceof FileChannel && outputChannel instanceof FileChannel) {
+            return transfer((FileChannel) inputChannel, (FileChannel) outputChannel);
+        }
+        if (digest != null && hashingExecutor != null) {
+            return copyPipelined(inputStream, inputChannel, outputChannel, digest);
+        }
+
+        ByteBuffer buffer = bufferPool.acquire();
+        long bytesTotal = 0;
+        try {
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                buffer.clear();
+                endOfStream = fill(inputStream, inputChannel, buffer);
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    continue;
+                }
+                bytesTotal += buffer.remaining();
+
+                // Hash the buffer in place, leaving its position so the same bytes can be written
+                if (digest != null) {
+                    digest.update(buffer);
+                }
+
+                while (buffer.hasRemaining()) {
+                    outputChannel.write(buffer);
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return bytesTotal;
+    }
+
+    /**
+     * Copy with two buffers taking turns. A buffer is handed to the hashing executor once it is filled and
+     * is written while the executor hashes it. Before the next buffer is handed over, hashing of the previous
+     * one must be done, so every digest sees the content in order and a buffer is never refilled while it is
+     * being hashed. With only one buffer available, hashing still overlaps with writing.
+     */
+    private long copyPipelined(InputStream inputStream, ReadableByteChannel inputChannel,
+                               WritableByteChannel outputChannel, MultiDigest digest)
+            throws IOException, InterruptedException {
+        ByteBuffer[] buffers = new ByteBuffer[2];
+        List<Future<?>> hashing = new ArrayList<>();
+        long bytesTotal = 0;
+        try {
+            buffers[0] = bufferPool.acquire();
+            buffers[1] = bufferPool.tryAcquire();
+            if (buffers[1] == null) {
+                buffers[1] = buffers[0];
+            }
+            int current = 0;
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                ByteBuffer buffer = buffers[current];
+                if (buffers[0] == buffers[1]) {
+                    awaitHashing(hashing);
+                }
+                buffer.clear();
+                endOfStream = fill(inputStream, inputChannel, buffer);
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    continue;
+                }
+                bytesTotal += buffer.remaining();
+
+                awaitHashing(hashing);
+                for (MessageDigest messageDigest : digest.getMessageDigests()) {
+                    ByteBuffer view = buffer.duplicate();
+                    hashing.add(hashingExecutor.submit(() -> messageDigest.update(view)));
+                }
+
+                while (buffer.hasRemaining()) {
+                    outputChannel.write(buffer);
+                }
+                current = 1 - current;
+            }
+            awaitHashing(hashing);
+        } finally {
+            // Hashing a buffer does not take long, so let it finish before the buffers go back to the pool
+            boolean interrupted = false;
+            for (Future<?> future : hashing) {
+                while (!future.isDone()) {
+                    try {
+                        future.get();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        break;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            bufferPool.release(buffers[0]);
+            if (buffers[1] != buffers[0]) {
+                bufferPool.release(buffers[1]);
+            }
+        }
+        return bytesTotal;
+    }
+
+    /**
+     * Transfer everything from the current position of inputChannel to the current position of outputChannel,
+     * leaving outputChannel positioned after what was transferred.
+     *
+     * @return the number of bytes transferred
+     */
+    private static long transfer(FileChannel inputChannel, FileChannel outputChannel) throws IOException {
+        long start = outputChannel.position();
+        long position = start;
+        long bytesTransferred;
+        while ((bytesTransferred = outputChannel.transferFrom(inputChannel, position, Long.MAX_VALUE)) > 0) {
+            position += bytesTransferred;
+        }
+        outputChannel.position(position);
+        return position - start;
+    }
+
+    /**
+     * @return the FileChannel of a FileInputStream, positioned where the stream is, otherwise a channel reading
+     * from inputStream through a heap array
+     */
+    private static ReadableByteChannel inputChannel(InputStream inputStream) {
+        if (inputStream instanceof FileInputStream) {
+            return ((FileInputStream) inputStream).getChannel();
+        }
+        return Channels.newChannel(inputStream);
+    }
+
+    private static void awaitHashing(List<Future<?>> hashing) throws IOException, InterruptedException {
+        try {
+            for (Future<?> future : hashing) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Could not calculate checksum. " + e.getCause(), e.getCause());
+        }
+        hashing.clear();
+    }
+
+    /**
+     * Read everything from inputStream and update digest with it, without writing the content anywhere.
+     * Used when the content is already known to be in storage and only has to be verified.
+     *
+     * @param inputStream the incoming document
+     * @param digest      the digests to update
+     * @return the number of bytes read
+     * @throws IOException          if reading fails
+     * @throws InterruptedException if interrupted while waiting for a free buffer
+     */
+    public long digest(InputStream inputStream, MultiDigest digest)
+            throws IOException, InterruptedException {
+        return copy(inputStream, DISCARD, digest);
+    }
+
+    /**
+     * Update digest with length bytes of a file, starting at position.
+     *
+     * @param fileChannel the file to read
+     * @param position    where in the file to start
+     * @param length      the number of bytes to read
+     * @param digest      the digests to update
+     * @throws IOException          if reading fails or the file is shorter than expected
+     * @throws InterruptedException if interrupted while waiting for a free buffer
+     */
+    public void digest(FileChannel fileChannel, long position, long length, MultiDigest digest)
+            throws IOException, InterruptedException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            long end = position + length;
+            while (position < end) {
+                buffer.clear();
+                if (end - position < buffer.capacity()) {
+                    buffer.limit((int) (end - position));
+                }
+                int bytesRead = fileChannel.read(buffer, position);
+                if (bytesRead == -1) {
+                    throw new IOException("Unexpected end of file at position " + position);
+                }
+                buffer.flip();
+                digest.update(buffer);
+                position += bytesRead;
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Fill the buffer from the input until it is full or the end of the stream is reached. Heap buffers
+     * are read straight into their backing array, direct buffers are filled through the channel.
+     *
+     * @return true if the end of the stream was reached
+     */
+    private boolean fill(InputStream inputStream, ReadableByteChannel inputChannel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead;
+            if (buffer.hasArray()) {
+                bytesRead = inputStream.read(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                        buffer.remaining());
+                if (bytesRead > 0) {
+                    buffer.position(buffer.position() + bytesRead);
+                }
+            } else {
+                bytesRead = inputChannel.read(buffer);
+            }
+            if (bytesRead == -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
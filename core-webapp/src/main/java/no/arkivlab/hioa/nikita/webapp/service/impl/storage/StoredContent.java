@@ -0,0 +1,68 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The result of storing a document in the ContentAddressedStore.
+ */
+public class StoredContent {
+
+    private final String key;
+    private final String reference;
+    private final long size;
+    private final boolean deduplicated;
+    private final Map<String, String> checksums;
+
+    public StoredContent(String key, String reference, long size, boolean deduplicated,
+                         Map<String, String> checksums) {
+        this.key = key;
+        this.reference = reference;
+        this.size = size;
+        this.deduplicated = deduplicated;
+        this.checksums = Collections.unmodifiableMap(checksums);
+    }
+
+    /**
+     * @return the content key, the hex encoded checksum of the content
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return where the content is stored, relative to the storage root. This is the value to use for
+     * DocumentObject.referenceDocumentFile
+     */
+    public String getReference() {
+        return reference;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return true if identical content was already in storage and nothing new was written
+     */
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+
+    /**
+     * @return the hex encoded checksum of the content for every configured algorithm, keyed by algorithm
+     */
+    public Map<String, String> getChecksums() {
+        return checksums;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredContent{" +
+                "key='" + key + '\'' +
+                ", reference='" + reference + '\'' +
+                ", size=" + size +
+                ", deduplicated=" + deduplicated +
+                '}';
+    }
+}
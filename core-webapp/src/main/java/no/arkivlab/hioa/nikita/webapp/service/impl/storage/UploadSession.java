@@ -0,0 +1,182 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import no.arkivlab.hioa.nikita.webapp.util.ByteRange;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A chunked upload of the file belonging to a DocumentObject. Chunks can arrive in any order and in parallel.
+ * The session keeps track of which byte ranges have been received and hashes the file as the received part
+ * from the start of the file grows, so completing the upload only has to hash what is left.
+ * <p>
+ * Public getters make up what clients see of the session. Everything else is managed by the
+ * UploadSessionService.
+ */
+public class UploadSession {
+
+    private final String sessionId;
+    private final String documentObjectSystemId;
+    private final String owner;
+    private final long fileSize;
+    private final Path directory;
+
+    // start -> end (inclusive) of the received ranges, merged so no two ranges touch
+    private final TreeMap<Long, Long> received = new TreeMap<>();
+    // start -> end (inclusive) of the chunks being written
+    private final TreeMap<Long, Long> writing = new TreeMap<>();
+
+    private final ReentrantLock digestLock = new ReentrantLock();
+    private MultiDigest digest;
+    private long hashedUpTo;
+
+    UploadSession(String sessionId, String documentObjectSystemId, String owner, long fileSize, Path directory) {
+        this.sessionId = sessionId;
+        this.documentObjectSystemId = documentObjectSystemId;
+        this.owner = owner;
+        this.fileSize = fileSize;
+        this.directory = directory;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getDocumentObjectSystemId() {
+        return documentObjectSystemId;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public synchronized long getBytesReceived() {
+        long bytes = 0;
+        for (Map.Entry<Long, Long> range : received.entrySet()) {
+            bytes += range.getValue() - range.getKey() + 1;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the ranges received so far, as in a Range header without the unit, e.g. 0-1023
+     */
+    public synchronized List<String> getReceived() {
+        List<String> ranges = new ArrayList<>();
+        for (Map.Entry<Long, Long> range : received.entrySet()) {
+            ranges.add(range.getKey() + "-" + range.getValue());
+        }
+        return ranges;
+    }
+
+    public synchronized boolean isComplete() {
+        return getReceivedFromStart() == fileSize;
+    }
+
+    String getOwner() {
+        return owner;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    ReentrantLock getDigestLock() {
+        return digestLock;
+    }
+
+    /**
+     * Only to be used while holding the digest lock.
+     */
+    MultiDigest getDigest() {
+        return digest;
+    }
+
+    void setDigest(MultiDigest digest, long hashedUpTo) {
+        this.digest = digest;
+        this.hashedUpTo = hashedUpTo;
+    }
+
+    long getHashedUpTo() {
+        return hashedUpTo;
+    }
+
+    /**
+     * Reserve a range of the file for a chunk about to be written. Bytes that have been received are never
+     * written again, as they may already have been hashed, and two chunks are never written to the same bytes
+     * at once.
+     *
+     * @return true if the range is reserved, false if all of it has been received, i.e. the chunk is resent
+     * @throws StorageException if the range overlaps a range received or being written without being within
+     *                          a received range
+     */
+    synchronized boolean reserve(ByteRange range) {
+        Map.Entry<Long, Long> containing = received.floorEntry(range.getStart());
+        if (containing != null && containing.getValue() >= range.getEnd()) {
+            return false;
+        }
+        if (overlaps(received, range) || overlaps(writing, range)) {
+            throw new StorageException("Chunk " + range + " overlaps bytes already received or being written " +
+                    "in " + this);
+        }
+        writing.put(range.getStart(), range.getEnd());
+        return true;
+    }
+
+    /**
+     * Give up a range reserved for a chunk that could not be written.
+     */
+    synchronized void release(ByteRange range) {
+        writing.remove(range.getStart());
+    }
+
+    /**
+     * Record that a range has been written, merging it with the ranges it overlaps or touches. A reservation
+     * of the range is given up.
+     */
+    synchronized void addReceived(ByteRange range) {
+        writing.remove(range.getStart());
+        long start = range.getStart();
+        long end = range.getEnd();
+        Map.Entry<Long, Long> before = received.floorEntry(start);
+        if (before != null && before.getValue() >= start - 1) {
+            start = before.getKey();
+            end = Math.max(end, before.getValue());
+        }
+        Map.Entry<Long, Long> after = received.ceilingEntry(start);
+        while (after != null && after.getKey() <= end + 1) {
+            end = Math.max(end, after.getValue());
+            received.remove(after.getKey());
+            after = received.ceilingEntry(start);
+        }
+        received.put(start, end);
+    }
+
+    private static boolean overlaps(TreeMap<Long, Long> ranges, ByteRange range) {
+        Map.Entry<Long, Long> before = ranges.floorEntry(range.getEnd());
+        return before != null && before.getValue() >= range.getStart();
+    }
+
+    /**
+     * @return the number of bytes received without gaps from the start of the file
+     */
+    synchronized long getReceivedFromStart() {
+        Long end = received.get(0L);
+        return end == null ? 0 : end + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadSession{" +
+                "sessionId='" + sessionId + '\'' +
+                ", documentObjectSystemId='" + documentObjectSystemId + '\'' +
+                ", fileSize=" + fileSize +
+                ", received=" + getReceived() +
+                '}';
+    }
+}
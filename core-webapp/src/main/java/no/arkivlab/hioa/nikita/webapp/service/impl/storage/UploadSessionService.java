@@ -0,0 +1,361 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.storage;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import nikita.model.noark5.v4.DocumentObject;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.IDocumentObjectService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IUploadSessionService;
+import no.arkivlab.hioa.nikita.webapp.util.ByteRange;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Chunked, resumable uploads of DocumentObject files.
+ * <p>
+ * Each session has a directory under incoming/sessions in the storage location, holding the file being
+ * assembled and a small properties file with the state of the session. Chunks are written straight into the
+ * file at their offset, so nothing has to be copied when the upload is complete; the file is moved into the
+ * ContentAddressedStore with a single rename. As the state is on disk, sessions survive a restart of the
+ * application. Only the running checksum is kept in memory; after a restart it is recalculated from the file.
+ * Received bytes are never written again, so what has been hashed is what is committed: a resent chunk that
+ * has been received is ignored, and a chunk overlapping received bytes is rejected.
+ * <p>
+ * Sessions left untouched for longer than storage.uploadSessionExpiryMinutes are deleted.
+ */
+@Service
+public class UploadSessionService implements IUploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    public static final String SESSIONS_DIRECTORY = "sessions";
+    private static final String DATA_FILE = "data";
+    private static final String STATE_FILE = "session.properties";
+
+    private final ContentAddressedStore contentStore;
+    private final StorageWriter storageWriter;
+    private final IDocumentObjectService documentObjectService;
+    private final String checksumAlgorithm;
+    private final List<String> additionalChecksumAlgorithms;
+    private final long expiryMillis;
+    private final Path sessionsLocation;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    private final Meter chunks;
+    private final Meter chunkBytes;
+
+    public UploadSessionService(ContentAddressedStore contentStore,
+                                StorageWriter storageWriter,
+                                IDocumentObjectService documentObjectService,
+                                WebappProperties webappProperties,
+                                MetricRegistry metricRegistry) {
+        this.contentStore = contentStore;
+        this.storageWriter = storageWriter;
+        this.documentObjectService = documentObjectService;
+        this.checksumAlgorithm = webappProperties.getChecksumProperties().getChecksumAlgorithm();
+        this.additionalChecksumAlgorithms =
+                webappProperties.getChecksumProperties().getAdditionalChecksumAlgorithms();
+        this.expiryMillis = TimeUnit.MINUTES.toMillis(
+                webappProperties.getStorageProperties().getUploadSessionExpiryMinutes());
+        this.sessionsLocation = contentStore.getIncomingLocation().resolve(SESSIONS_DIRECTORY);
+        this.chunks = metricRegistry.meter(MetricRegistry.name(UploadSessionService.class, "chunks"));
+        this.chunkBytes = metricRegistry.meter(MetricRegistry.name(UploadSessionService.class, "bytes"));
+    }
+
+    @Override
+    public UploadSession createSession(DocumentObject documentObject) {
+        Long fileSize = documentObject.getFileSize();
+        if (fileSize == null || fileSize < 1) {
+            throw new StorageException("Attempt to start an upload without a positive fileSize set in " +
+                    documentObject);
+        }
+        deleteExpiredSessions();
+        String sessionId = UUID.randomUUID().toString();
+        Path directory = sessionsLocation.resolve(sessionId);
+        UploadSession session = new UploadSession(sessionId, documentObject.getSystemId(), getUser(), fileSize,
+                directory);
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(DATA_FILE),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SPARSE)) {
+                // Give the file its full size up front, so chunks can be written at any offset
+                channel.write(ByteBuffer.allocate(1), fileSize - 1);
+            }
+            saveState(session);
+        } catch (IOException e) {
+            deleteDirectory(directory);
+            throw new StorageException("Could not start an upload session for " + documentObject + ". " + e);
+        }
+        sessions.put(sessionId, session);
+        logger.info("Started " + session);
+        return session;
+    }
+
+    @Override
+    public UploadSession findSession(String documentObjectSystemId, String sessionId) {
+        UploadSession session = sessions.get(sessionId);
+        if (session == null) {
+            session = loadSession(sessionId);
+            UploadSession existing = sessions.putIfAbsent(sessionId, session);
+            if (existing != null) {
+                session = existing;
+            }
+        }
+        // A session is only found through the DocumentObject it was created for
+        if (!session.getDocumentObjectSystemId().equals(documentObjectSystemId)) {
+            throw new NoarkEntityNotFoundException("No upload session with id " + sessionId + " for " +
+                    documentObjectSystemId);
+        }
+        if (!session.getOwner().equals(getUser())) {
+            throw new AccessDeniedException("Upload session " + sessionId + " belongs to another user");
+        }
+        return session;
+    }
+
+    @Override
+    public UploadSession writeChunk(String documentObjectSystemId, String sessionId, ByteRange range,
+                                    InputStream inputStream) {
+        UploadSession session = findSession(documentObjectSystemId, sessionId);
+        if (range.getEnd() >= session.getFileSize()) {
+            throw new StorageException("Chunk " + range + " is outside the file of " + session);
+        }
+        if (!session.reserve(range)) {
+            // A resent chunk. What was received first is kept, as it may already be part of the checksum
+            logger.debug("Ignoring chunk " + range + " of " + session + " as it has already been received");
+            return session;
+        }
+        try {
+            write(session, range, inputStream);
+        } catch (RuntimeException e) {
+            session.release(range);
+            throw e;
+        }
+        chunks.mark();
+        chunkBytes.mark(range.getLength());
+
+        session.addReceived(range);
+        try {
+            saveState(session);
+        } catch (IOException e) {
+            throw new StorageException("Could not save the state of " + session + ". " + e);
+        }
+        // Hash what has been received from the start of the file, unless another chunk is already doing so
+        if (session.getDigestLock().tryLock()) {
+            try {
+                advanceDigest(session);
+            } finally {
+                session.getDigestLock().unlock();
+            }
+        }
+        return session;
+    }
+
+    private void write(UploadSession session, ByteRange range, InputStream inputStream) {
+        long written;
+        try (FileChannel channel = FileChannel.open(session.getDirectory().resolve(DATA_FILE),
+                StandardOpenOption.WRITE)) {
+            channel.position(range.getStart());
+            written = storageWriter.copy(new BoundedInputStream(inputStream, range.getLength()), channel, null);
+        } catch (IOException e) {
+            throw new StorageException("Could not write chunk " + range + " of " + session + ". " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while waiting for an upload buffer when writing chunk " +
+                    range + " of " + session);
+        }
+        if (written != range.getLength()) {
+            throw new StorageException("Chunk " + range + " of " + session + " had " + written + " bytes, " +
+                    "expected " + range.getLength());
+        }
+    }
+
+    @Override
+    public void completeSession(String sessionId, DocumentObject documentObject) {
+        UploadSession session = findSession(documentObject.getSystemId(), sessionId);
+        session.getDigestLock().lock();
+        try {
+            if (!session.isComplete()) {
+                throw new StorageException("Can not complete " + session + " as parts of the file are missing");
+            }
+            advanceDigest(session);
+            Map<String, String> checksums = session.getDigest().digest();
+            // digest() has reset the digest, so should completing fail it is calculated anew next time
+            session.setDigest(null, 0);
+            String key = checksums.get(checksumAlgorithm);
+            String expectedKey = documentObjectService.getExpectedChecksum(documentObject);
+            if (expectedKey != null && !key.equals(expectedKey)) {
+                throw new StorageException("The checksum of the uploaded file (" + key + ") does not match the " +
+                        "checksum (" + expectedKey + ") set in " + documentObject);
+            }
+            StoredContent storedContent = contentStore.commit(session.getDirectory().resolve(DATA_FILE),
+                    key, session.getFileSize(), checksums, documentObject.getMimeType());
+            documentObjectService.associateStoredContent(documentObject, storedContent);
+            documentObjectService.update(documentObject);
+            logger.info("Completed " + session + " as " + storedContent);
+        } catch (IOException e) {
+            throw new StorageException("Could not complete " + session + ". " + e);
+        } finally {
+            session.getDigestLock().unlock();
+        }
+        removeSession(session);
+    }
+
+    @Override
+    public void deleteSession(String documentObjectSystemId, String sessionId) {
+        removeSession(findSession(documentObjectSystemId, sessionId));
+    }
+
+    /**
+     * Hash the file from where hashing stopped up to the end of what has been received from the start of the
+     * file. Must be called while holding the digest lock of the session.
+     */
+    private void advanceDigest(UploadSession session) {
+        try {
+            if (session.getDigest() == null) {
+                session.setDigest(MultiDigest.getInstance(checksumAlgorithm, additionalChecksumAlgorithms), 0);
+            }
+            long from = session.getHashedUpTo();
+            long to = session.getReceivedFromStart();
+            if (to <= from) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(session.getDirectory().resolve(DATA_FILE),
+                    StandardOpenOption.READ)) {
+                storageWriter.digest(channel, from, to - from, session.getDigest());
+            }
+            session.setDigest(session.getDigest(), to);
+        } catch (NoSuchAlgorithmException e) {
+            throw new StorageException("Internal error, could not load checksum algorithms (" + checksumAlgorithm
+                    + ", " + additionalChecksumAlgorithms + ") for " + session);
+        } catch (IOException e) {
+            // Start over next time rather than continue from an unknown state
+            session.setDigest(null, 0);
+            throw new StorageException("Could not calculate the checksum of " + session + ". " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            session.setDigest(null, 0);
+            throw new StorageException("Interrupted while calculating the checksum of " + session);
+        }
+    }
+
+    private void saveState(UploadSession session) throws IOException {
+        Properties state = new Properties();
+        state.setProperty("documentObjectSystemId", session.getDocumentObjectSystemId());
+        state.setProperty("owner", session.getOwner());
+        state.setProperty("fileSize", Long.toString(session.getFileSize()));
+        state.setProperty("received", String.join(",", session.getReceived()));
+        Path temporary = session.getDirectory().resolve(STATE_FILE + "." + UUID.randomUUID());
+        try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+            state.store(outputStream, null);
+        }
+        Files.move(temporary, session.getDirectory().resolve(STATE_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private UploadSession loadSession(String sessionId) {
+        Path directory;
+        try {
+            directory = sessionsLocation.resolve(UUID.fromString(sessionId).toString());
+        } catch (IllegalArgumentException e) {
+            throw new NoarkEntityNotFoundException("No upload session with id " + sessionId);
+        }
+        Path stateFile = directory.resolve(STATE_FILE);
+        if (!Files.isRegularFile(stateFile) || isExpired(stateFile)) {
+            deleteDirectory(directory);
+            throw new NoarkEntityNotFoundException("No upload session with id " + sessionId);
+        }
+        Properties state = new Properties();
+        try (Reader reader = Files.newBufferedReader(stateFile)) {
+            state.load(reader);
+        } catch (IOException e) {
+            throw new StorageException("Could not read the state of upload session " + sessionId + ". " + e);
+        }
+        UploadSession session = new UploadSession(sessionId, state.getProperty("documentObjectSystemId"),
+                state.getProperty("owner"), Long.parseLong(state.getProperty("fileSize")), directory);
+        String received = state.getProperty("received", "");
+        if (!received.isEmpty()) {
+            for (String range : received.split(",")) {
+                int dash = range.indexOf('-');
+                session.addReceived(new ByteRange(Long.parseLong(range.substring(0, dash)),
+                        Long.parseLong(range.substring(dash + 1))));
+            }
+        }
+        return session;
+    }
+
+    private void removeSession(UploadSession session) {
+        sessions.remove(session.getSessionId());
+        deleteDirectory(session.getDirectory());
+    }
+
+    private void deleteExpiredSessions() {
+        if (!Files.isDirectory(sessionsLocation)) {
+            return;
+        }
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(sessionsLocation)) {
+            for (Path directory : directories) {
+                Path stateFile = directory.resolve(STATE_FILE);
+                if (!Files.exists(stateFile) || isExpired(stateFile)) {
+                    logger.info("Deleting expired upload session " + directory.getFileName());
+                    sessions.remove(directory.getFileName().toString());
+                    deleteDirectory(directory);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete expired upload sessions. " + e);
+        }
+    }
+
+    private boolean isExpired(Path stateFile) {
+        try {
+            FileTime lastModified = Files.getLastModifiedTime(stateFile);
+            return System.currentTimeMillis() - lastModified.toMillis() > expiryMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.warn("Could not delete " + file + ". " + e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not delete " + directory + ". " + e);
+        }
+    }
+
+    private static String getUser() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
@@ -5,7 +5,7 @@ import nikita.model.noark5.v4.BasicRecord;
 import java.util.List;
 
 public interface IBasicRecordService {
-    List<BasicRecord> findBasicRecordByOwnerPaginated(Integer top, Integer skip);
+    List<BasicRecord> findBasicRecordByOwnerPaginated(Integer top, Integer skip, String skipToken);
 
     BasicRecord findBySystemId(String basicRecordSystemId);
 }
\ No newline at end of file
@@ -14,5 +14,5 @@ public interface ICaseFileService {
 
     CaseFile findBySystemId(String systemId);
 
-    List<CaseFile> findCaseFileByOwnerPaginated(Integer top, Integer skip);
+    List<CaseFile> findCaseFileByOwnerPaginated(Integer top, Integer skip, String skipToken);
 }
@@ -18,7 +18,7 @@ public interface IClassService {
 	Class createClassAssociatedWithClass(String classSystemId, Class klass);
 
 	// -- All READ operations
-	List<Class> findClassByOwnerPaginated(Integer top, Integer skip);
+	List<Class> findClassByOwnerPaginated(Integer top, Integer skip, String skipToken);
 
 	List<Class> findAll();
 	List<Class> findAll(Sort sort);
@@ -19,7 +19,7 @@ public interface IClassificationSystemService {
 	Class createClassAssociatedWithClassificationSystem(String classificationSystemSystemId, Class klass);
 
 	// -- All READ operations
-	List<ClassificationSystem> findClassificationSystemByOwnerPaginated(Integer top, Integer skip);
+	List<ClassificationSystem> findClassificationSystemByOwnerPaginated(Integer top, Integer skip, String skipToken);
 
 	List<ClassificationSystem> findAll();
 	List<ClassificationSystem> findAll(Sort sort);
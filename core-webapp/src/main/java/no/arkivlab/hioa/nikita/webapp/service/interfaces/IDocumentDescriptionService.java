@@ -9,6 +9,7 @@ import org.springframework.data.domain.Sort;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IDocumentDescriptionService {
 
@@ -20,7 +21,11 @@ public interface IDocumentDescriptionService {
 														  DocumentObject documentObject);
 	// -- All READ operations
 
-	List<DocumentDescription> findDocumentDescriptionByOwnerPaginated(Integer top, Integer skip);
+	List<DocumentDescription> findDocumentDescriptionByOwnerPaginated(Integer top, Integer skip, String skipToken);
+
+	void forEachDocumentDescriptionByOwner(Consumer<DocumentDescription> action);
+	List<DocumentObject> findDocumentObjectByDocumentDescriptionPaginated(DocumentDescription documentDescription,
+	                                                                      Integer top, Integer skip, String skipToken);
 
 	List<DocumentDescription> findAll();
 	List<DocumentDescription> findAll(Sort sort);
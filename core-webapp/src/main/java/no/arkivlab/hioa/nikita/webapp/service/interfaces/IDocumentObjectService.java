@@ -2,6 +2,7 @@ package no.arkivlab.hioa.nikita.webapp.service.interfaces;
 
 
 import nikita.model.noark5.v4.DocumentObject;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.StoredContent;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,6 +12,7 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IDocumentObjectService {
 
@@ -19,10 +21,16 @@ public interface IDocumentObjectService {
 
     void storeAndCalculateChecksum(InputStream inputStream, DocumentObject documentObject);
 
+    void associateStoredContent(DocumentObject documentObject, StoredContent storedContent);
+
+    String getExpectedChecksum(DocumentObject documentObject);
+
     Path load(String filename);
 
     Resource loadAsResource(DocumentObject documentObject);
 
+    long countReferencesToFile(String referenceDocumentFile, Long excludedDocumentObjectId);
+
 	// -- All CREATE operations
 
 	DocumentObject save(DocumentObject documentObject);
@@ -32,7 +40,9 @@ public interface IDocumentObjectService {
 
 	// -- All READ operations
 
-    List<DocumentObject> findDocumentObjectByOwnerPaginated(Integer top, Integer skip);
+    List<DocumentObject> findDocumentObjectByOwnerPaginated(Integer top, Integer skip, String skipToken);
+
+    void forEachDocumentObjectByOwner(Consumer<DocumentObject> action);
 
     List<DocumentObject> findAll();
 
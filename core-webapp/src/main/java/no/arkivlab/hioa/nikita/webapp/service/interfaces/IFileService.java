@@ -10,6 +10,7 @@ import org.springframework.data.domain.Sort;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IFileService {
 
@@ -19,7 +20,10 @@ public interface IFileService {
 	Record createRecordAssociatedWithFile(String fileSystemId, Record record);
 	BasicRecord createBasicRecordAssociatedWithFile(String fileSystemId, BasicRecord basicRecord);
 
-    List<File> findFileByOwnerPaginated(Integer top, Integer skip);
+    List<File> findFileByOwnerPaginated(Integer top, Integer skip, String skipToken);
+
+    void forEachFileByOwner(Consumer<File> action);
+    List<Record> findRecordByFilePaginated(File file, Integer top, Integer skip, String skipToken);
 
 	// -- All READ operations
     List<File> findAll();
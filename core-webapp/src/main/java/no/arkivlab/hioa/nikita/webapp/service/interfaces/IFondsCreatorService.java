@@ -12,7 +12,7 @@ public interface IFondsCreatorService {
 
     Fonds createFondsAssociatedWithFondsCreator(String fondsCreatorSystemId, Fonds fonds);
 
-    List<FondsCreator> findFondsCreatorByOwnerPaginated(Integer top, Integer skip);
+    List<FondsCreator> findFondsCreatorByOwnerPaginated(Integer top, Integer skip, String skipToken);
 
     // -- All READ operations
 
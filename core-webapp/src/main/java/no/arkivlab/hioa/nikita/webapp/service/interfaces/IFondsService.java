@@ -10,6 +10,7 @@ import org.springframework.data.domain.Sort;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IFondsService  {
 
@@ -22,7 +23,10 @@ public interface IFondsService  {
 
     FondsCreator createFondsCreatorAssociatedWithFonds(String fondsSystemId, FondsCreator fondsCreator);
 
-    List<Fonds> findFondsByOwnerPaginated(Integer top, Integer skip);
+    List<Fonds> findFondsByOwnerPaginated(Integer top, Integer skip, String skipToken);
+
+    void forEachFondsByOwner(Consumer<Fonds> action);
+    List<Series> findSeriesByFondsPaginated(Fonds fonds, Integer top, Integer skip, String skipToken);
 
     // -- All READ operations
 
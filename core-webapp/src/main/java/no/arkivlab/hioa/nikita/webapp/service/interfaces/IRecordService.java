@@ -9,6 +9,7 @@ import org.springframework.data.domain.Sort;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IRecordService {
 
@@ -19,7 +20,11 @@ public interface IRecordService {
 	DocumentDescription createDocumentDescriptionAssociatedWithRecord(String recordSystemId,
 																	  DocumentDescription documentDescription);
 
-    List<Record> findRecordByOwnerPaginated(Integer top, Integer skip);
+    List<Record> findRecordByOwnerPaginated(Integer top, Integer skip, String skipToken);
+
+    void forEachRecordByOwner(Consumer<Record> action);
+    List<DocumentDescription> findDocumentDescriptionByRecordPaginated(Record record,
+                                                                       Integer top, Integer skip, String skipToken);
 
 	// -- All READ operations
 
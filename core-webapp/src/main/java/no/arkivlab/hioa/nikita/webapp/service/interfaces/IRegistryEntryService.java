@@ -12,5 +12,5 @@ public interface IRegistryEntryService {
             String recordSystemId, DocumentDescription documentDescription);
 
     RegistryEntry findBySystemId(String systemId);
-    List<RegistryEntry> findRegistryEntryByOwnerPaginated(Integer top, Integer skip);
+    List<RegistryEntry> findRegistryEntryByOwnerPaginated(Integer top, Integer skip, String skipToken);
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import org.springframework.data.domain.Sort;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ISeriesService  {
 
@@ -117,5 +118,8 @@ public interface ISeriesService  {
 	List<Series> findByOwnedBy(String ownedBy);
 	List<Series> findByOwnedBy(String ownedBy, Sort sort);
 
-    List<Series> findSeriesByOwnerPaginated(Integer top, Integer skip);
+    List<Series> findSeriesByOwnerPaginated(Integer top, Integer skip, String skipToken);
+
+    void forEachSeriesByOwner(Consumer<Series> action);
+    List<File> findFileBySeriesPaginated(Series series, Integer top, Integer skip, String skipToken);
 }
@@ -0,0 +1,17 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.extraction;
+
+import nikita.extraction.ExtractionStatistics;
+
+public interface IArchiveExtractionService {
+
+    /**
+     * Extract a fonds into a Noark 5 extraction package in the extraction directory.
+     *
+     * @param fondsSystemId    the systemID of the fonds
+     * @param packageName      the name of the package, relative to the extraction directory
+     * @param priorPackageName the name of a prior extraction of the fonds, relative to the extraction directory,
+     *                         to extract only what has changed since, or null to extract everything
+     * @return what was extracted
+     */
+    ExtractionStatistics extractFonds(String fondsSystemId, String packageName, String priorPackageName);
+}
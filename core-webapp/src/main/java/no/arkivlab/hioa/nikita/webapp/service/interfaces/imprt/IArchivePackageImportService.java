@@ -0,0 +1,8 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt;
+
+import nikita.extraction.ExtractionStatistics;
+
+public interface IArchivePackageImportService {
+    // -- All CREATE operations
+    ExtractionStatistics importPackage(String packageName, String owner);
+}
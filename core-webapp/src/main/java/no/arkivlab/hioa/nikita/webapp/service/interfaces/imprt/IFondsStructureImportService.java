@@ -0,0 +1,10 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface IFondsStructureImportService {
+    // -- All CREATE operations
+    void importFondsStructure(InputStream input, OutputStream results) throws IOException;
+}
@@ -0,0 +1,32 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.search;
+
+import java.io.Serializable;
+
+public interface IAsyncIndexingService {
+
+    /**
+     * Queue an entity to be indexed, or removed from the index, in a later batch. Called once the transaction
+     * that changed the entity has committed. Work already queued for the same entity is replaced.
+     *
+     * @param systemId the systemID of the entity, or null if it has none
+     * @param purge    true if the entity was deleted
+     */
+    void queue(Class<?> entityClass, Serializable id, String systemId, boolean purge);
+
+    /**
+     * Index everything queued, batchSize entities at a time. Called on the indexing thread on the configured
+     * interval, and as soon as batchSize entities are queued.
+     */
+    void flush();
+
+    /**
+     * @return true if entities of entityClass have an index, and so are to be queued when written without the
+     * Hibernate event listeners, e.g. through a StatelessSession
+     */
+    boolean isIndexed(Class<?> entityClass);
+
+    /**
+     * @return the number of entities waiting to be indexed
+     */
+    int getQueueDepth();
+}
@@ -0,0 +1,29 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.storage;
+
+import no.arkivlab.hioa.nikita.webapp.model.storage.FixityAuditRun;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+public interface IFixityAuditService {
+
+    /**
+     * Recalculate the checksum of the file of every DocumentObject and compare it with the recorded
+     * checksum. The result for each DocumentObject is stored as a FixityCheck. An interrupted audit is
+     * resumed from its last checkpoint, otherwise a new audit is started.
+     *
+     * @return the finished audit run
+     */
+    FixityAuditRun audit();
+
+    /**
+     * Run audit() if nikita-noark5-core.storage.fixity.enabled is set. Called on the configured schedule.
+     */
+    void auditOnSchedule();
+
+    /**
+     * Resume an interrupted audit in the background if nikita-noark5-core.storage.fixity.enabled is set.
+     * Called when the application has started.
+     */
+    void resumeOnStartup(ApplicationReadyEvent event);
+
+    boolean isRunning();
+}
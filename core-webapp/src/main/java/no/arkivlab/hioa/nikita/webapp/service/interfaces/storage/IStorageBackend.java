@@ -0,0 +1,114 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Where stored documents are kept. Documents are addressed by their reference, the layout-relative path that
+ * is stored in DocumentObject.referenceDocumentFile, using '/' as separator.
+ * <p>
+ * Uploads are always assembled and hashed in a local staging directory first, and handed to the backend with
+ * put() once their reference is known. Stored documents are never modified, only created, copied and deleted.
+ * <p>
+ * Methods taking a reference throw java.nio.file.NoSuchFileException if nothing is stored under it.
+ */
+public interface IStorageBackend {
+
+    /**
+     * Prepare the backend for use, e.g. create the root directory or bucket.
+     */
+    void init() throws IOException;
+
+    boolean exists(String reference) throws IOException;
+
+    long size(String reference) throws IOException;
+
+    /**
+     * @return when the document was stored or last touched, in milliseconds since the epoch
+     */
+    long lastModified(String reference) throws IOException;
+
+    /**
+     * Set the last modified time of a document to now. Used to protect deduplicated content from being
+     * released while the new reference to it is being committed. A backend for which this is expensive may
+     * leave a document modified less than half of ContentAddressedStore.RELEASE_GRACE_PERIOD_MILLIS ago.
+     */
+    void touch(String reference) throws IOException;
+
+    /**
+     * Store a local file under reference, replacing anything already stored there. The local file is moved
+     * or deleted, so it is gone when this method returns.
+     *
+     * @param reference where to store the file
+     * @param source    a complete file in the staging directory
+     */
+    void put(String reference, Path source) throws IOException;
+
+    /**
+     * Store a local file of the given mime type under reference. Backends that treat documents differently
+     * depending on their type, e.g. by compressing them, override this. Reading the document back must give
+     * the original bytes whatever the backend does with them.
+     *
+     * @param reference where to store the file
+     * @param source    a complete file in the staging directory
+     * @param mimeType  the mime type of the file, or null if not known
+     */
+    default void put(String reference, Path source, String mimeType) throws IOException {
+        put(reference, source);
+    }
+
+    /**
+     * Store a copy of a document under another reference.
+     */
+    void copy(String sourceReference, String targetReference) throws IOException;
+
+    InputStream get(String reference) throws IOException;
+
+    /**
+     * @return a stream of length bytes of the document, starting at position
+     */
+    InputStream get(String reference, long position, long length) throws IOException;
+
+    /**
+     * Write length bytes of the document, starting at position, to target.
+     */
+    default void transferTo(String reference, long position, long length, WritableByteChannel target)
+            throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(get(reference, position, length))) {
+            ByteBuffer buffer = ByteBuffer.allocate(65536);
+            long remaining = length;
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int bytesRead = source.read(buffer);
+                if (bytesRead == -1) {
+                    throw new IOException("Unexpected end of " + reference + " with " + remaining +
+                            " bytes remaining");
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                remaining -= bytesRead;
+            }
+        }
+    }
+
+    /**
+     * @return true if the document existed and was deleted
+     */
+    boolean delete(String reference) throws IOException;
+
+    /**
+     * @return the local file holding the document, or null if the backend does not keep documents on a local
+     * file system. Lets the servlet container send local files with sendfile
+     */
+    Path toLocalPath(String reference);
+}
@@ -0,0 +1,31 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.storage;
+
+/**
+ * Decides where, relative to the storage root, a document is placed. The value returned by locate() is what
+ * is stored in DocumentObject.referenceDocumentFile, so changing layout does not affect documents that are
+ * already stored. Moving those is left to IStorageLayoutMigrationService.
+ */
+public interface IStorageLayout {
+
+    /**
+     * @param key the content key of the document (the hex encoded checksum, or a UUID for older documents)
+     * @return the path of the document relative to the storage root, using '/' as separator
+     */
+    String locate(String key);
+
+    /**
+     * @return true if reference is a location this layout could have given content with the given key, now or
+     * earlier. A document found there does not have to be moved by a migration
+     */
+    default boolean isLocation(String reference, String key) {
+        return reference.equals(locate(key));
+    }
+
+    /**
+     * @return true if locate() always gives the same location for a key. If not, content stored earlier under
+     * another location is found through the IStoredContentIndex
+     */
+    default boolean isStable() {
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.storage;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+public interface IStorageLayoutMigrationService {
+
+    /**
+     * Move the files of all DocumentObjects not stored according to the current IStorageLayout and update
+     * their referenceDocumentFile. Runs in batches while the application is in use.
+     *
+     * @return the number of DocumentObjects that were migrated
+     */
+    long migrate();
+
+    /**
+     * Run migrate() in the background if nikita-noark5-core.storage.migrateLayout is set. Called when the
+     * application has started.
+     */
+    void migrateOnStartup(ApplicationReadyEvent event);
+
+    boolean isRunning();
+}
@@ -0,0 +1,14 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.storage;
+
+/**
+ * Finds where content with a given key has been stored, for layouts that can not tell from the key alone.
+ */
+public interface IStoredContentIndex {
+
+    /**
+     * @param key the content key
+     * @return the reference of stored content with the key, as recorded on a DocumentObject, or null if no
+     * DocumentObject refers to content with the key
+     */
+    String findReference(String key);
+}
@@ -0,0 +1,44 @@
+package no.arkivlab.hioa.nikita.webapp.service.interfaces.storage;
+
+import nikita.model.noark5.v4.DocumentObject;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.UploadSession;
+import no.arkivlab.hioa.nikita.webapp.util.ByteRange;
+
+import java.io.InputStream;
+
+public interface IUploadSessionService {
+
+    /**
+     * Start a chunked upload of the file of documentObject. The size of the file is taken from
+     * documentObject.fileSize.
+     */
+    UploadSession createSession(DocumentObject documentObject);
+
+    /**
+     * @param documentObjectSystemId the systemID of the DocumentObject the session was created for
+     * @throws no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException if there is no such
+     *                                                                                    session for the
+     *                                                                                    DocumentObject
+     */
+    UploadSession findSession(String documentObjectSystemId, String sessionId);
+
+    /**
+     * Write one chunk of the file. Chunks can be written in any order and in parallel. A chunk whose range has
+     * been received is ignored, a chunk overlapping received bytes, or a chunk being written, is rejected.
+     *
+     * @param documentObjectSystemId the systemID of the DocumentObject the session was created for
+     * @param sessionId   the session
+     * @param range       where in the file the chunk belongs
+     * @param inputStream the content of the chunk, exactly range.getLength() bytes
+     */
+    UploadSession writeChunk(String documentObjectSystemId, String sessionId, ByteRange range,
+                             InputStream inputStream);
+
+    /**
+     * Move the completely received file into storage and associate it with documentObject, which must be the
+     * DocumentObject the session was created for. The session is removed.
+     */
+    void completeSession(String sessionId, DocumentObject documentObject);
+
+    void deleteSession(String documentObjectSystemId, String sessionId);
+}
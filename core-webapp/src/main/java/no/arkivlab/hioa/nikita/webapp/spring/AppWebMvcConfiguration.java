@@ -25,6 +25,9 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
+import static nikita.config.Constants.REFERENCE_FILE;
+import static nikita.config.Constants.UPLOAD_SESSION;
+
 @EnableWebMvc
 @EnableSpringDataWebSupport
 public class AppWebMvcConfiguration extends WebMvcConfigurerAdapter {
@@ -169,7 +172,9 @@ public class AppWebMvcConfiguration extends WebMvcConfigurerAdapter {
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(localeChangeInterceptor());
-        registry.addInterceptor(new NikitaETAGInterceptor());
+        // Chunks of an upload session are not entity updates, so they do not carry an eTag
+        registry.addInterceptor(new NikitaETAGInterceptor())
+                .excludePathPatterns("/**/" + REFERENCE_FILE + "/" + UPLOAD_SESSION + "/**");
     }
 
 }
\ No newline at end of file
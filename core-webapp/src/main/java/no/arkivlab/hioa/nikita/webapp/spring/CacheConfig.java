@@ -0,0 +1,66 @@
+package no.arkivlab.hioa.nikita.webapp.spring;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.guava.GuavaCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches for the metadata code lists (dokumentmedium, arkivstatus, ...). They are read on every request for a
+ * code list, but hardly ever change, so the metadata services cache what they read and empty the cache of a code
+ * list when a value is created or updated.
+ * <p>
+ * A cache is created the first time a service uses it, so every code list gets a cache of the same maximum size
+ * and time to live, and its hit, miss and eviction counts are registered as metrics named cache.[name].hits etc.
+ * <p>
+ * The caching advice is ordered before the transaction advice. A cache hit then does not open a transaction,
+ * and a cache is emptied after the transaction that changed the code list has committed, not before, when
+ * another request could fill it again with what is about to be replaced.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(WebappProperties webappProperties, MetricRegistry metricRegistry) {
+        WebappProperties.Cache cacheProperties = webappProperties.getCache();
+        GuavaCacheManager cacheManager = new GuavaCacheManager() {
+            @Override
+            protected Cache<Object, Object> createNativeGuavaCache(String name) {
+                Cache<Object, Object> cache = super.createNativeGuavaCache(name);
+                registerMetrics(metricRegistry, name, cache);
+                return cache;
+            }
+
+            @Override
+            protected org.springframework.cache.Cache createGuavaCache(String name) {
+                return new StoreByValueCache(super.createGuavaCache(name));
+            }
+        };
+        cacheManager.setCacheBuilder(CacheBuilder.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+                .recordStats());
+        return cacheManager;
+    }
+
+    private static void registerMetrics(MetricRegistry metricRegistry, String name, Cache<Object, Object> cache) {
+        metricRegistry.register(MetricRegistry.name("cache", name, "hits"),
+                (Gauge<Long>) () -> cache.stats().hitCount());
+        metricRegistry.register(MetricRegistry.name("cache", name, "misses"),
+                (Gauge<Long>) () -> cache.stats().missCount());
+        metricRegistry.register(MetricRegistry.name("cache", name, "evictions"),
+                (Gauge<Long>) () -> cache.stats().evictionCount());
+        metricRegistry.register(MetricRegistry.name("cache", name, "size"),
+                (Gauge<Long>) cache::size);
+    }
+}
@@ -1,5 +1,6 @@
 package no.arkivlab.hioa.nikita.webapp.spring;
 
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,6 +25,9 @@ public class DataSourceConfig {
     @Autowired
     private Environment env;
 
+    @Autowired
+    private WebappProperties webappProperties;
+
     @Bean
     // This is dealt with by sub-classes
     // You really should throw an exception rather than return null!
@@ -61,13 +65,25 @@ public class DataSourceConfig {
         hibernateProperties.setProperty("hibernate.show_sql", env.getProperty("spring.jpa.properties.hibernate.show_sql"));
         hibernateProperties.setProperty("hibernate.hbm2ddl.auto", env.getProperty("spring.jpa.properties.hibernate.hbm2ddl.auto"));
         hibernateProperties.setProperty("hibernate.hbm2ddl.import_files", env.getProperty("spring.jpa.properties.hibernate.hbm2ddl.import_files"));
-        //hibernateProperties.setProperty("hibernate.search.default.directory_provider", env.getProperty("spring.jpa.properties.hibernate.search.default.directory_provider"));
-        //hibernateProperties.setProperty("hibernate.search.default.indexBase", env.getProperty("spring.jpa.properties.hibernate.search.default.indexBase"));
+        // Without an indexBase, Lucene indexes are written to the working directory
+        setIfPresent(hibernateProperties, "hibernate.search.default.directory_provider");
+        setIfPresent(hibernateProperties, "hibernate.search.default.indexBase");
         // For elasticsearch
         //hibernateProperties.setProperty("hibernate.search.default.indexmanager", env.getProperty("spring.jpa.properties.hibernate.search.default.indexmanager"));
         //hibernateProperties.setProperty("hibernate.search.default.elasticsearch.index_schema_management_strategy", env.getProperty("spring.jpa.properties.hibernate.search.default.elasticsearch.index_schema_management_strategy"));
         //hibernateProperties.setProperty("hibernate.search.default.elasticsearch.host", env.getProperty("spring.jpa.properties.hibernate.search.default.elasticsearch.host"));
+        // Changed entities are indexed after commit by AsyncIndexingService instead of within the transaction
+        if (webappProperties.getSearchProperties().isAsyncIndexing()) {
+            hibernateProperties.setProperty("hibernate.search.indexing_strategy", "manual");
+        }
         return hibernateProperties;
     }
 
+    private void setIfPresent(Properties hibernateProperties, String property) {
+        String value = env.getProperty("spring.jpa.properties." + property);
+        if (value != null && !value.isEmpty()) {
+            hibernateProperties.setProperty(property, value);
+        }
+    }
+
 }
@@ -1,8 +1,24 @@
 package no.arkivlab.hioa.nikita.webapp.spring;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.*;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageLayout;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStoredContentIndex;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NikitaMisconfigurationException;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 
 @Configuration
 @ComponentScan({ "no.arkivlab.hioa.nikita.webapp.service"})
@@ -14,4 +30,114 @@ public class ServiceConfig {
 
     // beans
 
+    @Bean
+    public IStorageLayout storageLayout(WebappProperties webappProperties) {
+        String layout = webappProperties.getStorageProperties().getLayout();
+        if (FlatStorageLayout.NAME.equalsIgnoreCase(layout)) {
+            return new FlatStorageLayout();
+        } else if (HexStorageLayout.NAME.equalsIgnoreCase(layout)) {
+            return new HexStorageLayout();
+        } else if (DateStorageLayout.NAME.equalsIgnoreCase(layout)) {
+            return new DateStorageLayout();
+        }
+        throw new NikitaMisconfigurationException("Unknown storage layout (" + layout + "). Use one of " +
+                FlatStorageLayout.NAME + ", " + HexStorageLayout.NAME + " or " + DateStorageLayout.NAME);
+    }
+
+    @Bean
+    public StorageWriter storageWriter(WebappProperties webappProperties) {
+        WebappProperties.StorageProperties storageProperties = webappProperties.getStorageProperties();
+        ByteBufferPool bufferPool = new ByteBufferPool(storageProperties.getBufferSize(),
+                storageProperties.getBufferPoolSize(), storageProperties.isDirectBuffers());
+        if (!webappProperties.getChecksumProperties().isPipelinedHashing()) {
+            return new StorageWriter(bufferPool);
+        }
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        ExecutorService hashingExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "checksum-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        return new StorageWriter(bufferPool, hashingExecutor);
+    }
+
+    @Bean
+    public IStorageBackend storageBackend(WebappProperties webappProperties, MetricRegistry metricRegistry) {
+        WebappProperties.StorageProperties storageProperties = webappProperties.getStorageProperties();
+        IStorageBackend storageBackend = createStorageBackend(storageProperties, metricRegistry);
+        WebappProperties.StorageProperties.CompressionProperties compression = storageProperties.getCompression();
+        if (!compression.isEnabled()) {
+            return storageBackend;
+        }
+        CompressionCodec codec = CompressionCodec.forName(compression.getCodec());
+        if (codec == null) {
+            throw new NikitaMisconfigurationException("Unknown compression codec (" + compression.getCodec() +
+                    "). Use " + CompressionCodec.DEFLATE.getName());
+        }
+        if (compression.getFrameSize() < CompressingStorageBackend.MINIMUM_FRAME_SIZE ||
+                compression.getFrameSize() > CompressingStorageBackend.MAXIMUM_FRAME_SIZE) {
+            throw new NikitaMisconfigurationException("nikita-noark5-core.storage.compression.frameSize must be " +
+                    "between " + CompressingStorageBackend.MINIMUM_FRAME_SIZE + " and " +
+                    CompressingStorageBackend.MAXIMUM_FRAME_SIZE);
+        }
+        if (compression.getLevel() < 1 || compression.getLevel() > 9) {
+            throw new NikitaMisconfigurationException("nikita-noark5-core.storage.compression.level must be " +
+                    "between 1 and 9");
+        }
+        CompressingStorageBackend compressingStorageBackend = new CompressingStorageBackend(storageBackend, codec,
+                compression.getLevel(), compression.getFrameSize(), compression.getMimeTypes());
+        metricRegistry.register(MetricRegistry.name(CompressingStorageBackend.class, "documents"),
+                (Gauge<Long>) compressingStorageBackend::getCompressedDocuments);
+        metricRegistry.register(MetricRegistry.name(CompressingStorageBackend.class, "originalBytes"),
+                (Gauge<Long>) compressingStorageBackend::getOriginalBytes);
+        metricRegistry.register(MetricRegistry.name(CompressingStorageBackend.class, "storedBytes"),
+                (Gauge<Long>) compressingStorageBackend::getStoredBytes);
+        return compressingStorageBackend;
+    }
+
+    private IStorageBackend createStorageBackend(WebappProperties.StorageProperties storageProperties,
+                                                 MetricRegistry metricRegistry) {
+        Path location = Paths.get(storageProperties.getLocation());
+        Path incomingLocation = location.resolve(ContentAddressedStore.INCOMING_DIRECTORY);
+        String backend = storageProperties.getBackend();
+        if (FileSystemStorageBackend.NAME.equalsIgnoreCase(backend)) {
+            if (!storageProperties.isFsync()) {
+                return new FileSystemStorageBackend(location, incomingLocation);
+            }
+            DirectorySyncer directorySyncer = new DirectorySyncer(
+                    TimeUnit.MILLISECONDS.toNanos(storageProperties.getFsyncCommitWindowMillis()));
+            metricRegistry.register(MetricRegistry.name(DirectorySyncer.class, "requests"),
+                    (Gauge<Long>) directorySyncer::getRequests);
+            metricRegistry.register(MetricRegistry.name(DirectorySyncer.class, "syncs"),
+                    (Gauge<Long>) directorySyncer::getSyncs);
+            return new FileSystemStorageBackend(location, incomingLocation, directorySyncer);
+        } else if (S3StorageBackend.NAME.equalsIgnoreCase(backend)) {
+            WebappProperties.StorageProperties.S3Properties s3 = storageProperties.getS3();
+            if (s3.getAccessKey() == null || s3.getSecretKey() == null) {
+                throw new NikitaMisconfigurationException("The s3 storage backend requires " +
+                        "nikita-noark5-core.storage.s3.accessKey and secretKey to be set");
+            }
+            return new S3StorageBackend(s3.getEndpoint(), s3.getRegion(), s3.getBucket(), s3.getKeyPrefix(),
+                    s3.getAccessKey(), s3.getSecretKey(), s3.getPartSize(), s3.getParallelParts(),
+                    incomingLocation);
+        }
+        throw new NikitaMisconfigurationException("Unknown storage backend (" + backend + "). Use one of " +
+                FileSystemStorageBackend.NAME + " or " + S3StorageBackend.NAME);
+    }
+
+    /**
+     * init() prepares the backend and sweeps away uploads left behind by a crash before any request is served
+     */
+    @Bean(initMethod = "init")
+    public ContentAddressedStore contentAddressedStore(WebappProperties webappProperties,
+                                                       StorageWriter storageWriter,
+                                                       IStorageLayout storageLayout,
+                                                       IStorageBackend storageBackend,
+                                                       IStoredContentIndex storedContentIndex) {
+        Path incomingLocation = Paths.get(webappProperties.getStorageProperties().getLocation())
+                .resolve(ContentAddressedStore.INCOMING_DIRECTORY);
+        return new ContentAddressedStore(incomingLocation, storageWriter, storageLayout, storageBackend,
+                storedContentIndex);
+    }
 }
@@ -0,0 +1,94 @@
+package no.arkivlab.hioa.nikita.webapp.spring;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.util.SerializationUtils;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+
+/**
+ * A cache that holds its values serialised, so that every hit is a copy of its own, detached from the
+ * EntityManager that read it.
+ * <p>
+ * The metadata services return JPA entities, which the controllers change and save. Were the cached entities
+ * returned as they are, every request and thread would share the same instances, and a change one request made,
+ * saved or not, would be seen by all the others.
+ */
+class StoreByValueCache implements Cache {
+
+    private final Cache cache;
+
+    StoreByValueCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper stored = cache.get(key);
+        return stored == null ? null : new SimpleValueWrapper(fromStored(stored.get()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Object value = fromStored(cache.get(key, Object.class));
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " +
+                    value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) fromStored(cache.get(key, () -> toStored(valueLoader.call())));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, toStored(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = cache.putIfAbsent(key, toStored(value));
+        return existing == null ? null : new SimpleValueWrapper(fromStored(existing.get()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    private static Object toStored(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Cannot cache " + value.getClass().getName() +
+                    " by value as it is not Serializable");
+        }
+        return SerializationUtils.serialize(value);
+    }
+
+    private static Object fromStored(Object stored) {
+        return stored == null ? null : SerializationUtils.deserialize((byte[]) stored);
+    }
+}
@@ -0,0 +1,183 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A single byte range of a file, as requested in an HTTP Range header (RFC 7233). Both start and end are
+ * inclusive, as they are in the header.
+ */
+public final class ByteRange {
+
+    public static final String BYTES_UNIT = "bytes";
+
+    /**
+     * Requests asking for more ranges than this are served the whole file instead. Guards against clients
+     * asking for thousands of tiny ranges.
+     */
+    public static final int MAX_RANGES = 16;
+
+    private final long start;
+    private final long end;
+
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return the value of a Content-Range header for this range of a file of the given size
+     */
+    public String toContentRange(long size) {
+        return BYTES_UNIT + " " + start + "-" + end + "/" + size;
+    }
+
+    /**
+     * Parse the value of a Range header against a file of the given size. Ranges are sorted, and overlapping
+     * or adjacent ranges are merged, so the result can be written in one pass over the file.
+     *
+     * @param header the value of the Range header
+     * @param size   the size of the file
+     * @return null if the header is malformed or asks for too many ranges, in which case it should be ignored
+     * and the whole file served. An empty list if none of the ranges can be satisfied (416)
+     */
+    public static List<ByteRange> parse(String header, long size) {
+        if (header == null || !header.startsWith(BYTES_UNIT + "=")) {
+            return null;
+        }
+        String[] specs = header.substring(BYTES_UNIT.length() + 1).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>();
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            try {
+                if (first.isEmpty()) {
+                    // suffix range, the last n bytes
+                    if (last.isEmpty()) {
+                        return null;
+                    }
+                    long suffixLength = parsePosition(last);
+                    if (suffixLength == 0) {
+                        continue;
+                    }
+                    start = Math.max(0, size - suffixLength);
+                    end = size - 1;
+                } else {
+                    start = parsePosition(first);
+                    long lastPosition = last.isEmpty() ? Long.MAX_VALUE : parsePosition(last);
+                    if (lastPosition < start) {
+                        return null;
+                    }
+                    end = Math.min(lastPosition, size - 1);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start < size && start <= end) {
+                ranges.add(new ByteRange(start, end));
+            }
+        }
+        return merge(ranges);
+    }
+
+    /**
+     * Parse the value of a Content-Range header, as sent with a chunk of an upload, e.g. bytes 0-1023/4096.
+     *
+     * @param header the value of the Content-Range header
+     * @param size   the size the complete file must have
+     * @return the range, or null if the header is malformed, outside the file or gives another size
+     */
+    public static ByteRange parseContentRange(String header, long size) {
+        if (header == null || !header.startsWith(BYTES_UNIT + " ")) {
+            return null;
+        }
+        String value = header.substring(BYTES_UNIT.length() + 1).trim();
+        int dash = value.indexOf('-');
+        int slash = value.indexOf('/');
+        if (dash < 1 || slash < dash) {
+            return null;
+        }
+        try {
+            long start = parsePosition(value.substring(0, dash).trim());
+            long end = parsePosition(value.substring(dash + 1, slash).trim());
+            String total = value.substring(slash + 1).trim();
+            if (end < start || end >= size || (!total.equals("*") && parsePosition(total) != size)) {
+                return null;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Long.parseLong also accepts a sign, which would turn e.g. bytes=--5 into a suffix range of -5 bytes
+     * rather than a malformed header. Positions too large for a long are beyond any file, so Long.MAX_VALUE
+     * does as well.
+     *
+     * @throws NumberFormatException unless position is a non-empty string of decimal digits
+     */
+    private static long parsePosition(String position) {
+        if (position.isEmpty()) {
+            throw new NumberFormatException("empty position");
+        }
+        for (int i = 0; i < position.length(); i++) {
+            if (position.charAt(i) < '0' || position.charAt(i) > '9') {
+                throw new NumberFormatException(position);
+            }
+        }
+        try {
+            return Long.parseLong(position);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static List<ByteRange> merge(List<ByteRange> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        Collections.sort(ranges, Comparator.comparingLong(ByteRange::getStart));
+        List<ByteRange> merged = new ArrayList<>();
+        ByteRange current = ranges.get(0);
+        for (ByteRange next : ranges.subList(1, ranges.size())) {
+            if (next.start <= current.end + 1) {
+                current = new ByteRange(current.start, Math.max(current.end, next.end));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+}
@@ -0,0 +1,176 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a stored document to the HTTP response, honouring conditional and byte-range requests (RFC 7232 and
+ * RFC 7233):
+ * <ul>
+ * <li>If-None-Match matching the ETag gives 304 Not Modified</li>
+ * <li>Range gives 206 Partial Content, as multipart/byteranges if more than one range is asked for, or 416
+ * if none of the ranges can be satisfied</li>
+ * <li>If-Range only lets the Range header through if it matches the ETag, otherwise the whole file is sent</li>
+ * </ul>
+ * The file is read through the IStorageBackend, which for local files means FileChannel.transferTo. When the
+ * file is local and the servlet container supports it (Tomcat with the NIO connector), whole files and single
+ * ranges are handed over to the container to be sent with sendfile after the request has been handled.
+ */
+public final class FileDownload {
+
+    public static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    public static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    public static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    public static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CRLF = "\r\n";
+
+    // You shall not instantiate me!
+    private FileDownload() {
+    }
+
+    /**
+     * @param checksum the checksum of the file
+     * @return a strong ETag based on checksum, or null if the checksum is not known
+     */
+    public static String toETag(String checksum) {
+        return checksum == null ? null : "\"" + checksum + "\"";
+    }
+
+    /**
+     * Answer a GET or HEAD request for the file.
+     *
+     * @param request     the request, from which conditional and range headers are read
+     * @param response    the response to write to
+     * @param backend     the backend holding the file
+     * @param reference   the reference of the file in the backend
+     * @param contentType the mime type of the file
+     * @param eTag        a strong ETag for the file, or null if none is known
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, IStorageBackend backend,
+                             String reference, String contentType, String eTag) throws IOException {
+        long size = backend.size(reference);
+        response.setHeader("Accept-Ranges", ByteRange.BYTES_UNIT);
+        if (eTag != null) {
+            response.setHeader("ETag", eTag);
+            if (matchesAny(request.getHeader("If-None-Match"), eTag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        List<ByteRange> ranges = null;
+        String rangeHeader = request.getHeader("Range");
+        if (rangeHeader != null && ifRangeMatches(request.getHeader("If-Range"), eTag)) {
+            ranges = ByteRange.parse(rangeHeader, size);
+        }
+
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(size);
+            if (!head) {
+                writeRange(request, response, backend, reference, new ByteRange(0, size - 1));
+            }
+        } else if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader("Content-Range", ByteRange.BYTES_UNIT + " */" + size);
+            response.setContentLength(0);
+        } else if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(contentType);
+            response.setHeader("Content-Range", range.toContentRange(size));
+            response.setContentLengthLong(range.getLength());
+            if (!head) {
+                writeRange(request, response, backend, reference, range);
+            }
+        } else {
+            writeMultipart(response, backend, reference, contentType, ranges, size, head);
+        }
+    }
+
+    private static void writeRange(HttpServletRequest request, HttpServletResponse response,
+                                   IStorageBackend backend, String reference, ByteRange range) throws IOException {
+        if (range.getLength() <= 0) {
+            return;
+        }
+        Path file = backend.toLocalPath(reference);
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.getStart());
+            request.setAttribute(SENDFILE_END, range.getEnd() + 1);
+            return;
+        }
+        backend.transferTo(reference, range.getStart(), range.getLength(),
+                Channels.newChannel(response.getOutputStream()));
+    }
+
+    private static void writeMultipart(HttpServletResponse response, IStorageBackend backend, String reference,
+                                       String contentType, List<ByteRange> ranges, long size, boolean head)
+            throws IOException {
+        String boundary = UUID.randomUUID().toString();
+        byte[][] partHeaders = new byte[ranges.size()][];
+        byte[] end = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        long contentLength = end.length;
+        for (int i = 0; i < ranges.size(); i++) {
+            partHeaders[i] = (CRLF + "--" + boundary + CRLF +
+                    "Content-Type: " + contentType + CRLF +
+                    "Content-Range: " + ranges.get(i).toContentRange(size) + CRLF + CRLF)
+                    .getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeaders[i].length + ranges.get(i).getLength();
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+        ServletOutputStream outputStream = response.getOutputStream();
+        WritableByteChannel outputChannel = Channels.newChannel(outputStream);
+        for (int i = 0; i < ranges.size(); i++) {
+            outputStream.write(partHeaders[i]);
+            backend.transferTo(reference, ranges.get(i).getStart(), ranges.get(i).getLength(), outputChannel);
+        }
+        outputStream.write(end);
+    }
+
+    /**
+     * Weak comparison of an If-None-Match header against our ETag.
+     */
+    private static boolean matchesAny(String header, String eTag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range requires a strong match. A date, or an ETag we can not match, means the client's copy might be
+     * stale, so the whole file is sent instead of the requested ranges.
+     */
+    private static boolean ifRangeMatches(String header, String eTag) {
+        return header == null || (eTag != null && header.trim().equals(eTag));
+    }
+}
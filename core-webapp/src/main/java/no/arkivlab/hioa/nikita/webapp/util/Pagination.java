@@ -0,0 +1,182 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Paging through the entities owned by the logged in user, and through the children of an entity.
+ * <p>
+ * Pages are ordered by primary key. A client that follows the "next" link of a page passes a skiptoken, an
+ * opaque continuation token holding the key of the last entity on the previous page, and the next page is
+ * read with WHERE id > key. Unlike skip, which makes the database read and throw away every row before the
+ * page, this costs the same however deep into the result set the page is. skip is still supported for
+ * clients that jump to a page, and is ignored when a skiptoken is given.
+ * <p>
+ * Clients that want all the entities, e.g. for an export, can have them streamed instead. forEachByOwner reads
+ * them through a database cursor and hands them over one at a time.
+ */
+public final class Pagination {
+
+    public static final String SKIP_TOKEN = "skiptoken";
+    public static final int MAX_PAGE_SIZE = 10;
+
+    // The notes of every paged listing in the API documentation
+    public static final String PAGINATION_NOTES = "The field skip tells how many rows of the result set to ignore " +
+            "(starting at 0), while top tells how many rows after skip to return, at most " + MAX_PAGE_SIZE + ". " +
+            "Follow the next link, which continues from the last row with a skiptoken, to page through large " +
+            "result sets. skip is ignored when skiptoken is given.";
+
+    private static final String TOKEN_PREFIX = "id:";
+    // Rows fetched from the cursor at a time, and entities held by the persistence context at most
+    private static final int CURSOR_FETCH_SIZE = 100;
+
+    // You shall not instantiate me!
+    private Pagination() {
+    }
+
+    /**
+     * @param top the number of entities asked for, or null
+     * @return the number of entities on a page
+     */
+    public static int getPageSize(Integer top) {
+        if (top == null || top < 1 || top > MAX_PAGE_SIZE) {
+            return MAX_PAGE_SIZE;
+        }
+        return top;
+    }
+
+    /**
+     * Find a page of the entities of the given type owned by the logged in user.
+     *
+     * @param top       the number of entities wanted, at most MAX_PAGE_SIZE
+     * @param skip      the number of entities to skip. Ignored if skipToken is given
+     * @param skipToken the continuation token from the next link of the previous page, or null
+     */
+    public static <T extends INikitaEntity> List<T> findByOwner(EntityManager entityManager, Class<T> entityClass,
+                                                                Integer top, Integer skip, String skipToken) {
+        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+        Root<T> from = criteriaQuery.from(entityClass);
+        Predicate owner = criteriaBuilder.equal(from.get("ownedBy"), loggedInUser);
+        return find(entityManager, criteriaQuery, from, owner, top, skip, skipToken);
+    }
+
+    /**
+     * Hand every entity of the given type owned by the logged in user to action, in primary key order.
+     * <p>
+     * Entities are read through a forward only cursor and the persistence context is cleared as the cursor
+     * moves on, so memory use does not grow with the number of entities. An entity must not be used after
+     * action returns. Must be called within a transaction.
+     */
+    public static <T extends INikitaEntity> void forEachByOwner(EntityManager entityManager, Class<T> entityClass,
+                                                                Consumer<? super T> action) {
+        String loggedInUser = SecurityContextHolder.getContext().getAuthentication().getName();
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+        Root<T> from = criteriaQuery.from(entityClass);
+        criteriaQuery.select(from)
+                .where(criteriaBuilder.equal(from.get("ownedBy"), loggedInUser))
+                .orderBy(criteriaBuilder.asc(from.get("id")));
+
+        Session session = entityManager.unwrap(Session.class);
+        ScrollableResults results = session.createQuery(criteriaQuery)
+                .setReadOnly(true)
+                .setFetchSize(CURSOR_FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            int count = 0;
+            while (results.next()) {
+                action.accept(entityClass.cast(results.get(0)));
+                if (++count % CURSOR_FETCH_SIZE == 0) {
+                    session.clear();
+                }
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * Find a page of the children of parent, without loading the collection of children held by parent.
+     *
+     * @param parentAttribute the attribute of the child that refers to the parent, either a single valued
+     *                        attribute (e.g. referenceSeries) or a collection (e.g. referenceRecord)
+     * @param top             the number of entities wanted, at most MAX_PAGE_SIZE
+     * @param skip            the number of entities to skip. Ignored if skipToken is given
+     * @param skipToken       the continuation token from the next link of the previous page, or null
+     */
+    public static <T extends INikitaEntity> List<T> findByParent(EntityManager entityManager, Class<T> entityClass,
+                                                                 String parentAttribute, INikitaEntity parent,
+                                                                 Integer top, Integer skip, String skipToken) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+        Root<T> from = criteriaQuery.from(entityClass);
+        Predicate child;
+        if (from.getModel().getAttribute(parentAttribute).isCollection()) {
+            child = criteriaBuilder.equal(from.join(parentAttribute), parent);
+        } else {
+            child = criteriaBuilder.equal(from.get(parentAttribute), parent);
+        }
+        return find(entityManager, criteriaQuery, from, child, top, skip, skipToken);
+    }
+
+    private static <T> List<T> find(EntityManager entityManager, CriteriaQuery<T> criteriaQuery, Root<T> from,
+                                    Predicate restriction, Integer top, Integer skip, String skipToken) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        if (skipToken != null) {
+            criteriaQuery.where(restriction,
+                    criteriaBuilder.greaterThan(from.<Long>get("id"), decodeSkipToken(skipToken)));
+        } else {
+            criteriaQuery.where(restriction);
+        }
+        criteriaQuery.select(from).orderBy(criteriaBuilder.asc(from.get("id")));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(criteriaQuery);
+        if (skipToken == null && skip != null && skip > 0) {
+            typedQuery.setFirstResult(skip);
+        }
+        typedQuery.setMaxResults(getPageSize(top));
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * @param entity the last entity on a page
+     * @return the token that continues after entity
+     */
+    public static String createSkipToken(INikitaEntity entity) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (TOKEN_PREFIX + entity.getId()).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the key of the last entity on the previous page
+     * @throws NikitaMalformedInputDataException if skipToken was not made by createSkipToken
+     */
+    public static Long decodeSkipToken(String skipToken) {
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(skipToken), StandardCharsets.US_ASCII);
+            if (token.startsWith(TOKEN_PREFIX)) {
+                return Long.valueOf(token.substring(TOKEN_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not base64 or not a number, fall through
+        }
+        throw new NikitaMalformedInputDataException("Invalid " + SKIP_TOKEN + " (" + skipToken + ")");
+    }
+}
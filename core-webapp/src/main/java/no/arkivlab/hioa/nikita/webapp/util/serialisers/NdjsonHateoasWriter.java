@@ -0,0 +1,85 @@
+package no.arkivlab.hioa.nikita.webapp.util.serialisers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import nikita.model.noark5.v4.hateoas.HateoasNoarkObject;
+import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
+import nikita.util.serializers.noark5v4.hateoas.interfaces.IHateoasSerializer;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IHateoasHandler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes entities as newline delimited JSON (application/x-ndjson), one entity with its links per line, as they
+ * are handed over. Nothing but the entity being written is held, so a list of any length is written in
+ * constant memory.
+ * <p>
+ * Each line is what the list endpoint would have in its array of entities, written by the same serializer.
+ */
+public class NdjsonHateoasWriter implements Closeable {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+    private static final byte[] NEWLINE = {'\n'};
+    // Entities written between flushes of the output
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final OutputStream outputStream;
+    private final JsonGenerator generator;
+    private final IHateoasSerializer serializer;
+    private final IHateoasHandler hateoasHandler;
+    private final LinkContext context;
+    private long written;
+
+    public NdjsonHateoasWriter(OutputStream outputStream, IHateoasSerializer serializer,
+                               IHateoasHandler hateoasHandler, LinkContext context) throws IOException {
+        this.outputStream = outputStream;
+        this.generator = jsonFactory.createGenerator(outputStream)
+                .setRootValueSeparator(new SerializedString("\n"));
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.serializer = serializer;
+        this.hateoasHandler = hateoasHandler;
+        this.context = context;
+    }
+
+    /**
+     * Add the links of entity and write it as the next line.
+     *
+     * @throws UncheckedIOException if the output could not be written, e.g. as the client went away
+     */
+    public void write(INoarkSystemIdEntity entity) {
+        HateoasNoarkObject hateoasNoarkObject = new HateoasNoarkObject(entity);
+        hateoasHandler.addLinks(hateoasNoarkObject, context);
+        try {
+            serializer.serializeNoarkEntity(entity, hateoasNoarkObject, generator);
+            if (++written % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of entities written
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * End the last line and flush. The output stream is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        if (written > 0) {
+            outputStream.write(NEWLINE);
+        }
+        outputStream.flush();
+    }
+}
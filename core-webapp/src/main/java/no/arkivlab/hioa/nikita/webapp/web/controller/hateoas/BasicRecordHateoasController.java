@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.BASIC_RECORD;
 import static nikita.config.N5ResourceMappings.SYSTEM_ID;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH + BASIC_RECORD,
@@ -68,10 +70,8 @@ public class BasicRecordHateoasController {
                 .body(basicRecordHateoas);
     }
 
-    @ApiOperation(value = "Retrieves multiple BasicRecord entities limited by ownership rights", notes = "The field skip" +
-            "tells how many BasicRecord rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple BasicRecord entities limited by ownership rights",
+            notes = PAGINATION_NOTES,
             response = BasicRecordHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "BasicRecord list found",
@@ -85,12 +85,14 @@ public class BasicRecordHateoasController {
     public ResponseEntity<BasicRecordHateoas> findAllBasicRecord(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         BasicRecordHateoas basicRecordHateoas = new
                 BasicRecordHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                basicRecordService.findBasicRecordByOwnerPaginated(top, skip));
+                basicRecordService.findBasicRecordByOwnerPaginated(top, skip, skipToken));
         basicRecordHateoasHandler.addLinks(basicRecordHateoas, request, new Authorisation());
+        basicRecordHateoasHandler.addNextLink(basicRecordHateoas, request, top);
         return new ResponseEntity<>(basicRecordHateoas, HttpStatus.OK);
     }
 }
@@ -33,6 +33,8 @@ import java.util.Date;
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.CASE_FILE;
 import static nikita.config.N5ResourceMappings.SYSTEM_ID;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH + CASE_FILE,
@@ -145,10 +147,7 @@ public class CaseFileHateoasController {
                 .body(caseFileHateoas);
     }
 
-    @ApiOperation(value = "Retrieves multiple CaseFile entities limited by ownership rights", notes = "The field skip" +
-            "tells how many CaseFile rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple CaseFile entities limited by ownership rights", notes = PAGINATION_NOTES,
             response = CaseFileHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "CaseFile list found",
@@ -162,13 +161,16 @@ public class CaseFileHateoasController {
     public ResponseEntity<CaseFileHateoas> findAllCaseFile(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         CaseFileHateoas caseFileHateoas = new
                 CaseFileHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                caseFileService.findCaseFileByOwnerPaginated(top, skip));
+                caseFileService.findCaseFileByOwnerPaginated(top, skip, skipToken));
 
         caseFileHateoasHandler.addLinks(caseFileHateoas, request, new Authorisation());
+
+        caseFileHateoasHandler.addNextLink(caseFileHateoas, request, top);
         return new ResponseEntity<>(caseFileHateoas, HttpStatus.OK);
     }
 }
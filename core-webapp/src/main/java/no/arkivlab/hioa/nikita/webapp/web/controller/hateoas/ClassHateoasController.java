@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.CLASS;
 import static nikita.config.N5ResourceMappings.SYSTEM_ID;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH + CLASS,
@@ -105,10 +107,7 @@ public class ClassHateoasController {
                 .body(classHateoas);
     }
 
-    @ApiOperation(value = "Retrieves multiple Class entities limited by ownership rights", notes = "The field skip" +
-            "tells how many Class rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple Class entities limited by ownership rights", notes = PAGINATION_NOTES,
             response = ClassHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Class list found",
@@ -122,12 +121,14 @@ public class ClassHateoasController {
     public ResponseEntity<ClassHateoas> findAllClass(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         ClassHateoas classHateoas = new
                 ClassHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                classService.findClassByOwnerPaginated(top, skip));
+                classService.findClassByOwnerPaginated(top, skip, skipToken));
         classHateoasHandler.addLinks(classHateoas, request, new Authorisation());
+        classHateoasHandler.addNextLink(classHateoas, request, top);
         return new ResponseEntity<>(classHateoas, HttpStatus.OK);
     }
 }
@@ -31,6 +31,8 @@ import java.util.ArrayList;
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.CLASSIFICATION_SYSTEM;
 import static nikita.config.N5ResourceMappings.SYSTEM_ID;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH,
@@ -147,10 +149,8 @@ public class ClassificationSystemHateoasController {
                 .body(classificationSystemHateoas);
     }
 
-    @ApiOperation(value = "Retrieves multiple ClassificationSystem entities limited by ownership rights", notes = "The field skip" +
-            "tells how many ClassificationSystem rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple ClassificationSystem entities limited by ownership rights",
+            notes = PAGINATION_NOTES,
             response = ClassificationSystemHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "ClassificationSystem list found",
@@ -164,12 +164,14 @@ public class ClassificationSystemHateoasController {
     public ResponseEntity<ClassificationSystemHateoas> findAllClassificationSystem(
             HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         ClassificationSystemHateoas classificationSystemHateoas = new
                 ClassificationSystemHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                classificationSystemService.findClassificationSystemByOwnerPaginated(top, skip));
+                classificationSystemService.findClassificationSystemByOwnerPaginated(top, skip, skipToken));
         classificationSystemHateoasHandler.addLinks(classificationSystemHateoas, request, new Authorisation());
+        classificationSystemHateoasHandler.addNextLink(classificationSystemHateoas, request, top);
         return new ResponseEntity<>(classificationSystemHateoas, HttpStatus.OK);
     }
 }
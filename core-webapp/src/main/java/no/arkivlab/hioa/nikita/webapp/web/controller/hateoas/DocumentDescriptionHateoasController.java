@@ -14,11 +14,14 @@ import nikita.model.noark5.v4.hateoas.DocumentObjectHateoas;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.exceptions.NikitaEntityNotFoundException;
 import nikita.util.exceptions.NikitaException;
+import nikita.util.serializers.noark5v4.hateoas.DocumentDescriptionHateoasSerializer;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IDocumentDescriptionHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IDocumentObjectHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.security.Authorisation;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IDocumentDescriptionService;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.serialisers.NdjsonHateoasWriter;
 import no.arkivlab.hioa.nikita.webapp.web.events.AfterNoarkEntityCreatedEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
@@ -29,10 +32,13 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.*;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_DESCRIPTION,
@@ -125,10 +131,8 @@ public class DocumentDescriptionHateoasController {
                 .body(documentDescriptionHateoas);
     }
 
-    @ApiOperation(value = "Retrieves multiple DocumentDescription entities limited by ownership rights", notes = "The field skip" +
-            "tells how many DocumentDescription rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple DocumentDescription entities limited by ownership rights",
+            notes = PAGINATION_NOTES,
             response = DocumentDescriptionHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "DocumentDescription list found",
@@ -142,15 +146,43 @@ public class DocumentDescriptionHateoasController {
     public ResponseEntity<DocumentDescriptionHateoas> findAllDocumentDescription(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         DocumentDescriptionHateoas documentDescriptionHateoas = new
                 DocumentDescriptionHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                documentDescriptionService.findDocumentDescriptionByOwnerPaginated(top, skip));
+                documentDescriptionService.findDocumentDescriptionByOwnerPaginated(top, skip, skipToken));
         documentDescriptionHateoasHandler.addLinks(documentDescriptionHateoas, request, new Authorisation());
+        documentDescriptionHateoasHandler.addNextLink(documentDescriptionHateoas, request, top);
         return new ResponseEntity<>(documentDescriptionHateoas, HttpStatus.OK);
     }
 
+    // Stream all DocumentDescription, one per line
+    // GET [contextPath][api]/arkivstruktur/dokumentbeskrivelse/ with Accept: application/x-ndjson
+    @ApiOperation(value = "Streams all DocumentDescription entities limited by ownership rights", notes = "Used " +
+            "instead of the paginated list when the client accepts " + NDJSON_CONTENT_TYPE + ". Every " +
+            "DocumentDescription is written with its links as one line of JSON, in the order they were created. top, " +
+            "skip and skiptoken do not apply.",
+            response = DocumentDescription.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "DocumentDescription list streamed",
+                    response = DocumentDescription.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.GET, produces = NDJSON_CONTENT_TYPE)
+    public void streamAllDocumentDescription(HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        try (NdjsonHateoasWriter writer = new NdjsonHateoasWriter(response.getOutputStream(),
+                new DocumentDescriptionHateoasSerializer(), documentDescriptionHateoasHandler,
+                new LinkContext(request, new Authorisation()))) {
+            documentDescriptionService.forEachDocumentDescriptionByOwner(writer::write);
+        }
+    }
+
     // Create a DocumentObject with default values
     // GET [contextPath][api]/arkivstruktur/dokumentbeskrivelse/{systemId}/ny-dokumentobjekt
     @ApiOperation(value = "Create a DocumentObject with default values", response = DocumentObjectHateoas.class)
@@ -194,6 +226,9 @@ public class DocumentDescriptionHateoasController {
             DOCUMENT_OBJECT, method = RequestMethod.GET)
     public ResponseEntity<DocumentObjectHateoas> findAllDocumentDescriptionAssociatedWithRecord(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
+            @RequestParam(name = "top", required = false) Integer top,
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken,
             @ApiParam(name = "systemID",
                     value = "systemID of the file to retrieve associated Record",
                     required = true)
@@ -205,8 +240,11 @@ public class DocumentDescriptionHateoasController {
                     documentDescriptionSystemId);
         }
         DocumentObjectHateoas documentObjectHateoas = new
-                DocumentObjectHateoas(new ArrayList<>(documentDescription.getReferenceDocumentObject()));
+                DocumentObjectHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
+                documentDescriptionService.findDocumentObjectByDocumentDescriptionPaginated(
+                        documentDescription, top, skip, skipToken));
         documentObjectHateoasHandler.addLinks(documentObjectHateoas, request, new Authorisation());
+        documentObjectHateoasHandler.addNextLink(documentObjectHateoas, request, top);
         return new ResponseEntity<>(documentObjectHateoas, HttpStatus.OK);
     }
 }
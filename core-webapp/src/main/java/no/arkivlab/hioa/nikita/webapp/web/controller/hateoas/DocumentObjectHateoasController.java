@@ -10,15 +10,24 @@ import nikita.model.noark5.v4.DocumentObject;
 import nikita.model.noark5.v4.hateoas.DocumentObjectHateoas;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.exceptions.NikitaEntityNotFoundException;
+import nikita.util.serializers.noark5v4.hateoas.DocumentObjectHateoasSerializer;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IDocumentObjectHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.security.Authorisation;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.UploadSession;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IDocumentObjectService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IStorageBackend;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.storage.IUploadSessionService;
+import no.arkivlab.hioa.nikita.webapp.util.ByteRange;
+import no.arkivlab.hioa.nikita.webapp.util.FileDownload;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageFileNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.serialisers.NdjsonHateoasWriter;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
@@ -30,6 +39,8 @@ import java.util.ArrayList;
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.DOCUMENT_OBJECT;
 import static nikita.config.N5ResourceMappings.SYSTEM_ID;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH + DOCUMENT_OBJECT)
@@ -38,13 +49,19 @@ public class DocumentObjectHateoasController {
     private IDocumentObjectService documentObjectService;
     private IDocumentObjectHateoasHandler documentObjectHateoasHandler;
     private ApplicationEventPublisher applicationEventPublisher;
+    private IUploadSessionService uploadSessionService;
+    private IStorageBackend storageBackend;
 
     public DocumentObjectHateoasController(IDocumentObjectService documentObjectService,
                                            IDocumentObjectHateoasHandler documentObjectHateoasHandler,
-                                           ApplicationEventPublisher applicationEventPublisher) {
+                                           ApplicationEventPublisher applicationEventPublisher,
+                                           IUploadSessionService uploadSessionService,
+                                           IStorageBackend storageBackend) {
         this.documentObjectService = documentObjectService;
         this.documentObjectHateoasHandler = documentObjectHateoasHandler;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.uploadSessionService = uploadSessionService;
+        this.storageBackend = storageBackend;
     }
 
     // API - All GET Requests (CRUD - READ)
@@ -77,10 +94,8 @@ public class DocumentObjectHateoasController {
                 .body(documentObjectHateoas);
     }
 
-    @ApiOperation(value = "Retrieves multiple DocumentObject entities limited by ownership rights", notes = "The field skip" +
-            "tells how many DocumentObject rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple DocumentObject entities limited by ownership rights",
+            notes = PAGINATION_NOTES,
             response = DocumentObjectHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "DocumentObject list found",
@@ -94,42 +109,74 @@ public class DocumentObjectHateoasController {
     public ResponseEntity<DocumentObjectHateoas> findAllDocumentObject(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         DocumentObjectHateoas documentObjectHateoas = new
                 DocumentObjectHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                documentObjectService.findDocumentObjectByOwnerPaginated(top, skip));
+                documentObjectService.findDocumentObjectByOwnerPaginated(top, skip, skipToken));
         documentObjectHateoasHandler.addLinks(documentObjectHateoas, request, new Authorisation());
+        documentObjectHateoasHandler.addNextLink(documentObjectHateoas, request, top);
         return new ResponseEntity<>(documentObjectHateoas, HttpStatus.OK);
     }
 
-    @ApiOperation(value = "Downloads a file associated with the documentObject identified by a systemId",
-            response = DocumentObjectHateoas.class)
+    // Stream all DocumentObject, one per line
+    // GET [contextPath][api]/arkivstruktur/dokumentobjekt/ with Accept: application/x-ndjson
+    @ApiOperation(value = "Streams all DocumentObject entities limited by ownership rights", notes = "Used " +
+            "instead of the paginated list when the client accepts " + NDJSON_CONTENT_TYPE + ". Every " +
+            "DocumentObject is written with its links as one line of JSON, in the order they were created. top, " +
+            "skip and skiptoken do not apply.",
+            response = DocumentObject.class)
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "File uploaded successfully", response = DocumentObjectHateoas.class),
+            @ApiResponse(code = 200, message = "DocumentObject list streamed",
+                    response = DocumentObject.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.GET, produces = NDJSON_CONTENT_TYPE)
+    public void streamAllDocumentObject(HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        try (NdjsonHateoasWriter writer = new NdjsonHateoasWriter(response.getOutputStream(),
+                new DocumentObjectHateoasSerializer(), documentObjectHateoasHandler,
+                new LinkContext(request, new Authorisation()))) {
+            documentObjectService.forEachDocumentObjectByOwner(writer::write);
+        }
+    }
+
+    @ApiOperation(value = "Downloads a file associated with the documentObject identified by a systemId. " +
+            "Supports Range, If-Range and If-None-Match, the ETag being the checksum of the file")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "File downloaded successfully"),
+            @ApiResponse(code = 206, message = "The requested range(s) of the file"),
+            @ApiResponse(code = 304, message = "The file matches the ETag given in If-None-Match"),
             @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
             @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 416, message = "None of the requested ranges are within the file"),
             @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
     @Counted
     @Timed
     @RequestMapping(value = SLASH + LEFT_PARENTHESIS + SYSTEM_ID + RIGHT_PARENTHESIS + SLASH + REFERENCE_FILE,
-            method = RequestMethod.GET)
-    public ResponseEntity<Resource> handleFileDownload(
+            method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void handleFileDownload(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @ApiParam(name = "systemID",
                     value = "systemID of the documentObject that has a file associated with it",
                     required = true)
-            @PathVariable("systemID") final String documentObjectSystemId) {
+            @PathVariable("systemID") final String documentObjectSystemId) throws IOException {
         DocumentObject documentObject = documentObjectService.findBySystemId(documentObjectSystemId);
         if (documentObject == null) {
             throw new NikitaEntityNotFoundException(documentObjectSystemId);
         }
-        Resource fileResource = documentObjectService.loadAsResource(documentObject);
-        response.setContentType(documentObject.getMimeType());
-        response.setContentLength(documentObject.getFileSize().intValue());
+        String reference = documentObject.getReferenceDocumentFile();
+        if (reference == null || !storageBackend.exists(reference)) {
+            throw new StorageFileNotFoundException("Could not read file: " + reference);
+        }
         response.addHeader("content-disposition", "inline; filename=" + documentObject.getOriginalFilename());
-
-        return new ResponseEntity<>(fileResource, HttpStatus.OK);
+        FileDownload.write(request, response, storageBackend, reference, documentObject.getMimeType(),
+                FileDownload.toETag(documentObject.getChecksum()));
     }
 
     // API - All POST Requests (CRUD - CREATE)
@@ -166,7 +213,7 @@ public class DocumentObjectHateoasController {
                 throw new StorageException("Attempt to upload a document without content-length set. The document " +
                         "was attempted to be associated with " + documentObject);
             }
-            contentLength = (long) request.getIntHeader("content-length");
+            contentLength = request.getContentLengthLong();
             if (contentLength < 1) {
                 throw new StorageException("Attempt to upload a document with 0 or negative content-length set. "
                         + "Actual value was (" + contentLength + "). The document  was attempted to be associated with "
@@ -213,4 +260,140 @@ public class DocumentObjectHateoasController {
             throw new StorageException(e.toString());
         }
     }
+
+    // API - Chunked upload sessions
+
+    @ApiOperation(value = "Starts a chunked upload of the file associated with the documentObject identified by a " +
+            "systemId. The size of the file is taken from filstoerrelse in the documentObject",
+            response = UploadSession.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Upload session created", response = UploadSession.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(value = SLASH + LEFT_PARENTHESIS + SYSTEM_ID + RIGHT_PARENTHESIS + SLASH + REFERENCE_FILE +
+            SLASH + UPLOAD_SESSION, method = RequestMethod.POST,
+            produces = {NOARK5_V4_CONTENT_TYPE_JSON, NOARK5_V4_CONTENT_TYPE_JSON_XML})
+    public ResponseEntity<UploadSession> createUploadSession(
+            final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
+            @ApiParam(name = "systemID",
+                    value = "systemID of the documentObject you wish to associate a file with",
+                    required = true)
+            @PathVariable("systemID") final String documentObjectSystemId) {
+        DocumentObject documentObject = documentObjectService.findBySystemId(documentObjectSystemId);
+        if (documentObject == null) {
+            throw new NikitaEntityNotFoundException(documentObjectSystemId);
+        }
+        UploadSession uploadSession = uploadSessionService.createSession(documentObject);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .location(ServletUriComponentsBuilder.fromRequest(request)
+                        .path(SLASH + uploadSession.getSessionId()).build().toUri())
+                .body(uploadSession);
+    }
+
+    @ApiOperation(value = "Retrieves the state of a chunked upload, including the byte ranges received so far",
+            response = UploadSession.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Upload session returned", response = UploadSession.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 404, message = "No such upload session"),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(value = SLASH + LEFT_PARENTHESIS + SYSTEM_ID + RIGHT_PARENTHESIS + SLASH + REFERENCE_FILE +
+            SLASH + UPLOAD_SESSION + SLASH + "{sessionId}", method = RequestMethod.GET,
+            produces = {NOARK5_V4_CONTENT_TYPE_JSON, NOARK5_V4_CONTENT_TYPE_JSON_XML})
+    public ResponseEntity<UploadSession> findUploadSession(
+            @PathVariable("systemID") final String documentObjectSystemId,
+            @PathVariable("sessionId") final String sessionId) {
+        return new ResponseEntity<>(uploadSessionService.findSession(documentObjectSystemId, sessionId),
+                HttpStatus.OK);
+    }
+
+    @ApiOperation(value = "Uploads one chunk of a file. Content-Range gives where in the file the chunk belongs, " +
+            "e.g. bytes 0-1048575/4194304. Chunks can be sent in any order and in parallel. A resent chunk that " +
+            "has been received is ignored, a chunk overlapping received bytes is rejected",
+            response = UploadSession.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Chunk stored", response = UploadSession.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 404, message = "No such upload session"),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(value = SLASH + LEFT_PARENTHESIS + SYSTEM_ID + RIGHT_PARENTHESIS + SLASH + REFERENCE_FILE +
+            SLASH + UPLOAD_SESSION + SLASH + "{sessionId}", method = RequestMethod.PUT, headers = "Accept=*/*",
+            produces = {NOARK5_V4_CONTENT_TYPE_JSON, NOARK5_V4_CONTENT_TYPE_JSON_XML})
+    public ResponseEntity<UploadSession> uploadChunk(
+            HttpServletRequest request,
+            @PathVariable("systemID") final String documentObjectSystemId,
+            @PathVariable("sessionId") final String sessionId) {
+        UploadSession uploadSession = uploadSessionService.findSession(documentObjectSystemId, sessionId);
+        String contentRange = request.getHeader("content-range");
+        ByteRange range = ByteRange.parseContentRange(contentRange, uploadSession.getFileSize());
+        if (range == null) {
+            throw new StorageException("Attempt to upload a chunk with a missing or invalid content-range (" +
+                    contentRange + ") to " + uploadSession);
+        }
+        if (request.getContentLengthLong() != range.getLength()) {
+            throw new StorageException("Attempt to upload a chunk with a content-length (" +
+                    request.getContentLengthLong() + ") that is not the length of the content-range (" +
+                    contentRange + ") to " + uploadSession);
+        }
+        try {
+            return new ResponseEntity<>(uploadSessionService.writeChunk(documentObjectSystemId, sessionId, range,
+                    request.getInputStream()), HttpStatus.OK);
+        } catch (IOException e) {
+            throw new StorageException(e.toString());
+        }
+    }
+
+    @ApiOperation(value = "Completes a chunked upload once all chunks have been received, and associates the file " +
+            "with the documentObject", response = DocumentObjectHateoas.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "File uploaded successfully", response = DocumentObjectHateoas.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 404, message = "No such upload session"),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(value = SLASH + LEFT_PARENTHESIS + SYSTEM_ID + RIGHT_PARENTHESIS + SLASH + REFERENCE_FILE +
+            SLASH + UPLOAD_SESSION + SLASH + "{sessionId}", method = RequestMethod.POST,
+            produces = {NOARK5_V4_CONTENT_TYPE_JSON, NOARK5_V4_CONTENT_TYPE_JSON_XML})
+    public ResponseEntity<DocumentObjectHateoas> completeUploadSession(
+            HttpServletRequest request,
+            @PathVariable("systemID") final String documentObjectSystemId,
+            @PathVariable("sessionId") final String sessionId) {
+        DocumentObject documentObject = documentObjectService.findBySystemId(documentObjectSystemId);
+        if (documentObject == null) {
+            throw new NikitaEntityNotFoundException(documentObjectSystemId);
+        }
+        uploadSessionService.completeSession(sessionId, documentObject);
+        DocumentObjectHateoas documentObjectHateoas = new DocumentObjectHateoas(documentObject);
+        documentObjectHateoasHandler.addLinks(documentObjectHateoas, request, new Authorisation());
+        return new ResponseEntity<>(documentObjectHateoas, HttpStatus.OK);
+    }
+
+    @ApiOperation(value = "Abandons a chunked upload, deleting what has been received")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Upload session deleted"),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 404, message = "No such upload session"),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(value = SLASH + LEFT_PARENTHESIS + SYSTEM_ID + RIGHT_PARENTHESIS + SLASH + REFERENCE_FILE +
+            SLASH + UPLOAD_SESSION + SLASH + "{sessionId}", method = RequestMethod.DELETE)
+    public ResponseEntity<Void> deleteUploadSession(
+            @PathVariable("systemID") final String documentObjectSystemId,
+            @PathVariable("sessionId") final String sessionId) {
+        uploadSessionService.deleteSession(documentObjectSystemId, sessionId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 }
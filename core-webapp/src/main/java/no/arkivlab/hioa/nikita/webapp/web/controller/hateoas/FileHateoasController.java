@@ -13,12 +13,15 @@ import nikita.model.noark5.v4.hateoas.*;
 import nikita.model.noark5.v4.interfaces.entities.ICrossReferenceEntity;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.exceptions.NikitaException;
+import nikita.util.serializers.noark5v4.hateoas.FileHateoasSerializer;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IBasicRecordHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IFileHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IRecordHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.security.Authorisation;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IFileService;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.serialisers.NdjsonHateoasWriter;
 import no.arkivlab.hioa.nikita.webapp.web.events.AfterNoarkEntityCreatedEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
@@ -28,11 +31,14 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.*;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH + FILE,
@@ -367,7 +373,7 @@ public class FileHateoasController {
     // Retrieve all Records associated with File identified by systemId
     // GET [contextPath][api]/arkivstruktur/mappe/{systemId}/registrering
     // REL http://rel.kxml.no/noark5/v4/api/arkivstruktur/registrering/
-    @ApiOperation(value = "Retrieve all Record associated with a File identified by systemId",
+    @ApiOperation(value = "Retrieve all Record associated with a File identified by systemId", notes = PAGINATION_NOTES,
             response = RecordHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Record returned", response = RecordHateoas.class),
@@ -380,6 +386,9 @@ public class FileHateoasController {
             method = RequestMethod.GET)
     public ResponseEntity<RecordHateoas> findAllRecordsAssociatedWithFile(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
+            @RequestParam(name = "top", required = false) Integer top,
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken,
             @ApiParam(name = "systemID",
                     value = "systemID of the file to retrieve associated Record",
                     required = true)
@@ -390,8 +399,10 @@ public class FileHateoasController {
             throw new NoarkEntityNotFoundException("Could not find File object with systemID " + fileSystemId);
         }
         RecordHateoas recordHateoas = new
-                RecordHateoas(new ArrayList<> (file.getReferenceRecord()));
+                RecordHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
+                fileService.findRecordByFilePaginated(file, top, skip, skipToken));
         recordHateoasHandler.addLinks(recordHateoas, request, new Authorisation());
+        recordHateoasHandler.addNextLink(recordHateoas, request, top);
         return new ResponseEntity<>(recordHateoas, HttpStatus.OK);
     }
 
@@ -517,10 +528,7 @@ public class FileHateoasController {
 
     // Retrieves all files
     // GET [contextPath][api]/arkivstruktur/mappe
-    @ApiOperation(value = "Retrieves multiple File entities limited by ownership rights", notes = "The field skip" +
-            "tells how many File rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple File entities limited by ownership rights", notes = PAGINATION_NOTES,
             response = FileHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "File list found",
@@ -534,15 +542,39 @@ public class FileHateoasController {
     public ResponseEntity<FileHateoas> findAllFiles(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         FileHateoas fileHateoas = new
                 FileHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                fileService.findFileByOwnerPaginated(top, skip));
+                fileService.findFileByOwnerPaginated(top, skip, skipToken));
         fileHateoasHandler.addLinks(fileHateoas, request, new Authorisation());
+        fileHateoasHandler.addNextLink(fileHateoas, request, top);
         return new ResponseEntity<>(fileHateoas, HttpStatus.OK);
     }
 
+    // Stream all File, one per line
+    // GET [contextPath][api]/arkivstruktur/mappe/ with Accept: application/x-ndjson
+    @ApiOperation(value = "Streams all File entities limited by ownership rights", notes = "Used instead of the " +
+            "paginated list when the client accepts " + NDJSON_CONTENT_TYPE + ". Every File is written with its " +
+            "links as one line of JSON, in the order they were created. top, skip and skiptoken do not apply.",
+            response = File.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "File list streamed", response = File.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.GET, produces = NDJSON_CONTENT_TYPE)
+    public void streamAllFile(HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        try (NdjsonHateoasWriter writer = new NdjsonHateoasWriter(response.getOutputStream(),
+                new FileHateoasSerializer(), fileHateoasHandler, new LinkContext(request, new Authorisation()))) {
+            fileService.forEachFileByOwner(writer::write);
+        }
+    }
+
     // Retrieve all Comments associated with a File
     // GET [contextPath][api]/arkivstruktur/mappe/{systemId}/merknad
     // http://rel.kxml.no/noark5/v4/api/arkivstruktur/merknad/
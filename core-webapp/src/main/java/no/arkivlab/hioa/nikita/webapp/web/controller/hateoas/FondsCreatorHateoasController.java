@@ -33,6 +33,8 @@ import java.util.ArrayList;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.*;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH,
@@ -161,10 +163,8 @@ public class FondsCreatorHateoasController {
 
     // Get all FondsCreator
     // GET [contextPath][api]/arkivstruktur/arkivskaper/
-    @ApiOperation(value = "Retrieves multiple FondsCreator entities limited by ownership rights", notes = "The field skip" +
-            "tells how many FondsCreator rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple FondsCreator entities limited by ownership rights",
+            notes = PAGINATION_NOTES,
             response = FondsCreatorHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "FondsCreator found",
@@ -178,11 +178,13 @@ public class FondsCreatorHateoasController {
     public ResponseEntity<FondsCreatorHateoas> findAllFondsCreator(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
         FondsCreatorHateoas fondsCreatorHateoas = new
                 FondsCreatorHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                fondsCreatorService.findFondsCreatorByOwnerPaginated(top, skip));
+                fondsCreatorService.findFondsCreatorByOwnerPaginated(top, skip, skipToken));
         fondsCreatorHateoasHandler.addLinks(fondsCreatorHateoas, request, new Authorisation());
+        fondsCreatorHateoasHandler.addNextLink(fondsCreatorHateoas, request, top);
         return new ResponseEntity<>(fondsCreatorHateoas, HttpStatus.OK);
     }
 
@@ -15,6 +15,8 @@ import nikita.model.noark5.v4.hateoas.FondsHateoas;
 import nikita.model.noark5.v4.hateoas.SeriesHateoas;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.exceptions.NikitaException;
+import nikita.util.serializers.noark5v4.hateoas.FondsHateoasSerializer;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IFondsCreatorHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IFondsHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.ISeriesHateoasHandler;
@@ -22,6 +24,7 @@ import no.arkivlab.hioa.nikita.webapp.security.Authorisation;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IFondsService;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.ISeriesService;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.serialisers.NdjsonHateoasWriter;
 import no.arkivlab.hioa.nikita.webapp.web.events.AfterNoarkEntityCreatedEvent;
 import no.arkivlab.hioa.nikita.webapp.web.events.AfterNoarkEntityUpdatedEvent;
 import org.hibernate.Session;
@@ -38,12 +41,15 @@ import org.springframework.web.util.UriComponentsBuilder;
 import javax.persistence.EntityManager;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.*;
 import static org.springframework.http.HttpHeaders.ETAG;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH,
@@ -318,6 +324,7 @@ public class FondsHateoasController {
     // Get all Series associated with Fonds identified by systemId
     // GET [contextPath][api]/arkivstruktur/arkiv/{systemId}/arkivdel/
     @ApiOperation(value = "Retrieves the Series associated with a Fonds identified by a systemId",
+            notes = PAGINATION_NOTES,
             response = Series.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Series returned", response = Series.class),
@@ -330,6 +337,9 @@ public class FondsHateoasController {
             SLASH, method = RequestMethod.GET)
     public ResponseEntity<SeriesHateoas> findSeriesAssociatedWithFonds(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
+            @RequestParam(name = "top", required = false) Integer top,
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken,
             @ApiParam(name = "systemId",
                     value = "systemId of Fonds that has Series associated with it.",
                     required = true)
@@ -340,8 +350,10 @@ public class FondsHateoasController {
             throw new NoarkEntityNotFoundException("Could not find series object with systemID " + fondsSystemId);
         }
         SeriesHateoas seriesHateoas = new
-                SeriesHateoas(new ArrayList<>(fonds.getReferenceSeries()));
+                SeriesHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
+                fondsService.findSeriesByFondsPaginated(fonds, top, skip, skipToken));
         seriesHateoasHandler.addLinks(seriesHateoas, request, new Authorisation());
+        seriesHateoasHandler.addNextLink(seriesHateoas, request, top);
         return new ResponseEntity<>(seriesHateoas, HttpStatus.OK);
     }
 
@@ -371,10 +383,7 @@ public class FondsHateoasController {
 
     // Get all fonds
     // GET [contextPath][api]/arkivstruktur/arkiv/
-    @ApiOperation(value = "Retrieves multiple Fonds entities limited by ownership rights", notes = "The field skip" +
-            "tells how many Fonds rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple Fonds entities limited by ownership rights", notes = PAGINATION_NOTES,
             response = FondsHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Fonds found",
@@ -388,15 +397,39 @@ public class FondsHateoasController {
     public ResponseEntity<FondsHateoas> findAllFonds(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
         FondsHateoas fondsHateoas = new
                 FondsHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                fondsService.findFondsByOwnerPaginated(top, skip));
+                fondsService.findFondsByOwnerPaginated(top, skip, skipToken));
         fondsHateoasHandler.addLinks(fondsHateoas, request, new Authorisation());
+        fondsHateoasHandler.addNextLink(fondsHateoas, request, top);
 
         return new ResponseEntity<>(fondsHateoas, HttpStatus.OK);
     }
 
+    // Stream all Fonds, one per line
+    // GET [contextPath][api]/arkivstruktur/arkiv/ with Accept: application/x-ndjson
+    @ApiOperation(value = "Streams all Fonds entities limited by ownership rights", notes = "Used instead of the " +
+            "paginated list when the client accepts " + NDJSON_CONTENT_TYPE + ". Every Fonds is written with its " +
+            "links as one line of JSON, in the order they were created. top, skip and skiptoken do not apply.",
+            response = Fonds.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Fonds list streamed", response = Fonds.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.GET, value = FONDS, produces = NDJSON_CONTENT_TYPE)
+    public void streamAllFonds(HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        try (NdjsonHateoasWriter writer = new NdjsonHateoasWriter(response.getOutputStream(),
+                new FondsHateoasSerializer(), fondsHateoasHandler, new LinkContext(request, new Authorisation()))) {
+            fondsService.forEachFondsByOwner(writer::write);
+        }
+    }
+
     // Find all fonds using elasticsearch ... This is experimental and not part of the standard
     // No swagger documentation on this. If we decide to drop db for es, then all re
     // GET [contextPath][api]/arkivstruktur/arkiv/all/
@@ -14,12 +14,15 @@ import nikita.model.noark5.v4.hateoas.RecordHateoas;
 import nikita.model.noark5.v4.hateoas.SeriesHateoas;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.exceptions.NikitaException;
+import nikita.util.serializers.noark5v4.hateoas.RecordHateoasSerializer;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IDocumentDescriptionHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IDocumentObjectHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IRecordHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.security.Authorisation;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.IRecordService;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.serialisers.NdjsonHateoasWriter;
 import no.arkivlab.hioa.nikita.webapp.web.events.AfterNoarkEntityCreatedEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
@@ -30,10 +33,13 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.*;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH + REGISTRATION,
@@ -414,10 +420,7 @@ public class RecordHateoasController {
     // GET [contextPath][api]/arkivstruktur/registrering
     // http://rel.kxml.no/noark5/v4/api/arkivstruktur/registrering/
     @ApiOperation(value = "Retrieves multiple Record entities limited by ownership rights",
-            notes = "The field skip tells how many Record rows of the result set to ignore (starting at 0), " +
-                    "while top tells how many rows after skip to return. Note if the value of top is greater than " +
-                    "system value nikita-noark5-core.pagination.maxPageSize, then " +
-                    "nikita-noark5-core.pagination.maxPageSize is used.",
+            notes = PAGINATION_NOTES,
             response = RecordHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "RecordHateoas found", response = RecordHateoas.class),
@@ -430,14 +433,38 @@ public class RecordHateoasController {
     public ResponseEntity<RecordHateoas> findAllRecord(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         RecordHateoas recordHateoas = new RecordHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                recordService.findRecordByOwnerPaginated(top, skip));
+                recordService.findRecordByOwnerPaginated(top, skip, skipToken));
         recordHateoasHandler.addLinks(recordHateoas, request, new Authorisation());
+        recordHateoasHandler.addNextLink(recordHateoas, request, top);
         return new ResponseEntity<>(recordHateoas, HttpStatus.OK);
     }
 
+    // Stream all Record, one per line
+    // GET [contextPath][api]/arkivstruktur/registrering/ with Accept: application/x-ndjson
+    @ApiOperation(value = "Streams all Record entities limited by ownership rights", notes = "Used instead of the " +
+            "paginated list when the client accepts " + NDJSON_CONTENT_TYPE + ". Every Record is written with its " +
+            "links as one line of JSON, in the order they were created. top, skip and skiptoken do not apply.",
+            response = Record.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Record list streamed", response = Record.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.GET, produces = NDJSON_CONTENT_TYPE)
+    public void streamAllRecord(HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        try (NdjsonHateoasWriter writer = new NdjsonHateoasWriter(response.getOutputStream(),
+                new RecordHateoasSerializer(), recordHateoasHandler, new LinkContext(request, new Authorisation()))) {
+            recordService.forEachRecordByOwner(writer::write);
+        }
+    }
+
     // Retrieve all secondary Series associated with a Record
     // GET [contextPath][api]/arkivstruktur/registrering/{systemId}/referanseArkivdel
     // http://rel.kxml.no/noark5/v4/api/arkivstruktur/referanseArkivdel/
@@ -519,7 +546,7 @@ public class RecordHateoasController {
 
     // Retrieve all DocumentDescriptions associated with a Record identified by systemId
     // GET [contextPath][api]/arkivstruktur/resgistrering/{systemId}/dokumentbeskrivelse
-    @ApiOperation(value = "Retrieves a lit of DocumentDescriptions associated with a Record",
+    @ApiOperation(value = "Retrieves a lit of DocumentDescriptions associated with a Record", notes = PAGINATION_NOTES,
             response = DocumentDescriptionHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "DocumentDescription returned", response = DocumentDescriptionHateoas.class),
@@ -532,6 +559,9 @@ public class RecordHateoasController {
             DOCUMENT_DESCRIPTION, method = RequestMethod.GET)
     public ResponseEntity<DocumentDescriptionHateoas> findAllDocumentDescriptionAssociatedWithRecord(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
+            @RequestParam(name = "top", required = false) Integer top,
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken,
             @ApiParam(name = "systemID",
                     value = "systemID of the file to retrieve associated Record",
                     required = true)
@@ -541,8 +571,10 @@ public class RecordHateoasController {
             throw new NoarkEntityNotFoundException("Could not find File object with systemID " + recordSystemId);
         }
         DocumentDescriptionHateoas documentDescriptionHateoas = new
-                DocumentDescriptionHateoas(new ArrayList<>(record.getReferenceDocumentDescription()));
+                DocumentDescriptionHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
+                recordService.findDocumentDescriptionByRecordPaginated(record, top, skip, skipToken));
         documentDescriptionHateoasHandler.addLinks(documentDescriptionHateoas, request, new Authorisation());
+        documentDescriptionHateoasHandler.addNextLink(documentDescriptionHateoas, request, top);
         return new ResponseEntity<>(documentDescriptionHateoas, HttpStatus.OK);
     }
 }
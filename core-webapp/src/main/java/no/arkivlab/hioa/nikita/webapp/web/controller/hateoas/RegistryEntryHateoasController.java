@@ -30,6 +30,8 @@ import java.util.ArrayList;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.REGISTRY_ENTRY;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = Constants.HATEOAS_API_PATH + SLASH + NOARK_CASE_HANDLING_PATH + SLASH + REGISTRY_ENTRY,
@@ -99,10 +101,7 @@ public class RegistryEntryHateoasController {
     // API - All GET Requests (CRUD - READ)
     // GET [contextPath][api]/arkivstruktur/journalpost/
     @ApiOperation(value = "Retrieves multiple RegistryEntry entities limited by ownership rights",
-            notes = "The field skip tells how many RegistryEntry rows of the result set to ignore (starting at 0), " +
-                    "while top tells how many rows after skip to return. Note if the value of top is greater than " +
-                    "system value nikita-noark5-core.pagination.maxPageSize, then " +
-                    "nikita-noark5-core.pagination.maxPageSize is used.",
+            notes = PAGINATION_NOTES,
             response = RegistryEntryHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "RegistryEntryHateoas list found", response = RegistryEntryHateoas.class),
@@ -115,12 +114,14 @@ public class RegistryEntryHateoasController {
     public ResponseEntity<RegistryEntryHateoas> findAllRegistryEntry(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         RegistryEntryHateoas registryEntryHateoas = new RegistryEntryHateoas(
                 (ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                        registryEntryService.findRegistryEntryByOwnerPaginated(top, skip));
+                        registryEntryService.findRegistryEntryByOwnerPaginated(top, skip, skipToken));
         registryEntryHateoasHandler.addLinks(registryEntryHateoas, request, new Authorisation());
+        registryEntryHateoasHandler.addNextLink(registryEntryHateoas, request, top);
         return new ResponseEntity<>(registryEntryHateoas, HttpStatus.OK);
     }
 }
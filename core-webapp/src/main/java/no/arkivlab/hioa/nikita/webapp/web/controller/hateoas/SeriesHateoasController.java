@@ -7,12 +7,15 @@ import nikita.model.noark5.v4.*;
 import nikita.model.noark5.v4.hateoas.*;
 import nikita.model.noark5.v4.interfaces.entities.INoarkSystemIdEntity;
 import nikita.util.exceptions.NikitaException;
+import nikita.util.serializers.noark5v4.hateoas.SeriesHateoasSerializer;
+import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.LinkContext;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.ICaseFileHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.IFileHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.handlers.hateoas.interfaces.ISeriesHateoasHandler;
 import no.arkivlab.hioa.nikita.webapp.security.Authorisation;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.ISeriesService;
 import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.serialisers.NdjsonHateoasWriter;
 import no.arkivlab.hioa.nikita.webapp.web.events.AfterNoarkEntityCreatedEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
@@ -22,11 +25,14 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.*;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.PAGINATION_NOTES;
+import static no.arkivlab.hioa.nikita.webapp.util.Pagination.SKIP_TOKEN;
 
 @RestController
 @RequestMapping(value = HATEOAS_API_PATH + SLASH + NOARK_FONDS_STRUCTURE_PATH + SLASH + SERIES,
@@ -524,10 +530,7 @@ public class SeriesHateoasController extends NikitaController {
 
     // Retrieve all Series (paginated)
     // GET [contextPath][api]/arkivstruktur/arkivdel/{systemId}/klassifikasjonssystem/
-    @ApiOperation(value = "Retrieves multiple Series entities limited by ownership rights", notes = "The field skip" +
-            "tells how many Series rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves multiple Series entities limited by ownership rights", notes = PAGINATION_NOTES,
             response = SeriesHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Series list found",
@@ -541,15 +544,39 @@ public class SeriesHateoasController extends NikitaController {
     public ResponseEntity<SeriesHateoas> findAllSeries(
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
-            @RequestParam(name = "skip", required = false) Integer skip) {
+            @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken) {
 
         SeriesHateoas seriesHateoas = new
                 SeriesHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                seriesService.findSeriesByOwnerPaginated(top, skip));
+                seriesService.findSeriesByOwnerPaginated(top, skip, skipToken));
         seriesHateoasHandler.addLinksOnRead(seriesHateoas, request, new Authorisation());
+        seriesHateoasHandler.addNextLink(seriesHateoas, request, top);
         return new ResponseEntity<>(seriesHateoas, HttpStatus.OK);
     }
 
+    // Stream all Series, one per line
+    // GET [contextPath][api]/arkivstruktur/arkivdel/ with Accept: application/x-ndjson
+    @ApiOperation(value = "Streams all Series entities limited by ownership rights", notes = "Used instead of the " +
+            "paginated list when the client accepts " + NDJSON_CONTENT_TYPE + ". Every Series is written with its " +
+            "links as one line of JSON, in the order they were created. top, skip and skiptoken do not apply.",
+            response = Series.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Series list streamed", response = Series.class),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.GET, produces = NDJSON_CONTENT_TYPE)
+    public void streamAllSeries(HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        try (NdjsonHateoasWriter writer = new NdjsonHateoasWriter(response.getOutputStream(),
+                new SeriesHateoasSerializer(), seriesHateoasHandler, new LinkContext(request, new Authorisation()))) {
+            seriesService.forEachSeriesByOwner(writer::write);
+        }
+    }
+
     // Retrieve all Records associated with a Series (paginated)
     // GET [contextPath][api]/arkivstruktur/arkivdel/{systemId}/registrering/
     // GET [contextPath][api]/arkivstruktur/arkivdel/{systemId}/registrering/?top=5&skip=1
@@ -575,7 +602,7 @@ public class SeriesHateoasController extends NikitaController {
     /*
         RecordHateoas recordHateoas = new
                 RecordHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                recordService.findRecordByOwnerPaginated(top, skip));
+                recordService.findRecordByOwnerPaginated(top, skip, null));
         recordHateoasHandler.addLinksOnRead(recordHateoas, request, new Authorisation());
       */
         return new ResponseEntity<>(API_MESSAGE_NOT_IMPLEMENTED, HttpStatus.OK);
@@ -584,10 +611,7 @@ public class SeriesHateoasController extends NikitaController {
     // Retrieve all Files associated with a Series (paginated)
     // GET [contextPath][api]/arkivstruktur/arkivdel/{systemId}/mappe/
     // GET [contextPath][api]/arkivstruktur/arkivdel/{systemId}/mappe/?top=5&skip=1
-    @ApiOperation(value = "Retrieves a list of Files associated with a Series", notes = "The field skip" +
-            "tells how many File rows of the result set to ignore (starting at 0), while  top tells how many rows" +
-            " after skip to return. Note if the value of top is greater than system value " +
-            " nikita-noark5-core.pagination.maxPageSize, then nikita-noark5-core.pagination.maxPageSize is used. ",
+    @ApiOperation(value = "Retrieves a list of Files associated with a Series", notes = PAGINATION_NOTES,
             response = FileHateoas.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "File list found",
@@ -603,6 +627,7 @@ public class SeriesHateoasController extends NikitaController {
             final UriComponentsBuilder uriBuilder, HttpServletRequest request, final HttpServletResponse response,
             @RequestParam(name = "top", required = false) Integer top,
             @RequestParam(name = "skip", required = false) Integer skip,
+            @RequestParam(name = SKIP_TOKEN, required = false) String skipToken,
             @ApiParam(name = "systemID",
                     value = "systemID of the series to retrieve",
                     required = true)
@@ -612,8 +637,10 @@ public class SeriesHateoasController extends NikitaController {
         if (series == null) {
             throw new NoarkEntityNotFoundException("Could not find series object with systemID " + seriesSystemId);
         }
-        FileHateoas fileHateoas = new FileHateoas(new ArrayList<> (series.getReferenceFile()));
+        FileHateoas fileHateoas = new FileHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
+                seriesService.findFileBySeriesPaginated(series, top, skip, skipToken));
         fileHateoasHandler.addLinks(fileHateoas, request, new Authorisation());
+        fileHateoasHandler.addNextLink(fileHateoas, request, top);
         return new ResponseEntity<>(fileHateoas, HttpStatus.OK);
     }
 
@@ -642,7 +669,7 @@ public class SeriesHateoasController extends NikitaController {
     /*
         CaseFileHateoas caseFileHateoas = new
                 CaseFileHateoas((ArrayList<INoarkSystemIdEntity>) (ArrayList)
-                caseFileService.findCaseFileByOwnerPaginated(top, skip));
+                caseFileService.findCaseFileByOwnerPaginated(top, skip, null));
         caseFileHateoasHandler.addLinksOnRead(caseFileHateoas, request, new Authorisation());
       */
         return new ResponseEntity<>(API_MESSAGE_NOT_IMPLEMENTED, HttpStatus.NOT_IMPLEMENTED);
@@ -6,18 +6,26 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import nikita.extraction.ExtractionStatistics;
 import nikita.model.noark5.v4.Fonds;
 import nikita.model.noark5.v4.Series;
 import nikita.model.noark5.v4.hateoas.FondsHateoas;
 import nikita.model.noark5.v4.hateoas.SeriesHateoas;
 import nikita.util.exceptions.NikitaException;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IArchivePackageImportService;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IFondsImportService;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.IFondsStructureImportService;
 import no.arkivlab.hioa.nikita.webapp.service.interfaces.imprt.ISeriesImportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 import static nikita.config.Constants.*;
 import static nikita.config.N5ResourceMappings.FONDS;
 
@@ -32,6 +40,12 @@ public class FondsImportController {
     @Autowired
     ISeriesImportService seriesImportService;
 
+    @Autowired
+    IFondsStructureImportService fondsStructureImportService;
+
+    @Autowired
+    IArchivePackageImportService archivePackageImportService;
+
     // API - All POST Requests (CRUD - CREATE)
 
     @ApiOperation(value = "Persists a Fonds object", notes = "Returns the newly" +
@@ -126,4 +140,55 @@ public class FondsImportController {
         SeriesHateoas seriesHateoas = new SeriesHateoas(seriesCreated);
         return new ResponseEntity<> (seriesHateoas, HttpStatus.CREATED);
     }
+
+    // Import whole fonds structures, fonds -> series -> file -> record -> documentDescription, in one request
+    // POST [contextPath][api]/import-api/arkivstruktur/ny-arkivstruktur
+    @ApiOperation(value = "Persists Fonds objects with the Series, File, Record and DocumentDescription objects " +
+            "they contain", notes = "Accepts a Fonds object, a JSON array of them or one per line (" +
+            NDJSON_CONTENT_TYPE + "). The contained objects are given in arrays named arkivdel, mappe, " +
+            "registrering and dokumentbeskrivelse, after the properties of the object that contains them. The " +
+            "result for each object is streamed back as a line of JSON with its type, systemID and status, the " +
+            "status being what importAPI would answer when the object was posted on its own.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Results streamed, one line for every object"),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.POST, value = NEW_FONDS_STRUCTURE, produces = NDJSON_CONTENT_TYPE)
+    public void importFondsStructure(HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        fondsStructureImportService.importFondsStructure(request.getInputStream(), response.getOutputStream());
+    }
+
+    // Import a Noark 5 extraction package, arkivstruktur.xml and its documents, from the package directory
+    // POST [contextPath][api]/import-api/arkivstruktur/ny-arkivuttrekk?pakke=
+    @ApiOperation(value = "Imports a Noark 5 extraction package (arkivuttrekk) from the package directory of the " +
+            "core", notes = "The package is a directory with arkivstruktur.xml and the documents it refers to. " +
+            "Documents are verified against their checksums before they are stored. The entities are owned by " +
+            "the user making the request. A failed import keeps what was imported, and importing the package " +
+            "again resumes from there. Returns the number of entities, documents and bytes imported.",
+            response = ExtractionStatistics.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Package imported", response = ExtractionStatistics.class),
+            @ApiResponse(code = 400, message = "The package is malformed, a document does not match its " +
+                    "checksum or the package is already being imported"),
+            @ApiResponse(code = 401, message = API_MESSAGE_UNAUTHENTICATED_USER),
+            @ApiResponse(code = 403, message = API_MESSAGE_UNAUTHORISED_FOR_USER),
+            @ApiResponse(code = 404, message = "The package does not exist"),
+            @ApiResponse(code = 500, message = API_MESSAGE_INTERNAL_SERVER_ERROR)})
+    @Counted
+    @Timed
+    @RequestMapping(method = RequestMethod.POST, value = NEW_EXTRACTION_PACKAGE)
+    public ResponseEntity<ExtractionStatistics> importExtractionPackage(
+            @ApiParam(name = "pakke",
+                    value = "Name of the package, relative to the package directory",
+                    required = true)
+            @RequestParam("pakke") String packageName) throws NikitaException {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        ExtractionStatistics statistics = archivePackageImportService.importPackage(packageName, username);
+        return new ResponseEntity<>(statistics, HttpStatus.CREATED);
+    }
 }
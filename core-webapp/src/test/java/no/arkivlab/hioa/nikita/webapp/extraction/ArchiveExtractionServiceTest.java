@@ -0,0 +1,80 @@
+package no.arkivlab.hioa.nikita.webapp.extraction;
+
+import com.codahale.metrics.MetricRegistry;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.service.impl.extraction.ArchiveExtractionService;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ByteBufferPool;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.FileSystemStorageBackend;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.HexStorageLayout;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.StorageWriter;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static nikita.extraction.config.ExtractionConstants.ARKIVSTRUKTUR_FILE;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that packages are only written to, and prior manifests only read from, the extraction directory, and
+ * that an existing package is never overwritten.
+ */
+public class ArchiveExtractionServiceTest {
+
+    private static final String FONDS = "b49d8ad7-6bb4-47f5-a5a7-0b6fa4d7a3a2";
+
+    private Path root;
+    private Path extractionDirectory;
+    private ArchiveExtractionService extractionService;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("extraction-service");
+        extractionDirectory = Files.createDirectories(root.resolve("extractions"));
+        Path incoming = Files.createDirectories(root.resolve(ContentAddressedStore.INCOMING_DIRECTORY));
+        WebappProperties webappProperties = new WebappProperties();
+        webappProperties.getExtractionProperties().setDirectory(extractionDirectory.toString());
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class));
+        extractionService = new ArchiveExtractionService(entityManagerFactory,
+                new ContentAddressedStore(incoming, new StorageWriter(new ByteBufferPool(1024, 1, false)),
+                        new HexStorageLayout(), new FileSystemStorageBackend(root, incoming)),
+                webappProperties, new MetricRegistry());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test(expected = NikitaMalformedInputDataException.class)
+    public void packageOutsideTheExtractionDirectoryIsRejected() {
+        extractionService.extractFonds(FONDS, "../outside", null);
+    }
+
+    @Test(expected = NikitaMalformedInputDataException.class)
+    public void existingPackageIsNotOverwritten() throws IOException {
+        Files.createFile(Files.createDirectories(extractionDirectory.resolve("existing"))
+                .resolve(ARKIVSTRUKTUR_FILE));
+        extractionService.extractFonds(FONDS, "existing", null);
+    }
+
+    @Test(expected = NoarkEntityNotFoundException.class)
+    public void priorPackageWithoutManifestIsRejected() throws IOException {
+        Files.createDirectories(extractionDirectory.resolve("prior"));
+        extractionService.extractFonds(FONDS, "next", "prior");
+    }
+}
@@ -0,0 +1,184 @@
+package no.arkivlab.hioa.nikita.webapp.extraction;
+
+import com.codahale.metrics.MetricRegistry;
+import nikita.extraction.ArchiveImporter;
+import nikita.extraction.ExtractionStatistics;
+import nikita.extraction.config.ImportProperties;
+import nikita.extraction.interfaces.IDocumentSink;
+import nikita.model.noark5.v4.DocumentObject;
+import nikita.model.noark5.v4.Fonds;
+import nikita.model.noark5.v4.interfaces.entities.INikitaEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static nikita.extraction.config.ExtractionConstants.ARKIVSTRUKTUR_FILE;
+import static nikita.extraction.config.ExtractionConstants.ARKIVSTRUKTUR_NAMESPACE;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a package is imported with its documents, that metadata the core has no property for is counted
+ * or, in strict mode, refused, and that a document that does not match its checksum is never stored.
+ */
+public class ArchiveImporterTest {
+
+    private static final String DOCUMENT = "DOKUMENT/letter.txt";
+    private static final byte[] CONTENT = "Dear sir".getBytes(StandardCharsets.UTF_8);
+
+    private Path aPackage;
+    private SessionFactory sessionFactory;
+    private final List<DocumentObject> stored = Collections.synchronizedList(new ArrayList<>());
+    private final List<INikitaEntity> committed = new ArrayList<>();
+    private final IDocumentSink documentSink = (document, documentObject) -> {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = document.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        documentObject.setReferenceDocumentFile("stored/" + documentObject.getOriginalFilename());
+        stored.add(documentObject);
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        aPackage = Files.createTempDirectory("import-package");
+        Files.write(Files.createDirectories(aPackage.resolve("DOKUMENT")).resolve("letter.txt"), CONTENT);
+
+        AtomicLong ids = new AtomicLong();
+        StatelessSession session = mock(StatelessSession.class);
+        when(session.beginTransaction()).thenReturn(mock(Transaction.class));
+        when(session.insert(any())).thenAnswer(invocation -> {
+            INikitaEntity entity = (INikitaEntity) invocation.getArguments()[0];
+            entity.setId(ids.incrementAndGet());
+            return entity.getId();
+        });
+        // setParameter() returns the query itself
+        NativeQuery query = mock(NativeQuery.class, (Answer<Object>) invocation ->
+                invocation.getMethod().getReturnType().isInstance(invocation.getMock()) ? invocation.getMock() :
+                        Mockito.RETURNS_DEFAULTS.answer(invocation));
+        when(session.createNativeQuery(anyString())).thenReturn(query);
+        sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(aPackage)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void packageIsImportedWithItsDocuments() throws Exception {
+        writeArkivstruktur(sha256(CONTENT));
+
+        ExtractionStatistics statistics = importer(new ImportProperties()).importPackage(aPackage, "admin");
+
+        assertEquals(1, statistics.getFonds());
+        assertEquals(1, statistics.getSeries());
+        assertEquals(1, statistics.getFiles());
+        assertEquals(1, statistics.getRecords());
+        assertEquals(1, statistics.getDocumentDescriptions());
+        assertEquals(1, statistics.getDocumentObjects());
+        assertEquals(1, statistics.getDocuments());
+        assertEquals(CONTENT.length, statistics.getDocumentBytes());
+        assertEquals(1, stored.size());
+        assertEquals("stored/letter.txt", stored.get(0).getReferenceDocumentFile());
+        assertEquals(6, committed.size());
+        assertTrue(committed.get(0) instanceof Fonds);
+        assertTrue(committed.contains(stored.get(0)));
+        assertEquals(Collections.singletonMap("merknad", 1L), statistics.getSkippedElements());
+        assertFalse(Files.exists(aPackage.resolve(".import-checkpoint")));
+    }
+
+    @Test(expected = IOException.class)
+    public void strictImportRefusesUnknownMetadata() throws Exception {
+        writeArkivstruktur(sha256(CONTENT));
+        ImportProperties properties = new ImportProperties();
+        properties.setStrict(true);
+
+        importer(properties).importPackage(aPackage, "admin");
+    }
+
+    @Test
+    public void documentNotMatchingItsChecksumIsNeverStored() throws Exception {
+        writeArkivstruktur(sha256("Dear madam".getBytes(StandardCharsets.UTF_8)));
+
+        try {
+            importer(new ImportProperties()).importPackage(aPackage, "admin");
+            fail("Imported a document that does not match its checksum");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("does not match sjekksum"));
+        }
+        assertTrue(stored.isEmpty());
+    }
+
+    private ArchiveImporter importer(ImportProperties properties) {
+        return new ArchiveImporter(sessionFactory, documentSink, properties, committed::addAll,
+                new MetricRegistry());
+    }
+
+    private void writeArkivstruktur(String checksum) throws IOException {
+        String arkivstruktur = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<arkiv xmlns=\"" + ARKIVSTRUKTUR_NAMESPACE + "\">\n" +
+                "  <systemID>a1c5ae4e-5c9b-4e1e-9b43-e1e4b1a0c1a1</systemID>\n" +
+                "  <tittel>Fonds</tittel>\n" +
+                "  <merknad><merknadstekst>Not mapped</merknadstekst></merknad>\n" +
+                "  <arkivdel>\n" +
+                "    <systemID>a1c5ae4e-5c9b-4e1e-9b43-e1e4b1a0c1a2</systemID>\n" +
+                "    <tittel>Series</tittel>\n" +
+                "    <mappe>\n" +
+                "      <systemID>a1c5ae4e-5c9b-4e1e-9b43-e1e4b1a0c1a3</systemID>\n" +
+                "      <tittel>File</tittel>\n" +
+                "      <registrering>\n" +
+                "        <systemID>a1c5ae4e-5c9b-4e1e-9b43-e1e4b1a0c1a4</systemID>\n" +
+                "        <dokumentbeskrivelse>\n" +
+                "          <systemID>a1c5ae4e-5c9b-4e1e-9b43-e1e4b1a0c1a5</systemID>\n" +
+                "          <dokumentobjekt>\n" +
+                "            <versjonsnummer>1</versjonsnummer>\n" +
+                "            <variantformat>Produksjonsformat</variantformat>\n" +
+                "            <referanseDokumentfil>" + DOCUMENT + "</referanseDokumentfil>\n" +
+                "            <sjekksum>" + checksum + "</sjekksum>\n" +
+                "            <sjekksumAlgoritme>SHA256</sjekksumAlgoritme>\n" +
+                "            <filstoerrelse>" + CONTENT.length + "</filstoerrelse>\n" +
+                "          </dokumentobjekt>\n" +
+                "        </dokumentbeskrivelse>\n" +
+                "      </registrering>\n" +
+                "    </mappe>\n" +
+                "  </arkivdel>\n" +
+                "</arkiv>\n";
+        Files.write(aPackage.resolve(ARKIVSTRUKTUR_FILE), arkivstruktur.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package no.arkivlab.hioa.nikita.webapp.extraction;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.extraction.StorageBackendDocumentStore;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.CompressingStorageBackend;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.CompressionCodec;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.FileSystemStorageBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that documents are extracted with the bytes and size they were uploaded with, whether the storage
+ * backend compressed them or not.
+ */
+public class StorageBackendDocumentStoreTest {
+
+    private Path root;
+    private Path incoming;
+    private Path target;
+    private CompressingStorageBackend backend;
+    private StorageBackendDocumentStore documentStore;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("extraction-store");
+        incoming = Files.createDirectories(root.resolve("incoming"));
+        target = Files.createDirectories(root.resolve("package"));
+        backend = new CompressingStorageBackend(new FileSystemStorageBackend(root, incoming),
+                CompressionCodec.DEFLATE, 6, 4096, Collections.singletonList("text/*"));
+        documentStore = new StorageBackendDocumentStore(backend);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void compressedDocumentsAreExtractedAsUploaded() throws IOException {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 50000) {
+            text.append("<journalpost>").append(text.length()).append("</journalpost>\n");
+        }
+        byte[] content = text.toString().getBytes("UTF-8");
+        backend.put("ab/text", stage(content), "text/xml");
+        assertTrue(Files.size(root.resolve("ab/text" + CompressingStorageBackend.COMPRESSED_SUFFIX)) <
+                content.length);
+
+        assertArrayEquals(content, extract("ab/text"));
+    }
+
+    @Test
+    public void uncompressedDocumentsAreExtractedAsUploaded() throws IOException {
+        byte[] content = new byte[50000];
+        new Random(42).nextBytes(content);
+        backend.put("ab/pdf", stage(content), "application/pdf");
+
+        assertArrayEquals(content, extract("ab/pdf"));
+    }
+
+    private byte[] extract(String reference) throws IOException {
+        long size = documentStore.size(reference);
+        Path document = target.resolve(reference.replace('/', '-'));
+        try (FileChannel channel = FileChannel.open(document, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            documentStore.transferTo(reference, 0, size, channel);
+        }
+        byte[] extracted = Files.readAllBytes(document);
+        assertEquals(size, extracted.length);
+        return extracted;
+    }
+
+    private Path stage(byte[] content) throws IOException {
+        return Files.write(Files.createTempFile(incoming, null, null), content);
+    }
+}
@@ -0,0 +1,138 @@
+package no.arkivlab.hioa.nikita.webapp.security;
+
+import com.codahale.metrics.MetricRegistry;
+import no.arkivlab.hioa.nikita.webapp.model.security.Authority;
+import no.arkivlab.hioa.nikita.webapp.model.security.User;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that validated tokens are cached until they expire, that a token without an expiration is not cached,
+ * and that changing or deleting a user or an authority evicts the tokens it affects, also after commit when the
+ * authorities of a user are changed.
+ */
+public class JwtAuthenticationCacheTest {
+
+    private static final Date IN_AN_HOUR = new Date(System.currentTimeMillis() + 3600_000);
+
+    private final JwtAuthenticationCache cache = new JwtAuthenticationCache(100, 300, new MetricRegistry());
+    private final AuthenticationCacheEvictor evictor =
+            new AuthenticationCacheEvictor(mock(EntityManagerFactory.class), cache);
+
+    @Test
+    public void tokenIsCachedUntilItExpires() {
+        JwtUser user = user(1L, "admin");
+        cache.put("valid", user, IN_AN_HOUR);
+        cache.put("expired", user, new Date(System.currentTimeMillis() - 1));
+
+        assertSame(user, cache.get("valid"));
+        assertNull(cache.get("expired"));
+        assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    public void tokenWithoutExpirationIsNotCached() {
+        cache.put("no-exp", user(1L, "admin"), null);
+
+        assertNull(cache.get("no-exp"));
+    }
+
+    @Test
+    public void changedOrDeletedUserIsEvicted() {
+        cache.put("admin", user(1L, "admin"), IN_AN_HOUR);
+        cache.put("recordkeeper", user(2L, "recordkeeper"), IN_AN_HOUR);
+        cache.put("archivist", user(3L, "archivist"), IN_AN_HOUR);
+        EntityPersister persister = persister(User.class);
+        assertTrue(evictor.requiresPostCommitHanding(persister));
+
+        evictor.onPostUpdate(new PostUpdateEvent(entity(1L), 1L, null, null, null, persister, null));
+        assertNull(cache.get("admin"));
+        assertNotNull(cache.get("recordkeeper"));
+
+        evictor.onPostDelete(new PostDeleteEvent(entity(2L), 2L, null, persister, null));
+        assertNull(cache.get("recordkeeper"));
+
+        // The authorities of a user are changed
+        ActionQueue actionQueue = mock(ActionQueue.class);
+        evictor.onPostUpdateCollection(collectionUpdate(entity(3L), actionQueue));
+        assertNull(cache.get("archivist"));
+    }
+
+    @Test
+    public void userCachedAgainBeforeCommitIsEvictedAfterIt() {
+        ActionQueue actionQueue = mock(ActionQueue.class);
+        evictor.onPostUpdateCollection(collectionUpdate(entity(3L), actionQueue));
+        ArgumentCaptor<AfterTransactionCompletionProcess> afterCompletion =
+                ArgumentCaptor.forClass(AfterTransactionCompletionProcess.class);
+        verify(actionQueue).registerProcess(afterCompletion.capture());
+
+        // A request between flush and commit still reads the old authorities
+        cache.put("archivist", user(3L, "archivist"), IN_AN_HOUR);
+        cache.put("admin", user(1L, "admin"), IN_AN_HOUR);
+        afterCompletion.getValue().doAfterTransactionCompletion(true, null);
+
+        assertNull(cache.get("archivist"));
+        assertNotNull(cache.get("admin"));
+    }
+
+    @Test
+    public void changedAuthorityEvictsEveryUser() {
+        cache.put("admin", user(1L, "admin"), IN_AN_HOUR);
+        cache.put("recordkeeper", user(2L, "recordkeeper"), IN_AN_HOUR);
+
+        evictor.onPostUpdate(new PostUpdateEvent(new Authority(), 1L, null, null, null,
+                persister(Authority.class), null));
+
+        assertNull(cache.get("admin"));
+        assertNull(cache.get("recordkeeper"));
+    }
+
+    private static JwtUser user(Long id, String username) {
+        return new JwtUser(id, username, "First", "Last", username + "@example.com", "secret",
+                Collections.emptyList(), true, null);
+    }
+
+    private static User entity(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    /**
+     * @return the event Hibernate sends when a collection of owner is flushed in a session with actionQueue
+     */
+    private static PostCollectionUpdateEvent collectionUpdate(Object owner, ActionQueue actionQueue) {
+        PersistentCollection collection = mock(PersistentCollection.class);
+        PersistenceContext persistenceContext = mock(PersistenceContext.class);
+        when(persistenceContext.getLoadedCollectionOwnerOrNull(collection)).thenReturn(owner);
+        EventSource session = mock(EventSource.class);
+        when(session.getPersistenceContext()).thenReturn(persistenceContext);
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        return new PostCollectionUpdateEvent(null, collection, session);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntityPersister persister(Class<?> entityClass) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getMappedClass()).thenReturn((Class) entityClass);
+        return persister;
+    }
+}
@@ -0,0 +1,124 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.search;
+
+import com.codahale.metrics.MetricRegistry;
+import nikita.model.noark5.v4.File;
+import nikita.model.noark5.v4.Record;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that work for an entity is coalesced, that a failed batch is retried, and that what was not indexed
+ * when the application stopped is indexed when it starts again.
+ */
+public class AsyncIndexingServiceTest {
+
+    private static final String FILE = "5f0e1ac2-8c4b-4f86-9b5e-7d1f8f0b2c11";
+    private static final String RECORD = "0c9d5e7a-3b1f-4d2a-8e6c-1a2b3c4d5e6f";
+
+    private Path root;
+    private Path journal;
+    private final List<List<AsyncIndexingService.IndexingWork>> batches = new ArrayList<>();
+    private boolean failing;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("async-indexing");
+        journal = root.resolve("queue");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void workForAnEntityIsCoalesced() {
+        AsyncIndexingService indexingService = start(null);
+        indexingService.queue(File.class, 1L, FILE, false);
+        indexingService.queue(File.class, 1L, FILE, false);
+        indexingService.queue(File.class, 1L, FILE, true);
+        indexingService.queue(Record.class, 2L, RECORD, false);
+        assertEquals(2, indexingService.getQueueDepth());
+
+        indexingService.flush();
+
+        assertEquals(0, indexingService.getQueueDepth());
+        assertEquals(1, batches.size());
+        for (AsyncIndexingService.IndexingWork work : batches.get(0)) {
+            assertEquals(work.entityClass == File.class, work.purge);
+        }
+    }
+
+    @Test
+    public void failedBatchIsRetried() {
+        AsyncIndexingService indexingService = start(null);
+        indexingService.queue(File.class, 1L, FILE, false);
+        failing = true;
+
+        indexingService.flush();
+        assertEquals(1, indexingService.getQueueDepth());
+
+        failing = false;
+        indexingService.flush();
+        assertEquals(0, indexingService.getQueueDepth());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void queueNotIndexedAtShutdownIsIndexedAtStart() throws IOException {
+        AsyncIndexingService stopped = start(journal);
+        stopped.queue(File.class, 1L, FILE, false);
+        stopped.queue(Record.class, 2L, RECORD, false);
+        stopped.queue(Record.class, 2L, RECORD, true);
+        failing = true;
+        stopped.shutdown();
+
+        failing = false;
+        AsyncIndexingService started = start(journal);
+        assertEquals(2, started.getQueueDepth());
+        started.flush();
+
+        assertEquals(0, started.getQueueDepth());
+        List<AsyncIndexingService.IndexingWork> batch = batches.get(0);
+        assertEquals(2, batch.size());
+        for (AsyncIndexingService.IndexingWork work : batch) {
+            assertEquals(work.entityClass == Record.class, work.purge);
+        }
+        // Once the queue is indexed, nothing is left for the next start
+        started.shutdown();
+        assertEquals(0, start(journal).getQueueDepth());
+    }
+
+    /**
+     * @param journal the journal to keep the queue in, null to keep it in memory
+     */
+    private AsyncIndexingService start(Path journal) {
+        WebappProperties webappProperties = new WebappProperties();
+        webappProperties.getSearchProperties().setJournal(journal == null ? "" : journal.toString());
+        AsyncIndexingService indexingService = new AsyncIndexingService(mock(EntityManagerFactory.class),
+                webappProperties, new MetricRegistry(), batch -> {
+            if (failing) {
+                throw new IllegalStateException("The index is not available");
+            }
+            batches.add(new ArrayList<>(batch));
+        });
+        indexingService.recover();
+        return indexingService;
+    }
+}
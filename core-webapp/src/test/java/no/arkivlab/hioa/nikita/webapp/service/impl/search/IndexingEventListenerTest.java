@@ -0,0 +1,75 @@
+package no.arkivlab.hioa.nikita.webapp.service.impl.search;
+
+import nikita.model.noark5.v4.File;
+import nikita.model.noark5.v4.Keyword;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.search.IAsyncIndexingService;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that committed changes to indexed entities are queued, deletes as purges, and that other entities are
+ * left alone.
+ */
+public class IndexingEventListenerTest {
+
+    private static final String SYSTEM_ID = "2b0c8f4e-6d1a-4c3b-9e7f-5a6b7c8d9e0f";
+
+    private IAsyncIndexingService indexingService;
+    private IndexingEventListener listener;
+    private EntityPersister filePersister;
+    private File file;
+
+    @Before
+    public void setUp() {
+        indexingService = mock(IAsyncIndexingService.class);
+        listener = new IndexingEventListener(indexingService, Collections.singleton(File.class));
+        filePersister = persister(File.class);
+        file = new File();
+        file.setSystemId(SYSTEM_ID);
+    }
+
+    @Test
+    public void insertsAndUpdatesAreQueued() {
+        listener.onPostInsert(new PostInsertEvent(file, 1L, null, filePersister, null));
+        listener.onPostUpdate(new PostUpdateEvent(file, 1L, null, null, null, filePersister, null));
+
+        verify(indexingService, times(2)).queue(File.class, 1L, SYSTEM_ID, false);
+    }
+
+    @Test
+    public void deletesArePurged() {
+        listener.onPostDelete(new PostDeleteEvent(file, 1L, null, filePersister, null));
+
+        verify(indexingService).queue(File.class, 1L, SYSTEM_ID, true);
+    }
+
+    @Test
+    public void entitiesWithoutAnIndexAreNotQueued() {
+        EntityPersister keywordPersister = persister(Keyword.class);
+        assertFalse(listener.requiresPostCommitHanding(keywordPersister));
+        assertTrue(listener.requiresPostCommitHanding(filePersister));
+
+        listener.onPostInsert(new PostInsertEvent(new Keyword(), 2L, null, keywordPersister, null));
+
+        verify(indexingService, never()).queue(eq(Keyword.class), eq(2L), anyString(), anyBoolean());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntityPersister persister(Class<?> entityClass) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getMappedClass()).thenReturn((Class) entityClass);
+        return persister;
+    }
+}
@@ -0,0 +1,69 @@
+package no.arkivlab.hioa.nikita.webapp.spring;
+
+import nikita.model.noark5.v4.metadata.DocumentMedium;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that every hit is a copy of its own, so a change to what one request got from the cache is not seen by
+ * the next.
+ */
+public class StoreByValueCacheTest {
+
+    private final Cache cache = new StoreByValueCache(new ConcurrentMapCache("documentMedium"));
+
+    @Test
+    public void hitIsACopy() {
+        DocumentMedium documentMedium = documentMedium("E", "Elektronisk arkiv");
+        cache.put("systemId:1", documentMedium);
+        documentMedium.setDescription("Changed after it was cached");
+
+        DocumentMedium hit = cache.get("systemId:1", DocumentMedium.class);
+        assertNotSame(documentMedium, hit);
+        assertEquals("Elektronisk arkiv", hit.getDescription());
+
+        hit.setDescription("Changed by a request");
+        assertEquals("Elektronisk arkiv", ((DocumentMedium) cache.get("systemId:1").get()).getDescription());
+    }
+
+    @Test
+    public void listIsCopiedWithItsEntities() {
+        List<DocumentMedium> all = new ArrayList<>();
+        all.add(documentMedium("E", "Elektronisk arkiv"));
+        all.add(documentMedium("P", "Fysisk arkiv"));
+        cache.put("findAll2", all);
+
+        @SuppressWarnings("unchecked")
+        List<DocumentMedium> hit = cache.get("findAll2", List.class);
+        hit.remove(1);
+        hit.get(0).setCode("X");
+
+        @SuppressWarnings("unchecked")
+        List<DocumentMedium> next = cache.get("findAll2", List.class);
+        assertEquals(2, next.size());
+        assertEquals("E", next.get(0).getCode());
+    }
+
+    @Test
+    public void missesAndNullsAreKeptApart() {
+        assertNull(cache.get("code:E"));
+        cache.put("code:E", null);
+        assertNotNull(cache.get("code:E"));
+        assertNull(cache.get("code:E").get());
+        assertEquals("loaded", cache.get("code:P", () -> "loaded"));
+        assertEquals("loaded", cache.get("code:P", String.class));
+    }
+
+    private static DocumentMedium documentMedium(String code, String description) {
+        DocumentMedium documentMedium = new DocumentMedium();
+        documentMedium.setCode(code);
+        documentMedium.setDescription(description);
+        return documentMedium;
+    }
+}
@@ -0,0 +1,159 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.CompressingStorageBackend;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.CompressionCodec;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.FileSystemStorageBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class CompressingStorageBackendTest {
+
+    private static final int FRAME_SIZE = 4096;
+
+    private Path root;
+    private Path incoming;
+    private FileSystemStorageBackend fileSystemBackend;
+    private CompressingStorageBackend backend;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("compressing-backend");
+        incoming = root.resolve("incoming");
+        Files.createDirectories(incoming);
+        fileSystemBackend = new FileSystemStorageBackend(root, incoming);
+        backend = new CompressingStorageBackend(fileSystemBackend, CompressionCodec.DEFLATE, 6, FRAME_SIZE,
+                Arrays.asList("text/*", "application/*+xml"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void compressibleDocumentsReadBackUnchanged() throws IOException {
+        byte[] content = text(50000);
+        backend.put("ab/text", stage(content), "text/plain; charset=UTF-8");
+
+        assertFalse(Files.exists(root.resolve("ab/text")));
+        assertTrue(Files.size(root.resolve("ab/text" + CompressingStorageBackend.COMPRESSED_SUFFIX)) <
+                content.length / 2);
+        assertTrue(backend.exists("ab/text"));
+        assertNull(backend.toLocalPath("ab/text"));
+        assertEquals(content.length, backend.size("ab/text"));
+        assertArrayEquals(content, read(backend.get("ab/text")));
+        assertEquals(1, backend.getCompressedDocuments());
+    }
+
+    @Test
+    public void rangesAreReadFromTheFramesTheyCover() throws IOException {
+        byte[] content = text(50000);
+        backend.put("ab/text", stage(content), "application/vnd.noark+xml");
+
+        long[][] ranges = {{0, 1}, {FRAME_SIZE - 10, 20}, {3 * FRAME_SIZE, FRAME_SIZE},
+                {content.length - 5, 5}, {100, content.length - 200}};
+        for (long[] range : ranges) {
+            byte[] expected = Arrays.copyOfRange(content, (int) range[0], (int) (range[0] + range[1]));
+            assertArrayEquals(expected, read(backend.get("ab/text", range[0], range[1])));
+            ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+            backend.transferTo("ab/text", range[0], range[1], Channels.newChannel(transferred));
+            assertArrayEquals(expected, transferred.toByteArray());
+        }
+    }
+
+    @Test
+    public void incompressibleDocumentsAreStoredAsTheyAre() throws IOException {
+        byte[] content = new byte[50000];
+        new Random(42).nextBytes(content);
+        backend.put("ab/random", stage(content), "text/plain");
+        backend.put("ab/other", stage(text(50000)), "application/pdf");
+
+        assertEquals(content.length, Files.size(root.resolve("ab/random")));
+        assertEquals(root.resolve("ab/random"), backend.toLocalPath("ab/random"));
+        assertArrayEquals(content, read(backend.get("ab/random")));
+        assertArrayEquals(Arrays.copyOfRange(content, 10, 20), read(backend.get("ab/random", 10, 10)));
+        assertEquals(50000, Files.size(root.resolve("ab/other")));
+        assertEquals(0, backend.getCompressedDocuments());
+        try (Stream<Path> files = Files.list(incoming)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void documentsThatLookCompressedAreStoredAsTheyAre() throws IOException {
+        // Starts with what the header of a compressed document starts with
+        byte[] content = new byte[50000];
+        new Random(42).nextBytes(content);
+        byte[] header = {(byte) 0x89, 'N', 'K', 'Z', '\r', '\n', 0x1a, '\n', 1};
+        System.arraycopy(header, 0, content, 0, header.length);
+        backend.put("ab/lookalike", stage(content), "application/octet-stream");
+
+        assertEquals(content.length, backend.size("ab/lookalike"));
+        assertArrayEquals(content, read(backend.get("ab/lookalike")));
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 100), read(backend.get("ab/lookalike", 0, 100)));
+    }
+
+    @Test
+    public void copiesAndDeletesFollowTheCompressedDocument() throws IOException {
+        byte[] content = text(50000);
+        backend.put("ab/text", stage(content), "text/plain");
+        assertEquals(content.length, backend.size("ab/text"));
+        backend.copy("ab/text", "cd/text");
+
+        assertTrue(backend.delete("ab/text"));
+        assertFalse(backend.exists("ab/text"));
+        assertFalse(backend.delete("ab/text"));
+        assertArrayEquals(content, read(backend.get("cd/text")));
+        assertNull(backend.toLocalPath("cd/text"));
+    }
+
+    @Test
+    public void mimeTypesMatchWildcards() {
+        assertTrue(backend.isCompressible("TEXT/XML"));
+        assertTrue(backend.isCompressible("application/atom+xml"));
+        assertFalse(backend.isCompressible("application/xml"));
+        assertFalse(backend.isCompressible("image/jpeg"));
+        assertFalse(backend.isCompressible(null));
+    }
+
+    private Path stage(byte[] content) throws IOException {
+        return Files.write(Files.createTempFile(incoming, null, null), content);
+    }
+
+    private static byte[] text(int length) {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(7);
+        while (text.length() < length) {
+            text.append("<registrering nummer=\"").append(random.nextInt(1000)).append("\">tekst</registrering>\n");
+        }
+        return Arrays.copyOf(text.toString().getBytes(), length);
+    }
+
+    private static byte[] read(InputStream inputStream) throws IOException {
+        try (InputStream in = inputStream) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1000];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                content.write(buffer, 0, bytesRead);
+            }
+            return content.toByteArray();
+        }
+    }
+}
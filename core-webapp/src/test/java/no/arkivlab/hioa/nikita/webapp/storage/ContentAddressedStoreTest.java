@@ -0,0 +1,92 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that with the date layout content stored on an earlier day is deduplicated and left where it is by
+ * a layout migration.
+ */
+public class ContentAddressedStoreTest {
+
+    private static final String EARLIER_DAY = "2017/03/14/";
+
+    private Path root;
+    private FileSystemStorageBackend backend;
+    private ContentAddressedStore contentStore;
+    private final Map<String, String> index = new HashMap<>();
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("content-store");
+        Path incoming = root.resolve(ContentAddressedStore.INCOMING_DIRECTORY);
+        Files.createDirectories(incoming);
+        backend = new FileSystemStorageBackend(root, incoming);
+        contentStore = new ContentAddressedStore(incoming,
+                new StorageWriter(new ByteBufferPool(1024, 2, false)), new DateStorageLayout(), backend,
+                index::get);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void contentStoredOnAnEarlierDayIsDeduplicated() throws Exception {
+        byte[] content = "letterhead".getBytes(StandardCharsets.UTF_8);
+        StoredContent first = store(content);
+        String earlier = moveToEarlierDay(first);
+
+        StoredContent second = store(content);
+
+        assertTrue(second.isDeduplicated());
+        assertEquals(earlier, second.getReference());
+        assertFalse(backend.exists(contentStore.locate(first.getKey())));
+    }
+
+    @Test
+    public void contentUnderAnyDateIsNotRelocated() throws Exception {
+        StoredContent stored = store("form".getBytes(StandardCharsets.UTF_8));
+        String earlier = moveToEarlierDay(stored);
+
+        assertTrue(contentStore.isLocated(earlier, stored.getKey()));
+        assertEquals(earlier, contentStore.relocate(earlier, stored.getKey()));
+        assertFalse(contentStore.isLocated("4f/2a/" + stored.getKey(), stored.getKey()));
+        assertFalse(contentStore.isLocated(EARLIER_DAY + "other", stored.getKey()));
+    }
+
+    private StoredContent store(byte[] content) throws Exception {
+        return contentStore.store(new ByteArrayInputStream(content),
+                MultiDigest.getInstance("SHA-256", Collections.emptyList()), "text/plain");
+    }
+
+    /**
+     * Move stored content to where the date layout placed it on an earlier day, and index it there.
+     */
+    private String moveToEarlierDay(StoredContent storedContent) throws IOException {
+        String earlier = EARLIER_DAY + storedContent.getKey();
+        Path target = root.resolve(earlier);
+        Files.createDirectories(target.getParent());
+        Files.move(root.resolve(storedContent.getReference()), target);
+        index.put(storedContent.getKey(), earlier);
+        return earlier;
+    }
+}
@@ -0,0 +1,120 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class FileSystemStorageBackendTest {
+
+    private Path root;
+    private Path incoming;
+    private DirectorySyncer directorySyncer;
+    private FileSystemStorageBackend backend;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("fs-backend");
+        incoming = root.resolve(ContentAddressedStore.INCOMING_DIRECTORY);
+        Files.createDirectories(incoming);
+        directorySyncer = new DirectorySyncer(TimeUnit.MILLISECONDS.toNanos(20));
+        backend = new FileSystemStorageBackend(root, incoming, directorySyncer);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void concurrentPutsShareDirectorySyncs() throws Exception {
+        backend.put("ab/first", stage("first"));
+        ExecutorService writers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String reference = "ab/" + i;
+                Path source = stage(reference);
+                puts.add(writers.submit(() -> {
+                    backend.put(reference, source);
+                    return null;
+                }));
+            }
+            for (Future<?> put : puts) {
+                put.get();
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        for (int i = 0; i < 64; i++) {
+            assertEquals("ab/" + i, new String(Files.readAllBytes(root.resolve("ab/" + i)), "UTF-8"));
+        }
+        // The first put also synced the root, where ab was created
+        assertEquals(66, directorySyncer.getRequests());
+        assertTrue("Expected fewer fsyncs than requests, got " + directorySyncer.getSyncs(),
+                directorySyncer.getSyncs() < directorySyncer.getRequests() / 2);
+        // Nobody is syncing, so no directory is left with a group
+        assertEquals(0, directorySyncer.getGroups());
+    }
+
+    @Test
+    public void referenceOutsideRootIsRefused() throws IOException {
+        Path outside = Files.createTempFile("fs-backend-outside", null);
+        try {
+            for (String reference : new String[]{"../" + outside.getFileName(), outside.toString(),
+                    "ab/../../" + outside.getFileName()}) {
+                try {
+                    backend.exists(reference);
+                    fail("Resolved " + reference + " outside " + root);
+                } catch (IllegalArgumentException e) {
+                    // expected
+                }
+            }
+        } finally {
+            Files.delete(outside);
+        }
+    }
+
+    @Test
+    public void sweepIncomingDeletesOnlyOldFiles() throws IOException {
+        Path orphan = stage("orphan");
+        Files.setLastModifiedTime(orphan, FileTime.fromMillis(System.currentTimeMillis() -
+                TimeUnit.HOURS.toMillis(1)));
+        Path inProgress = stage("in progress");
+        Path session = incoming.resolve(UploadSessionService.SESSIONS_DIRECTORY).resolve("session");
+        Files.createDirectories(session);
+        Path sessionData = Files.write(session.resolve("data"), new byte[10]);
+        Files.setLastModifiedTime(sessionData, FileTime.fromMillis(0));
+
+        ContentAddressedStore store = new ContentAddressedStore(incoming,
+                new StorageWriter(new ByteBufferPool(1024, 1, false)), new HexStorageLayout(), backend);
+
+        assertEquals(1, store.sweepIncoming(ContentAddressedStore.ORPHAN_GRACE_PERIOD_MILLIS));
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(inProgress));
+        assertTrue(Files.exists(sessionData));
+    }
+
+    private Path stage(String content) throws IOException {
+        Path file = Files.createTempFile(incoming, null, null);
+        return Files.write(file, content.getBytes("UTF-8"));
+    }
+}
@@ -0,0 +1,250 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A minimal in-memory stand-in for an S3-compatible object store, supporting the requests made by
+ * S3StorageBackend. Signatures are not checked, only that requests are signed.
+ */
+public class LocalObjectStore {
+
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    private final HttpServer server;
+    private final Set<String> buckets = ConcurrentHashMap.newKeySet();
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastModified = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final AtomicInteger partsReceived = new AtomicInteger(0);
+    private final AtomicInteger copies = new AtomicInteger(0);
+    private final AtomicInteger unsignedRequests = new AtomicInteger(0);
+
+    public LocalObjectStore() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String getEndpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public byte[] getObject(String bucket, String key) {
+        return objects.get(bucket + "/" + key);
+    }
+
+    public int getPartsReceived() {
+        return partsReceived.get();
+    }
+
+    /**
+     * @return how many objects and parts have been copied in the store
+     */
+    public int getCopies() {
+        return copies.get();
+    }
+
+    public long getLastModified(String bucket, String key) {
+        return lastModified.get(bucket + "/" + key);
+    }
+
+    public void setLastModified(String bucket, String key, long millis) {
+        lastModified.put(bucket + "/" + key, millis);
+    }
+
+    public int getUnsignedRequests() {
+        return unsignedRequests.get();
+    }
+
+    public int getOpenUploads() {
+        return uploads.size();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+                unsignedRequests.incrementAndGet();
+            }
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(1), "UTF-8");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            int slash = path.indexOf('/');
+            if (slash < 0) {
+                handleBucket(exchange, path);
+            } else {
+                handleObject(exchange, path.substring(0, slash), path, query);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String bucket) throws IOException {
+        if ("PUT".equals(exchange.getRequestMethod())) {
+            buckets.add(bucket);
+            send(exchange, 200, new byte[0]);
+        } else {
+            send(exchange, buckets.contains(bucket) ? 200 : 404, null);
+        }
+    }
+
+    private void handleObject(HttpExchange exchange, String bucket, String path, Map<String, String> query)
+            throws IOException {
+        if (!buckets.contains(bucket)) {
+            send(exchange, 404, null);
+            return;
+        }
+        String method = exchange.getRequestMethod();
+        byte[] body = read(exchange.getRequestBody());
+        if ("POST".equals(method) && query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new ConcurrentHashMap<>());
+            send(exchange, 200, ("<InitiateMultipartUploadResult><UploadId>" + uploadId +
+                    "</UploadId></InitiateMultipartUploadResult>").getBytes(StandardCharsets.UTF_8));
+        } else if ("PUT".equals(method) && query.containsKey("partNumber")) {
+            Map<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+            if (parts == null) {
+                send(exchange, 404, new byte[0]);
+                return;
+            }
+            int partNumber = Integer.parseInt(query.get("partNumber"));
+            String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+            if (copySource != null) {
+                byte[] source = objects.get(URLDecoder.decode(copySource.substring(1), "UTF-8"));
+                if (source == null) {
+                    send(exchange, 404, new byte[0]);
+                    return;
+                }
+                String[] bounds = exchange.getRequestHeaders().getFirst("x-amz-copy-source-range")
+                        .substring("bytes=".length()).split("-");
+                parts.put(partNumber, Arrays.copyOfRange(source, Integer.parseInt(bounds[0]),
+                        Integer.parseInt(bounds[1]) + 1));
+                copies.incrementAndGet();
+                send(exchange, 200, ("<CopyPartResult><ETag>\"copy-" + partNumber +
+                        "\"</ETag></CopyPartResult>").getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            parts.put(partNumber, body);
+            partsReceived.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"part-" + partNumber + "\"");
+            send(exchange, 200, new byte[0]);
+        } else if ("POST".equals(method) && query.containsKey("uploadId")) {
+            Map<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+            ByteArrayOutputStream object = new ByteArrayOutputStream();
+            Matcher matcher = PART_NUMBER.matcher(new String(body, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                object.write(parts.get(Integer.parseInt(matcher.group(1))));
+            }
+            store(path, object.toByteArray());
+            send(exchange, 200, "<CompleteMultipartUploadResult/>".getBytes(StandardCharsets.UTF_8));
+        } else if ("DELETE".equals(method) && query.containsKey("uploadId")) {
+            uploads.remove(query.get("uploadId"));
+            send(exchange, 204, null);
+        } else if ("PUT".equals(method)) {
+            String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+            if (copySource != null) {
+                byte[] source = objects.get(URLDecoder.decode(copySource.substring(1), "UTF-8"));
+                if (source == null) {
+                    send(exchange, 404, new byte[0]);
+                    return;
+                }
+                store(path, source);
+                copies.incrementAndGet();
+                send(exchange, 200, "<CopyObjectResult/>".getBytes(StandardCharsets.UTF_8));
+            } else {
+                store(path, body);
+                send(exchange, 200, new byte[0]);
+            }
+        } else if ("DELETE".equals(method)) {
+            objects.remove(path);
+            send(exchange, 204, null);
+        } else {
+            byte[] object = objects.get(path);
+            if (object == null) {
+                send(exchange, 404, null);
+                return;
+            }
+            exchange.getResponseHeaders().add("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    Instant.ofEpochMilli(lastModified.get(path)).atOffset(ZoneOffset.UTC)));
+            if ("HEAD".equals(method)) {
+                exchange.getResponseHeaders().add("Content-Length", Integer.toString(object.length));
+                send(exchange, 200, null);
+                return;
+            }
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range != null) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int start = Integer.parseInt(bounds[0]);
+                int end = Math.min(Integer.parseInt(bounds[1]), object.length - 1);
+                send(exchange, 206, Arrays.copyOfRange(object, start, end + 1));
+            } else {
+                send(exchange, 200, object);
+            }
+        }
+    }
+
+    private void store(String path, byte[] content) {
+        objects.put(path, content);
+        lastModified.put(path, System.currentTimeMillis());
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null || body.length == 0) {
+            // The JDK server loses track of the connection after a response without a body, so make the
+            // client open a new one for the next request
+            exchange.getResponseHeaders().set("Connection", "close");
+            if (!exchange.getResponseHeaders().containsKey("Content-Length")) {
+                exchange.getResponseHeaders().add("Content-Length", "0");
+            }
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int equals = parameter.indexOf('=');
+                parameters.put(URLDecoder.decode(equals < 0 ? parameter : parameter.substring(0, equals), "UTF-8"),
+                        equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), "UTF-8"));
+            }
+        }
+        return parameters;
+    }
+
+    private static byte[] read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int bytesRead;
+        while ((bytesRead = inputStream.read(buffer)) != -1) {
+            content.write(buffer, 0, bytesRead);
+        }
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,30 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.MultiDigest;
+import org.junit.Test;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that only lowercase hex of the length of the primary algorithm is taken for a content key.
+ */
+public class MultiDigestTest {
+
+    @Test
+    public void onlyWellFormedChecksumsOfThePrimaryAlgorithmAreContentKeys() throws Exception {
+        MultiDigest digest = MultiDigest.getInstance("SHA-256", Arrays.asList("MD5"));
+        String sha256 = ContentAddressedStore.toHex(MessageDigest.getInstance("SHA-256").digest(new byte[1]));
+        String md5 = ContentAddressedStore.toHex(MessageDigest.getInstance("MD5").digest(new byte[1]));
+
+        assertTrue(digest.isPrimaryChecksum(sha256));
+        assertFalse(digest.isPrimaryChecksum(md5));
+        assertFalse(digest.isPrimaryChecksum(sha256.toUpperCase()));
+        assertFalse(digest.isPrimaryChecksum(sha256.substring(0, 58) + "../etc"));
+        assertFalse(digest.isPrimaryChecksum(null));
+    }
+}
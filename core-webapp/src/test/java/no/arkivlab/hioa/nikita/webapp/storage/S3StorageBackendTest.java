@@ -0,0 +1,149 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.S3StorageBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs S3StorageBackend against LocalObjectStore, an in-memory stand-in for an S3-compatible object store.
+ */
+public class S3StorageBackendTest {
+
+    private static final String BUCKET = "nikita";
+    private static final int PART_SIZE = 1024;
+
+    private LocalObjectStore objectStore;
+    private S3StorageBackend backend;
+    private Path staging;
+
+    @Before
+    public void setUp() throws IOException {
+        objectStore = new LocalObjectStore();
+        staging = Files.createTempDirectory("s3-staging");
+        backend = new S3StorageBackend(objectStore.getEndpoint(), "us-east-1", BUCKET, "documents/", "access",
+                "secret", PART_SIZE, 3, staging);
+        backend.init();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        backend.close();
+        objectStore.stop();
+        Files.deleteIfExists(staging);
+    }
+
+    @Test
+    public void putAndGetSmallDocument() throws IOException {
+        byte[] content = randomContent(100);
+        backend.put("ab/cd/abcd", stage(content));
+
+        assertTrue(backend.exists("ab/cd/abcd"));
+        assertEquals(100, backend.size("ab/cd/abcd"));
+        assertArrayEquals(content, objectStore.getObject(BUCKET, "documents/ab/cd/abcd"));
+        assertArrayEquals(content, read(backend.get("ab/cd/abcd")));
+        assertEquals(0, objectStore.getPartsReceived());
+        assertEquals(0, objectStore.getUnsignedRequests());
+    }
+
+    @Test
+    public void putLargeDocumentInParallelParts() throws IOException {
+        byte[] content = randomContent(10 * PART_SIZE + 17);
+        Path source = stage(content);
+        backend.put("large", source);
+
+        assertFalse(Files.exists(source));
+        assertEquals(11, objectStore.getPartsReceived());
+        assertEquals(0, objectStore.getOpenUploads());
+        assertArrayEquals(content, objectStore.getObject(BUCKET, "documents/large"));
+    }
+
+    @Test
+    public void getRange() throws IOException {
+        byte[] content = randomContent(5000);
+        backend.put("ranged", stage(content));
+
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 1500), read(backend.get("ranged", 1000, 500)));
+    }
+
+    @Test
+    public void copyTouchAndDelete() throws IOException {
+        byte[] content = randomContent(300);
+        backend.put("original", stage(content));
+        backend.copy("original", "copy");
+        backend.touch("copy");
+
+        assertArrayEquals(content, objectStore.getObject(BUCKET, "documents/copy"));
+        assertTrue(backend.delete("original"));
+        assertFalse(backend.exists("original"));
+        assertFalse(backend.delete("original"));
+        assertTrue(backend.exists("copy"));
+    }
+
+    @Test
+    public void recentlyModifiedDocumentIsNotTouched() throws IOException {
+        backend.put("recent", stage(randomContent(300)));
+        long lastModified = objectStore.getLastModified(BUCKET, "documents/recent");
+        backend.touch("recent");
+
+        assertEquals(0, objectStore.getCopies());
+        assertEquals(lastModified, objectStore.getLastModified(BUCKET, "documents/recent"));
+    }
+
+    @Test
+    public void documentTooLargeToCopyIsTouchedInParts() throws IOException {
+        backend.close();
+        backend = new S3StorageBackend(objectStore.getEndpoint(), "us-east-1", BUCKET, "documents/", "access",
+                "secret", PART_SIZE, 3, staging, 2 * PART_SIZE);
+        byte[] content = randomContent(5 * PART_SIZE + 3);
+        backend.put("old", stage(content));
+        long old = System.currentTimeMillis() - S3StorageBackend.TOUCH_INTERVAL_MILLIS - 1000;
+        objectStore.setLastModified(BUCKET, "documents/old", old);
+        backend.touch("old");
+
+        assertEquals(6, objectStore.getCopies());
+        assertEquals(0, objectStore.getOpenUploads());
+        assertTrue(objectStore.getLastModified(BUCKET, "documents/old") > old);
+        assertArrayEquals(content, objectStore.getObject(BUCKET, "documents/old"));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void missingDocument() throws IOException {
+        backend.size("missing");
+    }
+
+    private Path stage(byte[] content) throws IOException {
+        Path file = Files.createTempFile(staging, "upload", null);
+        Files.write(file, content);
+        return file;
+    }
+
+    private static byte[] randomContent(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] read(InputStream inputStream) throws IOException {
+        try (InputStream in = inputStream) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                content.write(buffer, 0, bytesRead);
+            }
+            return content.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ByteBufferPool;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.MultiDigest;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.StorageWriter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that every configured checksum is calculated in the copying pass, both when hashing in the copying
+ * thread and when hashing is pipelined on an executor, and that files are copied through their channels.
+ */
+public class StorageWriterTest {
+
+    private static final int BUFFER_SIZE = 1000;
+
+    private final ExecutorService hashingExecutor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    @Test
+    public void copyCalculatesAllChecksums() throws Exception {
+        copyAndCheck(new StorageWriter(new ByteBufferPool(BUFFER_SIZE, 2, false)));
+    }
+
+    @Test
+    public void pipelinedCopyCalculatesAllChecksums() throws Exception {
+        copyAndCheck(new StorageWriter(new ByteBufferPool(BUFFER_SIZE, 2, true), hashingExecutor));
+    }
+
+    @Test
+    public void pipelinedCopyWithOnlyOneBufferAvailable() throws Exception {
+        copyAndCheck(new StorageWriter(new ByteBufferPool(BUFFER_SIZE, 1, false), hashingExecutor));
+    }
+
+    @Test
+    public void fileIsCopiedThroughItsChannel() throws Exception {
+        byte[] content = new byte[10 * BUFFER_SIZE + 123];
+        new Random(7).nextBytes(content);
+        Path source = Files.createTempFile("storage-writer", null);
+        Path target = Files.createTempFile("storage-writer", null);
+        try {
+            Files.write(source, content);
+            StorageWriter storageWriter = new StorageWriter(new ByteBufferPool(BUFFER_SIZE, 2, true),
+                    hashingExecutor);
+
+            // Without a digest the file is transferred, from where the stream has got to
+            try (FileInputStream inputStream = new FileInputStream(source.toFile());
+                 FileChannel outputChannel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+                outputChannel.position(0);
+                assertEquals(100, inputStream.skip(100));
+                assertEquals(content.length - 100, storageWriter.copy(inputStream, outputChannel, null));
+                assertEquals(content.length - 100, outputChannel.position());
+            }
+            assertArrayEquals(Arrays.copyOfRange(content, 100, content.length), Files.readAllBytes(target));
+
+            MultiDigest digest = MultiDigest.getInstance("SHA-256", Arrays.asList("MD5"));
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            try (FileInputStream inputStream = new FileInputStream(source.toFile())) {
+                assertEquals(content.length, storageWriter.copy(inputStream, Channels.newChannel(copy), digest));
+            }
+            assertArrayEquals(content, copy.toByteArray());
+            assertEquals(ContentAddressedStore.toHex(MessageDigest.getInstance("MD5").digest(content)),
+                    digest.digest().get("MD5"));
+        } finally {
+            Files.delete(source);
+            Files.delete(target);
+        }
+    }
+
+    private void copyAndCheck(StorageWriter storageWriter) throws Exception {
+        byte[] content = new byte[10 * BUFFER_SIZE + 123];
+        new Random(42).nextBytes(content);
+        MultiDigest digest = MultiDigest.getInstance("SHA-256", Arrays.asList("SHA-512", "MD5", "sha-256"));
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        long size = storageWriter.copy(new ByteArrayInputStream(content), Channels.newChannel(copy), digest);
+        Map<String, String> checksums = digest.digest();
+
+        assertEquals(content.length, size);
+        assertArrayEquals(content, copy.toByteArray());
+        assertEquals(Arrays.asList("SHA-256", "SHA-512", "MD5"), Arrays.asList(checksums.keySet().toArray()));
+        for (Map.Entry<String, String> checksum : checksums.entrySet()) {
+            assertEquals(ContentAddressedStore.toHex(MessageDigest.getInstance(checksum.getKey()).digest(content)),
+                    checksum.getValue());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package no.arkivlab.hioa.nikita.webapp.storage;
+
+import com.codahale.metrics.MetricRegistry;
+import nikita.model.noark5.v4.DocumentObject;
+import no.arkivlab.hioa.nikita.webapp.config.WebappProperties;
+import no.arkivlab.hioa.nikita.webapp.security.MockSecurityContext;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.*;
+import no.arkivlab.hioa.nikita.webapp.service.interfaces.IDocumentObjectService;
+import no.arkivlab.hioa.nikita.webapp.util.ByteRange;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.NoarkEntityNotFoundException;
+import no.arkivlab.hioa.nikita.webapp.util.exceptions.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that chunks written in any order, resent or overlapping, never change what has been hashed, so the
+ * file is committed under the checksum of its content, that a file not matching the checksum a client set is
+ * not committed, and that sessions are only found through the
+ * DocumentObject they were created for.
+ */
+public class UploadSessionServiceTest {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private Path root;
+    private IDocumentObjectService documentObjectService;
+    private UploadSessionService uploadSessionService;
+    private DocumentObject documentObject;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("upload-sessions");
+        Path incoming = root.resolve(ContentAddressedStore.INCOMING_DIRECTORY);
+        Files.createDirectories(incoming);
+        StorageWriter storageWriter = new StorageWriter(new ByteBufferPool(CHUNK_SIZE, 4, false));
+        ContentAddressedStore contentStore = new ContentAddressedStore(incoming, storageWriter,
+                new HexStorageLayout(), new FileSystemStorageBackend(root, incoming));
+        documentObjectService = mock(IDocumentObjectService.class);
+        uploadSessionService = new UploadSessionService(contentStore, storageWriter, documentObjectService,
+                new WebappProperties(), new MetricRegistry());
+        SecurityContextHolder.setContext(new MockSecurityContext(
+                new UsernamePasswordAuthenticationToken("admin", "password")));
+
+        content = new byte[4 * CHUNK_SIZE + 17];
+        new Random(42).nextBytes(content);
+        documentObject = new DocumentObject();
+        documentObject.setSystemId("3318a63f-11a7-4ec9-8bf1-4144b7f281cf");
+        documentObject.setFileSize((long) content.length);
+        documentObject.setMimeType("application/octet-stream");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        SecurityContextHolder.clearContext();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void chunksInAnyOrderAreCommittedUnderTheirChecksum() throws Exception {
+        UploadSession session = uploadSessionService.createSession(documentObject);
+        for (int chunk : new int[]{3, 0, 4, 2, 1}) {
+            write(session, chunk * CHUNK_SIZE, Math.min(content.length, (chunk + 1) * CHUNK_SIZE) - 1, content);
+        }
+        assertTrue(session.isComplete());
+
+        uploadSessionService.completeSession(session.getSessionId(), documentObject);
+
+        assertEquals(sha256(content), committedKey());
+    }
+
+    @Test
+    public void resentChunkDoesNotChangeTheHashedContent() throws Exception {
+        UploadSession session = uploadSessionService.createSession(documentObject);
+        write(session, 0, CHUNK_SIZE - 1, content);
+        // The first chunk has been hashed, so a resend with other bytes must not reach the file
+        byte[] tampered = content.clone();
+        Arrays.fill(tampered, 0, CHUNK_SIZE, (byte) 0);
+        write(session, 0, CHUNK_SIZE - 1, tampered);
+        write(session, CHUNK_SIZE, content.length - 1, content);
+
+        uploadSessionService.completeSession(session.getSessionId(), documentObject);
+
+        assertEquals(sha256(content), committedKey());
+    }
+
+    @Test(expected = StorageException.class)
+    public void chunkOverlappingReceivedBytesIsRejected() throws Exception {
+        UploadSession session = uploadSessionService.createSession(documentObject);
+        write(session, 0, CHUNK_SIZE - 1, content);
+        write(session, CHUNK_SIZE / 2, CHUNK_SIZE + CHUNK_SIZE / 2 - 1, content);
+    }
+
+    @Test
+    public void fileNotMatchingTheExpectedChecksumIsNotCommitted() throws Exception {
+        when(documentObjectService.getExpectedChecksum(documentObject)).thenReturn(sha256(new byte[1]));
+        UploadSession session = uploadSessionService.createSession(documentObject);
+        write(session, 0, content.length - 1, content);
+        try {
+            uploadSessionService.completeSession(session.getSessionId(), documentObject);
+            fail("Committed a file not matching the checksum set in the documentObject");
+        } catch (StorageException e) {
+            // expected
+        }
+        verify(documentObjectService, never()).associateStoredContent(any(), any());
+
+        // The file is hashed anew when completing again
+        when(documentObjectService.getExpectedChecksum(documentObject)).thenReturn(sha256(content));
+        uploadSessionService.completeSession(session.getSessionId(), documentObject);
+
+        assertEquals(sha256(content), committedKey());
+    }
+
+    @Test
+    public void sessionIsOnlyFoundThroughItsDocumentObject() throws Exception {
+        UploadSession session = uploadSessionService.createSession(documentObject);
+        assertSame(session, uploadSessionService.findSession(documentObject.getSystemId(),
+                session.getSessionId()));
+        try {
+            uploadSessionService.findSession("6e1d9bdb-8f55-4c6a-a4f2-9c2d0fa5c1de", session.getSessionId());
+            fail("Found an upload session through another documentObject");
+        } catch (NoarkEntityNotFoundException e) {
+            // expected
+        }
+        try {
+            uploadSessionService.deleteSession("6e1d9bdb-8f55-4c6a-a4f2-9c2d0fa5c1de", session.getSessionId());
+            fail("Deleted an upload session through another documentObject");
+        } catch (NoarkEntityNotFoundException e) {
+            // expected
+        }
+    }
+
+    private void write(UploadSession session, long start, long end, byte[] source) {
+        ByteRange range = new ByteRange(start, end);
+        uploadSessionService.writeChunk(documentObject.getSystemId(), session.getSessionId(), range,
+                new ByteArrayInputStream(source, (int) start, (int) range.getLength()));
+    }
+
+    private String committedKey() {
+        ArgumentCaptor<StoredContent> storedContent = ArgumentCaptor.forClass(StoredContent.class);
+        verify(documentObjectService).associateStoredContent(eq(documentObject), storedContent.capture());
+        verify(documentObjectService).update(any(DocumentObject.class));
+        return storedContent.getValue().getKey();
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return ContentAddressedStore.toHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,167 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ByteRangeTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    public void closedRange() {
+        assertRanges("bytes=0-499", "0-499");
+        assertRanges("bytes=500-500", "500-500");
+        assertIgnored("bytes = 10 - 19");
+        assertRanges("bytes= 10 - 19 ", "10-19");
+    }
+
+    @Test
+    public void lastPositionBeyondTheFileIsCutShort() {
+        assertRanges("bytes=900-5000", "900-999");
+        assertRanges("bytes=900-99999999999999999999", "900-999");
+        assertRanges("bytes=-99999999999999999999", "0-999");
+        assertRanges("bytes=99999999999999999999-");
+    }
+
+    @Test
+    public void openEndedRange() {
+        assertRanges("bytes=900-", "900-999");
+        assertRanges("bytes=0-", "0-999");
+        assertRanges("bytes=999-", "999-999");
+    }
+
+    @Test
+    public void suffixRange() {
+        assertRanges("bytes=-100", "900-999");
+        assertRanges("bytes=-1", "999-999");
+        assertRanges("bytes=-5000", "0-999");
+    }
+
+    @Test
+    public void rangesAreSortedAndOverlappingOrAdjacentRangesMerged() {
+        assertRanges("bytes=500-599,0-99", "0-99", "500-599");
+        assertRanges("bytes=0-99,50-149", "0-149");
+        assertRanges("bytes=0-99,100-199", "0-199");
+        assertRanges("bytes=0-99,101-199", "0-99", "101-199");
+        assertRanges("bytes=0-499,100-199", "0-499");
+        assertRanges("bytes=-100,850-", "850-999");
+        assertRanges("bytes=0-0,-1,500-", "0-0", "500-999");
+    }
+
+    @Test
+    public void unsatisfiableRangesAreLeftOut() {
+        assertRanges("bytes=0-99,1000-1099", "0-99");
+        assertRanges("bytes=0-99,-0", "0-99");
+    }
+
+    @Test
+    public void noSatisfiableRangeGivesAnEmptyList() {
+        assertRanges("bytes=1000-");
+        assertRanges("bytes=1000-1099");
+        assertRanges("bytes=5000-5000,2000-");
+        assertRanges("bytes=-0");
+        assertEquals(0, ByteRange.parse("bytes=0-", 0).size());
+        assertEquals(0, ByteRange.parse("bytes=-5", 0).size());
+    }
+
+    @Test
+    public void malformedHeaderIsIgnored() {
+        assertIgnored(null);
+        assertIgnored("");
+        assertIgnored("items=0-99");
+        assertIgnored("bytes 0-99");
+        assertIgnored("bytes=");
+        assertIgnored("bytes=-");
+        assertIgnored("bytes=100");
+        assertIgnored("bytes=--5");
+        assertIgnored("bytes=-+5");
+        assertIgnored("bytes=+5-10");
+        assertIgnored("bytes=5--10");
+        assertRanges("bytes=0-99,", "0-99");
+        assertIgnored("bytes=,0-99");
+        assertIgnored("bytes=a-b");
+        assertIgnored("bytes=0x10-0x20");
+        assertIgnored("bytes=0-99,abc");
+        assertIgnored("bytes=200-100");
+    }
+
+    @Test
+    public void tooManyRangesAreIgnored() {
+        StringBuilder header = new StringBuilder("bytes=0-0");
+        for (int i = 1; i < ByteRange.MAX_RANGES; i++) {
+            header.append(',').append(i * 10).append('-').append(i * 10);
+        }
+        assertEquals(ByteRange.MAX_RANGES, ByteRange.parse(header.toString(), SIZE).size());
+        header.append(",999-999");
+        assertNull(ByteRange.parse(header.toString(), SIZE));
+    }
+
+    @Test
+    public void contentRange() {
+        ByteRange range = ByteRange.parseContentRange("bytes 0-1023/4096", 4096);
+        assertEquals(0, range.getStart());
+        assertEquals(1023, range.getEnd());
+        assertEquals(1024, range.getLength());
+        assertEquals("bytes 0-1023/4096", range.toContentRange(4096));
+
+        range = ByteRange.parseContentRange("bytes 4095-4095/4096", 4096);
+        assertEquals(4095, range.getStart());
+        assertEquals(1, range.getLength());
+    }
+
+    @Test
+    public void contentRangeOfUnknownTotalSize() {
+        ByteRange range = ByteRange.parseContentRange("bytes 1024-2047/*", 4096);
+        assertEquals(1024, range.getStart());
+        assertEquals(2047, range.getEnd());
+    }
+
+    @Test
+    public void contentRangeGivingAnotherSizeIsRefused() {
+        assertNull(ByteRange.parseContentRange("bytes 0-1023/4095", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0-1023/4097", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0-1023/-4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0-1023/", 4096));
+    }
+
+    @Test
+    public void contentRangeOutsideTheFileIsRefused() {
+        assertNull(ByteRange.parseContentRange("bytes 0-4096/4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 4096-4100/*", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 100-99/4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0-99999999999999999999/4096", 4096));
+    }
+
+    @Test
+    public void malformedContentRangeIsRefused() {
+        assertNull(ByteRange.parseContentRange(null, 4096));
+        assertNull(ByteRange.parseContentRange("bytes=0-1023/4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes */4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0-1023", 4096));
+        assertNull(ByteRange.parseContentRange("bytes -1023/4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0-/4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes +0-1023/4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0--1023/4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes 0-1023/+4096", 4096));
+        assertNull(ByteRange.parseContentRange("bytes a-b/4096", 4096));
+    }
+
+    private static void assertIgnored(String header) {
+        assertNull(header, ByteRange.parse(header, SIZE));
+    }
+
+    /**
+     * @param expected the ranges header should be parsed to, in order. None if no range can be satisfied
+     */
+    private static void assertRanges(String header, String... expected) {
+        List<ByteRange> ranges = ByteRange.parse(header, SIZE);
+        assertNotNull(header, ranges);
+        assertEquals(header, expected.length, ranges.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(header, expected[i], ranges.get(i).toString());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import nikita.model.noark5.v4.CaseFile;
+import nikita.model.noark5.v4.CaseParty;
+import nikita.model.noark5.v4.Precedence;
+import nikita.util.NoarkDateCodec;
+import nikita.util.deserialisers.CaseFileDeserializer;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that a saksmappe is read with its case properties and its embedded sakspart, presedens, merknad and
+ * kryssreferanse objects, and that a saksmappe missing an obligatory property is refused.
+ */
+public class CaseFileDeserializerTest {
+
+    private static final String OBLIGATORY = "\"mappeID\": \"2017/1\", \"tittel\": \"Case\"," +
+            "\"saksdato\": \"2017-01-31\", \"administrativEnhet\": \"Archive\", \"saksansvarlig\": \"Kari\"," +
+            "\"saksstatus\": \"Under behandling\"";
+
+    @Test
+    public void caseFileIsReadWithItsEmbeddedObjects() throws IOException {
+        CaseFile caseFile = deserialise("{" + OBLIGATORY + "," +
+                "\"saksaar\": 2017," +
+                "\"sakssekvensnummer\": \"12\"," +
+                "\"sakspart\": [{\"sakspartNavn\": \"Ola\", \"sakspartRolle\": \"Klager\"}]," +
+                "\"presedens\": [{\"presedensDato\": \"2016-12-01\", \"presedensHjemmel\": \"Law\"," +
+                "  \"rettskildefaktor\": \"Court\", \"tittel\": \"Precedence\"}]," +
+                "\"merknad\": {\"merknadstekst\": \"Only one\"}," +
+                "\"kryssreferanse\": [{\"referanseTilMappe\": \"7f000101-5b3d-4e8a-9c1f-0a1b2c3d4e61\"}]" +
+                "}");
+
+        assertEquals("Case", caseFile.getTitle());
+        assertEquals(NoarkDateCodec.parseDate("2017-01-31"), caseFile.getCaseDate());
+        assertEquals(Integer.valueOf(2017), caseFile.getCaseYear());
+        assertEquals(Integer.valueOf(12), caseFile.getCaseSequenceNumber());
+
+        assertEquals(1, caseFile.getReferenceCaseParty().size());
+        CaseParty caseParty = caseFile.getReferenceCaseParty().iterator().next();
+        assertEquals("Ola", caseParty.getCasePartyName());
+        assertEquals("Klager", caseParty.getCasePartyRole());
+        assertNotNull(caseParty.getSystemId());
+
+        assertEquals(1, caseFile.getReferencePrecedence().size());
+        Precedence precedence = caseFile.getReferencePrecedence().iterator().next();
+        assertEquals(NoarkDateCodec.parseDate("2016-12-01"), precedence.getPrecedenceDate());
+        assertEquals("Law", precedence.getPrecedenceAuthority());
+        assertEquals("Court", precedence.getSourceOfLaw());
+        assertEquals("Precedence", precedence.getTitle());
+
+        assertEquals("Only one", caseFile.getReferenceComment().iterator().next().getCommentText());
+        assertSame(caseFile, caseFile.getReferenceCrossReference().iterator().next().getReferenceFile());
+    }
+
+    @Test
+    public void caseFileWithoutCaseResponsibleIsRefused() throws IOException {
+        try {
+            deserialise("{" + OBLIGATORY.replace("\"saksansvarlig\"", "\"saksbehandler\"") + "}");
+            fail("Read a saksmappe without saksansvarlig");
+        } catch (NikitaMalformedInputDataException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("saksansvarlig"));
+        }
+    }
+
+    @Test(expected = NikitaMalformedInputDataException.class)
+    public void malformedCaseDateIsRefused() throws IOException {
+        deserialise("{" + OBLIGATORY.replace("2017-01-31", "31.01.2017") + "}");
+    }
+
+    @Test(expected = NikitaMalformedInputDataException.class)
+    public void embeddedObjectsThatAreNotObjectsAreRefused() throws IOException {
+        deserialise("{" + OBLIGATORY + ", \"sakspart\": \"Ola\"}");
+    }
+
+    private static CaseFile deserialise(String json) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(json)) {
+            parser.nextToken();
+            return new CaseFileDeserializer().deserialize(parser, null);
+        }
+    }
+}
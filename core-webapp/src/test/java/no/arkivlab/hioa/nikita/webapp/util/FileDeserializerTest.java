@@ -0,0 +1,100 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import nikita.model.noark5.v4.Comment;
+import nikita.model.noark5.v4.CrossReference;
+import nikita.model.noark5.v4.File;
+import nikita.util.NoarkDateCodec;
+import nikita.util.deserialisers.FileDeserializer;
+import nikita.util.exceptions.NikitaMalformedInputDataException;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that a mappe is read with its embedded merknad and kryssreferanse objects, and that what the core does
+ * not know or cannot read is refused.
+ */
+public class FileDeserializerTest {
+
+    @Test
+    public void fileIsReadWithCommentsAndCrossReferences() throws IOException {
+        File file = deserialise("{" +
+                "\"systemID\": \"7f000101-5b3d-4e8a-9c1f-0a1b2c3d4e5f\"," +
+                "\"mappeID\": \"2017/1\"," +
+                "\"Tittel\": \"File\"," +
+                "\"noekkelord\": [\"a\", \"b\"]," +
+                "\"kassasjon\": {\"kassasjonsvedtak\": \"Bevares\", \"bevaringstid\": 10}," +
+                "\"merknad\": [" +
+                "  {\"merknadstekst\": \"First\", \"merknadsdato\": \"2017-01-31\"}," +
+                "  {\"systemID\": \"7f000101-5b3d-4e8a-9c1f-0a1b2c3d4e60\", \"merknadstekst\": \"Second\"}" +
+                "]," +
+                "\"kryssreferanse\": {\"referanseTilMappe\": \"7f000101-5b3d-4e8a-9c1f-0a1b2c3d4e61\"}" +
+                "}");
+
+        assertEquals("7f000101-5b3d-4e8a-9c1f-0a1b2c3d4e5f", file.getSystemId());
+        assertEquals("2017/1", file.getFileId());
+        assertEquals("File", file.getTitle());
+        assertEquals(2, file.getReferenceKeyword().size());
+        assertEquals("Bevares", file.getReferenceDisposal().getDisposalDecision());
+        assertEquals(Integer.valueOf(10), file.getReferenceDisposal().getPreservationTime());
+
+        assertEquals(2, file.getReferenceComment().size());
+        for (Comment comment : file.getReferenceComment()) {
+            assertNotNull(comment.getSystemId());
+            if ("First".equals(comment.getCommentText())) {
+                assertEquals(NoarkDateCodec.parseDate("2017-01-31"), comment.getCommentDate());
+            } else {
+                assertEquals("7f000101-5b3d-4e8a-9c1f-0a1b2c3d4e60", comment.getSystemId());
+            }
+        }
+
+        assertEquals(1, file.getReferenceCrossReference().size());
+        CrossReference crossReference = file.getReferenceCrossReference().iterator().next();
+        assertEquals("7f000101-5b3d-4e8a-9c1f-0a1b2c3d4e61", crossReference.getReferenceToFile());
+        assertSame(file, crossReference.getReferenceFile());
+    }
+
+    @Test
+    public void unknownPropertiesAreRefused() throws IOException {
+        try {
+            deserialise("{\"mappeID\": \"2017/1\", \"tittel\": \"File\", \"colour\": \"red\"," +
+                    "\"merknad\": [{\"merknadstekst\": \"First\"}]}");
+            fail("Read a mappe with a property that is not a mappe property");
+        } catch (NikitaMalformedInputDataException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("[colour]"));
+        }
+    }
+
+    @Test
+    public void unknownPropertiesOfAnEmbeddedObjectAreRefused() throws IOException {
+        try {
+            deserialise("{\"mappeID\": \"2017/1\", \"tittel\": \"File\"," +
+                    "\"merknad\": [{\"merknadstekst\": \"First\", \"colour\": \"red\"}]}");
+            fail("Read a merknad with a property that is not a merknad property");
+        } catch (NikitaMalformedInputDataException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("merknad"));
+            assertTrue(e.getMessage(), e.getMessage().contains("[colour]"));
+        }
+    }
+
+    @Test(expected = NikitaMalformedInputDataException.class)
+    public void fileWithoutTitleIsRefused() throws IOException {
+        deserialise("{\"mappeID\": \"2017/1\"}");
+    }
+
+    @Test(expected = NikitaMalformedInputDataException.class)
+    public void objectWhereTextIsExpectedIsRefused() throws IOException {
+        deserialise("{\"mappeID\": \"2017/1\", \"tittel\": {\"nb\": \"File\"}}");
+    }
+
+    private static File deserialise(String json) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(json)) {
+            parser.nextToken();
+            return new FileDeserializer().deserialize(parser, null);
+        }
+    }
+}
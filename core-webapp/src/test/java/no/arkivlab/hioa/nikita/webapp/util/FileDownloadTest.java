@@ -0,0 +1,201 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.ContentAddressedStore;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.DirectorySyncer;
+import no.arkivlab.hioa.nikita.webapp.service.impl.storage.FileSystemStorageBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class FileDownloadTest {
+
+    private static final String REFERENCE = "ab/document";
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final String E_TAG = FileDownload.toETag("checksum");
+
+    private Path root;
+    private FileSystemStorageBackend backend;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("file-download");
+        Path incoming = root.resolve(ContentAddressedStore.INCOMING_DIRECTORY);
+        Files.createDirectories(incoming);
+        backend = new FileSystemStorageBackend(root, incoming, new DirectorySyncer(TimeUnit.MILLISECONDS.toNanos(1)));
+        Path file = Files.write(Files.createTempFile(incoming, null, null), CONTENT.getBytes(StandardCharsets.UTF_8));
+        backend.put(REFERENCE, file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void wholeFileWithoutRange() throws IOException {
+        MockHttpServletResponse response = download(request());
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(CONTENT.length(), response.getContentLength());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals(E_TAG, response.getHeader("ETag"));
+    }
+
+    @Test
+    public void singleRange() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=10-15");
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals("abcdef", response.getContentAsString());
+        assertEquals("bytes 10-15/36", response.getHeader("Content-Range"));
+        assertEquals(6, response.getContentLength());
+        assertEquals("text/plain", response.getContentType());
+    }
+
+    @Test
+    public void suffixRange() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=-3");
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals("xyz", response.getContentAsString());
+        assertEquals("bytes 33-35/36", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    public void severalRangesAreSentAsMultipart() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=30-,0-1,1-2");
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertNull(response.getHeader("Content-Range"));
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+
+        String expected = "\r\n--" + boundary + "\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Range: bytes 0-2/36\r\n\r\n" +
+                "012" +
+                "\r\n--" + boundary + "\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Range: bytes 30-35/36\r\n\r\n" +
+                "uvwxyz" +
+                "\r\n--" + boundary + "--\r\n";
+        assertEquals(expected, response.getContentAsString());
+        assertEquals(expected.length(), response.getContentLength());
+    }
+
+    @Test
+    public void unsatisfiableRangeGives416() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=36-");
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatus());
+        assertEquals("bytes */36", response.getHeader("Content-Range"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void malformedRangeSendsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=--5");
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    public void matchingIfRangeLetsTheRangeThrough() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", E_TAG);
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals("0123", response.getContentAsString());
+    }
+
+    @Test
+    public void staleIfRangeSendsTheWholeFile() throws IOException {
+        for (String ifRange : new String[]{"\"other\"", "W/" + E_TAG, "Sat, 17 Oct 2026 12:00:00 GMT"}) {
+            MockHttpServletRequest request = request();
+            request.addHeader("Range", "bytes=0-3");
+            request.addHeader("If-Range", ifRange);
+            MockHttpServletResponse response = download(request);
+            assertEquals(ifRange, HttpServletResponse.SC_OK, response.getStatus());
+            assertEquals(ifRange, CONTENT, response.getContentAsString());
+        }
+    }
+
+    @Test
+    public void ifRangeWithoutETagSendsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", E_TAG);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownload.write(request, response, backend, REFERENCE, "text/plain", null);
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    public void ifNoneMatchGives304() throws IOException {
+        for (String ifNoneMatch : new String[]{E_TAG, "W/" + E_TAG, "\"other\", " + E_TAG, "*"}) {
+            MockHttpServletRequest request = request();
+            request.addHeader("If-None-Match", ifNoneMatch);
+            request.addHeader("Range", "bytes=0-3");
+            MockHttpServletResponse response = download(request);
+            assertEquals(ifNoneMatch, HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+            assertEquals(ifNoneMatch, 0, response.getContentAsByteArray().length);
+        }
+    }
+
+    @Test
+    public void headSendsHeadersOnly() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/");
+        request.addHeader("Range", "bytes=0-3,10-13");
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertTrue(response.getContentLength() > 8);
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void sendfileIsLeftToTheContainer() throws IOException {
+        MockHttpServletRequest request = request();
+        request.setAttribute(FileDownload.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader("Range", "bytes=10-15");
+        MockHttpServletResponse response = download(request);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(backend.toLocalPath(REFERENCE).toAbsolutePath().toString(),
+                request.getAttribute(FileDownload.SENDFILE_FILENAME));
+        assertEquals(10L, request.getAttribute(FileDownload.SENDFILE_START));
+        assertEquals(16L, request.getAttribute(FileDownload.SENDFILE_END));
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/");
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownload.write(request, response, backend, REFERENCE, "text/plain", E_TAG);
+        return response;
+    }
+}
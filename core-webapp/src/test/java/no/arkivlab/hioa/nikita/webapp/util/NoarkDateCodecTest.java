@@ -0,0 +1,169 @@
+package no.arkivlab.hioa.nikita.webapp.util;
+
+import nikita.util.NoarkDateCodec;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the civil date arithmetic of NoarkDateCodec against java.time, by formatting and parsing instants around
+ * the epoch, leap days, the years 0 and 9999, negative years and the offset changes of zones with and without
+ * daylight saving time, offsets that are not whole hours and a day that was skipped.
+ * <p>
+ * NoarkDateCodec works in the default time zone it finds when its class is initialised, so it is loaded anew by a
+ * class loader of its own for every zone.
+ */
+public class NoarkDateCodecTest {
+
+    private static final String[] ZONES = {"UTC", "Europe/Oslo", "America/St_Johns", "Asia/Kathmandu",
+            "Pacific/Kiritimati", "Pacific/Apia"};
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("uuuu-MM-dd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+    private static final long MIN_SECOND = LocalDate.of(-1000, 1, 1).toEpochDay() * 86400;
+    private static final long MAX_SECOND = LocalDate.of(12000, 1, 1).toEpochDay() * 86400;
+
+    @Test
+    public void boundariesRoundTrip() throws Exception {
+        for (String zone : ZONES) {
+            Codec codec = new Codec(ZoneId.of(zone));
+            for (long epochSecond : boundaries(codec.zone)) {
+                codec.check(epochSecond * 1000);
+            }
+        }
+    }
+
+    @Test
+    public void randomInstantsRoundTrip() throws Exception {
+        Random random = new Random(20170131);
+        for (String zone : ZONES) {
+            Codec codec = new Codec(ZoneId.of(zone));
+            for (int i = 0; i < 100000; i++) {
+                long epochSecond = MIN_SECOND + (long) (random.nextDouble() * (MAX_SECOND - MIN_SECOND));
+                codec.check(epochSecond * 1000 + random.nextInt(1000));
+            }
+        }
+    }
+
+    @Test
+    public void valuesNotOfFixedWidthAreParsed() throws Exception {
+        Codec codec = new Codec(ZoneId.of("Europe/Oslo"));
+        assertEquals(codec.parse("parseDate", "2017-01-05"), codec.parse("parseDate", "2017-1-5"));
+        assertEquals(codec.parse("parseDate", "2017-01-05"), codec.parse("parseDate", "2017-01-05T13:45:00"));
+        assertEquals(codec.parse("parseDateTime", "2017-01-05T03:04:05"),
+                codec.parse("parseDateTime", "2017-1-5T3:4:5"));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void dayNotInTheMonthIsRefused() throws Throwable {
+        try {
+            new Codec(ZoneId.of("UTC")).parse("parseDate", "2017-02-29");
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The epoch, leap days, the first and last day of the years the codec handles digit by digit and those
+     * outside, and every offset change of the zone from 1900 to 2040, each with the seconds on either side.
+     */
+    private static List<Long> boundaries(ZoneId zone) {
+        List<LocalDateTime> localDateTimes = new ArrayList<>();
+        int[][] dates = {{1970, 1, 1}, {1969, 12, 31}, {1900, 2, 28}, {1900, 3, 1}, {2000, 2, 29}, {2000, 3, 1},
+                {2016, 2, 29}, {2100, 2, 28}, {2100, 3, 1}, {2400, 2, 29}, {0, 1, 1}, {0, 2, 29}, {-1, 12, 31},
+                {-4, 2, 29}, {-400, 3, 1}, {1, 1, 1}, {1582, 10, 15}, {9999, 12, 31}, {10000, 1, 1},
+                {2011, 12, 29}, {2011, 12, 31}};
+        for (int[] date : dates) {
+            localDateTimes.add(LocalDate.of(date[0], date[1], date[2]).atStartOfDay());
+            localDateTimes.add(LocalDate.of(date[0], date[1], date[2]).atTime(23, 59, 59));
+        }
+        List<Long> epochSeconds = new ArrayList<>();
+        for (LocalDateTime localDateTime : localDateTimes) {
+            epochSeconds.add(localDateTime.atZone(zone).toEpochSecond());
+        }
+        ZoneOffsetTransition transition = zone.getRules().nextTransition(Instant.parse("1900-01-01T00:00:00Z"));
+        while (transition != null && transition.getInstant().isBefore(Instant.parse("2040-01-01T00:00:00Z"))) {
+            epochSeconds.add(transition.toEpochSecond());
+            transition = zone.getRules().nextTransition(transition.getInstant());
+        }
+        List<Long> withNeighbours = new ArrayList<>();
+        for (long epochSecond : epochSeconds) {
+            withNeighbours.add(epochSecond - 1);
+            withNeighbours.add(epochSecond);
+            withNeighbours.add(epochSecond + 1);
+        }
+        return withNeighbours;
+    }
+
+    private static final class Codec {
+
+        private final ZoneId zone;
+        private final Class<?> codecClass;
+
+        Codec(ZoneId zone) throws Exception {
+            this.zone = zone;
+            URL classes = NoarkDateCodec.class.getProtectionDomain().getCodeSource().getLocation();
+            TimeZone defaultZone = TimeZone.getDefault();
+            TimeZone.setDefault(TimeZone.getTimeZone(zone));
+            try {
+                codecClass = Class.forName(NoarkDateCodec.class.getName(), true,
+                        new URLClassLoader(new URL[]{classes}, null));
+            } finally {
+                TimeZone.setDefault(defaultZone);
+            }
+        }
+
+        /**
+         * Check that the instant is formatted as java.time formats it in the zone, and that what is formatted is
+         * parsed back to the start of its second or day.
+         */
+        void check(long epochMilli) throws Exception {
+            Date date = new Date(epochMilli);
+            LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone);
+            String message = zone + " " + Instant.ofEpochMilli(epochMilli);
+
+            String dateTime = format("formatDateTime", date);
+            assertEquals(message, DATE_TIME.format(localDateTime), dateTime);
+            assertEquals(message, startOf(localDateTime.withNano(0)), parse("parseDateTime", dateTime));
+
+            String day = format("formatDate", date);
+            assertEquals(message, DATE.format(localDateTime), day);
+            assertEquals(message, startOf(localDateTime.toLocalDate().atStartOfDay()), parse("parseDate", day));
+        }
+
+        /**
+         * @return the instant a local date time is parsed to, with the later offset in the hour repeated when
+         * clocks are set back
+         */
+        private long startOf(LocalDateTime localDateTime) {
+            return ZonedDateTime.ofLocal(localDateTime, zone, null).withLaterOffsetAtOverlap().toInstant()
+                    .toEpochMilli();
+        }
+
+        String format(String method, Date date) throws Exception {
+            return (String) codecClass.getMethod(method, Date.class).invoke(null, date);
+        }
+
+        long parse(String method, String text) throws Exception {
+            Method parse = codecClass.getMethod(method, String.class);
+            return ((Date) parse.invoke(null, text)).getTime();
+        }
+    }
+}